@@ -0,0 +1,140 @@
+package world.bentobox.bentobox.api.flags;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.World.Environment;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.benchmarks.BukkitStubs;
+import world.bentobox.bentobox.database.objects.Island;
+import world.bentobox.bentobox.managers.FlagsManager;
+import world.bentobox.bentobox.managers.IslandWorldManager;
+import world.bentobox.bentobox.managers.IslandsManager;
+import world.bentobox.bentobox.managers.RanksManager;
+
+/**
+ * {@link FlagListener#checkIsland(Event, Player, Location, Flag, boolean)} for a protection flag on an island,
+ * with the decision cached and with the cache thrown away before every check
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlagListenerBenchmark {
+
+    /**
+     * Event being checked
+     */
+    public static class BenchmarkEvent extends Event implements Cancellable {
+        private static final HandlerList handlers = new HandlerList();
+        private boolean cancelled;
+
+        @Override
+        public HandlerList getHandlers() {
+            return handlers;
+        }
+
+        public static HandlerList getHandlerList() {
+            return handlers;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void setCancelled(boolean cancel) {
+            cancelled = cancel;
+        }
+    }
+
+    /**
+     * Rank of the player on the island. Members are allowed, visitors are not.
+     */
+    @Param({"member", "visitor"})
+    private String rank;
+
+    private FlagListener listener;
+    private FlagDecisionCache cache;
+    private Flag flag;
+    private Player player;
+    private Location location;
+    private BenchmarkEvent event;
+
+    @Setup
+    public void setUp() {
+        BentoBox plugin = BukkitStubs.plugin(null);
+        World world = BukkitStubs.world("bskyblock_world", Environment.NORMAL);
+        location = new Location(world, 10, 120, -20);
+
+        IslandWorldManager iwm = BukkitStubs.stubMock(IslandWorldManager.class);
+        when(iwm.inWorld(any(Location.class))).thenReturn(true);
+        when(iwm.getPermissionPrefix(any())).thenReturn("bskyblock.");
+        when(plugin.getIWM()).thenReturn(iwm);
+
+        cache = new FlagDecisionCache();
+        FlagsManager flagsManager = BukkitStubs.stubMock(FlagsManager.class);
+        when(flagsManager.getDecisionCache()).thenReturn(cache);
+        when(plugin.getFlagsManager()).thenReturn(flagsManager);
+
+        flag = new Flag.Builder("BENCHMARK_BREAK_BLOCKS", Material.STONE).type(Flag.Type.PROTECTION)
+                .defaultRank(RanksManager.MEMBER_RANK).build();
+        flag.setOrdinal(0);
+
+        UUID uuid = UUID.randomUUID();
+        player = BukkitStubs.player(uuid, "tastybento", location);
+        Island island = new Island();
+        island.setUniqueId(UUID.randomUUID().toString());
+        island.setCenter(new Location(world, 0, 120, 0));
+        island.setRange(200);
+        island.setProtectionRange(100);
+        island.setOwner(UUID.randomUUID());
+        if (rank.equals("member")) {
+            island.setRank(uuid, RanksManager.MEMBER_RANK);
+        }
+        IslandsManager islands = BukkitStubs.stubMock(IslandsManager.class);
+        when(islands.getProtectedIslandAt(any())).thenReturn(Optional.of(island));
+        when(plugin.getIslands()).thenReturn(islands);
+
+        listener = new FlagListener() {};
+        listener.setPlugin(plugin);
+        event = new BenchmarkEvent();
+    }
+
+    @Benchmark
+    public boolean cached() {
+        return listener.checkIsland(event, player, location, flag, true);
+    }
+
+    @Benchmark
+    public boolean notCached() {
+        cache.permissionsChanged();
+        return listener.checkIsland(event, player, location, flag, true);
+    }
+}
@@ -0,0 +1,106 @@
+package world.bentobox.bentobox.api.user;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.World.Environment;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.Settings;
+import world.bentobox.bentobox.benchmarks.BukkitStubs;
+import world.bentobox.bentobox.managers.IslandWorldManager;
+import world.bentobox.bentobox.managers.LocalesManager;
+import world.bentobox.bentobox.managers.PlaceholdersManager;
+import world.bentobox.bentobox.managers.PlayersManager;
+
+/**
+ * {@link User#getTranslation(String, String...)} with the locale files that ship with BentoBox
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TranslateBenchmark {
+
+    private static final String[] LOCALES = {"en-US", "zh-CN", "fr"};
+
+    /**
+     * Locale of the player. The server's locale is zh-CN, the default.
+     */
+    @Param({"en-US", "zh-CN", "fr"})
+    private String locale;
+
+    private User user;
+
+    @Setup
+    public void setUp() throws IOException {
+        Path dataFolder = Files.createTempDirectory("bentobox-jmh");
+        Path localeFolder = Files.createDirectories(dataFolder.resolve("locales").resolve("BentoBox"));
+        for (String tag : LOCALES) {
+            try (InputStream in = TranslateBenchmark.class.getResourceAsStream("/locales/" + tag + ".yml")) {
+                Files.copy(in, localeFolder.resolve(tag + ".yml"));
+            }
+        }
+        BentoBox plugin = BukkitStubs.plugin(dataFolder.toFile());
+        when(plugin.getSettings()).thenReturn(new Settings());
+        PlayersManager players = BukkitStubs.stubMock(PlayersManager.class);
+        when(players.getLocale(any())).thenReturn(locale);
+        when(plugin.getPlayers()).thenReturn(players);
+        PlaceholdersManager placeholders = BukkitStubs.stubMock(PlaceholdersManager.class);
+        when(placeholders.replacePlaceholders(any(), anyString())).thenAnswer(a -> a.getArgument(1));
+        when(plugin.getPlaceholdersManager()).thenReturn(placeholders);
+        IslandWorldManager iwm = BukkitStubs.stubMock(IslandWorldManager.class);
+        when(iwm.getFriendlyName(any())).thenReturn("BSkyBlock");
+        when(plugin.getIWM()).thenReturn(iwm);
+        LocalesManager localesManager = new LocalesManager(plugin);
+        when(plugin.getLocalesManager()).thenReturn(localesManager);
+
+        World world = BukkitStubs.world("bskyblock_world", Environment.NORMAL);
+        Player player = BukkitStubs.player(UUID.randomUUID(), "tastybento", new Location(world, 0, 120, 0));
+        user = User.getInstance(player);
+    }
+
+    @Benchmark
+    public String plain() {
+        return user.getTranslation("commands.help.end");
+    }
+
+    @Benchmark
+    public String variables() {
+        return user.getTranslation("commands.help.syntax", "[usage]", "/island go", "[parameters]", "<home number>", "[description]", "teleport you to your island");
+    }
+
+    @Benchmark
+    public String prefix() {
+        return user.getTranslation("commands.bentobox.reload.locales-reloaded");
+    }
+
+    @Benchmark
+    public String missing() {
+        return user.getTranslation("commands.no.such.reference");
+    }
+}
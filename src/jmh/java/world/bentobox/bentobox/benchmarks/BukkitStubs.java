@@ -0,0 +1,217 @@
+package world.bentobox.bentobox.benchmarks;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.World.Environment;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.api.user.User;
+import world.bentobox.bentobox.util.Util;
+
+/**
+ * Lightweight stand-ins for the Bukkit objects used by the benchmarks, so they run without a server.
+ * <p>
+ * Worlds, players and the server are {@link Proxy} objects that answer only the methods the benchmarked code calls.
+ * Everything else returns null, zero, false or an empty collection.
+ * BentoBox and its managers are stub-only Mockito mocks, which do not record their calls.
+ */
+public final class BukkitStubs {
+
+    private static final Map<Class<?>, Object> PRIMITIVES = new HashMap<>();
+    static {
+        PRIMITIVES.put(boolean.class, false);
+        PRIMITIVES.put(byte.class, (byte)0);
+        PRIMITIVES.put(short.class, (short)0);
+        PRIMITIVES.put(char.class, '\0');
+        PRIMITIVES.put(int.class, 0);
+        PRIMITIVES.put(long.class, 0L);
+        PRIMITIVES.put(float.class, 0F);
+        PRIMITIVES.put(double.class, 0D);
+    }
+    private static final Map<String, World> WORLDS = new HashMap<>();
+    private static Server server;
+
+    private BukkitStubs() {}
+
+    /**
+     * Makes an object of this interface that answers some methods by name
+     * @param type - interface
+     * @param answers - method name -> answer, given the arguments
+     * @return stub
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(BukkitStubs.class.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer != null) {
+                return answer.apply(args);
+            }
+            switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return type.getSimpleName() + "Stub";
+            default:
+                return defaultValue(method.getReturnType());
+            }
+        });
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type.isPrimitive()) {
+            return PRIMITIVES.get(type);
+        } else if (List.class.isAssignableFrom(type)) {
+            return Collections.emptyList();
+        } else if (Set.class.isAssignableFrom(type)) {
+            return Collections.emptySet();
+        } else if (Map.class.isAssignableFrom(type)) {
+            return Collections.emptyMap();
+        } else if (type == Optional.class) {
+            return Optional.empty();
+        }
+        return null;
+    }
+
+    /**
+     * Gets a world stub. Worlds are made once per name and can be found with {@link Bukkit#getWorld(String)}.
+     * @param name - world name
+     * @param environment - environment
+     * @return world
+     */
+    public static synchronized World world(String name, Environment environment) {
+        return WORLDS.computeIfAbsent(name, n -> {
+            UUID uid = UUID.nameUUIDFromBytes(n.getBytes());
+            Map<String, Function<Object[], Object>> answers = new HashMap<>();
+            answers.put("getName", a -> n);
+            answers.put("getUID", a -> uid);
+            answers.put("getEnvironment", a -> environment);
+            answers.put("getMaxHeight", a -> 256);
+            return stub(World.class, answers);
+        });
+    }
+
+    /**
+     * Makes a player stub that has no permissions and is not op
+     * @param uuid - player's UUID
+     * @param name - player's name
+     * @param location - where the player is
+     * @return player
+     */
+    public static Player player(UUID uuid, String name, Location location) {
+        Map<String, Function<Object[], Object>> answers = new HashMap<>();
+        answers.put("getUniqueId", a -> uuid);
+        answers.put("getName", a -> name);
+        answers.put("getDisplayName", a -> name);
+        answers.put("getLocation", a -> location);
+        answers.put("getWorld", a -> location.getWorld());
+        answers.put("isOnline", a -> true);
+        answers.put("getLocale", a -> "en_us");
+        return stub(Player.class, answers);
+    }
+
+    /**
+     * Block data stub for this block data string
+     * @param data - block data string
+     * @return block data
+     */
+    public static BlockData blockData(String data) {
+        Map<String, Function<Object[], Object>> answers = new HashMap<>();
+        answers.put("getAsString", a -> data);
+        answers.put("clone", a -> blockData(data));
+        return stub(BlockData.class, answers);
+    }
+
+    /**
+     * Sets a server stub into {@link Bukkit}, once. The server knows the worlds made by {@link #world(String, Environment)}
+     * and makes block data from strings that start with {@code minecraft:}. Block data of blocks that were renamed
+     * in 1.14, such as {@code minecraft:sign}, is rejected as it is by a real server.
+     */
+    public static synchronized void server() {
+        if (server != null) {
+            return;
+        }
+        Map<String, Function<Object[], Object>> answers = new HashMap<>();
+        answers.put("getLogger", a -> Logger.getLogger("BentoBoxBenchmarks"));
+        answers.put("getName", a -> "Stub");
+        answers.put("getVersion", a -> "Stub");
+        answers.put("getBukkitVersion", a -> "1.16.1-R0.1-SNAPSHOT");
+        answers.put("getWorld", a -> a[0] instanceof String ? WORLDS.get(a[0]) : null);
+        answers.put("getWorlds", a -> new ArrayList<>(WORLDS.values()));
+        answers.put("getOnlinePlayers", a -> Collections.emptyList());
+        answers.put("createBlockData", a -> {
+            String data = a[0] instanceof String ? (String)a[0] : "minecraft:" + a[0].toString().toLowerCase();
+            if (!data.startsWith("minecraft:") || data.startsWith("minecraft:sign") || data.startsWith("minecraft:wall_sign")) {
+                throw new IllegalArgumentException("Could not parse data: " + data);
+            }
+            return blockData(data);
+        });
+        server = stub(Server.class, answers);
+        Bukkit.setServer(server);
+    }
+
+    /**
+     * Makes a BentoBox mock and makes it the BentoBox instance. Its managers are not set.
+     * @param dataFolder - data folder of the plugin
+     * @return BentoBox
+     */
+    public static BentoBox plugin(File dataFolder) {
+        BentoBox plugin = mock(BentoBox.class, withSettings().stubOnly());
+        // The final methods of JavaPlugin read these fields
+        setField(JavaPlugin.class, plugin, "dataFolder", dataFolder);
+        setField(JavaPlugin.class, plugin, "isEnabled", true);
+        setField(BentoBox.class, null, "instance", plugin);
+        User.setPlugin(plugin);
+        Util.setPlugin(plugin);
+        return plugin;
+    }
+
+    /**
+     * Makes a stub-only mock
+     * @param type - class
+     * @return mock
+     */
+    public static <T> T stubMock(Class<T> type) {
+        return mock(type, withSettings().stubOnly());
+    }
+
+    /**
+     * Sets a field, which may be private or static
+     * @param type - class that declares the field
+     * @param target - object, or null for a static field
+     * @param name - field name
+     * @param value - value
+     */
+    public static void setField(Class<?> type, Object target, String name, Object value) {
+        try {
+            Field field = type.getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not set " + type.getSimpleName() + "." + name, e);
+        }
+    }
+}
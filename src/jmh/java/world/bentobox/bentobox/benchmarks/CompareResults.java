@@ -0,0 +1,104 @@
+package world.bentobox.bentobox.benchmarks;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Compares two JMH JSON result files, such as the baseline in {@code src/jmh/baseline.json}
+ * and the result of a new run. Prints the score of each benchmark in both files and the change.
+ * <p>
+ * Usage: {@code CompareResults <baseline.json> <result.json>}
+ */
+public final class CompareResults {
+
+    private static final class Score {
+        private final double score;
+        private final double error;
+        private final String unit;
+
+        private Score(double score, double error, String unit) {
+            this.score = score;
+            this.error = error;
+            this.unit = unit;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.3f ± %.3f %s", score, error, unit);
+        }
+    }
+
+    private CompareResults() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: CompareResults <baseline.json> <result.json>");
+            System.exit(1);
+        }
+        Path baselineFile = Paths.get(args[0]);
+        Map<String, Score> baseline = Files.exists(baselineFile) ? read(baselineFile) : new LinkedHashMap<>();
+        if (baseline.isEmpty()) {
+            // Nothing to compare with
+            System.err.println("No baseline has been recorded in " + args[0] + ". Record one with -Djmh.result=" + args[0]);
+            System.exit(1);
+        }
+        Map<String, Score> result = read(Paths.get(args[1]));
+        System.out.println(String.format("%-90s %28s %28s %9s", "Benchmark", "Baseline", "Result", "Change"));
+        Map<String, Score> all = new TreeMap<>(baseline);
+        result.forEach(all::putIfAbsent);
+        for (String name : all.keySet()) {
+            Score before = baseline.get(name);
+            Score after = result.get(name);
+            String change = "";
+            if (before != null && after != null && before.unit.equals(after.unit) && before.score != 0D) {
+                change = String.format("%+.1f%%", (after.score - before.score) / before.score * 100D);
+            }
+            System.out.println(String.format("%-90s %28s %28s %9s", name,
+                    before == null ? "-" : before, after == null ? "-" : after, change));
+        }
+    }
+
+    /**
+     * Reads a JMH JSON result file
+     * @param file - file
+     * @return benchmark name with its parameters -> score, in the order of the file
+     * @throws IOException if the file cannot be read
+     */
+    private static Map<String, Score> read(Path file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        JsonElement json;
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            json = new JsonParser().parse(reader);
+        }
+        if (!json.isJsonArray()) {
+            return scores;
+        }
+        JsonArray results = json.getAsJsonArray();
+        for (JsonElement element : results) {
+            JsonObject run = element.getAsJsonObject();
+            StringBuilder name = new StringBuilder(run.get("benchmark").getAsString()
+                    .replace("world.bentobox.bentobox.", ""));
+            if (run.has("params")) {
+                run.getAsJsonObject("params").entrySet()
+                .forEach(e -> name.append(' ').append(e.getKey()).append('=').append(e.getValue().getAsString()));
+            }
+            JsonObject metric = run.getAsJsonObject("primaryMetric");
+            double error = metric.get("scoreError").isJsonPrimitive() && metric.get("scoreError").getAsJsonPrimitive().isNumber()
+                    ? metric.get("scoreError").getAsDouble() : Double.NaN;
+            scores.put(name.toString(), new Score(metric.get("score").getAsDouble(), error, metric.get("scoreUnit").getAsString()));
+        }
+        return scores;
+    }
+}
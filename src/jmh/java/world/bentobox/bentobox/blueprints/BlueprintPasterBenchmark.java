@@ -0,0 +1,105 @@
+package world.bentobox.bentobox.blueprints;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.World.Environment;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.util.Vector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.benchmarks.BukkitStubs;
+import world.bentobox.bentobox.blueprints.dataobjects.BlueprintBlock;
+import world.bentobox.bentobox.database.objects.Island;
+
+/**
+ * Conversion of every block of a blueprint to block data, as done by {@link BlueprintPaster} during a paste.
+ * Each operation is one paste, so the block data strings of the blueprint are parsed again.
+ * <p>
+ * The server stub parses block data for almost nothing, so this measures BentoBox's part of the work.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlueprintPasterBenchmark {
+
+    /**
+     * Block data found in island blueprints. The signs are in the pre-1.14 format and have to be converted.
+     */
+    private static final String[] BLOCK_DATA = {
+            "minecraft:grass_block[snowy=false]", "minecraft:dirt", "minecraft:stone", "minecraft:sand",
+            "minecraft:oak_log[axis=y]", "minecraft:oak_leaves[distance=1,persistent=true]",
+            "minecraft:oak_leaves[distance=2,persistent=true]", "minecraft:water[level=0]", "minecraft:bedrock",
+            "minecraft:chest[facing=north,type=single,waterlogged=false]", "minecraft:cobblestone",
+            "minecraft:oak_planks", "minecraft:torch", "minecraft:grass", "minecraft:dandelion",
+            "minecraft:sign[rotation=0,waterlogged=false]", "minecraft:wall_sign[facing=north,waterlogged=false]"
+    };
+
+    /**
+     * Blocks in the blueprint
+     */
+    @Param({"1000", "10000"})
+    private int blocks;
+
+    private MethodHandle getBlockData;
+    private BentoBox plugin;
+    private Blueprint blueprint;
+    private World world;
+    private Island island;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        BukkitStubs.server();
+        plugin = BukkitStubs.plugin(null);
+        world = BukkitStubs.world("bskyblock_world", Environment.NORMAL);
+        island = new Island();
+        island.setUniqueId(UUID.randomUUID().toString());
+        island.setCenter(new Location(world, 0, 120, 0));
+
+        Random random = new Random(1234L);
+        Map<Vector, BlueprintBlock> map = new HashMap<>();
+        int side = (int)Math.ceil(Math.cbrt(blocks));
+        for (int i = 0; i < blocks; i++) {
+            // Mostly common blocks, a few rare ones
+            String data = BLOCK_DATA[Math.min(random.nextInt(BLOCK_DATA.length * 2), random.nextInt(BLOCK_DATA.length))];
+            map.put(new Vector(i % side, i / side / side, i / side % side), new BlueprintBlock(data));
+        }
+        blueprint = new Blueprint().setName("benchmark");
+        blueprint.setBlocks(map);
+
+        Method method = BlueprintPaster.class.getDeclaredMethod("getBlockData", World.class, BlueprintBlock.class);
+        method.setAccessible(true);
+        getBlockData = MethodHandles.lookup().unreflect(method);
+    }
+
+    @Benchmark
+    public void convert(Blackhole blackhole) throws Throwable {
+        BlueprintPaster paster = new BlueprintPaster(plugin, blueprint, world, island);
+        for (BlueprintBlock block : blueprint.getBlocks().values()) {
+            blackhole.consume((BlockData)getBlockData.invoke(paster, world, block));
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package world.bentobox.bentobox.database.json;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.World.Environment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+
+import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.api.flags.Flag;
+import world.bentobox.bentobox.api.logs.LogEntry;
+import world.bentobox.bentobox.benchmarks.BukkitStubs;
+import world.bentobox.bentobox.database.objects.Island;
+import world.bentobox.bentobox.managers.FlagsManager;
+import world.bentobox.bentobox.managers.RanksManager;
+
+/**
+ * Gson serialization of an {@link Island} with a team, flags and history,
+ * using the same Gson settings as {@link AbstractJSONDatabaseHandler}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IslandSerializationBenchmark {
+
+    private static final int FLAGS = 60;
+    private static final int MEMBERS = 8;
+    private static final int HISTORY = 20;
+
+    /**
+     * The compact-json setting
+     */
+    @Param({"false", "true"})
+    private boolean compact;
+
+    private Gson gson;
+    private Island island;
+    private JsonElement tree;
+    private String json;
+
+    @Setup
+    public void setUp() {
+        BukkitStubs.server();
+        BentoBox plugin = BukkitStubs.plugin(null);
+        World world = BukkitStubs.world("bskyblock_world", Environment.NORMAL);
+
+        Map<String, Flag> flags = new HashMap<>();
+        for (int i = 0; i < FLAGS; i++) {
+            Flag flag = new Flag.Builder("BENCHMARK_FLAG_" + i, Material.STONE)
+                    .type(i % 3 == 0 ? Flag.Type.SETTING : Flag.Type.PROTECTION).build();
+            flag.setOrdinal(i);
+            flags.put(flag.getID(), flag);
+        }
+        FlagsManager flagsManager = BukkitStubs.stubMock(FlagsManager.class);
+        when(flagsManager.getFlag(anyString())).thenAnswer(a -> Optional.ofNullable(flags.get(a.<String>getArgument(0))));
+        when(plugin.getFlagsManager()).thenReturn(flagsManager);
+
+        island = new Island();
+        island.setUniqueId(UUID.randomUUID().toString());
+        island.setCenter(new Location(world, 1200, 120, -800));
+        island.setRange(200);
+        island.setProtectionRange(100);
+        island.setGameMode("BSkyBlock");
+        island.setName("Benchmark island");
+        island.setOwner(UUID.randomUUID());
+        for (int i = 0; i < MEMBERS; i++) {
+            island.setRank(UUID.randomUUID(), RanksManager.MEMBER_RANK);
+        }
+        for (Flag flag : flags.values()) {
+            island.setFlag(flag, flag.getOrdinal() % 2 == 0 ? RanksManager.MEMBER_RANK : RanksManager.VISITOR_RANK);
+        }
+        for (int i = 0; i < HISTORY; i++) {
+            island.log(new LogEntry.Builder("JOINED").data("player", UUID.randomUUID().toString()).build());
+        }
+
+        GsonBuilder builder = new GsonBuilder().excludeFieldsWithoutExposeAnnotation().enableComplexMapKeySerialization();
+        if (!compact) {
+            builder.setPrettyPrinting();
+        }
+        builder.registerTypeAdapterFactory(new BentoboxTypeAdapterFactory(plugin));
+        builder.disableHtmlEscaping();
+        gson = builder.create();
+        tree = gson.toJsonTree(island);
+        json = gson.toJson(island);
+    }
+
+    @Benchmark
+    public String toJson() {
+        return gson.toJson(island);
+    }
+
+    /**
+     * The part of a save with async-json-text that is still done on the main thread
+     */
+    @Benchmark
+    public JsonElement toJsonTree() {
+        return gson.toJsonTree(island);
+    }
+
+    /**
+     * The part of a save with async-json-text that is done by the database writer
+     */
+    @Benchmark
+    public String treeToJson() {
+        return gson.toJson(tree);
+    }
+
+    @Benchmark
+    public Island fromJson() {
+        return gson.fromJson(json, Island.class);
+    }
+}
@@ -0,0 +1,104 @@
+package world.bentobox.bentobox.managers;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.Location;
+import org.bukkit.World.Environment;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.Settings;
+import world.bentobox.bentobox.api.user.User;
+import world.bentobox.bentobox.benchmarks.BukkitStubs;
+
+/**
+ * One million {@link LocalesManager#get(User, String)} lookups for a user in each locale.
+ * The references are every text in en-US, so some are found in the user's locale and the rest fall back
+ * to the server's locale (zh-CN) and en-US.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocalesManagerBenchmark {
+
+    private static final String[] LOCALES = {"en-US", "zh-CN", "fr"};
+    private static final int LOOKUPS = 1_000_000;
+
+    @Param({"en-US", "zh-CN", "fr"})
+    private String locale;
+
+    private LocalesManager localesManager;
+    private User user;
+    private String[] references;
+
+    @Setup
+    public void setUp() throws IOException {
+        Path dataFolder = Files.createTempDirectory("bentobox-jmh");
+        Path localeFolder = Files.createDirectories(dataFolder.resolve("locales").resolve("BentoBox"));
+        for (String tag : LOCALES) {
+            try (InputStream in = LocalesManagerBenchmark.class.getResourceAsStream("/locales/" + tag + ".yml")) {
+                Files.copy(in, localeFolder.resolve(tag + ".yml"));
+            }
+        }
+        BentoBox plugin = BukkitStubs.plugin(dataFolder.toFile());
+        when(plugin.getSettings()).thenReturn(new Settings());
+        PlayersManager players = BukkitStubs.stubMock(PlayersManager.class);
+        when(players.getLocale(any())).thenReturn(locale);
+        when(plugin.getPlayers()).thenReturn(players);
+        localesManager = new LocalesManager(plugin);
+        when(plugin.getLocalesManager()).thenReturn(localesManager);
+        user = User.getInstance(BukkitStubs.player(UUID.randomUUID(), "tastybento",
+                new Location(BukkitStubs.world("bskyblock_world", Environment.NORMAL), 0, 120, 0)));
+
+        // Every text in en-US
+        List<String> list = new ArrayList<>();
+        try (InputStreamReader in = new InputStreamReader(LocalesManagerBenchmark.class.getResourceAsStream("/locales/en-US.yml"), StandardCharsets.UTF_8)) {
+            YamlConfiguration config = YamlConfiguration.loadConfiguration(in);
+            for (String key : config.getKeys(true)) {
+                if (config.isString(key)) {
+                    list.add(key);
+                }
+            }
+        }
+        references = list.toArray(new String[0]);
+    }
+
+    /**
+     * Scores are per lookup
+     */
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public void lookups(Blackhole blackhole) {
+        for (int i = 0; i < LOOKUPS; i++) {
+            blackhole.consume(localesManager.get(user, references[i % references.length]));
+        }
+    }
+}
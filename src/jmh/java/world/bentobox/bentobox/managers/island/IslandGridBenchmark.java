@@ -0,0 +1,80 @@
+package world.bentobox.bentobox.managers.island;
+
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.World.Environment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import world.bentobox.bentobox.benchmarks.BukkitStubs;
+import world.bentobox.bentobox.database.objects.Island;
+
+/**
+ * {@link IslandGrid#getIslandAt(int, int)} on a full square of islands, for both kinds of grid
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IslandGridBenchmark {
+
+    private static final int DISTANCE = 400;
+    private static final int QUERIES = 4096;
+
+    @Param({"cell", "tree"})
+    private String grid;
+
+    @Param({"1000", "100000"})
+    private int islands;
+
+    private IslandGrid index;
+    private final int[] xs = new int[QUERIES];
+    private final int[] zs = new int[QUERIES];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        BukkitStubs.plugin(null);
+        World world = BukkitStubs.world("bskyblock_world", Environment.NORMAL);
+        index = grid.equals("cell") ? new CellIslandGrid() : new TreeIslandGrid();
+        int side = (int)Math.ceil(Math.sqrt(islands));
+        int start = -side / 2;
+        for (int i = 0; i < islands; i++) {
+            Island island = new Island();
+            island.setUniqueId(UUID.randomUUID().toString());
+            island.setCenter(new Location(world, (start + i % side) * DISTANCE, 120, (start + i / side) * DISTANCE));
+            island.setRange(DISTANCE / 2);
+            island.setProtectionRange(DISTANCE / 4);
+            index.addToGrid(island);
+        }
+        // Points inside and just outside the islands
+        Random random = new Random(1234L);
+        int size = side * DISTANCE;
+        int min = start * DISTANCE - DISTANCE;
+        for (int i = 0; i < QUERIES; i++) {
+            xs[i] = min + random.nextInt(size + DISTANCE * 2);
+            zs[i] = min + random.nextInt(size + DISTANCE * 2);
+        }
+    }
+
+    @Benchmark
+    public Island getIslandAt() {
+        int i = next++ & (QUERIES - 1);
+        return index.getIslandAt(xs[i], zs[i]);
+    }
+}
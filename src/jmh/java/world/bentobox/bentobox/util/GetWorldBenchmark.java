@@ -0,0 +1,74 @@
+package world.bentobox.bentobox.util;
+
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.World;
+import org.bukkit.World.Environment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.benchmarks.BukkitStubs;
+import world.bentobox.bentobox.managers.IslandWorldManager;
+
+/**
+ * {@link Util#getWorld(World)} for an overworld, nether and end.
+ * The worlds are found through the {@link WorldRegistry}, or by name as they were before it existed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GetWorldBenchmark {
+
+    @Param({"registry", "names"})
+    private String lookup;
+
+    private World overWorld;
+    private World nether;
+    private World end;
+
+    @Setup
+    public void setUp() {
+        BukkitStubs.server();
+        BentoBox plugin = BukkitStubs.plugin(null);
+        overWorld = BukkitStubs.world("bskyblock_world", Environment.NORMAL);
+        nether = BukkitStubs.world("bskyblock_world_nether", Environment.NETHER);
+        end = BukkitStubs.world("bskyblock_world_the_end", Environment.THE_END);
+        IslandWorldManager iwm = BukkitStubs.stubMock(IslandWorldManager.class);
+        if (lookup.equals("registry")) {
+            WorldRegistry registry = new WorldRegistry();
+            registry.register(overWorld, nether, end);
+            when(iwm.getWorldRegistry()).thenReturn(registry);
+        }
+        when(plugin.getIWM()).thenReturn(iwm);
+    }
+
+    @Benchmark
+    public World overWorld() {
+        return Util.getWorld(overWorld);
+    }
+
+    @Benchmark
+    public World nether() {
+        return Util.getWorld(nether);
+    }
+
+    @Benchmark
+    public World end() {
+        return Util.getWorld(end);
+    }
+}
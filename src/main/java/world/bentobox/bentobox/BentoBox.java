@@ -20,6 +20,7 @@ import world.bentobox.bentobox.api.user.Notifier;
 import world.bentobox.bentobox.api.user.User;
 import world.bentobox.bentobox.commands.BentoBoxCommand;
 import world.bentobox.bentobox.database.DatabaseSetup;
+import world.bentobox.bentobox.database.DatabaseWriteQueue;
 import world.bentobox.bentobox.hooks.DynmapHook;
 import world.bentobox.bentobox.hooks.MultiverseCoreHook;
 import world.bentobox.bentobox.hooks.VaultHook;
@@ -93,6 +94,8 @@ public class BentoBox extends JavaPlugin {
 
     private boolean shutdown;
 
+    private final DatabaseWriteQueue databaseWriteQueue = new DatabaseWriteQueue(this);
+
     @Override
     public void onEnable(){
         if (!ServerCompatibility.getInstance().checkCompatibility().isCanLaunch()) {
@@ -274,9 +277,15 @@ public class BentoBox extends JavaPlugin {
         manager.registerEvents(new BannedCommands(this), this);
         // Death counter
         manager.registerEvents(new DeathListener(this), this);
+        // Forget unloaded worlds
+        manager.registerEvents(islandWorldManager.getWorldRegistry(), this);
         // Island Delete Manager
         islandDeletionManager = new IslandDeletionManager(this);
         manager.registerEvents(islandDeletionManager, this);
+        // New island locations
+        manager.registerEvents(islandsManager.getSlotAllocator(), this);
+        // Placeholder values
+        manager.registerEvents(placeholdersManager.getPlaceholderCache(), this);
     }
 
     @Override
@@ -291,8 +300,12 @@ public class BentoBox extends JavaPlugin {
         if (islandsManager != null) {
             islandsManager.shutdown();
         }
+        if (headGetter != null) {
+            headGetter.shutdown();
+        }
         // Close all async database tasks
         shutdown = true;
+        databaseWriteQueue.shutdown();
     }
 
     /**
@@ -524,4 +537,12 @@ public class BentoBox extends JavaPlugin {
     public boolean isShutdown() {
         return shutdown;
     }
+
+    /**
+     * @return the queue that writes database objects
+     * @since 1.15.0
+     */
+    public DatabaseWriteQueue getDatabaseWriteQueue() {
+        return databaseWriteQueue;
+    }
 }
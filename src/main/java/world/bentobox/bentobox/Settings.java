@@ -112,6 +112,34 @@ public class Settings implements ConfigObject {
     @ConfigEntry(path = "general.database.mongodb-connection-uri", since = "1.14.0")
     private String mongodbConnectionUri = "";
 
+    @ConfigComment("每次写入数据库的最大对象数量.")
+    @ConfigComment("在写入之前被多次保存的对象只会写入最新的数据.")
+    @ConfigComment("SQL 和 MongoDB 数据库会将每批对象合并为一次请求.")
+    @ConfigEntry(path = "general.database.write-batch-size", since = "1.15.0")
+    private int databaseWriteBatchSize = 100;
+
+    @ConfigComment("MariaDB, MySQL 和 PostgreSQL 数据库同时打开的最大连接数.")
+    @ConfigComment("SQLite 始终只使用一个连接.")
+    @ConfigEntry(path = "general.database.max-connections", since = "1.15.0")
+    private int databaseMaxConnections = 4;
+
+    @ConfigComment("是否以紧凑格式 (无缩进和换行) 存储 JSON 数据.")
+    @ConfigComment("这会减小文件大小并加快保存速度, 但文件会更难阅读.")
+    @ConfigEntry(path = "general.database.compact-json", since = "1.15.0")
+    private boolean databaseCompactJson = false;
+
+    @ConfigComment("JSON 数据库是否在后台线程中把 JSON 树转换为文本.")
+    @ConfigComment("对象仍在主线程中被复制为 JSON 树, 这是序列化的主要开销, 所以保存在主线程上的开销基本不变.")
+    @ConfigComment("只有树到文本的转换 (包括缩进) 在后台进行.")
+    @ConfigEntry(path = "general.database.async-json-text", since = "1.15.0")
+    private boolean databaseAsyncJsonText = false;
+
+    @ConfigComment("玩家登录前在后台预加载其数据的最长等待时间 (毫秒).")
+    @ConfigComment("超时后, 玩家数据将在玩家进入服务器时加载.")
+    @ConfigComment("设为 0 将禁用预加载.")
+    @ConfigEntry(path = "general.database.preload-timeout", since = "1.15.0")
+    private long databasePreloadTimeout = 3000;
+
     @ConfigComment("允许 FTB(https://www.feed-the-beast.com/ 一个 MOD) 模组的自激活仪器(Autonomous Activator)工作 (将会允许虚拟玩家 [CoFH] 放置和破坏方块并拾取物品)")
     @ConfigComment("如果需要的话，在这里添加更多虚拟玩家的名字")
     @ConfigEntry(path = "general.fakeplayers", experimental = true)
@@ -132,6 +160,16 @@ public class Settings implements ConfigObject {
     @ConfigEntry(path = "panel.head-cache-time", since = "1.14.1")
     private long playerHeadCacheTime = 60;
 
+    @ConfigComment("同时向 Mojang 请求皮肤数据的最大线程数.")
+    @ConfigEntry(path = "panel.head-request-threads", since = "1.15.0")
+    private int headRequestThreads = 2;
+
+    @ConfigComment("每秒最多向 Mojang 发送多少次皮肤数据请求.")
+    @ConfigComment("一次请求可以获取最多 10 个玩家的 UUID.")
+    @ConfigComment("请求过多时 Mojang 会暂时拒绝请求.")
+    @ConfigEntry(path = "panel.head-requests-per-second", since = "1.15.0")
+    private int headRequestsPerSecond = 2;
+
     /*
      * Logs
      */
@@ -225,6 +263,12 @@ public class Settings implements ConfigObject {
     @ConfigEntry(path = "island.paste-speed")
     private int pasteSpeed = 64;
 
+    @ConfigComment("每 tick 用于粘贴蓝图的最长时间(毫秒).")
+    @ConfigComment("蓝图会逐个区块粘贴, 每 tick 粘贴尽可能多的方块, 直到用完这段时间.")
+    @ConfigComment("设为 0 将改为每 tick 粘贴 paste-speed 个方块.")
+    @ConfigEntry(path = "island.paste-time-budget", since = "1.15.0")
+    private int pasteTimeBudget = 5;
+
     @ConfigComment("删除岛屿的速度(多少区块/tick/世界).")
     @ConfigComment("末地和下界的速度是这个的 3 倍")
     @ConfigComment("值越小，对服务器的影响越小，但是粘贴时间会加长.")
@@ -232,6 +276,35 @@ public class Settings implements ConfigObject {
     @ConfigEntry(path = "island.delete-speed", since = "1.7.0")
     private int deleteSpeed = 1;
 
+    @ConfigComment("每 tick 用于删除岛屿的最长时间(毫秒).")
+    @ConfigComment("删除时只会修改与新生成的区块不同的方块, 每 tick 处理尽可能多的区块, 直到用完这段时间.")
+    @ConfigComment("delete-speed 决定每个世界同时加载多少个区块.")
+    @ConfigComment("设为 0 将改为每秒删除 delete-speed 个区块.")
+    @ConfigEntry(path = "island.delete-time-budget", since = "1.15.0")
+    private int deleteTimeBudget = 5;
+
+    @ConfigComment("预先检查好的新岛屿位置的数量.")
+    @ConfigComment("后台会提前检查接下来的岛屿位置并异步加载区块, 创建岛屿时直接使用, 无需在主线程中搜索.")
+    @ConfigComment("被删除或清理的岛屿位置会被重新使用.")
+    @ConfigComment("设为 0 将在创建岛屿时才搜索位置.")
+    @ConfigEntry(path = "island.new-location-queue-size", since = "1.15.0")
+    private int newLocationQueueSize = 2;
+
+    @ConfigComment("清理(purge)岛屿时同时删除的岛屿数量.")
+    @ConfigEntry(path = "island.purge.concurrent-deletions", since = "1.15.0")
+    private int purgeConcurrentDeletions = 2;
+
+    @ConfigComment("清理岛屿时, 服务器 TPS 低于此值将暂停开始新的删除, 直到 TPS 恢复.")
+    @ConfigEntry(path = "island.purge.min-tps", since = "1.15.0")
+    private double purgeMinTps = 18.0D;
+
+    @ConfigComment("是否使用基于网格单元的岛屿索引来查找某位置的岛屿.")
+    @ConfigComment("它比旧的树形索引快得多, 但要求所有岛屿都处在同一规则网格上.")
+    @ConfigComment("如果发现不在网格上的岛屿, 该世界会自动改用树形索引.")
+    @ConfigComment("设为 'false' 将始终使用旧的树形索引.")
+    @ConfigEntry(path = "island.grid.cell-index", since = "1.15.0")
+    private boolean islandGridCellIndex = true;
+
     // Automated ownership transfer
     @ConfigComment("是否自动切换岛主.")
     @ConfigComment("若原岛主长时间处于不活跃状态，将自动授予一个成员岛主身份")
@@ -740,4 +813,239 @@ public class Settings implements ConfigObject {
 	{
 		this.playerHeadCacheTime = playerHeadCacheTime;
 	}
+
+    /**
+     * Returns the maximum number of threads used to get player heads from Mojang.
+     * @return the maximum number of threads used to get player heads.
+     * @since 1.15.0
+     */
+    public int getHeadRequestThreads() {
+        return headRequestThreads;
+    }
+
+    /**
+     * Sets the maximum number of threads used to get player heads from Mojang.
+     * @param headRequestThreads the maximum number of threads used to get player heads.
+     * @since 1.15.0
+     */
+    public void setHeadRequestThreads(int headRequestThreads) {
+        this.headRequestThreads = headRequestThreads;
+    }
+
+    /**
+     * Returns the maximum number of requests sent to Mojang for player heads each second.
+     * @return the maximum number of head requests each second.
+     * @since 1.15.0
+     */
+    public int getHeadRequestsPerSecond() {
+        return headRequestsPerSecond;
+    }
+
+    /**
+     * Sets the maximum number of requests sent to Mojang for player heads each second.
+     * @param headRequestsPerSecond the maximum number of head requests each second.
+     * @since 1.15.0
+     */
+    public void setHeadRequestsPerSecond(int headRequestsPerSecond) {
+        this.headRequestsPerSecond = headRequestsPerSecond;
+    }
+
+    /**
+     * Returns whether the cell-based island grid should be used to find islands by location.
+     * @return {@code true} if the cell grid should be used, {@code false} to always use the tree grid.
+     * @since 1.15.0
+     */
+    public boolean isIslandGridCellIndex() {
+        return islandGridCellIndex;
+    }
+
+    /**
+     * Sets whether the cell-based island grid should be used to find islands by location.
+     * @param islandGridCellIndex {@code true} if the cell grid should be used, {@code false} to always use the tree grid.
+     * @since 1.15.0
+     */
+    public void setIslandGridCellIndex(boolean islandGridCellIndex) {
+        this.islandGridCellIndex = islandGridCellIndex;
+    }
+
+    /**
+     * Returns the maximum number of objects written to the database in one batch.
+     * @return the maximum number of objects written in one batch.
+     * @since 1.15.0
+     */
+    public int getDatabaseWriteBatchSize() {
+        return databaseWriteBatchSize;
+    }
+
+    /**
+     * Sets the maximum number of objects written to the database in one batch.
+     * @param databaseWriteBatchSize the maximum number of objects written in one batch.
+     * @since 1.15.0
+     */
+    public void setDatabaseWriteBatchSize(int databaseWriteBatchSize) {
+        this.databaseWriteBatchSize = databaseWriteBatchSize;
+    }
+
+    /**
+     * Returns the maximum number of connections open at the same time to SQL databases.
+     * @return the maximum number of connections.
+     * @since 1.15.0
+     */
+    public int getDatabaseMaxConnections() {
+        return databaseMaxConnections;
+    }
+
+    /**
+     * Sets the maximum number of connections open at the same time to SQL databases.
+     * @param databaseMaxConnections the maximum number of connections.
+     * @since 1.15.0
+     */
+    public void setDatabaseMaxConnections(int databaseMaxConnections) {
+        this.databaseMaxConnections = databaseMaxConnections;
+    }
+
+    /**
+     * Returns whether JSON data is stored without indentation and line breaks.
+     * @return {@code true} if JSON is stored compact, {@code false} if it is pretty-printed.
+     * @since 1.15.0
+     */
+    public boolean isDatabaseCompactJson() {
+        return databaseCompactJson;
+    }
+
+    /**
+     * Sets whether JSON data is stored without indentation and line breaks.
+     * @param databaseCompactJson {@code true} if JSON should be stored compact, {@code false} to pretty-print it.
+     * @since 1.15.0
+     */
+    public void setDatabaseCompactJson(boolean databaseCompactJson) {
+        this.databaseCompactJson = databaseCompactJson;
+    }
+
+    /**
+     * Returns whether the JSON database turns JSON trees into text off the main thread.
+     * Objects are still copied into a JSON tree on the thread that saves them, which is most of the cost of a save.
+     * @return {@code true} if the JSON text is made by the database writer thread.
+     * @since 1.15.0
+     */
+    public boolean isDatabaseAsyncJsonText() {
+        return databaseAsyncJsonText;
+    }
+
+    /**
+     * Sets whether the JSON database turns JSON trees into text off the main thread.
+     * @param databaseAsyncJsonText {@code true} if the JSON text should be made by the database writer thread.
+     * @since 1.15.0
+     */
+    public void setDatabaseAsyncJsonText(boolean databaseAsyncJsonText) {
+        this.databaseAsyncJsonText = databaseAsyncJsonText;
+    }
+
+    /**
+     * Returns how long to wait for player data to be preloaded before a player joins.
+     * @return the timeout in milliseconds, or {@code 0} if preloading is disabled.
+     * @since 1.15.0
+     */
+    public long getDatabasePreloadTimeout() {
+        return databasePreloadTimeout;
+    }
+
+    /**
+     * Sets how long to wait for player data to be preloaded before a player joins.
+     * @param databasePreloadTimeout the timeout in milliseconds, or {@code 0} to disable preloading.
+     * @since 1.15.0
+     */
+    public void setDatabasePreloadTimeout(long databasePreloadTimeout) {
+        this.databasePreloadTimeout = databasePreloadTimeout;
+    }
+
+    /**
+     * Returns the time in milliseconds that may be spent pasting blueprints in each tick.
+     * @return the time budget in milliseconds, or {@code 0} to paste {@link #getPasteSpeed()} blocks per tick.
+     * @since 1.15.0
+     */
+    public int getPasteTimeBudget() {
+        return pasteTimeBudget;
+    }
+
+    /**
+     * Sets the time in milliseconds that may be spent pasting blueprints in each tick.
+     * @param pasteTimeBudget the time budget in milliseconds, or {@code 0} to paste {@link #getPasteSpeed()} blocks per tick.
+     * @since 1.15.0
+     */
+    public void setPasteTimeBudget(int pasteTimeBudget) {
+        this.pasteTimeBudget = pasteTimeBudget;
+    }
+
+    /**
+     * Returns the time in milliseconds that may be spent deleting islands in each tick.
+     * @return the time budget in milliseconds, or {@code 0} to delete {@link #getDeleteSpeed()} chunks per second.
+     * @since 1.15.0
+     */
+    public int getDeleteTimeBudget() {
+        return deleteTimeBudget;
+    }
+
+    /**
+     * Sets the time in milliseconds that may be spent deleting islands in each tick.
+     * @param deleteTimeBudget the time budget in milliseconds, or {@code 0} to delete {@link #getDeleteSpeed()} chunks per second.
+     * @since 1.15.0
+     */
+    public void setDeleteTimeBudget(int deleteTimeBudget) {
+        this.deleteTimeBudget = deleteTimeBudget;
+    }
+
+    /**
+     * Returns the number of islands that a purge deletes at the same time.
+     * @return the number of concurrent deletions.
+     * @since 1.15.0
+     */
+    public int getPurgeConcurrentDeletions() {
+        return purgeConcurrentDeletions;
+    }
+
+    /**
+     * Sets the number of islands that a purge deletes at the same time.
+     * @param purgeConcurrentDeletions the number of concurrent deletions.
+     * @since 1.15.0
+     */
+    public void setPurgeConcurrentDeletions(int purgeConcurrentDeletions) {
+        this.purgeConcurrentDeletions = purgeConcurrentDeletions;
+    }
+
+    /**
+     * Returns the TPS below which a purge does not start deleting more islands.
+     * @return the minimum TPS.
+     * @since 1.15.0
+     */
+    public double getPurgeMinTps() {
+        return purgeMinTps;
+    }
+
+    /**
+     * Sets the TPS below which a purge does not start deleting more islands.
+     * @param purgeMinTps the minimum TPS.
+     * @since 1.15.0
+     */
+    public void setPurgeMinTps(double purgeMinTps) {
+        this.purgeMinTps = purgeMinTps;
+    }
+
+    /**
+     * Returns the number of new island locations that are checked ahead of time in each world.
+     * @return the number of locations, or {@code 0} to search for a location when an island is made.
+     * @since 1.15.0
+     */
+    public int getNewLocationQueueSize() {
+        return newLocationQueueSize;
+    }
+
+    /**
+     * Sets the number of new island locations that are checked ahead of time in each world.
+     * @param newLocationQueueSize the number of locations, or {@code 0} to search for a location when an island is made.
+     * @since 1.15.0
+     */
+    public void setNewLocationQueueSize(int newLocationQueueSize) {
+        this.newLocationQueueSize = newLocationQueueSize;
+    }
 }
@@ -26,6 +26,9 @@ public class AdminReloadCommand extends CompositeCommand {
     @Override
     public boolean execute(User user, String label, List<String> args) {
         getAddon().onReload();
+        // The game mode may have loaded new world settings
+        getPlugin().getFlagsManager().getWorldFlagTable().clear();
+        getPlugin().getFlagsManager().getDecisionCache().worldSettingsChanged();
         return true;
     }
 
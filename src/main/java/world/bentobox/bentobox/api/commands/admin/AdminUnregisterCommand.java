@@ -80,7 +80,7 @@ public class AdminUnregisterCommand extends ConfirmableCommand {
             getPlayers().clearHomeLocations(getWorld(), m);
         });
         // Remove all island players that reference this island
-        oldIsland.getMembers().clear();
+        oldIsland.clearMembers();
         getIslands().save(oldIsland);
         user.sendMessage("commands.admin.unregister.unregistered-island", "[xyz]", Util.xyz(oldIsland.getCenter().toVector()),
                 TextVariables.NAME, targetName);
@@ -56,6 +56,10 @@ public class AdminWhyCommand extends ConfirmableCommand {
         }
         // Set the debug meta
         target.getPlayer().setMetadata(getWorld().getName() + "_why_debug", new FixedMetadataValue(getPlugin(), newValue));
+        if (newValue) {
+            // Debug may still be on in other worlds, so this is only cleared when the player logs out
+            getPlugin().getFlagsManager().getDecisionCache().setWhyDebug(target.getUniqueId(), true);
+        }
         if (user.isPlayer()) {
             target.getPlayer().setMetadata(getWorld().getName() + "_why_debug_issuer", new FixedMetadataValue(getPlugin(), user.getUniqueId().toString()));
         }
@@ -1,10 +1,14 @@
 package world.bentobox.bentobox.api.commands.admin.purge;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import org.bukkit.Bukkit;
@@ -12,19 +16,19 @@ import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 
-import world.bentobox.bentobox.BentoBox;
 import world.bentobox.bentobox.api.commands.CompositeCommand;
+import world.bentobox.bentobox.api.events.BentoBoxReadyEvent;
 import world.bentobox.bentobox.api.events.island.IslandEvent.IslandDeletedEvent;
 import world.bentobox.bentobox.api.localization.TextVariables;
 import world.bentobox.bentobox.api.user.User;
 import world.bentobox.bentobox.database.objects.Island;
+import world.bentobox.bentobox.database.objects.PurgeProgress;
 
 public class AdminPurgeCommand extends CompositeCommand implements Listener {
 
-    private int count;
     private boolean inPurge;
     private boolean toBeConfirmed;
-    private Iterator<String> it;
+    private IslandPurge purge;
     private User user;
     private Set<String> islands = new HashSet<>();
 
@@ -75,13 +79,15 @@ public class AdminPurgeCommand extends CompositeCommand implements Listener {
                 user.sendMessage("commands.admin.purge.days-one-or-more");
                 return false;
             }
-            islands = getOldIslands(days);
-            user.sendMessage("commands.admin.purge.purgable-islands", TextVariables.NUMBER, String.valueOf(islands.size()));
-            if (!islands.isEmpty()) {
-                toBeConfirmed = true;
-                user.sendMessage("commands.admin.purge.confirm", TextVariables.LABEL, this.getTopLabel());
-                return false;
-            }
+            // Find the islands in the background and ask for confirmation when done
+            getOldIslands(days).thenAccept(old -> {
+                islands = old;
+                user.sendMessage("commands.admin.purge.purgable-islands", TextVariables.NUMBER, String.valueOf(islands.size()));
+                if (!islands.isEmpty()) {
+                    toBeConfirmed = true;
+                    user.sendMessage("commands.admin.purge.confirm", TextVariables.LABEL, this.getTopLabel());
+                }
+            });
         } catch(Exception e) {
             user.sendMessage("commands.admin.purge.number-error");
             return false;
@@ -90,59 +96,84 @@ public class AdminPurgeCommand extends CompositeCommand implements Listener {
     }
 
     void removeIslands() {
-        inPurge = true;
         user.sendMessage("commands.admin.purge.see-console-for-status", TextVariables.LABEL, this.getTopLabel());
-        it = islands.iterator();
-        count = 0;
-        // Delete first island
-        deleteIsland();
+        startPurge(new PurgeProgress(getWorld().getName(), new ArrayList<>(islands)));
     }
 
-    private void deleteIsland() {
-        if (it.hasNext()) {
-            getIslands().getIslandById(it.next()).ifPresent(i -> {
-                getIslands().deleteIsland(i, true, null);
-                count++;
-                String percentage = String.format("%.1f", (((float) count)/getPurgeableIslandsCount() * 100));
-                getPlugin().log(count + " islands purged out of " + getPurgeableIslandsCount() + " (" + percentage + " %)");
-            });
-        } else {
-            user.sendMessage("commands.admin.purge.completed");
+    private void startPurge(PurgeProgress progress) {
+        inPurge = true;
+        purge = new IslandPurge(getPlugin(), getWorld(), progress, () -> {
+            if (user != null) {
+                user.sendMessage("commands.admin.purge.completed");
+            }
             inPurge = false;
-        }
-
+            purge = null;
+        });
+        purge.start();
     }
 
     @EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
     void onIslandDeleted(IslandDeletedEvent e) {
-        if (inPurge) {
-            deleteIsland();
+        if (purge != null) {
+            purge.deleted(e.getDeletedIslandInfo().getLocation());
         }
     }
 
-    Set<String> getOldIslands(int days) {
-        getPlugin().getIslands().getIslands().stream()
-        .filter(i -> !i.isSpawn())
-        .filter(i -> !i.getPurgeProtected())
-        .filter(i -> i.getWorld().equals(this.getWorld()))
-        .filter(Island::isOwned)
-        .filter(i -> i.getMembers().size() == 1)
-        .filter(i -> ((double)(System.currentTimeMillis() - Bukkit.getOfflinePlayer(i.getOwner()).getLastPlayed()) / 1000 / 3600 / 24) > days)
-        .forEach(i -> {
-            Date date = new Date(Bukkit.getOfflinePlayer(i.getOwner()).getLastPlayed());
-            BentoBox.getInstance().log("Will purge " +
-                    BentoBox.getInstance().getPlayers().getName(i.getOwner()) +
-                    " last logged in " + (int)((double)(System.currentTimeMillis() - Bukkit.getOfflinePlayer(i.getOwner()).getLastPlayed()) / 1000 / 3600 / 24) + " days ago. " + date);
-        });
-        return getPlugin().getIslands().getIslands().stream()
+    /**
+     * Carries on with a purge that was running when the server stopped
+     * @param e BentoBox Ready event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    void onBentoBoxReady(BentoBoxReadyEvent e) {
+        if (inPurge || getWorld() == null) {
+            return;
+        }
+        PurgeProgress progress = getPlugin().getIslandDeletionManager().getPurgeProgress(getWorld());
+        if (progress != null) {
+            getPlugin().log("Resuming purge of " + getWorld().getName() + ": " + progress.getIslands().size() + " islands left to purge");
+            user = User.getInstance(Bukkit.getConsoleSender());
+            islands = new HashSet<>(progress.getIslands());
+            startPurge(progress);
+        }
+    }
+
+    /**
+     * Finds the islands whose only member has not played for more than this number of days.
+     * The last time each owner played is looked up once, away from the main thread.
+     * @param days - number of days
+     * @return future with the unique ids of the islands, completed on the main thread
+     */
+    CompletableFuture<Set<String>> getOldIslands(int days) {
+        CompletableFuture<Set<String>> result = new CompletableFuture<>();
+        // Island data can only be read on the main thread
+        Map<String, UUID> candidates = getPlugin().getIslands().getIslands().stream()
                 .filter(i -> !i.isSpawn())
                 .filter(i -> !i.getPurgeProtected())
                 .filter(i -> i.getWorld().equals(this.getWorld()))
                 .filter(Island::isOwned)
                 .filter(i -> i.getMembers().size() == 1)
-                .filter(i -> ((double)(System.currentTimeMillis() - Bukkit.getOfflinePlayer(i.getOwner()).getLastPlayed()) / 1000 / 3600 / 24) > days)
-                .map(Island::getUniqueId)
-                .collect(Collectors.toSet());
+                .collect(Collectors.toMap(Island::getUniqueId, Island::getOwner));
+        Bukkit.getScheduler().runTaskAsynchronously(getPlugin(), () -> {
+            // Index of when each owner last played
+            Map<UUID, Long> lastPlayed = new HashMap<>();
+            candidates.values().forEach(uuid -> lastPlayed.computeIfAbsent(uuid, k -> Bukkit.getOfflinePlayer(k).getLastPlayed()));
+            long now = System.currentTimeMillis();
+            Set<String> old = candidates.entrySet().stream()
+                    .filter(en -> ((double)(now - lastPlayed.get(en.getValue())) / 1000 / 3600 / 24) > days)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toSet());
+            Bukkit.getScheduler().runTask(getPlugin(), () -> {
+                old.forEach(id -> {
+                    UUID owner = candidates.get(id);
+                    long played = lastPlayed.get(owner);
+                    getPlugin().log("Will purge " +
+                            getPlayers().getName(owner) +
+                            " last logged in " + (int)((double)(now - played) / 1000 / 3600 / 24) + " days ago. " + new Date(played));
+                });
+                result.complete(old);
+            });
+        });
+        return result;
     }
 
     /**
@@ -156,6 +187,10 @@ public class AdminPurgeCommand extends CompositeCommand implements Listener {
      * Stop the purge
      */
     void stop() {
+        if (purge != null) {
+            purge.stop();
+            purge = null;
+        }
         inPurge = false;
     }
 
@@ -179,7 +214,7 @@ public class AdminPurgeCommand extends CompositeCommand implements Listener {
      * @since 1.13.0
      */
     int getPurgedIslandsCount() {
-        return this.count;
+        return purge == null ? 0 : purge.getPurged();
     }
 
     /**
@@ -188,6 +223,6 @@ public class AdminPurgeCommand extends CompositeCommand implements Listener {
      * @since 1.13.0
      */
     int getPurgeableIslandsCount() {
-        return this.islands.size();
+        return purge == null ? this.islands.size() : purge.getTotal();
     }
 }
@@ -0,0 +1,158 @@
+package world.bentobox.bentobox.api.commands.admin.purge;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.scheduler.BukkitTask;
+
+import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.database.objects.Island;
+import world.bentobox.bentobox.database.objects.PurgeProgress;
+
+/**
+ * Deletes the islands of a purge a few at a time.
+ * <p>
+ * Up to {@link world.bentobox.bentobox.Settings#getPurgeConcurrentDeletions()} islands have their chunks
+ * deleted at the same time. No new deletion is started while the server runs below
+ * {@link world.bentobox.bentobox.Settings#getPurgeMinTps()}. The islands still to be deleted are saved
+ * through the {@link world.bentobox.bentobox.managers.IslandDeletionManager}, so the purge carries on after a restart.
+ *
+ * @since 1.15.0
+ */
+class IslandPurge {
+
+    private static final double TICK_MILLIS = 50D;
+    private static final double MAX_TPS = 20D;
+
+    private final BentoBox plugin;
+    private final World world;
+    private final PurgeProgress progress;
+    private final Runnable onDone;
+    /**
+     * Centers of the islands whose chunks are being deleted
+     */
+    private final Set<Location> inFlight = new HashSet<>();
+    private BukkitTask task;
+    private long lastTick;
+    /**
+     * Moving average of the time between two ticks, in milliseconds
+     */
+    private double tickMillis = TICK_MILLIS;
+
+    /**
+     * @param plugin - plugin
+     * @param world - world being purged
+     * @param progress - islands to delete
+     * @param onDone - run on the main thread when every island has been deleted
+     */
+    IslandPurge(BentoBox plugin, World world, PurgeProgress progress, Runnable onDone) {
+        this.plugin = plugin;
+        this.world = world;
+        this.progress = progress;
+        this.onDone = onDone;
+    }
+
+    /**
+     * Starts deleting islands
+     */
+    void start() {
+        plugin.getIslandDeletionManager().savePurgeProgress(progress);
+        lastTick = System.nanoTime();
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    /**
+     * Stops the purge. Deletions that have already started are finished.
+     */
+    void stop() {
+        if (task != null) {
+            task.cancel();
+        }
+        plugin.getIslandDeletionManager().removePurgeProgress(world);
+    }
+
+    /**
+     * Tells the purge that an island's chunks have been deleted
+     * @param center - center of the island
+     */
+    void deleted(Location center) {
+        inFlight.remove(center);
+    }
+
+    private void tick() {
+        long now = System.nanoTime();
+        tickMillis = tickMillis * 0.9D + (now - lastTick) / (double)TimeUnit.MILLISECONDS.toNanos(1) * 0.1D;
+        lastTick = now;
+        List<String> islands = progress.getIslands();
+        if (islands.isEmpty()) {
+            if (inFlight.isEmpty()) {
+                task.cancel();
+                plugin.getIslandDeletionManager().removePurgeProgress(world);
+                onDone.run();
+            }
+            return;
+        }
+        // Start at most one deletion per tick, and only if the server is keeping up
+        if (inFlight.size() >= Math.max(1, plugin.getSettings().getPurgeConcurrentDeletions())
+                || getTps() < plugin.getSettings().getPurgeMinTps()) {
+            return;
+        }
+        String id = islands.remove(islands.size() - 1);
+        plugin.getIslands().getIslandById(id).filter(this::canPurge).ifPresent(i -> {
+            Location center = i.getCenter();
+            inFlight.add(center);
+            plugin.getIslands().deleteIsland(i, true, null);
+            if (!i.isDeleted()) {
+                // Deletion was cancelled
+                inFlight.remove(center);
+                return;
+            }
+            progress.setPurged(progress.getPurged() + 1);
+            String percentage = String.format("%.1f", (((float) progress.getPurged())/progress.getTotal() * 100));
+            plugin.log(progress.getPurged() + " islands purged out of " + progress.getTotal() + " (" + percentage + " %)");
+        });
+        plugin.getIslandDeletionManager().savePurgeProgress(progress);
+    }
+
+    /**
+     * Checks that nothing has happened to the island since it was chosen to be purged
+     * @param island - island
+     * @return true if the island can still be purged
+     */
+    private boolean canPurge(Island island) {
+        if (island.isSpawn() || island.getPurgeProtected() || island.isDeleted()) {
+            return false;
+        }
+        // Skip islands whose members have come back
+        for (UUID member : island.getMemberSet()) {
+            if (Bukkit.getPlayer(member) != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private double getTps() {
+        return Math.min(MAX_TPS, 1000D / tickMillis);
+    }
+
+    /**
+     * @return number of islands purged so far
+     */
+    int getPurged() {
+        return progress.getPurged();
+    }
+
+    /**
+     * @return number of islands in this purge
+     */
+    int getTotal() {
+        return progress.getTotal();
+    }
+}
@@ -537,4 +537,38 @@ public interface WorldSettings extends ConfigObject {
     {
         return "create";
     }
+
+    /**
+     * Returns the number of chunks that a safe spot search loads and scans at a time.
+     * Default value: {@code 6} (to retain backward compatibility).
+     * @return number of chunks
+     * @since 1.15.0
+     */
+    default int getSafeSpotMaxChunks()
+    {
+        return 6;
+    }
+
+    /**
+     * Returns how far in blocks from the target location a safe spot search looks.
+     * The search never goes outside the island's protection range.
+     * Default value: {@code 50} (to retain backward compatibility).
+     * @return radius in blocks
+     * @since 1.15.0
+     */
+    default int getSafeSpotMaxRadius()
+    {
+        return 50;
+    }
+
+    /**
+     * Returns the highest y coordinate that a safe spot search looks at.
+     * Default value: {@code 235} (to retain backward compatibility).
+     * @return y coordinate
+     * @since 1.15.0
+     */
+    default int getSafeSpotMaxHeight()
+    {
+        return 235;
+    }
 }
@@ -1,8 +1,11 @@
 package world.bentobox.bentobox.api.flags;
 
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.bukkit.Material;
 import org.bukkit.World;
@@ -131,6 +134,14 @@ public class Flag implements Comparable<Flag> {
     private final Addon addon;
     private final int cooldown;
     private final Mode mode;
+    /**
+     * Bypass permission nodes of this flag, by world UID, so unloaded worlds are not held on to
+     */
+    private final Map<UUID, String[]> bypassPermissions = new ConcurrentHashMap<>();
+    /**
+     * Index given by the {@link world.bentobox.bentobox.managers.FlagsManager} when this flag is registered
+     */
+    private int ordinal = -1;
 
     private Flag(Builder builder) {
         this.id = builder.id;
@@ -153,6 +164,26 @@ public class Flag implements Comparable<Flag> {
         return id;
     }
 
+    /**
+     * Get the ordinal of this flag. Registered flags are numbered from 0 in the order they are first registered,
+     * and a flag keeps its number if one with the same ID is registered again, so it can be used as an index
+     * into arrays and bit sets.
+     * @return the ordinal, or -1 if this flag has never been registered
+     * @since 1.15.0
+     */
+    public int getOrdinal() {
+        return ordinal;
+    }
+
+    /**
+     * Sets the ordinal of this flag. Used by the {@link world.bentobox.bentobox.managers.FlagsManager} when the flag is registered.
+     * @param ordinal the ordinal to set
+     * @since 1.15.0
+     */
+    public void setOrdinal(int ordinal) {
+        this.ordinal = ordinal;
+    }
+
     public Material getIcon() {
         return icon;
     }
@@ -175,19 +206,40 @@ public class Flag implements Comparable<Flag> {
      * If world is not a game world, then the result will always be false!
      */
     public boolean isSetForWorld(World world) {
-        WorldSettings ws = BentoBox.getInstance().getIWM().getWorldSettings(world);
-        if (ws == null) return false;
         if (type.equals(Type.WORLD_SETTING) || type.equals(Type.PROTECTION)) {
-            if (!ws.getWorldFlags().containsKey(getID())) {
-                ws.getWorldFlags().put(getID(), setting);
-                // Save config file
-                BentoBox.getInstance().getIWM().getAddon(world).ifPresent(GameModeAddon::saveWorldSettings);
-            }
-            return ws.getWorldFlags().get(getID());
+            return BentoBox.getInstance().getFlagsManager().getWorldFlagTable().isSet(world, this);
         }
+        return BentoBox.getInstance().getIWM().getWorldSettings(world) != null && setting;
+    }
+
+    /**
+     * Get the status of this flag for locations outside of island spaces, used in worlds that do not have their own setting
+     * @return true if it is allowed
+     * @since 1.15.0
+     */
+    public boolean isDefaultSetting() {
         return setting;
     }
 
+    /**
+     * Get the permissions that let a player bypass this flag in this world. The strings are built once per world.
+     * @param world - world
+     * @return array of the {@code mod.bypassprotect}, {@code mod.bypass.[flag].everywhere}
+     * and {@code mod.bypass.[flag].island} permissions, in that order
+     * @since 1.15.0
+     */
+    @NonNull
+    String[] getBypassPermissions(@NonNull World world) {
+        return bypassPermissions.computeIfAbsent(world.getUID(), w -> {
+            String prefix = BentoBox.getInstance().getIWM().getPermissionPrefix(world);
+            return new String[] {
+                    (prefix + "mod.bypassprotect").intern(),
+                    (prefix + "mod.bypass." + getID() + ".everywhere").intern(),
+                    (prefix + "mod.bypass." + getID() + ".island").intern()
+            };
+        });
+    }
+
     /**
      * Set a world setting
      * @param world - world
@@ -200,6 +252,8 @@ public class Flag implements Comparable<Flag> {
             .getWorldSettings(world)
             .getWorldFlags()
             .put(getID(), setting);
+            BentoBox.getInstance().getFlagsManager().getWorldFlagTable().clear();
+            BentoBox.getInstance().getFlagsManager().getDecisionCache().worldSettingsChanged();
             // Save config file
             BentoBox.getInstance().getIWM().getAddon(world).ifPresent(GameModeAddon::saveWorldSettings);
         }
@@ -212,6 +266,9 @@ public class Flag implements Comparable<Flag> {
      */
     public void setDefaultSetting(boolean defaultSetting) {
         this.setting = defaultSetting;
+        if (BentoBox.getInstance() != null && BentoBox.getInstance().getFlagsManager() != null) {
+            BentoBox.getInstance().getFlagsManager().getWorldFlagTable().clear();
+        }
     }
 
     /**
@@ -226,6 +283,8 @@ public class Flag implements Comparable<Flag> {
             return;
         }
         ws.getWorldFlags().put(getID(), defaultSetting);
+        BentoBox.getInstance().getFlagsManager().getWorldFlagTable().clear();
+        BentoBox.getInstance().getFlagsManager().getDecisionCache().worldSettingsChanged();
         // Save config file
         BentoBox.getInstance().getIWM().getAddon(world).ifPresent(GameModeAddon::saveWorldSettings);
     }
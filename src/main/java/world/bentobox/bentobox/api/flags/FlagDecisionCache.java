@@ -0,0 +1,212 @@
+package world.bentobox.bentobox.api.flags;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.scheduler.BukkitTask;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.api.events.BentoBoxReadyEvent;
+import world.bentobox.bentobox.api.flags.FlagListener.Why;
+import world.bentobox.bentobox.database.objects.Island;
+
+/**
+ * Remembers the outcome of protection checks made by {@link FlagListener#checkIsland}, by player, island and flag.
+ * <p>
+ * A decision is used again only while nothing it depends on has changed:
+ * <ul>
+ * <li>the island's members and flags - tracked by {@link Island#getChangeVersion()}</li>
+ * <li>the player's permissions - tracked by a counter bumped by {@link #permissionsChanged()}</li>
+ * <li>the world settings - tracked by a counter bumped by {@link #worldSettingsChanged()}</li>
+ * </ul>
+ * As permission plugins do not tell anyone when they change a player's permissions, decisions also
+ * expire after {@link #MAX_AGE} milliseconds. Expired decisions are removed when they are read, and by a task
+ * that runs every {@link #PURGE_PERIOD} ticks, so places a player does not go back to are not kept.
+ * Worlds are kept by their UID, so unloaded worlds are not held on to.
+ *
+ * @since 1.15.0
+ */
+public class FlagDecisionCache implements Listener {
+
+    /**
+     * Maximum time in milliseconds that a decision is kept
+     */
+    public static final long MAX_AGE = TimeUnit.SECONDS.toMillis(1);
+    /**
+     * Ticks between removals of expired decisions
+     */
+    private static final long PURGE_PERIOD = 20L * 60;
+
+    private static final class Decision {
+        private final Why why;
+        private final int islandVersion;
+        private final int permissionVersion;
+        private final int worldVersion;
+        private final long expires;
+
+        private Decision(Why why, int islandVersion, int permissionVersion, int worldVersion, long expires) {
+            this.why = why;
+            this.islandVersion = islandVersion;
+            this.permissionVersion = permissionVersion;
+            this.worldVersion = worldVersion;
+            this.expires = expires;
+        }
+    }
+
+    private final AtomicInteger permissionVersion = new AtomicInteger();
+    private final AtomicInteger worldVersion = new AtomicInteger();
+    /**
+     * Player UUID -> island unique id, or world UID when not on an island -> flag -> decision
+     */
+    private final Map<UUID, Map<Object, Map<Flag, Decision>>> decisions = new ConcurrentHashMap<>();
+    /**
+     * Players whose protection checks are being reported by the admin why command
+     */
+    private final Set<UUID> whyDebug = ConcurrentHashMap.newKeySet();
+    private BukkitTask purgeTask;
+
+    /**
+     * Get the cached decision
+     * @param uuid - player's UUID
+     * @param island - island at the location, or null if there is none
+     * @param world - world of the location
+     * @param flag - flag
+     * @return the reason for the decision, or null if there is no valid decision
+     */
+    @Nullable
+    Why get(@NonNull UUID uuid, @Nullable Island island, @NonNull World world, @NonNull Flag flag) {
+        Map<Object, Map<Flag, Decision>> byPlace = decisions.get(uuid);
+        if (byPlace == null) {
+            return null;
+        }
+        Map<Flag, Decision> byFlag = byPlace.get(island == null ? world.getUID() : island.getUniqueId());
+        Decision d = byFlag == null ? null : byFlag.get(flag);
+        if (d == null) {
+            return null;
+        }
+        if (d.expires < System.currentTimeMillis()) {
+            byFlag.remove(flag, d);
+            return null;
+        }
+        if (d.permissionVersion != permissionVersion.get()
+                || d.worldVersion != worldVersion.get()
+                || (island != null && d.islandVersion != island.getChangeVersion())) {
+            return null;
+        }
+        return d.why;
+    }
+
+    /**
+     * Stores a decision
+     * @param uuid - player's UUID
+     * @param island - island at the location, or null if there is none
+     * @param world - world of the location
+     * @param flag - flag
+     * @param why - the reason for the decision
+     */
+    void put(@NonNull UUID uuid, @Nullable Island island, @NonNull World world, @NonNull Flag flag, @NonNull Why why) {
+        Decision d = new Decision(why, island == null ? 0 : island.getChangeVersion(), permissionVersion.get(), worldVersion.get(),
+                System.currentTimeMillis() + MAX_AGE);
+        decisions.computeIfAbsent(uuid, k -> new ConcurrentHashMap<>())
+        .computeIfAbsent(island == null ? world.getUID() : island.getUniqueId(), k -> new ConcurrentHashMap<>())
+        .put(flag, d);
+    }
+
+    /**
+     * Removes every decision that has expired, and players and places that have no decisions left
+     */
+    void purge() {
+        long now = System.currentTimeMillis();
+        decisions.values().forEach(byPlace -> {
+            byPlace.values().forEach(byFlag -> byFlag.values().removeIf(d -> d.expires < now));
+            byPlace.values().removeIf(Map::isEmpty);
+        });
+        decisions.values().removeIf(Map::isEmpty);
+    }
+
+    /**
+     * Forgets every decision that depends on permissions. Call this if permissions change.
+     */
+    public void permissionsChanged() {
+        permissionVersion.incrementAndGet();
+    }
+
+    /**
+     * Forgets every decision made for this player. Call this if the player's permissions change.
+     * @param uuid - player's UUID
+     */
+    public void permissionsChanged(@NonNull UUID uuid) {
+        decisions.remove(uuid);
+    }
+
+    /**
+     * Forgets every decision that depends on world settings. Call this if world settings change or are reloaded.
+     */
+    public void worldSettingsChanged() {
+        worldVersion.incrementAndGet();
+    }
+
+    /**
+     * Checks if protection checks for this player are being reported
+     * @param uuid - player's UUID
+     * @return true if the admin why command is on for this player in any world
+     */
+    public boolean isWhyDebug(@NonNull UUID uuid) {
+        return whyDebug.contains(uuid);
+    }
+
+    /**
+     * Sets whether protection checks for this player are being reported
+     * @param uuid - player's UUID
+     * @param debug - true to report
+     */
+    public void setWhyDebug(@NonNull UUID uuid, boolean debug) {
+        if (debug) {
+            whyDebug.add(uuid);
+        } else {
+            whyDebug.remove(uuid);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent e) {
+        permissionsChanged(e.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent e) {
+        // Per-world permissions may be different
+        permissionsChanged(e.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent e) {
+        permissionsChanged(e.getPlayer().getUniqueId());
+        // Debug metadata does not survive a logout
+        whyDebug.remove(e.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onBentoBoxReady(BentoBoxReadyEvent e) {
+        // Settings and addons have been (re)loaded
+        worldSettingsChanged();
+        permissionsChanged();
+        if (purgeTask == null) {
+            purgeTask = Bukkit.getScheduler().runTaskTimerAsynchronously(BentoBox.getInstance(), this::purge, PURGE_PERIOD, PURGE_PERIOD);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import java.util.Optional;
 import java.util.UUID;
 
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
 import org.bukkit.event.Cancellable;
 import org.bukkit.event.Event;
@@ -153,59 +154,76 @@ public abstract class FlagListener implements Listener {
         }
 
         // Protection flag
+        Island is = island.orElse(null);
+        Why why = decide(user, is, loc.getWorld(), flag);
+        report(user, e, loc, flag, why);
+        switch (why) {
+        case NOT_ALLOWED_ON_ISLAND:
+            noGo(e, flag, silent, is != null && is.isSpawn() ? "protection.spawn-protected" : "protection.protected");
+            return false;
+        case NOT_ALLOWED_IN_WORLD:
+            noGo(e, flag, silent, "protection.world-protected");
+            return false;
+        default:
+            return true;
+        }
+    }
 
-        // Ops or "bypass everywhere" moderators can do anything
-        if (user.hasPermission(getIWM().getPermissionPrefix(loc.getWorld()) + "mod.bypassprotect")
-                || user.hasPermission(getIWM().getPermissionPrefix(loc.getWorld()) + "mod.bypass." + flag.getID() + ".everywhere")) {
-            if (user.isOp()) {
-                report(user, e, loc, flag,  Why.OP);
-            } else {
-                report(user, e, loc, flag,  Why.BYPASS_EVERYWHERE);
+    /**
+     * Decides if a protection or world setting flag allows the user to act, using the cached decision if there is one
+     * @param user - user
+     * @param island - island at the location, or null if there is none
+     * @param world - world of the location
+     * @param flag - flag
+     * @return reason why the user is allowed or not
+     */
+    @NonNull
+    private Why decide(@NonNull User user, @Nullable Island island, @NonNull World world, @NonNull Flag flag) {
+        FlagDecisionCache cache = plugin.getFlagsManager().getDecisionCache();
+        UUID uuid = user.isPlayer() ? user.getUniqueId() : null;
+        Why why = uuid == null ? null : cache.get(uuid, island, world, flag);
+        if (why == null) {
+            why = resolve(user, island, world, flag);
+            if (uuid != null) {
+                cache.put(uuid, island, world, flag, why);
             }
-            return true;
+        }
+        return why;
+    }
+
+    @NonNull
+    private Why resolve(@NonNull User user, @Nullable Island island, @NonNull World world, @NonNull Flag flag) {
+        String[] bypass = flag.getBypassPermissions(world);
+        // Ops or "bypass everywhere" moderators can do anything
+        if (user.hasPermission(bypass[0]) || user.hasPermission(bypass[1])) {
+            return user.isOp() ? Why.OP : Why.BYPASS_EVERYWHERE;
         }
 
         // Handle World Settings
         if (flag.getType().equals(Flag.Type.WORLD_SETTING)) {
-            if (flag.isSetForWorld(loc.getWorld())) {
-                report(user, e, loc, flag,  Why.ALLOWED_IN_WORLD);
-                return true;
-            }
-            report(user, e, loc, flag,  Why.NOT_ALLOWED_IN_WORLD);
-            noGo(e, flag, silent, "protection.world-protected");
-            return false;
+            return flag.isSetForWorld(world) ? Why.ALLOWED_IN_WORLD : Why.NOT_ALLOWED_IN_WORLD;
         }
 
         // Check if the plugin is set in User (required for testing)
         User.setPlugin(plugin);
 
-        if (island.isPresent()) {
+        if (island != null) {
             // If it is not allowed on the island, "bypass island" moderators can do anything
-            if (island.get().isAllowed(user, flag)) {
-                report(user, e, loc, flag,  Why.RANK_ALLOWED);
-                return true;
-            } else if (user.hasPermission(getIWM().getPermissionPrefix(loc.getWorld()) + "mod.bypass." + flag.getID() + ".island")) {
-                report(user, e, loc, flag,  Why.BYPASS_ISLAND);
-                return true;
+            if (island.isAllowed(user, flag)) {
+                return Why.RANK_ALLOWED;
+            } else if (user.hasPermission(bypass[2])) {
+                return Why.BYPASS_ISLAND;
             }
-            report(user, e, loc, flag,  Why.NOT_ALLOWED_ON_ISLAND);
-            noGo(e, flag, silent, island.get().isSpawn() ? "protection.spawn-protected" : "protection.protected");
-            return false;
+            return Why.NOT_ALLOWED_ON_ISLAND;
         }
         // The player is in the world, but not on an island, so general world settings apply
-        if (flag.isSetForWorld(loc.getWorld())) {
-            report(user, e, loc, flag,  Why.ALLOWED_IN_WORLD);
-            return true;
-        } else {
-            report(user, e, loc, flag,  Why.NOT_ALLOWED_IN_WORLD);
-            noGo(e, flag, silent, "protection.world-protected");
-            return false;
-        }
+        return flag.isSetForWorld(world) ? Why.ALLOWED_IN_WORLD : Why.NOT_ALLOWED_IN_WORLD;
     }
 
     private void report(@Nullable User user, @NonNull Event e, @NonNull Location loc, @NonNull Flag flag, @NonNull Why why) {
         // A quick way to debug flag listener unit tests is to add this line here: System.out.println(why.name()); NOSONAR
-        if (user != null && user.isPlayer() && user.getPlayer().getMetadata(loc.getWorld().getName() + "_why_debug").stream()
+        if (user != null && user.isPlayer() && plugin.getFlagsManager().getDecisionCache().isWhyDebug(user.getUniqueId())
+                && user.getPlayer().getMetadata(loc.getWorld().getName() + "_why_debug").stream()
                 .filter(p -> p.getOwningPlugin().equals(getPlugin())).findFirst().map(MetadataValue::asBoolean).orElse(false)) {
             String whyEvent = "Why: " + e.getEventName() + " in world " + loc.getWorld().getName() + " at " + Util.xyz(loc.toVector());
             String whyBypass = "Why: " + user.getName() + " " + flag.getID() + " - " + why.name();
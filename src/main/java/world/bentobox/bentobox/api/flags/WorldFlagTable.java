@@ -0,0 +1,159 @@
+package world.bentobox.bentobox.api.flags;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.scheduler.BukkitTask;
+import org.eclipse.jdt.annotation.NonNull;
+
+import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.api.addons.GameModeAddon;
+import world.bentobox.bentobox.api.configuration.WorldSettings;
+import world.bentobox.bentobox.api.events.BentoBoxReadyEvent;
+
+/**
+ * Compiled world settings of {@link Flag.Type#WORLD_SETTING} and {@link Flag.Type#PROTECTION} flags.
+ * <p>
+ * Each world has a bit set indexed by {@link Flag#getOrdinal()}, with two bits per flag: whether the setting is known
+ * and its value. Flags that are not registered are looked up in the world settings every time. It is built from {@link WorldSettings#getWorldFlags()} the first time the world is checked after the
+ * settings are loaded or changed. Settings that are missing are set to the flag's default and saved to the game mode's
+ * config a second later, in one save per game mode.
+ * <p>
+ * Tables are kept by world UID, so unloaded worlds are not held on to.
+ * {@link world.bentobox.bentobox.api.commands.admin.AdminReloadCommand} clears the tables after the game mode reloads
+ * its settings. Game modes that reload their settings in some other way should call {@link #clear()}.
+ *
+ * @since 1.15.0
+ */
+public class WorldFlagTable implements Listener {
+
+    /**
+     * Ticks to wait before missing settings are saved
+     */
+    private static final long SAVE_DELAY = 20L;
+
+    /**
+     * Table of worlds that are not game worlds
+     */
+    private static final long[] NONE = new long[0];
+
+    /**
+     * World UID -> compiled settings
+     */
+    private final Map<UUID, long[]> tables = new ConcurrentHashMap<>();
+    private final Set<GameModeAddon> toSave = ConcurrentHashMap.newKeySet();
+    private BukkitTask saveTask;
+
+    /**
+     * Check if a flag is set in this world
+     * @param world - world
+     * @param flag - flag
+     * @return the world setting, or false if this is not a game world
+     */
+    public boolean isSet(@NonNull World world, @NonNull Flag flag) {
+        long[] bits = tables.get(world.getUID());
+        int known = flag.getOrdinal() << 1;
+        if (bits != null && known >= 0 && (known >> 6) < bits.length && (bits[known >> 6] & (1L << known)) != 0) {
+            return (bits[known >> 6] & (1L << (known + 1))) != 0;
+        }
+        return bits != NONE && compile(world, flag);
+    }
+
+    /**
+     * Adds the world to the table, or the flag to the world's table
+     * @return the world setting
+     */
+    private synchronized boolean compile(World world, Flag flag) {
+        WorldSettings ws = BentoBox.getInstance().getIWM().getWorldSettings(world);
+        if (ws == null) {
+            tables.put(world.getUID(), NONE);
+            return false;
+        }
+        if (flag.getOrdinal() < 0) {
+            return resolve(world, ws, flag);
+        }
+        long[] bits = tables.get(world.getUID());
+        List<Flag> flags = new ArrayList<>();
+        if (bits == null) {
+            // Build the whole world at once
+            BentoBox.getInstance().getFlagsManager().getFlags().stream()
+            .filter(f -> f.getOrdinal() >= 0)
+            .filter(f -> f.getType().equals(Flag.Type.WORLD_SETTING) || f.getType().equals(Flag.Type.PROTECTION))
+            .forEach(flags::add);
+            bits = new long[0];
+        }
+        flags.add(flag);
+        // Copy, so readers never see a half written table
+        for (Flag f : flags) {
+            int known = f.getOrdinal() << 1;
+            if ((known >> 6) >= bits.length) {
+                bits = Arrays.copyOf(bits, (known >> 6) + 1);
+            } else if (f == flag) {
+                bits = bits.clone();
+            }
+            bits[known >> 6] |= 1L << known;
+            if (resolve(world, ws, f)) {
+                bits[known >> 6] |= 1L << (known + 1);
+            }
+        }
+        tables.put(world.getUID(), bits);
+        return resolve(world, ws, flag);
+    }
+
+    /**
+     * Gets the setting from the world settings, adding the flag's default if it is missing
+     */
+    private boolean resolve(World world, WorldSettings ws, Flag flag) {
+        Boolean setting = ws.getWorldFlags().get(flag.getID());
+        if (setting == null) {
+            setting = flag.isDefaultSetting();
+            ws.getWorldFlags().put(flag.getID(), setting);
+            BentoBox.getInstance().getIWM().getAddon(world).ifPresent(this::save);
+        }
+        return setting;
+    }
+
+    /**
+     * Saves the game mode's world settings a little later. Saves asked for in the meantime are done together.
+     * @param gameMode - game mode
+     */
+    private void save(GameModeAddon gameMode) {
+        toSave.add(gameMode);
+        if (saveTask == null) {
+            saveTask = Bukkit.getScheduler().runTaskLater(BentoBox.getInstance(), this::saveAll, SAVE_DELAY);
+        }
+    }
+
+    private void saveAll() {
+        List<GameModeAddon> gameModes;
+        synchronized (this) {
+            saveTask = null;
+            gameModes = new ArrayList<>(toSave);
+            toSave.removeAll(gameModes);
+        }
+        gameModes.forEach(GameModeAddon::saveWorldSettings);
+    }
+
+    /**
+     * Forgets every compiled world. Call this if world settings change or are reloaded.
+     */
+    public void clear() {
+        tables.clear();
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onBentoBoxReady(BentoBoxReadyEvent e) {
+        // Settings and addons have been (re)loaded
+        clear();
+    }
+}
@@ -4,12 +4,15 @@ import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.inventory.ItemStack;
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
 
 import world.bentobox.bentobox.util.ItemParser;
 
@@ -31,6 +34,17 @@ public class BentoBoxLocale {
      */
     private Set<String> prefixes;
 
+    /**
+     * Every value in this locale by its full reference, so that a lookup does not walk the YAML tree
+     * @since 1.15.0
+     */
+    private volatile Map<String, String> strings;
+    /**
+     * References of the sections in this locale
+     * @since 1.15.0
+     */
+    private volatile Set<String> sections;
+
     public BentoBoxLocale(Locale locale, YamlConfiguration config) {
         this.locale = locale;
         this.config = config;
@@ -45,6 +59,27 @@ public class BentoBoxLocale {
         // Load prefixes from the configuration
         prefixes = new HashSet<>();
         updatePrefixes(config);
+
+        index();
+    }
+
+    /**
+     * Indexes every value in the config. The new index replaces the old one in one go.
+     */
+    private void index() {
+        Map<String, String> newStrings = new ConcurrentHashMap<>();
+        Set<String> newSections = ConcurrentHashMap.newKeySet();
+        for (String key : config.getKeys(true)) {
+            String value = config.isConfigurationSection(key) ? null : config.getString(key);
+            if (value != null) {
+                newStrings.put(key, value);
+            } else {
+                // Sections and values without text are still in this locale
+                newSections.add(key);
+            }
+        }
+        strings = newStrings;
+        sections = newSections;
     }
 
     /**
@@ -53,10 +88,25 @@ public class BentoBoxLocale {
      * @return Text for this locale reference or the reference if nothing has been found
      */
     public String get(String reference) {
-        if (config.contains(reference)) {
+        String value = getOrNull(reference);
+        return value == null ? reference : value; // return reference in case nothing has been found
+    }
+
+    /**
+     * Get text from the yml file for this locale.
+     * A section gives what {@link YamlConfiguration#getString(String)} gives for it.
+     * @param reference - the YAML node where the text is
+     * @return Text for this locale reference or null if nothing has been found
+     * @since 1.15.0
+     * @see #contains(String)
+     */
+    @Nullable
+    public String getOrNull(String reference) {
+        String value = strings.get(reference);
+        if (value == null && sections.contains(reference)) {
             return config.getString(reference);
         }
-        return reference; // return reference in case nothing has been found
+        return value;
     }
 
     /**
@@ -118,6 +168,7 @@ public class BentoBoxLocale {
         }
         updateAuthors(toBeMerged);
         updatePrefixes(toBeMerged);
+        index();
     }
 
     /**
@@ -129,10 +180,16 @@ public class BentoBoxLocale {
      */
     public void set(@NonNull String reference, @NonNull String value) {
         config.set(reference, value);
+        sections.remove(reference);
+        strings.put(reference, value);
+        // Parent sections may be new
+        for (int dot = reference.indexOf('.'); dot > 0; dot = reference.indexOf('.', dot + 1)) {
+            sections.add(reference.substring(0, dot));
+        }
     }
 
     public boolean contains(String reference) {
-        return config.contains(reference);
+        return strings.containsKey(reference) || sections.contains(reference);
     }
 
     private void updateAuthors(YamlConfiguration yamlConfiguration) {
@@ -0,0 +1,293 @@
+package world.bentobox.bentobox.api.localization;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.bukkit.ChatColor;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+import world.bentobox.bentobox.util.Util;
+
+/**
+ * A translation that has been compiled into a list of tokens, so it can be rendered without searching and replacing.
+ * <p>
+ * Prefixes are expanded and color codes are translated when the template is compiled. Every {@code [...]} in the text
+ * becomes a slot that is filled with the variable of the same name, or left as it is if there is none.
+ * {@code [gamemode]} and {@code [friendly_name]} in prefixes are filled with the user's game mode and world.
+ * The output of a template without variables is kept after it is rendered the first time.
+ *
+ * @since 1.15.0
+ */
+public class MessageTemplate {
+
+    private static final String GAMEMODE = "[gamemode]";
+    private static final String FRIENDLY_NAME = "[friendly_name]";
+
+    private enum Kind {
+        TEXT,
+        VARIABLE,
+        GAMEMODE,
+        FRIENDLY_NAME
+    }
+
+    /**
+     * Token kinds
+     */
+    private final Kind[] kinds;
+    /**
+     * Colored text of text tokens, slot names of the others
+     */
+    private final String[] texts;
+    /**
+     * Colored slot names, used when a slot has no variable
+     */
+    private final String[] unfilled;
+    private final boolean context;
+    private final boolean percent;
+    private final int length;
+    private volatile String rendered;
+
+    private MessageTemplate(List<Kind> kinds, List<String> texts, boolean percent) {
+        this.kinds = kinds.toArray(new Kind[0]);
+        this.texts = new String[kinds.size()];
+        this.unfilled = new String[kinds.size()];
+        boolean hasContext = false;
+        int len = 0;
+        for (int i = 0; i < this.kinds.length; i++) {
+            String colored = color(texts.get(i));
+            if (this.kinds[i] == Kind.TEXT) {
+                this.texts[i] = colored;
+            } else {
+                this.texts[i] = texts.get(i);
+                this.unfilled[i] = colored;
+                hasContext |= this.kinds[i] != Kind.VARIABLE;
+            }
+            len += colored.length();
+        }
+        this.context = hasContext;
+        this.percent = percent;
+        this.length = len;
+    }
+
+    /**
+     * Compiles a translation
+     * @param translation - text from the locale file
+     * @param prefixes - text of each {@code [prefix_...]} in the translation
+     * @return template
+     */
+    @NonNull
+    public static MessageTemplate compile(@NonNull String translation, @NonNull Map<String, String> prefixes) {
+        List<Kind> kinds = new ArrayList<>();
+        List<String> texts = new ArrayList<>();
+        boolean percent = translation.indexOf('%') >= 0;
+        StringBuilder text = new StringBuilder();
+        int from = 0;
+        int open;
+        while ((open = translation.indexOf('[', from)) >= 0) {
+            int close = slotEnd(translation, open);
+            if (close < 0) {
+                // Not a slot
+                text.append(translation, from, open + 1);
+                from = open + 1;
+                continue;
+            }
+            text.append(translation, from, open);
+            String slot = translation.substring(open, close + 1);
+            String prefix = prefixes.get(slot);
+            if (prefix != null) {
+                percent |= prefix.indexOf('%') >= 0;
+                tokenize(prefix, true, text, kinds, texts);
+            } else {
+                addSlot(Kind.VARIABLE, slot, text, kinds, texts);
+            }
+            from = close + 1;
+        }
+        text.append(translation, from, translation.length());
+        addText(text, kinds, texts);
+        return new MessageTemplate(kinds, texts, percent);
+    }
+
+    /**
+     * Splits text into text and slots
+     * @param prefix - true if this is the text of a prefix
+     */
+    private static void tokenize(String s, boolean prefix, StringBuilder text, List<Kind> kinds, List<String> texts) {
+        int from = 0;
+        int open;
+        while ((open = s.indexOf('[', from)) >= 0) {
+            int close = slotEnd(s, open);
+            if (close < 0) {
+                text.append(s, from, open + 1);
+                from = open + 1;
+                continue;
+            }
+            text.append(s, from, open);
+            String slot = s.substring(open, close + 1);
+            if (prefix && slot.equals(GAMEMODE)) {
+                addSlot(Kind.GAMEMODE, slot, text, kinds, texts);
+            } else if (prefix && slot.equals(FRIENDLY_NAME)) {
+                addSlot(Kind.FRIENDLY_NAME, slot, text, kinds, texts);
+            } else {
+                addSlot(Kind.VARIABLE, slot, text, kinds, texts);
+            }
+            from = close + 1;
+        }
+        text.append(s, from, s.length());
+    }
+
+    /**
+     * Finds the end of a slot
+     * @return index of the closing bracket, or -1 if there is none before the next opening one
+     */
+    private static int slotEnd(String s, int open) {
+        for (int i = open + 1; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == ']') {
+                return i;
+            }
+            if (c == '[') {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static void addSlot(Kind kind, String slot, StringBuilder text, List<Kind> kinds, List<String> texts) {
+        addText(text, kinds, texts);
+        kinds.add(kind);
+        texts.add(slot);
+    }
+
+    private static void addText(StringBuilder text, List<Kind> kinds, List<String> texts) {
+        if (text.length() > 0) {
+            kinds.add(Kind.TEXT);
+            texts.add(text.toString());
+            text.setLength(0);
+        }
+    }
+
+    /**
+     * Checks if these variables can be put into slots. Variables that are not of the form {@code [name]} cannot.
+     * @param variables - variables, in pairs
+     * @return true if they can
+     */
+    public static boolean isSlots(@NonNull String[] variables) {
+        if (variables.length > 1) {
+            for (int i = 0; i < variables.length; i += 2) {
+                String name = variables[i];
+                if (name == null || name.length() < 2 || name.charAt(0) != '[' || name.indexOf(']') != name.length() - 1
+                        || name.indexOf('[', 1) >= 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if the rendered text could contain PlaceholderAPI placeholders
+     * @param variables - variables, in pairs
+     * @return true if the template or a variable contains a {@code %}
+     */
+    public boolean hasPlaceholders(@NonNull String[] variables) {
+        if (percent) {
+            return true;
+        }
+        if (variables.length > 1) {
+            for (int i = 1; i < variables.length; i += 2) {
+                if (variables[i] != null && variables[i].indexOf('%') >= 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if the template has {@code [gamemode]} or {@code [friendly_name]} slots from prefixes
+     */
+    public boolean hasContext() {
+        return context;
+    }
+
+    /**
+     * Renders the template
+     * @param variables - variables to put into slots, in pairs, for example "[name]", "tastybento"
+     * @param gamemode - game mode name for {@code [gamemode]} in prefixes, or null to leave it as it is
+     * @param friendlyName - world name for {@code [friendly_name]} in prefixes, or null to leave it as it is
+     * @return colored text
+     */
+    @NonNull
+    public String render(@NonNull String[] variables, @Nullable String gamemode, @Nullable String friendlyName) {
+        boolean fill = variables.length > 1;
+        if (!fill && !context) {
+            String result = rendered;
+            if (result == null) {
+                result = build(variables, false, null, null);
+                rendered = result;
+            }
+            return result;
+        }
+        return build(variables, fill, gamemode, friendlyName);
+    }
+
+    private String build(String[] variables, boolean fill, String gamemode, String friendlyName) {
+        StringBuilder sb = new StringBuilder(length + 16);
+        for (int i = 0; i < kinds.length; i++) {
+            switch (kinds[i]) {
+            case TEXT:
+                append(sb, texts[i]);
+                break;
+            case GAMEMODE:
+                append(sb, gamemode == null ? fill(variables, fill, i) : color(gamemode));
+                break;
+            case FRIENDLY_NAME:
+                append(sb, friendlyName == null ? fill(variables, fill, i) : color(friendlyName));
+                break;
+            default:
+                append(sb, fill(variables, fill, i));
+                break;
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Gets the text of a slot from the variables
+     */
+    private String fill(String[] variables, boolean fill, int i) {
+        String value = fill ? find(variables, texts[i]) : null;
+        return value == null ? unfilled[i] : color(value);
+    }
+
+    @Nullable
+    private static String find(String[] variables, String name) {
+        for (int i = 0; i + 1 < variables.length; i += 2) {
+            if (name.equals(variables[i])) {
+                return variables[i + 1];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Appends text, dropping a space after a color code at the join like {@link Util#stripSpaceAfterColorCodes(String)}
+     */
+    private static void append(StringBuilder sb, String s) {
+        int len = sb.length();
+        if (len >= 2 && sb.charAt(len - 2) == ChatColor.COLOR_CHAR && !s.isEmpty() && Character.isWhitespace(s.charAt(0))) {
+            sb.append(s, 1, s.length());
+        } else {
+            sb.append(s);
+        }
+    }
+
+    private static String color(String s) {
+        if (s.indexOf('&') < 0 && s.indexOf(ChatColor.COLOR_CHAR) < 0) {
+            return s;
+        }
+        return Util.stripSpaceAfterColorCodes(ChatColor.translateAlternateColorCodes('&', s));
+    }
+}
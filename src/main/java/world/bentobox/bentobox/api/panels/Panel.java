@@ -1,18 +1,17 @@
 package world.bentobox.bentobox.api.panels;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import org.bukkit.Bukkit;
-import org.bukkit.ChatColor;
-import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.InventoryType;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.InventoryHolder;
-import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
 import org.eclipse.jdt.annotation.NonNull;
 
 import world.bentobox.bentobox.api.user.User;
@@ -32,6 +31,11 @@ public class Panel implements HeadRequester, InventoryHolder {
     private PanelListener listener;
     private User user;
     private String name;
+    /**
+     * Slots waiting for each player head
+     * @since 1.15.0
+     */
+    private Map<String, List<Integer>> waitingHeads = new HashMap<>();
 
     /**
      * Various types of Panel that can be created.
@@ -83,15 +87,19 @@ public class Panel implements HeadRequester, InventoryHolder {
         }
 
         // Fill the inventory and return
+        waitingHeads = new HashMap<>();
+        Map<String, PanelItem> heads = new LinkedHashMap<>();
         for (Map.Entry<Integer, PanelItem> en: items.entrySet()) {
             if (en.getKey() < 54) {
                 inventory.setItem(en.getKey(), en.getValue().getItem());
-                // Get player head async
                 if (en.getValue().isPlayerHead()) {
-                    HeadGetter.getHead(en.getValue(), this);
+                    waitingHeads.computeIfAbsent(en.getValue().getPlayerHeadName(), k -> new ArrayList<>()).add(en.getKey());
+                    heads.putIfAbsent(en.getValue().getPlayerHeadName(), en.getValue());
                 }
             }
         }
+        // Get player heads async, one request per head
+        heads.values().forEach(item -> HeadGetter.getHead(item, this));
         this.listener = listener;
         // If the listener is defined, then run setup
         if (listener != null) listener.setup();
@@ -189,19 +197,22 @@ public class Panel implements HeadRequester, InventoryHolder {
      */
     @Override
     public void setHead(PanelItem item) {
-        // Update the panel item
-        // Replace the item in the item list if the name is the same
-        items = items.entrySet().stream()
-                .collect(Collectors.toMap(Map.Entry::getKey, e -> (item.getName().equals(e.getValue().getName()) ? item : e.getValue())));
-        // Replace the inventory slot item
-        for (int i = 0; i < inventory.getSize(); i++) {
-            ItemStack it = inventory.getItem(i);
-            if (it != null && it.getType().equals(Material.PLAYER_HEAD)) {
-                ItemMeta meta = it.getItemMeta();
-                if (meta != null && ChatColor.stripColor(item.getName()).equals(ChatColor.stripColor(meta.getLocalizedName()))) {
-                    inventory.setItem(i, item.getItem());
-                }
+        // Only the slots that are waiting for this head are updated
+        List<Integer> slots = waitingHeads.remove(item.getPlayerHeadName());
+        if (slots == null) {
+            return;
+        }
+        for (int slot : slots) {
+            PanelItem slotItem = items.get(slot);
+            if (slotItem == null || !item.getPlayerHeadName().equals(slotItem.getPlayerHeadName())) {
+                // The panel has changed
+                continue;
+            }
+            if (slotItem != item) {
+                // Same head, different item
+                slotItem.setHead(item.getItem().clone());
             }
+            inventory.setItem(slot, slotItem.getItem());
         }
     }
 
@@ -29,6 +29,7 @@ import org.eclipse.jdt.annotation.Nullable;
 import world.bentobox.bentobox.BentoBox;
 import world.bentobox.bentobox.api.addons.Addon;
 import world.bentobox.bentobox.api.events.OfflineMessageEvent;
+import world.bentobox.bentobox.api.localization.MessageTemplate;
 import world.bentobox.bentobox.util.Util;
 
 /**
@@ -354,6 +355,13 @@ public class User {
         return translate(addonPrefix, reference, variables);
     }
 
+    /**
+     * @return the addon name and a dot, or an empty string if this user has no addon
+     */
+    private String getAddonPrefix() {
+        return addon == null ? "" : addon.getDescription().getName().toLowerCase(Locale.ENGLISH) + ".";
+    }
+
     /**
      * Gets a translation of this reference for this user. Translations may be overridden by Addons
      * by using the same reference prefixed by the addon name (from the Addon Description) in lower case.
@@ -363,12 +371,33 @@ public class User {
      * @return Translated string with colors converted, or the reference if nothing has been found
      */
     public String getTranslation(String reference, String... variables) {
-        // Get addonPrefix
-        String addonPrefix = addon == null ? "" : addon.getDescription().getName().toLowerCase(Locale.ENGLISH) + ".";
-        return translate(addonPrefix, reference, variables);
+        return translate(getAddonPrefix(), reference, variables);
     }
 
     private String translate(String addonPrefix, String reference, String[] variables) {
+        if (!reference.startsWith("prefixes.") && MessageTemplate.isSlots(variables)) {
+            // Use the compiled translation
+            MessageTemplate template = plugin.getLocalesManager().getTemplate(this, addonPrefix, getAddonPrefix(), reference);
+            if (template == null) {
+                // If no translation has been found, return the reference for debug purposes.
+                return reference;
+            }
+            if (player == null || !template.hasPlaceholders(variables)) {
+                if (!template.hasContext()) {
+                    return template.render(variables, null, null);
+                }
+                return template.render(variables, addon != null ? addon.getDescription().getName() : null,
+                        getWorld() != null ? plugin.getIWM().getFriendlyName(getWorld()) : null);
+            }
+        }
+        return translateText(addonPrefix, reference, variables);
+    }
+
+    /**
+     * Translates without a compiled template. Used for prefixes, for variables that cannot be put into slots,
+     * and when PlaceholderAPI placeholders need to be replaced.
+     */
+    private String translateText(String addonPrefix, String reference, String[] variables) {
         String translation = plugin.getLocalesManager().get(this, addonPrefix + reference);
 
         if (translation == null) {
@@ -514,10 +543,11 @@ public class User {
      * @return Locale
      */
     public Locale getLocale() {
-        if (sender instanceof Player && !plugin.getPlayers().getLocale(playerUUID).isEmpty()) {
-            return Locale.forLanguageTag(plugin.getPlayers().getLocale(playerUUID));
+        String tag = sender instanceof Player ? plugin.getPlayers().getLocale(playerUUID) : "";
+        if (tag.isEmpty()) {
+            tag = plugin.getSettings().getDefaultLanguage();
         }
-        return Locale.forLanguageTag(plugin.getSettings().getDefaultLanguage());
+        return plugin.getLocalesManager() == null ? Locale.forLanguageTag(tag) : plugin.getLocalesManager().getLocale(tag);
     }
 
     /**
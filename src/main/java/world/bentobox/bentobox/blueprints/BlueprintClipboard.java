@@ -3,14 +3,19 @@ package world.bentobox.bentobox.blueprints;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.World;
@@ -42,6 +47,7 @@ import world.bentobox.bentobox.api.user.User;
 import world.bentobox.bentobox.blueprints.dataobjects.BlueprintBlock;
 import world.bentobox.bentobox.blueprints.dataobjects.BlueprintCreatureSpawner;
 import world.bentobox.bentobox.blueprints.dataobjects.BlueprintEntity;
+import world.bentobox.bentobox.util.Util;
 
 /**
  * The clipboard provides the holding spot for an active blueprint that is being
@@ -65,6 +71,10 @@ public class BlueprintClipboard {
     private Map<Vector, List<BlueprintEntity>> bpEntities = new LinkedHashMap<>();
     private Map<Vector, BlueprintBlock> bpAttachable = new LinkedHashMap<>();
     private Map<Vector, BlueprintBlock> bpBlocks = new LinkedHashMap<>();
+    /**
+     * Whether blocks of each type attach to others
+     */
+    private final Map<Material, Boolean> attachable = new EnumMap<>(Material.class);
     private BentoBox plugin = BentoBox.getInstance();
 
     /**
@@ -117,38 +127,69 @@ public class BlueprintClipboard {
         blueprint.setySize((int)toCopy.getHeight());
         blueprint.setzSize((int)toCopy.getWidthZ());
 
-        int speed = plugin.getSettings().getPasteSpeed();
-        List<Vector> vectorsToCopy = getVectors(toCopy);
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> copyAsync(world, user, vectorsToCopy, speed, copyAir));
+        copyChunks(world, user, toCopy, copyAir);
         return true;
     }
 
-    private void copyAsync(World world, User user, List<Vector> vectorsToCopy, int speed, boolean copyAir) {
+    /**
+     * Copies the box chunk by chunk, reading blocks from chunk snapshots.
+     * As many blocks as fit in {@link world.bentobox.bentobox.Settings#getPasteTimeBudget()} are copied each tick.
+     * @param world - world
+     * @param user - user
+     * @param toCopy - box to copy
+     * @param copyAir - true to copy air blocks
+     */
+    private void copyChunks(World world, User user, BoundingBox toCopy, boolean copyAir) {
+        CopyCursor cursor = new CopyCursor(toCopy);
+        long total = cursor.getVolume();
+        // Entities are looked up once, by block position
+        Map<Vector, List<LivingEntity>> entities = getEntities(world, cursor);
+        attachable.clear();
+        final long timeBudget = TimeUnit.MILLISECONDS.toNanos(plugin.getSettings().getPasteTimeBudget());
+        final int speed = plugin.getSettings().getPasteSpeed();
         copying = false;
         copyTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
             if (copying) {
+                // Waiting for a chunk to load
                 return;
             }
             copying = true;
-            vectorsToCopy.stream().skip(index).limit(speed).forEach(v -> {
-                List<LivingEntity> ents = world.getLivingEntities().stream()
-                        .filter(Objects::nonNull)
-                        .filter(e -> !(e instanceof Player))
-                        .filter(e -> new Vector(Math.rint(e.getLocation().getX()),
-                                Math.rint(e.getLocation().getY()),
-                                Math.rint(e.getLocation().getZ())).equals(v))
-                        .collect(Collectors.toList());
-                if (copyBlock(v.toLocation(world), origin, copyAir, ents)) {
+            long deadline = timeBudget > 0 ? System.nanoTime() + timeBudget : Long.MAX_VALUE;
+            int limit = timeBudget > 0 ? Integer.MAX_VALUE : speed;
+            int n = 0;
+            while (cursor.hasNext() && n < limit && System.nanoTime() < deadline) {
+                if (cursor.snapshot == null && world.isChunkLoaded(cursor.chunkX, cursor.chunkZ)) {
+                    cursor.setChunk(world.getChunkAt(cursor.chunkX, cursor.chunkZ));
+                } else if (cursor.snapshot == null) {
+                    // Load the chunk and carry on when it is in
+                    Util.getChunkAtAsync(world, cursor.chunkX, cursor.chunkZ).whenComplete((chunk, e) -> {
+                        if (e != null) {
+                            // Stop, so that the user can copy again
+                            copyTask.cancel();
+                            plugin.logError("Could not load chunk " + cursor.chunkX + "," + cursor.chunkZ + " in " + world.getName()
+                            + " to copy blueprint: " + e.getMessage());
+                            user.sendMessage("commands.admin.blueprint.copy-failed");
+                        } else {
+                            cursor.setChunk(chunk);
+                        }
+                        copying = false;
+                    });
+                    return;
+                }
+                cursor.next();
+                Vector v = new Vector(cursor.x, cursor.y, cursor.z);
+                if (copyBlock(world, cursor, copyAir, entities.getOrDefault(v, Collections.emptyList()))) {
                     count++;
                 }
-            });
-            index += speed;
-            int percent = (int)(index * 100 / (double)vectorsToCopy.size());
+                n++;
+                index++;
+            }
+            int percent = (int)(index * 100 / (double)total);
             if (percent != lastPercentage && percent % 10 == 0) {
                 user.sendMessage("commands.admin.blueprint.copied-percent", TextVariables.NUMBER, String.valueOf(percent));
                 lastPercentage = percent;
             }
-            if (index > vectorsToCopy.size()) {
+            if (!cursor.hasNext()) {
                 copyTask.cancel();
                 blueprint.setAttached(bpAttachable);
                 blueprint.setBlocks(bpBlocks);
@@ -161,20 +202,59 @@ public class BlueprintClipboard {
     }
 
     /**
-     * Get all the x,y,z coords that must be copied
-     * @param b - bounding box
-     * @return - list of vectors
+     * Get the living entities in the blocks the cursor will go through, other than players, by block position
+     * @param world - world
+     * @param cursor - copy cursor
+     * @return entities by block position
      */
-    private List<Vector> getVectors(BoundingBox b) {
-        List<Vector> r = new ArrayList<>();
-        for (int y = (int)b.getMinY(); y <= b.getMaxY(); y++) {
-            for (int x = (int)b.getMinX(); x <= b.getMaxX(); x++) {
-                for (int z = (int)b.getMinZ(); z <= b.getMaxZ(); z++) {
-                    r.add(new Vector(x,y,z));
-                }
+    private Map<Vector, List<LivingEntity>> getEntities(World world, CopyCursor cursor) {
+        Map<Vector, List<LivingEntity>> entities = new HashMap<>();
+        // Entities are copied to the block that their position rounds to
+        BoundingBox area = new BoundingBox(cursor.minX, cursor.minY, cursor.minZ, cursor.maxX, cursor.maxY, cursor.maxZ).expand(0.5D);
+        world.getNearbyEntities(area, e -> e instanceof LivingEntity && !(e instanceof Player)).forEach(e -> {
+            int x = (int)Math.rint(e.getLocation().getX());
+            int y = (int)Math.rint(e.getLocation().getY());
+            int z = (int)Math.rint(e.getLocation().getZ());
+            if (cursor.contains(x, y, z)) {
+                entities.computeIfAbsent(new Vector(x, y, z), k -> new ArrayList<>()).add((LivingEntity)e);
             }
+        });
+        return entities;
+    }
+
+    /**
+     * Copies the block at the cursor. Plain blocks are read from the chunk snapshot,
+     * blocks with a state or that attach to others are read from the world.
+     * @return true if something was copied
+     */
+    private boolean copyBlock(World world, CopyCursor cursor, boolean copyAir, Collection<LivingEntity> entities) {
+        int lx = cursor.x & 0xF;
+        int lz = cursor.z & 0xF;
+        Material type = cursor.snapshot.getBlockType(lx, cursor.y, lz);
+        if (!copyAir && type.equals(Material.AIR) && entities.isEmpty()) {
+            return false;
+        }
+        if (cursor.isTileEntity(lx, cursor.y, lz) || isAttachable(world, type, cursor)) {
+            return copyBlock(new Location(world, cursor.x, cursor.y, cursor.z), origin, copyAir, entities);
+        }
+        Vector pos = new Vector(cursor.x - origin.getBlockX(), cursor.y - origin.getBlockY(), cursor.z - origin.getBlockZ());
+        copyEntities(pos, entities);
+        // Return if this is just air block
+        if (!copyAir && type.equals(Material.AIR)) {
+            return true;
+        }
+        if (type.equals(Material.BEDROCK)) {
+            setBedrock(pos);
         }
-        return r;
+        bpBlocks.put(pos, new BlueprintBlock(cursor.snapshot.getBlockData(lx, cursor.y, lz).getAsString()));
+        return true;
+    }
+
+    /**
+     * Checks if blocks of this type attach to others. Found out from the first block of each type.
+     */
+    private boolean isAttachable(World world, Material type, CopyCursor cursor) {
+        return attachable.computeIfAbsent(type, t -> world.getBlockAt(cursor.x, cursor.y, cursor.z).getState().getData() instanceof Attachable);
     }
 
     private boolean copyBlock(Location l, @Nullable Vector origin2, boolean copyAir, Collection<LivingEntity> entities) {
@@ -188,50 +268,7 @@ public class BlueprintClipboard {
         int z = l.getBlockZ() - origin2.getBlockZ();
         Vector pos = new Vector(x, y, z);
 
-        // Set entities
-        List<BlueprintEntity> bpEnts = new ArrayList<>();
-        for (LivingEntity entity: entities) {
-            BlueprintEntity bpe = new BlueprintEntity();
-            bpe.setType(entity.getType());
-            bpe.setCustomName(entity.getCustomName());
-            if (entity instanceof Colorable) {
-                Colorable c = (Colorable)entity;
-                if (c.getColor() != null) {
-                    bpe.setColor(c.getColor());
-                }
-            }
-            if (entity instanceof Tameable) {
-                bpe.setTamed(((Tameable)entity).isTamed());
-            }
-            if (entity instanceof ChestedHorse) {
-                bpe.setChest(((ChestedHorse)entity).isCarryingChest());
-            }
-            // Only set if child. Most animals are adults
-            if (entity instanceof Ageable && !((Ageable)entity).isAdult()) {
-                bpe.setAdult(false);
-            }
-            if (entity instanceof AbstractHorse) {
-                AbstractHorse horse = (AbstractHorse)entity;
-                bpe.setDomestication(horse.getDomestication());
-                bpe.setInventory(new HashMap<>());
-                for (int i = 0; i < horse.getInventory().getSize(); i++) {
-                    ItemStack item = horse.getInventory().getItem(i);
-                    if (item != null) {
-                        bpe.getInventory().put(i, item);
-                    }
-                }
-            }
-
-            if (entity instanceof Horse) {
-                Horse horse = (Horse)entity;
-                bpe.setStyle(horse.getStyle());
-            }
-            bpEnts.add(bpe);
-        }
-        // Store
-        if (!bpEnts.isEmpty()) {
-            bpEntities.put(pos, bpEnts);
-        }
+        copyEntities(pos, entities);
 
         // Return if this is just air block
         if (!copyAir && block.getType().equals(Material.AIR) && !entities.isEmpty()) {
@@ -255,14 +292,7 @@ public class BlueprintClipboard {
         }
 
         if (block.getType().equals(Material.BEDROCK)) {
-            // Find highest bedrock
-            if(blueprint.getBedrock() == null) {
-                blueprint.setBedrock(pos);
-            } else {
-                if (pos.getBlockY() > blueprint.getBedrock().getBlockY()) {
-                    blueprint.setBedrock(pos);
-                }
-            }
+            setBedrock(pos);
         }
 
         // Chests
@@ -299,6 +329,60 @@ public class BlueprintClipboard {
         return true;
     }
 
+    private void setBedrock(Vector pos) {
+        // Find highest bedrock
+        if (blueprint.getBedrock() == null || pos.getBlockY() > blueprint.getBedrock().getBlockY()) {
+            blueprint.setBedrock(pos);
+        }
+    }
+
+    private void copyEntities(Vector pos, Collection<LivingEntity> entities) {
+        // Set entities
+        List<BlueprintEntity> bpEnts = new ArrayList<>();
+        for (LivingEntity entity: entities) {
+            BlueprintEntity bpe = new BlueprintEntity();
+            bpe.setType(entity.getType());
+            bpe.setCustomName(entity.getCustomName());
+            if (entity instanceof Colorable) {
+                Colorable c = (Colorable)entity;
+                if (c.getColor() != null) {
+                    bpe.setColor(c.getColor());
+                }
+            }
+            if (entity instanceof Tameable) {
+                bpe.setTamed(((Tameable)entity).isTamed());
+            }
+            if (entity instanceof ChestedHorse) {
+                bpe.setChest(((ChestedHorse)entity).isCarryingChest());
+            }
+            // Only set if child. Most animals are adults
+            if (entity instanceof Ageable && !((Ageable)entity).isAdult()) {
+                bpe.setAdult(false);
+            }
+            if (entity instanceof AbstractHorse) {
+                AbstractHorse horse = (AbstractHorse)entity;
+                bpe.setDomestication(horse.getDomestication());
+                bpe.setInventory(new HashMap<>());
+                for (int i = 0; i < horse.getInventory().getSize(); i++) {
+                    ItemStack item = horse.getInventory().getItem(i);
+                    if (item != null) {
+                        bpe.getInventory().put(i, item);
+                    }
+                }
+            }
+
+            if (entity instanceof Horse) {
+                Horse horse = (Horse)entity;
+                bpe.setStyle(horse.getStyle());
+            }
+            bpEnts.add(bpe);
+        }
+        // Store
+        if (!bpEnts.isEmpty()) {
+            bpEntities.put(pos, bpEnts);
+        }
+    }
+
     /**
      * @return the origin
      */
@@ -378,4 +462,133 @@ public class BlueprintClipboard {
         this.blueprint = blueprint;
         return this;
     }
+
+    /**
+     * Walks through a box chunk by chunk, and in y, x, z order inside each chunk
+     */
+    private static final class CopyCursor {
+        private final int minX;
+        private final int minY;
+        private final int minZ;
+        private final int maxX;
+        private final int maxY;
+        private final int maxZ;
+        // Current chunk
+        private int chunkX;
+        private int chunkZ;
+        private ChunkSnapshot snapshot;
+        /**
+         * Positions of blocks with a state in the current chunk
+         */
+        private final Set<Integer> tiles = new HashSet<>();
+        // Last block returned
+        private int x;
+        private int y;
+        private int z;
+        private boolean started;
+        private boolean chunkFinished;
+        private boolean done;
+
+        private CopyCursor(BoundingBox box) {
+            minX = (int)box.getMinX();
+            minY = (int)box.getMinY();
+            minZ = (int)box.getMinZ();
+            maxX = (int)Math.floor(box.getMaxX());
+            maxY = (int)Math.floor(box.getMaxY());
+            maxZ = (int)Math.floor(box.getMaxZ());
+            chunkX = minX >> 4;
+            chunkZ = minZ >> 4;
+            done = minX > maxX || minY > maxY || minZ > maxZ;
+        }
+
+        /**
+         * @return true if the block is one the cursor goes through. The bounds are inclusive.
+         */
+        private boolean contains(int x, int y, int z) {
+            return x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ;
+        }
+
+        private long getVolume() {
+            return done ? 0 : (long)(maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1);
+        }
+
+        private void setChunk(Chunk chunk) {
+            snapshot = chunk.getChunkSnapshot(false, false, false);
+            tiles.clear();
+            for (BlockState state : chunk.getTileEntities()) {
+                tiles.add(pack(state.getX() & 0xF, state.getY(), state.getZ() & 0xF));
+            }
+        }
+
+        private boolean isTileEntity(int lx, int y, int lz) {
+            return tiles.contains(pack(lx, y, lz));
+        }
+
+        private static int pack(int lx, int y, int lz) {
+            return (y << 8) | (lx << 4) | lz;
+        }
+
+        private int chunkMinX() {
+            return Math.max(minX, chunkX << 4);
+        }
+
+        private int chunkMaxX() {
+            return Math.min(maxX, (chunkX << 4) + 15);
+        }
+
+        private int chunkMinZ() {
+            return Math.max(minZ, chunkZ << 4);
+        }
+
+        private int chunkMaxZ() {
+            return Math.min(maxZ, (chunkZ << 4) + 15);
+        }
+
+        private boolean hasNext() {
+            if (chunkFinished) {
+                chunkFinished = false;
+                nextChunk();
+            }
+            return !done;
+        }
+
+        /**
+         * Moves to the next block. The chunk snapshot must have been set.
+         * The snapshot stays until {@link #hasNext()} moves on to the next chunk.
+         */
+        private void next() {
+            if (!started) {
+                started = true;
+                y = minY;
+                x = chunkMinX();
+                z = chunkMinZ();
+            } else if (z < chunkMaxZ()) {
+                z++;
+            } else if (x < chunkMaxX()) {
+                x++;
+                z = chunkMinZ();
+            } else {
+                y++;
+                x = chunkMinX();
+                z = chunkMinZ();
+            }
+            if (x == chunkMaxX() && z == chunkMaxZ() && y == maxY) {
+                // Last block of this chunk - the next one is in another chunk
+                chunkFinished = true;
+            }
+        }
+
+        private void nextChunk() {
+            snapshot = null;
+            started = false;
+            if (chunkZ < maxZ >> 4) {
+                chunkZ++;
+            } else if (chunkX < maxX >> 4) {
+                chunkX++;
+                chunkZ = minZ >> 4;
+            } else {
+                done = true;
+            }
+        }
+    }
 }
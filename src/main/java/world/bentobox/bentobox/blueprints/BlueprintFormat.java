@@ -0,0 +1,327 @@
+package world.bentobox.bentobox.blueprints;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.bukkit.util.Vector;
+import org.eclipse.jdt.annotation.NonNull;
+
+import com.google.gson.ExclusionStrategy;
+import com.google.gson.FieldAttributes;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.annotations.Expose;
+
+import world.bentobox.bentobox.blueprints.dataobjects.BlueprintBlock;
+
+/**
+ * Reads and writes blueprint files.
+ * <p>
+ * A version 1 file is a zip with a single entry holding the whole blueprint as JSON.
+ * <p>
+ * A version 2 file is a zip with three entries:
+ * <ul>
+ * <li>{@value #META} - the blueprint as JSON, without its blocks</li>
+ * <li>{@value #BLOCKS} - the blocks and attached blocks. Each has a palette of block data strings,
+ * followed by the blocks of each 16x16x16 section, as varint position deltas and palette indices</li>
+ * <li>{@value #TILES} - signs, inventories, spawners and banners as JSON</li>
+ * </ul>
+ * Both versions are read straight from the zip, without extracting it. Files are always written as version 2.
+ * Blocks without tile data that have the same block data share one {@link BlueprintBlock} when loaded.
+ *
+ * @since 1.15.0
+ */
+public class BlueprintFormat {
+
+    public static final int VERSION = 2;
+
+    static final String META = "blueprint.json";
+    static final String BLOCKS = "blocks.bin";
+    static final String TILES = "tiles.json";
+
+    /**
+     * "BBLU"
+     */
+    private static final int MAGIC = 0x42424C55;
+
+    private final Gson gson;
+    /**
+     * Writes the blueprint without its blocks and attached blocks, which go in {@value #BLOCKS}
+     */
+    private final Gson metaGson;
+
+    /**
+     * Leaves out the block maps of {@link Blueprint}
+     */
+    private static class BlocksExclusion implements ExclusionStrategy {
+        @Override
+        public boolean shouldSkipField(FieldAttributes f) {
+            return f.getDeclaringClass().equals(Blueprint.class) && (f.getName().equals("blocks") || f.getName().equals("attached"));
+        }
+
+        @Override
+        public boolean shouldSkipClass(Class<?> clazz) {
+            return false;
+        }
+    }
+
+    /**
+     * Blocks with tile data, which are stored as JSON
+     */
+    private static class Tiles {
+        @Expose
+        private Map<Vector, BlueprintBlock> blocks = new LinkedHashMap<>();
+        @Expose
+        private Map<Vector, BlueprintBlock> attached = new LinkedHashMap<>();
+    }
+
+    /**
+     * @param builder - builder of the Gson used for the JSON parts, set up like the one for version 1 files.
+     * A serialization exclusion strategy for the blueprint's blocks is added to it.
+     */
+    public BlueprintFormat(@NonNull GsonBuilder builder) {
+        this.gson = builder.create();
+        this.metaGson = builder.addSerializationExclusionStrategy(new BlocksExclusion()).create();
+    }
+
+    /**
+     * Get the version of a blueprint file
+     * @param file - blueprint file
+     * @return 2 if this is a version 2 file, otherwise 1
+     * @throws IOException if the file cannot be read
+     */
+    public static int getVersion(@NonNull File file) throws IOException {
+        try (ZipFile zip = new ZipFile(file)) {
+            return zip.getEntry(BLOCKS) != null ? VERSION : 1;
+        }
+    }
+
+    /**
+     * Reads a blueprint file of either version
+     * @param in - zipped blueprint
+     * @return blueprint
+     * @throws IOException if the file cannot be read or is not a blueprint
+     */
+    @NonNull
+    public Blueprint read(@NonNull InputStream in) throws IOException {
+        Blueprint bp = null;
+        List<Map<Vector, BlueprintBlock>> blockSets = null;
+        Tiles tiles = null;
+        try (ZipInputStream zip = new ZipInputStream(new BufferedInputStream(in))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                // Readers are not closed here, as that would close the zip
+                switch (entry.getName()) {
+                case BLOCKS:
+                    blockSets = readBlocks(new DataInputStream(new BufferedInputStream(zip)));
+                    break;
+                case TILES:
+                    tiles = gson.fromJson(new InputStreamReader(zip, StandardCharsets.UTF_8), Tiles.class);
+                    break;
+                case META:
+                    bp = gson.fromJson(new InputStreamReader(zip, StandardCharsets.UTF_8), Blueprint.class);
+                    break;
+                default:
+                    // A whole version 1 blueprint, written in the platform's charset
+                    bp = gson.fromJson(new InputStreamReader(zip, Charset.defaultCharset()), Blueprint.class);
+                    break;
+                }
+                zip.closeEntry();
+            }
+        }
+        if (bp == null) {
+            throw new IOException("No blueprint in file");
+        }
+        if (blockSets != null) {
+            bp.setBlocks(blockSets.get(0));
+            bp.setAttached(blockSets.get(1));
+            if (tiles != null) {
+                bp.getBlocks().putAll(tiles.blocks);
+                bp.getAttached().putAll(tiles.attached);
+            }
+        }
+        return bp;
+    }
+
+    /**
+     * Writes a blueprint as a version 2 file
+     * @param bp - blueprint
+     * @param out - stream to write the zip to
+     * @throws IOException if the file cannot be written
+     */
+    public void write(@NonNull Blueprint bp, @NonNull OutputStream out) throws IOException {
+        Map<Vector, BlueprintBlock> blocks = bp.getBlocks() == null ? new LinkedHashMap<>() : bp.getBlocks();
+        Map<Vector, BlueprintBlock> attached = bp.getAttached() == null ? new LinkedHashMap<>() : bp.getAttached();
+        try (ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(out))) {
+            // Meta data, without the blocks
+            zip.putNextEntry(new ZipEntry(META));
+            Writer metaWriter = new OutputStreamWriter(zip, StandardCharsets.UTF_8);
+            metaGson.toJson(bp, Blueprint.class, metaWriter);
+            metaWriter.flush();
+            zip.closeEntry();
+            // Blocks
+            zip.putNextEntry(new ZipEntry(BLOCKS));
+            DataOutputStream data = new DataOutputStream(zip);
+            data.writeInt(MAGIC);
+            writeVarInt(data, VERSION);
+            writeBlocks(data, blocks);
+            writeBlocks(data, attached);
+            data.flush();
+            zip.closeEntry();
+            // Tile data
+            Tiles tiles = new Tiles();
+            blocks.forEach((v, b) -> {
+                if (hasTileData(b)) {
+                    tiles.blocks.put(v, b);
+                }
+            });
+            attached.forEach((v, b) -> {
+                if (hasTileData(b)) {
+                    tiles.attached.put(v, b);
+                }
+            });
+            zip.putNextEntry(new ZipEntry(TILES));
+            Writer writer = new OutputStreamWriter(zip, StandardCharsets.UTF_8);
+            gson.toJson(tiles, Tiles.class, writer);
+            writer.flush();
+            zip.closeEntry();
+        }
+    }
+
+    private static boolean hasTileData(BlueprintBlock b) {
+        return b.getSignLines() != null || b.getInventory() != null || b.getCreatureSpawner() != null || b.getBannerPatterns() != null;
+    }
+
+    private void writeBlocks(DataOutputStream out, Map<Vector, BlueprintBlock> blocks) throws IOException {
+        // Palette
+        Map<String, Integer> palette = new LinkedHashMap<>();
+        // Section -> position in section -> palette index, sorted by position so that deltas are positive
+        Map<Long, Map<Integer, Integer>> sections = new LinkedHashMap<>();
+        blocks.forEach((v, b) -> {
+            int id = palette.computeIfAbsent(b.getBlockData(), k -> palette.size());
+            int x = v.getBlockX();
+            int y = v.getBlockY();
+            int z = v.getBlockZ();
+            sections.computeIfAbsent(sectionKey(x >> 4, y >> 4, z >> 4), k -> new TreeMap<>())
+            .put(((y & 0xF) << 8) | ((z & 0xF) << 4) | (x & 0xF), id);
+        });
+        writeVarInt(out, palette.size());
+        for (String blockData : palette.keySet()) {
+            out.writeUTF(blockData);
+        }
+        writeVarInt(out, sections.size());
+        for (Map.Entry<Long, Map<Integer, Integer>> section : sections.entrySet()) {
+            long key = section.getKey();
+            writeVarInt(out, zigZag((int)(key << 1 >> 43)));
+            writeVarInt(out, zigZag((int)(key << 22 >> 43)));
+            writeVarInt(out, zigZag((int)(key << 43 >> 43)));
+            writeVarInt(out, section.getValue().size());
+            int last = -1;
+            for (Map.Entry<Integer, Integer> block : section.getValue().entrySet()) {
+                writeVarInt(out, block.getKey() - last);
+                writeVarInt(out, block.getValue());
+                last = block.getKey();
+            }
+        }
+    }
+
+    private List<Map<Vector, BlueprintBlock>> readBlocks(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Blueprint blocks are corrupt");
+        }
+        int version = readVarInt(in);
+        if (version > VERSION) {
+            throw new IOException("Blueprint was saved by a newer version (" + version + ")");
+        }
+        List<Map<Vector, BlueprintBlock>> sets = new ArrayList<>(2);
+        sets.add(readBlockSet(in));
+        sets.add(readBlockSet(in));
+        return sets;
+    }
+
+    private Map<Vector, BlueprintBlock> readBlockSet(DataInputStream in) throws IOException {
+        int paletteSize = readVarInt(in);
+        // Blocks with the same block data share one object
+        BlueprintBlock[] palette = new BlueprintBlock[paletteSize];
+        for (int i = 0; i < paletteSize; i++) {
+            palette[i] = new BlueprintBlock(in.readUTF());
+        }
+        Map<Vector, BlueprintBlock> blocks = new HashMap<>();
+        int sectionCount = readVarInt(in);
+        for (int s = 0; s < sectionCount; s++) {
+            int sx = unZigZag(readVarInt(in)) << 4;
+            int sy = unZigZag(readVarInt(in)) << 4;
+            int sz = unZigZag(readVarInt(in)) << 4;
+            int count = readVarInt(in);
+            int pos = -1;
+            for (int i = 0; i < count; i++) {
+                pos += readVarInt(in);
+                int id = readVarInt(in);
+                if (id < 0 || id >= paletteSize || pos > 0xFFF) {
+                    throw new IOException("Blueprint blocks are corrupt");
+                }
+                blocks.put(new Vector(sx + (pos & 0xF), sy + (pos >> 8), sz + ((pos >> 4) & 0xF)), palette[id]);
+            }
+        }
+        return blocks;
+    }
+
+    /**
+     * Packs section coordinates, 21 bits each
+     */
+    private static long sectionKey(int x, int y, int z) {
+        return ((long)x & 0x1FFFFF) << 42 | ((long)y & 0x1FFFFF) << 21 | ((long)z & 0x1FFFFF);
+    }
+
+    private static int zigZag(int n) {
+        return (n << 1) ^ (n >> 31);
+    }
+
+    private static int unZigZag(int n) {
+        return (n >>> 1) ^ -(n & 1);
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Blueprint blocks are corrupt");
+    }
+}
@@ -2,8 +2,11 @@ package world.bentobox.bentobox.blueprints;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -11,6 +14,7 @@ import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
@@ -81,6 +85,14 @@ public class BlueprintPaster {
     private PasteState pasteState;
     private BukkitTask pastingTask;
     private BlueprintClipboard clipboard;
+    /**
+     * Block data already parsed in this paste, by block data string
+     */
+    private final Map<String, BlockData> palette = new HashMap<>();
+    /**
+     * State to go back to once the chunk being waited for has loaded
+     */
+    private PasteState resumeState;
 
     /**
      * The Blueprint to paste.
@@ -144,13 +156,17 @@ public class BlueprintPaster {
         Map<Vector, BlueprintBlock> blocks = blueprint.getBlocks() == null ? Collections.emptyMap() : blueprint.getBlocks();
         Map<Vector, BlueprintBlock> attached = blueprint.getAttached() == null ? Collections.emptyMap() : blueprint.getAttached();
         Map<Vector, List<BlueprintEntity>> entities = blueprint.getEntities() == null ? Collections.emptyMap() : blueprint.getEntities();
-        Iterator<Entry<Vector, BlueprintBlock>> it = blocks.entrySet().iterator();
-        Iterator<Entry<Vector, BlueprintBlock>> it2 = attached.entrySet().iterator();
+        // Blocks are pasted chunk by chunk
+        ChunkCursor it = new ChunkCursor(groupByChunk(blocks));
+        ChunkCursor it2 = new ChunkCursor(groupByChunk(attached));
         Iterator<Entry<Vector, List<BlueprintEntity>>> it3 = entities.entrySet().iterator();
 
         // Initial state & speed
         pasteState = PasteState.CHUNK_LOAD;
         final int pasteSpeed = plugin.getSettings().getPasteSpeed();
+        // If there is a time budget, paste as many blocks as fit in it, otherwise paste a fixed number
+        final long timeBudget = TimeUnit.MILLISECONDS.toNanos(plugin.getSettings().getPasteTimeBudget());
+        final int blockLimit = timeBudget > 0 ? Integer.MAX_VALUE : pasteSpeed;
 
         // If this is an island OVERWORLD paste, get the island owner.
         final Optional<User> owner = Optional.ofNullable(island)
@@ -168,11 +184,16 @@ public class BlueprintPaster {
 
         pastingTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
             long timer = System.currentTimeMillis();
+            long deadline = timeBudget > 0 ? System.nanoTime() + timeBudget : Long.MAX_VALUE;
             int count = 0;
             if (pasteState.equals(PasteState.CHUNK_LOAD)) {
                 pasteState = PasteState.CHUNK_LOADING;
                 // Load chunk
-                Util.getChunkAtAsync(location).thenRun(() -> {
+                Util.getChunkAtAsync(location).whenComplete((chunk, e) -> {
+                    if (e != null) {
+                        // Chunks are loaded again as blocks are pasted, and skipped if they still fail
+                        plugin.logError("Could not load chunk at " + Util.xyz(location.toVector()) + " to paste blueprint: " + e.getMessage());
+                    }
                     pasteState = PasteState.BLOCKS;
                     long duration = System.currentTimeMillis() - timer;
                     if (duration > chunkLoadTime) {
@@ -180,13 +201,11 @@ public class BlueprintPaster {
                     }
                 });
             }
-            while (pasteState.equals(PasteState.BLOCKS) && count < pasteSpeed && it.hasNext()) {
-                pasteBlock(location, it.next());
-                count++;
+            if (pasteState.equals(PasteState.BLOCKS)) {
+                count += pasteBlocks(it, blockLimit, deadline);
             }
-            while (pasteState.equals(PasteState.ATTACHMENTS) && count < pasteSpeed && it2.hasNext()) {
-                pasteBlock(location, it2.next());
-                count++;
+            if (pasteState.equals(PasteState.ATTACHMENTS)) {
+                count += pasteBlocks(it2, blockLimit - count, deadline);
             }
             while (pasteState.equals(PasteState.ENTITIES) && count < pasteSpeed && it3.hasNext()) {
                 pasteEntity(location, it3.next());
@@ -228,23 +247,78 @@ public class BlueprintPaster {
         return result;
     }
 
-    private void pasteBlock(Location location, Entry<Vector, BlueprintBlock> entry) {
+    /**
+     * Groups blocks by the chunk they will be pasted in
+     * @param blocks - blocks to paste
+     * @return blocks of each chunk
+     */
+    private List<ChunkBlocks> groupByChunk(Map<Vector, BlueprintBlock> blocks) {
+        Map<Long, ChunkBlocks> chunks = new LinkedHashMap<>();
+        for (Entry<Vector, BlueprintBlock> entry : blocks.entrySet()) {
+            Location pasteTo = location.clone().add(entry.getKey());
+            int x = pasteTo.getBlockX() >> 4;
+            int z = pasteTo.getBlockZ() >> 4;
+            chunks.computeIfAbsent(((long)x << 32) | (z & 0xFFFFFFFFL), k -> new ChunkBlocks(x, z)).blocks.add(entry);
+        }
+        return new ArrayList<>(chunks.values());
+    }
+
+    /**
+     * Pastes blocks until the limit or deadline is reached, or a chunk has to be loaded
+     * @param cursor - blocks to paste
+     * @param limit - maximum number of blocks to paste
+     * @param deadline - {@link System#nanoTime()} to stop at
+     * @return number of blocks pasted
+     */
+    private int pasteBlocks(ChunkCursor cursor, int limit, long deadline) {
         World world = location.getWorld();
+        int count = 0;
+        while (cursor.hasNext() && count < limit && System.nanoTime() < deadline) {
+            ChunkBlocks chunk = cursor.chunk();
+            if (!world.isChunkLoaded(chunk.x, chunk.z)) {
+                // Wait for the chunk to load, then carry on from here
+                resumeState = pasteState;
+                pasteState = PasteState.CHUNK_LOADING;
+                Util.getChunkAtAsync(world, chunk.x, chunk.z).whenComplete((c, e) -> {
+                    if (e != null) {
+                        int skipped = cursor.skipChunk();
+                        plugin.logError("Could not load chunk " + chunk.x + "," + chunk.z + " in " + world.getName()
+                        + " to paste blueprint: " + e.getMessage() + ". " + skipped + " blocks were not pasted.");
+                    }
+                    pasteState = resumeState;
+                });
+                break;
+            }
+            pasteBlock(location, cursor.next());
+            count++;
+        }
+        return count;
+    }
+
+    private void pasteBlock(Location location, Entry<Vector, BlueprintBlock> entry) {
         Location pasteTo = location.clone().add(entry.getKey());
         BlueprintBlock bpBlock = entry.getValue();
-        Util.getChunkAtAsync(pasteTo).thenRun(() -> {
-            Block block = pasteTo.getBlock();
-            // Set the block data - default is AIR
-            BlockData bd;
+        Block block = pasteTo.getBlock();
+        // Set the block data - default is AIR
+        block.setBlockData(getBlockData(location.getWorld(), bpBlock), false);
+        setBlockState(block, bpBlock);
+        // pos1 and pos2 update
+        updatePos(block.getLocation());
+    }
+
+    /**
+     * Get the block data for this block, parsing each block data string only once per paste
+     * @param world - world being pasted to
+     * @param bpBlock - blueprint block
+     * @return block data
+     */
+    private BlockData getBlockData(World world, BlueprintBlock bpBlock) {
+        return palette.computeIfAbsent(bpBlock.getBlockData(), k -> {
             try {
-                bd = Bukkit.createBlockData(bpBlock.getBlockData());
+                return Bukkit.createBlockData(k);
             } catch (Exception e) {
-                bd = convertBlockData(world, bpBlock);
+                return convertBlockData(world, bpBlock);
             }
-            block.setBlockData(bd, false);
-            setBlockState(block, bpBlock);
-            // pos1 and pos2 update
-            updatePos(block.getLocation());
         });
     }
 
@@ -425,4 +499,63 @@ public class BlueprintPaster {
         // Update the sign
         s.update();
     }
+
+    /**
+     * Blocks to paste in one chunk
+     */
+    private static final class ChunkBlocks {
+        private final int x;
+        private final int z;
+        private final List<Entry<Vector, BlueprintBlock>> blocks = new ArrayList<>();
+
+        private ChunkBlocks(int x, int z) {
+            this.x = x;
+            this.z = z;
+        }
+    }
+
+    /**
+     * Walks through blocks chunk by chunk
+     */
+    private static final class ChunkCursor {
+        private final List<ChunkBlocks> chunks;
+        private int chunk;
+        private int index;
+
+        private ChunkCursor(List<ChunkBlocks> chunks) {
+            this.chunks = chunks;
+        }
+
+        private boolean hasNext() {
+            return chunk < chunks.size();
+        }
+
+        /**
+         * @return chunk of the next block
+         */
+        private ChunkBlocks chunk() {
+            return chunks.get(chunk);
+        }
+
+        private Entry<Vector, BlueprintBlock> next() {
+            List<Entry<Vector, BlueprintBlock>> blocks = chunks.get(chunk).blocks;
+            Entry<Vector, BlueprintBlock> entry = blocks.get(index++);
+            if (index == blocks.size()) {
+                chunk++;
+                index = 0;
+            }
+            return entry;
+        }
+
+        /**
+         * Moves on to the next chunk
+         * @return number of blocks skipped
+         */
+        private int skipChunk() {
+            int skipped = chunks.get(chunk).blocks.size() - index;
+            chunk++;
+            index = 0;
+            return skipped;
+        }
+    }
 }
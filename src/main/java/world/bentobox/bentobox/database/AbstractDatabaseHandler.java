@@ -2,13 +2,14 @@ package world.bentobox.bentobox.database;
 
 import java.beans.IntrospectionException;
 import java.lang.reflect.InvocationTargetException;
+import java.util.AbstractQueue;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.BooleanSupplier;
 
-import org.bukkit.Bukkit;
-import org.bukkit.scheduler.BukkitTask;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
 
@@ -25,18 +26,14 @@ import world.bentobox.bentobox.api.addons.Addon;
 public abstract class AbstractDatabaseHandler<T> {
 
     /**
-     * FIFO queue for saves or deletions. Note that the assumption here is that most database objects will be held
-     * in memory because loading is not handled with this queue. That means that it is theoretically
-     * possible to load something before it has been saved. So, in general, load your objects and then
-     * save them async only when you do not need the data again immediately.
+     * Queue for saves or deletions. Anything added to it is handed over to the {@link DatabaseWriteQueue}
+     * and written in the order it was added.
+     * @deprecated use {@link #queueSave(String, Object, BooleanSupplier)} or {@link #queueDelete(String, BooleanSupplier)}
+     * so that writes of the same object can be merged.
      */
+    @Deprecated
     protected Queue<Runnable> processQueue;
 
-    /**
-     * Async save task that runs repeatedly
-     */
-    private BukkitTask asyncSaveTask;
-
     protected boolean shutdown;
 
     /**
@@ -96,30 +93,9 @@ public abstract class AbstractDatabaseHandler<T> {
         this.databaseConnector = databaseConnector;
         this.dataObject = type;
 
-        // Return if plugin disabled
-        if (!plugin.isEnabled()) return;
-        // Run async queue
-        processQueue = new ConcurrentLinkedQueue<>();
-        asyncSaveTask = Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            // Loop continuously
-            while (!shutdown || !processQueue.isEmpty()) {
-                while (!processQueue.isEmpty()) {
-                    processQueue.poll().run();
-                }
-                // Shutdown flag
-                shutdown = plugin.isShutdown();
-                // Clear the queue and then sleep
-                try {
-                    Thread.sleep(25);
-                } catch (InterruptedException e) {
-                    plugin.logError("Thread sleep error " + e.getMessage());
-                    Thread.currentThread().interrupt();
-                }
-            }
-            // Cancel
-            asyncSaveTask.cancel();
-            databaseConnector.closeConnection(dataObject);
-        });
+        // Writes go through the shared write queue
+        processQueue = new ForwardingQueue();
+        plugin.getDatabaseWriteQueue().register(this);
     }
 
     protected AbstractDatabaseHandler() {}
@@ -173,4 +149,71 @@ public abstract class AbstractDatabaseHandler<T> {
      */
     public abstract void deleteID(String uniqueId);
 
+    /**
+     * Queues the save of an object. If the object is already waiting to be saved, only this latest state is written.
+     * @param uniqueId - unique id of the object
+     * @param data - serialized object, in the form that {@link #write(List)} uses
+     * @param action - writes the data and returns true if it succeeded. Runs on the database writer thread.
+     * @return future that completes when the latest state of the object has been written
+     * @since 1.15.0
+     */
+    protected CompletableFuture<Boolean> queueSave(@NonNull String uniqueId, @NonNull Object data, @NonNull BooleanSupplier action) {
+        return plugin.getDatabaseWriteQueue().submit(this, uniqueId, data, action);
+    }
+
+    /**
+     * Queues the deletion of an object. Any save of this object that is still waiting is dropped.
+     * @param uniqueId - unique id of the object
+     * @param action - deletes the object and returns true if it succeeded. Runs on the database writer thread.
+     * @since 1.15.0
+     */
+    protected void queueDelete(@NonNull String uniqueId, @NonNull BooleanSupplier action) {
+        plugin.getDatabaseWriteQueue().submit(this, uniqueId, null, action);
+    }
+
+    /**
+     * Writes a batch of queued saves and deletes, in order. Runs on the database writer thread.
+     * Handlers that can write many objects in one request should override this and
+     * {@link DatabaseWriteQueue.PendingWrite#complete(boolean)} each write.
+     * @param batch - saves and deletes to write
+     * @since 1.15.0
+     */
+    protected void write(@NonNull List<DatabaseWriteQueue.PendingWrite> batch) {
+        batch.forEach(DatabaseWriteQueue.PendingWrite::run);
+    }
+
+    /**
+     * Hands over anything added to {@link #processQueue} to the write queue
+     */
+    private final class ForwardingQueue extends AbstractQueue<Runnable> {
+
+        @Override
+        public boolean offer(Runnable r) {
+            plugin.getDatabaseWriteQueue().submit(AbstractDatabaseHandler.this, null, null, () -> {
+                r.run();
+                return true;
+            });
+            return true;
+        }
+
+        @Override
+        public Runnable poll() {
+            return null;
+        }
+
+        @Override
+        public Runnable peek() {
+            return null;
+        }
+
+        @Override
+        public Iterator<Runnable> iterator() {
+            return Collections.emptyIterator();
+        }
+
+        @Override
+        public int size() {
+            return 0;
+        }
+    }
 }
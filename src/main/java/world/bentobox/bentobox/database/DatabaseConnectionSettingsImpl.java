@@ -14,6 +14,12 @@ public class DatabaseConnectionSettingsImpl {
      */
     private boolean useSSL;
 
+    /**
+     * Maximum number of connections that can be open to the database at the same time.
+     * @since 1.15.0
+     */
+    private int maxConnections;
+
     /**
      * Hosts database settings
      * @param host - database host
@@ -23,12 +29,28 @@ public class DatabaseConnectionSettingsImpl {
      * @param password - password
      */
     public DatabaseConnectionSettingsImpl(String host, int port, String databaseName, String username, String password, boolean useSSL) {
+        this(host, port, databaseName, username, password, useSSL, 1);
+    }
+
+    /**
+     * Hosts database settings
+     * @param host - database host
+     * @param port - port
+     * @param databaseName - database name
+     * @param username - username
+     * @param password - password
+     * @param useSSL - whether to use SSL
+     * @param maxConnections - maximum number of connections open at the same time
+     * @since 1.15.0
+     */
+    public DatabaseConnectionSettingsImpl(String host, int port, String databaseName, String username, String password, boolean useSSL, int maxConnections) {
         this.host = host;
         this.port = port;
         this.databaseName = databaseName;
         this.username = username;
         this.password = password;
         this.useSSL = useSSL;
+        this.maxConnections = maxConnections;
     }
 
     /**
@@ -117,4 +139,20 @@ public class DatabaseConnectionSettingsImpl {
     public void setUseSSL(boolean useSSL) {
         this.useSSL = useSSL;
     }
+
+    /**
+     * @return the maximum number of connections open at the same time
+     * @since 1.15.0
+     */
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    /**
+     * @param maxConnections the maximum number of connections open at the same time
+     * @since 1.15.0
+     */
+    public void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
 }
@@ -0,0 +1,412 @@
+package world.bentobox.bentobox.database;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+import world.bentobox.bentobox.BentoBox;
+
+/**
+ * Write-behind queue shared by all the database handlers.
+ * <p>
+ * Saves and deletes are held in a dirty set keyed by handler type, data object class and unique id,
+ * so an object that is saved several times before it is written is only written once, with its latest state.
+ * A delete never replaces a waiting save: the save is written first and the delete follows in a later batch,
+ * so that if the delete fails the saved state is on disk. A batch never holds two writes of the same object.
+ * A single writer thread sleeps until something is queued and then writes the dirty objects in batches of
+ * {@link world.bentobox.bentobox.Settings#getDatabaseWriteBatchSize()}.
+ * <p>
+ * When BentoBox is disabled or shutting down, writes are done straight away on the calling thread.
+ *
+ * @since 1.15.0
+ */
+public class DatabaseWriteQueue {
+
+    private static final int DEFAULT_BATCH_SIZE = 100;
+
+    private final BentoBox plugin;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition queued = lock.newCondition();
+    /**
+     * Dirty objects in the order they were first queued - guarded by lock
+     */
+    private final Map<Object, PendingWrite> dirty = new LinkedHashMap<>();
+    /**
+     * Writer thread - guarded by lock
+     */
+    private Thread writer;
+    /**
+     * True once BentoBox is shutting down - guarded by lock
+     */
+    private boolean stopping;
+    /**
+     * Only one batch is written at a time, so writes of the same object cannot overtake each other
+     */
+    private final Object flushLock = new Object();
+    /**
+     * Connections to close on shutdown, and the data object types using them
+     */
+    private final Map<DatabaseConnector, Set<Class<?>>> connections = new ConcurrentHashMap<>();
+
+    // Metrics
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong totalFlushNanos = new AtomicLong();
+    private volatile long lastFlushNanos;
+
+    public DatabaseWriteQueue(@NonNull BentoBox plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Remembers the connection of this handler so that it can be closed on shutdown
+     * @param handler - database handler
+     */
+    void register(@NonNull AbstractDatabaseHandler<?> handler) {
+        if (handler.databaseConnector != null) {
+            connections.computeIfAbsent(handler.databaseConnector, k -> ConcurrentHashMap.newKeySet()).add(handler.dataObject);
+        }
+    }
+
+    /**
+     * Queues a save or delete. If the same object is already waiting to be written, it is replaced by this one,
+     * except for a delete of an object that is waiting to be saved, which is written after the save.
+     * @param handler - database handler that will write it
+     * @param uniqueId - unique id of the object, or null if this write must never be merged with another one
+     * @param data - serialized object, in the form used by the handler, or null for a delete
+     * @param action - does the write and returns true if it succeeded
+     * @return future that completes when the latest queued state of this object has been written
+     */
+    CompletableFuture<Boolean> submit(@NonNull AbstractDatabaseHandler<?> handler, @Nullable String uniqueId, @Nullable Object data, @NonNull BooleanSupplier action) {
+        Object key = uniqueId == null ? new Object() : new Key(handler.getClass(), handler.dataObject, uniqueId);
+        PendingWrite write = new PendingWrite(key, handler, uniqueId, data, action);
+        CompletableFuture<Boolean> result = write.futures.get(0);
+        lock.lock();
+        try {
+            queue(write);
+            if (!stopping && plugin.isEnabled()) {
+                startWriter();
+                queued.signal();
+                return result;
+            }
+        } finally {
+            lock.unlock();
+        }
+        // Sync for shutdown
+        drain();
+        return result;
+    }
+
+    /**
+     * Puts a write in the dirty set - must hold lock
+     * @param write - save or delete
+     */
+    private void queue(PendingWrite write) {
+        PendingWrite old = dirty.get(write.key);
+        if (old == null) {
+            dirty.put(write.key, write);
+        } else if (write.isDelete() && !old.isDelete() && old.next == null) {
+            // Keep the save, and delete after it
+            old.next = write;
+        } else if (write.isDelete() && old.next != null) {
+            // Replaces the delete that follows the save
+            write.futures.addAll(old.next.futures);
+            old.next = write;
+            coalesced.incrementAndGet();
+        } else {
+            // Whoever was waiting for the old state is told when the new state is written
+            write.futures.addAll(old.futures);
+            if (old.next != null) {
+                write.futures.addAll(old.next.futures);
+            }
+            coalesced.incrementAndGet();
+            // Replacing keeps the object's place in the queue
+            dirty.put(write.key, write);
+        }
+    }
+
+    private void startWriter() {
+        if (writer == null || !writer.isAlive()) {
+            writer = new Thread(this::run, "BentoBox Database Writer");
+            writer.setDaemon(true);
+            writer.start();
+        }
+    }
+
+    private void run() {
+        while (true) {
+            lock.lock();
+            try {
+                while (dirty.isEmpty() && !stopping) {
+                    queued.await();
+                }
+                if (dirty.isEmpty()) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                plugin.logError("Database writer interrupted " + e.getMessage());
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+            flush();
+        }
+    }
+
+    /**
+     * Writes one batch of dirty objects
+     * @return true if anything was written
+     */
+    private boolean flush() {
+        synchronized (flushLock) {
+            List<PendingWrite> batch = take(getBatchSize());
+            if (batch.isEmpty()) {
+                return false;
+            }
+            long start = System.nanoTime();
+            // Group by handler, so that each handler can write its part in one go
+            Map<AbstractDatabaseHandler<?>, List<PendingWrite>> byHandler = new LinkedHashMap<>();
+            for (PendingWrite write : batch) {
+                byHandler.computeIfAbsent(write.handler, k -> new ArrayList<>()).add(write);
+            }
+            byHandler.forEach((handler, writes) -> {
+                try {
+                    handler.write(writes);
+                } catch (Exception e) {
+                    plugin.logError("Could not write to database " + handler.dataObject.getCanonicalName() + " " + e.getMessage());
+                } finally {
+                    // Writes that were not completed by the handler have failed
+                    writes.forEach(w -> w.complete(false));
+                }
+            });
+            long time = System.nanoTime() - start;
+            lastFlushNanos = time;
+            totalFlushNanos.addAndGet(time);
+            flushes.incrementAndGet();
+            written.addAndGet(batch.size());
+            return true;
+        }
+    }
+
+    private List<PendingWrite> take(int max) {
+        lock.lock();
+        try {
+            List<PendingWrite> batch = new ArrayList<>(Math.min(max, dirty.size()));
+            Iterator<PendingWrite> it = dirty.values().iterator();
+            while (it.hasNext() && batch.size() < max) {
+                batch.add(it.next());
+                it.remove();
+            }
+            // Deletes that follow a save wait for the next batch
+            for (PendingWrite write : batch) {
+                if (write.next != null) {
+                    dirty.put(write.key, write.next);
+                    write.next = null;
+                }
+            }
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int getBatchSize() {
+        return plugin.getSettings() == null ? DEFAULT_BATCH_SIZE : Math.max(1, plugin.getSettings().getDatabaseWriteBatchSize());
+    }
+
+    /**
+     * Writes everything that is queued on the calling thread
+     */
+    public void drain() {
+        while (flush()) {
+            // Keep writing until the queue is empty
+        }
+    }
+
+    /**
+     * Stops the writer thread after everything queued has been written, and closes the database connections.
+     * Anything queued after this is written straight away.
+     */
+    public void shutdown() {
+        Thread t;
+        lock.lock();
+        try {
+            stopping = true;
+            queued.signalAll();
+            t = writer;
+        } finally {
+            lock.unlock();
+        }
+        if (t != null) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                plugin.logError("Interrupted while waiting for the database writer " + e.getMessage());
+                Thread.currentThread().interrupt();
+            }
+        }
+        drain();
+        connections.forEach((connector, types) -> types.forEach(connector::closeConnection));
+        connections.clear();
+    }
+
+    /**
+     * @return number of objects waiting to be written
+     */
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return dirty.size() + (int)dirty.values().stream().filter(w -> w.next != null).count();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return number of objects written
+     */
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    /**
+     * @return number of saves or deletes that were replaced by a later one before being written
+     */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    /**
+     * @return time taken to write the last batch, in milliseconds
+     */
+    public double getLastFlushMillis() {
+        return lastFlushNanos / (double)TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * @return average time taken to write a batch, in milliseconds
+     */
+    public double getAverageFlushMillis() {
+        long n = flushes.get();
+        return n == 0 ? 0D : totalFlushNanos.get() / (double)n / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * A queued save or delete
+     */
+    public static final class PendingWrite {
+        private final Object key;
+        private final AbstractDatabaseHandler<?> handler;
+        private final String uniqueId;
+        private final Object data;
+        private final BooleanSupplier action;
+        private final List<CompletableFuture<Boolean>> futures = new ArrayList<>(1);
+        /**
+         * Delete to write after this save - guarded by lock
+         */
+        private PendingWrite next;
+
+        private PendingWrite(Object key, AbstractDatabaseHandler<?> handler, String uniqueId, Object data, BooleanSupplier action) {
+            this.key = key;
+            this.handler = handler;
+            this.uniqueId = uniqueId;
+            this.data = data;
+            this.action = action;
+            futures.add(new CompletableFuture<>());
+        }
+
+        /**
+         * @return unique id of the object, or null if it is not known
+         */
+        @Nullable
+        public String getUniqueId() {
+            return uniqueId;
+        }
+
+        /**
+         * @return the serialized object, in the form given to the handler's queue, or null if this is a delete
+         */
+        @Nullable
+        public Object getData() {
+            return data;
+        }
+
+        /**
+         * @return true if this is a delete
+         */
+        public boolean isDelete() {
+            return data == null;
+        }
+
+        /**
+         * @return true if this write has been completed
+         */
+        public boolean isDone() {
+            return futures.get(0).isDone();
+        }
+
+        /**
+         * Does this write on its own and completes it
+         */
+        public void run() {
+            complete(action.getAsBoolean());
+        }
+
+        /**
+         * Tells everyone waiting for this write that it is done. Does nothing if it is already done.
+         * @param success - true if the write succeeded
+         */
+        public void complete(boolean success) {
+            futures.forEach(f -> f.complete(success));
+        }
+    }
+
+    /**
+     * Identifies an object in a database
+     */
+    private static final class Key {
+        private final Class<?> handlerType;
+        private final Class<?> dataType;
+        private final String uniqueId;
+
+        private Key(Class<?> handlerType, Class<?> dataType, String uniqueId) {
+            this.handlerType = handlerType;
+            this.dataType = dataType;
+            this.uniqueId = uniqueId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return handlerType == other.handlerType && dataType == other.dataType && uniqueId.equals(other.uniqueId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(handlerType, dataType, uniqueId);
+        }
+    }
+}
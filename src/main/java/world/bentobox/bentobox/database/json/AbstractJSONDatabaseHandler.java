@@ -34,7 +34,10 @@ public abstract class AbstractJSONDatabaseHandler<T> extends AbstractDatabaseHan
 
         // excludeFieldsWithoutExposeAnnotation - this means that every field to be stored should use @Expose
         // enableComplexMapKeySerialization - forces GSON to use TypeAdapters even for Map keys
-        GsonBuilder builder = new GsonBuilder().excludeFieldsWithoutExposeAnnotation().enableComplexMapKeySerialization().setPrettyPrinting();
+        GsonBuilder builder = new GsonBuilder().excludeFieldsWithoutExposeAnnotation().enableComplexMapKeySerialization();
+        if (plugin.getSettings() == null || !plugin.getSettings().isDatabaseCompactJson()) {
+            builder.setPrettyPrinting();
+        }
         // Register adapter factory
         builder.registerTypeAdapterFactory(new BentoboxTypeAdapterFactory(plugin));
         // Allow characters like < or > without escaping them
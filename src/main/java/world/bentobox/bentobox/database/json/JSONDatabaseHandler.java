@@ -1,16 +1,17 @@
 package world.bentobox.bentobox.database.json;
 
-import java.beans.IntrospectionException;
-import java.beans.PropertyDescriptor;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
@@ -19,6 +20,8 @@ import java.util.concurrent.CompletableFuture;
 
 import org.eclipse.jdt.annotation.NonNull;
 
+import com.google.gson.JsonElement;
+
 import world.bentobox.bentobox.BentoBox;
 import world.bentobox.bentobox.database.DatabaseConnector;
 import world.bentobox.bentobox.database.objects.DataObject;
@@ -26,6 +29,9 @@ import world.bentobox.bentobox.database.objects.DataObject;
 public class JSONDatabaseHandler<T> extends AbstractJSONDatabaseHandler<T> {
 
     private static final String JSON = ".json";
+    private static final String TMP = ".tmp";
+
+    private File tableFolder;
 
     /**
      * Constructor
@@ -98,7 +104,7 @@ public class JSONDatabaseHandler<T> extends AbstractJSONDatabaseHandler<T> {
     }
 
     @Override
-    public CompletableFuture<Boolean> saveObject(T instance) throws IntrospectionException, IllegalAccessException, InvocationTargetException {
+    public CompletableFuture<Boolean> saveObject(T instance) {
         CompletableFuture<Boolean> completableFuture = new CompletableFuture<>();
         // Null check
         if (instance == null) {
@@ -111,43 +117,61 @@ public class JSONDatabaseHandler<T> extends AbstractJSONDatabaseHandler<T> {
             completableFuture.complete(false);
             return completableFuture;
         }
-        String path = DATABASE_FOLDER_NAME + File.separator + dataObject.getSimpleName();
+        String uniqueId = ((DataObject)instance).getUniqueId();
+        String fileName = uniqueId + JSON;
+        File tableFolder = getTableFolder();
+        File file = new File(tableFolder, fileName);
 
-        // Obtain the value of uniqueId within the instance (which must be a DataObject)
-        PropertyDescriptor propertyDescriptor = new PropertyDescriptor("uniqueId", dataObject);
-        Method method = propertyDescriptor.getReadMethod();
-        String fileName = method.invoke(instance) + JSON;
+        if (plugin.getSettings().isDatabaseAsyncJsonText()) {
+            // The object is copied into a tree here, where it cannot change while it is read. This is most of the work.
+            // Only the text is made by the writer.
+            JsonElement tree = getGson().toJsonTree(instance);
+            return queueSave(uniqueId, tree, () -> store(getGson().toJson(tree), file, tableFolder, fileName));
+        }
+        String toStore = getGson().toJson(instance);
+        return queueSave(uniqueId, toStore, () -> store(toStore, file, tableFolder, fileName));
+    }
 
-        File tableFolder = new File(plugin.getDataFolder(), path);
-        File file = new File(tableFolder, fileName);
+    /**
+     * Get the folder where objects of this type are stored, creating it if needed
+     * @return folder
+     */
+    private File getTableFolder() {
+        if (tableFolder == null) {
+            tableFolder = new File(plugin.getDataFolder(), DATABASE_FOLDER_NAME + File.separator + dataObject.getSimpleName());
+        }
         if (!tableFolder.exists()) {
             tableFolder.mkdirs();
         }
-
-        String toStore = getGson().toJson(instance);
-        if (plugin.isEnabled()) {
-            // Async
-            processQueue.add(() -> store(completableFuture, toStore, file, tableFolder, fileName));
-        } else {
-            // Sync
-            store(completableFuture, toStore, file, tableFolder, fileName);
-        }
-        return completableFuture;
+        return tableFolder;
     }
 
-    private void store(CompletableFuture<Boolean> completableFuture, String toStore, File file, File tableFolder, String fileName) {
-        try (FileWriter fileWriter = new FileWriter(file)) {
-            File tmpFile = new File(tableFolder, fileName + ".bak");
-            if (file.exists()) {
-                // Make a backup of file
-                Files.copy(file.toPath(), tmpFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    /**
+     * Writes the object to a temporary file, forces it to disk and then moves it over the old file,
+     * so a crash can never leave a half-written file behind
+     */
+    private boolean store(String toStore, File file, File tableFolder, String fileName) {
+        Path tmp = new File(tableFolder, fileName + TMP).toPath();
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(toStore.getBytes(Charset.defaultCharset()));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
             }
-            fileWriter.write(toStore);
-            Files.deleteIfExists(tmpFile.toPath());
-            completableFuture.complete(true);
+            channel.force(true);
         } catch (IOException e) {
             plugin.logError("Could not save JSON file: " + tableFolder.getName() + " " + fileName + " " + e.getMessage());
-            completableFuture.complete(false);
+            return false;
+        }
+        try {
+            try {
+                Files.move(tmp, file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            return true;
+        } catch (IOException e) {
+            plugin.logError("Could not save JSON file: " + tableFolder.getName() + " " + fileName + " " + e.getMessage());
+            return false;
         }
     }
 
@@ -156,14 +180,12 @@ public class JSONDatabaseHandler<T> extends AbstractJSONDatabaseHandler<T> {
      */
     @Override
     public void deleteID(String uniqueId) {
-        if (plugin.isEnabled()) {
-            processQueue.add(() -> delete(uniqueId));
-        } else {
-            delete(uniqueId);
-        }
+        // Saves are queued by unique id without the .json
+        String id = uniqueId.endsWith(JSON) ? uniqueId.substring(0, uniqueId.length() - JSON.length()) : uniqueId;
+        queueDelete(id, () -> delete(uniqueId));
     }
 
-    private void delete(String uniqueId) {
+    private boolean delete(String uniqueId) {
         // The filename of the JSON file is the value of uniqueId field plus .json. Sometimes the .json is already appended.
         if (!uniqueId.endsWith(JSON)) {
             uniqueId = uniqueId + JSON;
@@ -178,8 +200,10 @@ public class JSONDatabaseHandler<T> extends AbstractJSONDatabaseHandler<T> {
                 Files.deleteIfExists(file.toPath());
             } catch (IOException e) {
                 plugin.logError("Could not delete JSON database object! " + file.getName() + " - " + e.getMessage());
+                return false;
             }
         }
+        return true;
     }
 
     @Override
@@ -193,12 +217,7 @@ public class JSONDatabaseHandler<T> extends AbstractJSONDatabaseHandler<T> {
             plugin.logError("This class is not a DataObject: " + instance.getClass().getName());
             return;
         }
-        try {
-            Method getUniqueId = dataObject.getMethod("getUniqueId");
-            deleteID((String) getUniqueId.invoke(instance));
-        } catch (Exception e) {
-            plugin.logError("Could not delete object " + instance.getClass().getName() + " " + e.getMessage());
-        }
+        deleteID(((DataObject)instance).getUniqueId());
     }
 
     @Override
@@ -2,25 +2,39 @@ package world.bentobox.bentobox.database.mongodb;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 import org.bson.Document;
 import org.bson.conversions.Bson;
 import org.bukkit.Bukkit;
+import org.eclipse.jdt.annotation.NonNull;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.mongodb.MongoBulkWriteException;
 import com.mongodb.MongoClientException;
 import com.mongodb.MongoNamespace;
 import com.mongodb.MongoTimeoutException;
+import com.mongodb.bulk.BulkWriteError;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
-import com.mongodb.client.model.FindOneAndReplaceOptions;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.CountOptions;
+import com.mongodb.client.model.DeleteOneModel;
 import com.mongodb.client.model.IndexOptions;
 import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.WriteModel;
 import com.mongodb.util.JSON;
 
 import world.bentobox.bentobox.BentoBox;
 import world.bentobox.bentobox.database.DatabaseConnector;
+import world.bentobox.bentobox.database.DatabaseWriteQueue;
 import world.bentobox.bentobox.database.json.AbstractJSONDatabaseHandler;
 import world.bentobox.bentobox.database.objects.DataObject;
 import world.bentobox.bentobox.database.objects.Table;
@@ -147,34 +161,148 @@ public class MongoDBDatabaseHandler<T> extends AbstractJSONDatabaseHandler<T> {
             completableFuture.complete(false);
             return completableFuture;
         }
-        DataObject dataObj = (DataObject)instance;
+        String uniqueId = ((DataObject)instance).getUniqueId();
+        Document document;
         try {
-            Gson gson = getGson();
-            String toStore = gson.toJson(instance);
-            // Change uniqueId to _id
-            toStore = toStore.replaceFirst(UNIQUEID, MONGO_ID);
-            // This parses JSON to a Mongo Document
-            Document document = Document.parse(toStore);
-            // Filter based on the id
-            Bson filter = new Document(MONGO_ID, dataObj.getUniqueId());
-            // Set the options to upsert (update or insert if doc is not there)
-            FindOneAndReplaceOptions options = new FindOneAndReplaceOptions().upsert(true);
-            // Do the deed
-            collection.findOneAndReplace(filter, document, options);
-            completableFuture.complete(true);
+            // This has to be on the main thread to avoid concurrent modification errors
+            document = toDocument(getGson().toJsonTree(instance).getAsJsonObject());
         } catch (Exception e) {
             plugin.logError("Could not save object " + instance.getClass().getName() + " " + e.getMessage());
             completableFuture.complete(false);
+            return completableFuture;
+        }
+        // Async
+        return queueSave(uniqueId, document, () -> store(uniqueId, document));
+    }
+
+    private boolean store(String uniqueId, Document document) {
+        try {
+            // Upsert - update or insert if the document is not there
+            collection.replaceOne(new Document(MONGO_ID, uniqueId), document, new ReplaceOptions().upsert(true));
+            return true;
+        } catch (Exception e) {
+            plugin.logError("Could not save object " + dataObject.getName() + " " + uniqueId + " " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Converts the JSON tree of an object to a Mongo document, with uniqueId as the document's id
+     * @param json - JSON tree of the object
+     * @return document
+     */
+    private Document toDocument(JsonObject json) {
+        Document document = new Document();
+        // The id goes first
+        JsonElement id = json.get(UNIQUEID);
+        if (id != null) {
+            document.put(MONGO_ID, toValue(id));
+        }
+        for (Map.Entry<String, JsonElement> e : json.entrySet()) {
+            if (!e.getKey().equals(UNIQUEID)) {
+                document.put(e.getKey(), toValue(e.getValue()));
+            }
+        }
+        return document;
+    }
+
+    private Object toValue(JsonElement element) {
+        if (element == null || element.isJsonNull()) {
+            return null;
+        }
+        if (element.isJsonObject()) {
+            Document document = new Document();
+            for (Map.Entry<String, JsonElement> e : element.getAsJsonObject().entrySet()) {
+                document.put(e.getKey(), toValue(e.getValue()));
+            }
+            return document;
+        }
+        if (element.isJsonArray()) {
+            JsonArray array = element.getAsJsonArray();
+            List<Object> list = new ArrayList<>(array.size());
+            for (JsonElement e : array) {
+                list.add(toValue(e));
+            }
+            return list;
+        }
+        JsonPrimitive primitive = element.getAsJsonPrimitive();
+        if (primitive.isBoolean()) {
+            return primitive.getAsBoolean();
+        }
+        if (primitive.isNumber()) {
+            return toNumber(primitive.getAsString());
+        }
+        return primitive.getAsString();
+    }
+
+    /**
+     * Converts a number the same way as parsing it from JSON would
+     * @param number - number as text
+     * @return Integer, Long or Double
+     */
+    private Number toNumber(String number) {
+        if (number.indexOf('.') < 0 && number.indexOf('e') < 0 && number.indexOf('E') < 0) {
+            try {
+                long l = Long.parseLong(number);
+                return l == (int) l ? Integer.valueOf((int) l) : Long.valueOf(l);
+            } catch (NumberFormatException e) {
+                // Too big for a long
+            }
+        }
+        return Double.parseDouble(number);
+    }
+
+    /**
+     * Writes all the saves and deletes in the batch with one unordered bulk write.
+     * A batch holds one write per object, so the order does not matter.
+     */
+    @Override
+    protected void write(@NonNull List<DatabaseWriteQueue.PendingWrite> batch) {
+        List<DatabaseWriteQueue.PendingWrite> writes = new ArrayList<>(batch.size());
+        List<WriteModel<Document>> models = new ArrayList<>(batch.size());
+        for (DatabaseWriteQueue.PendingWrite w : batch) {
+            if (w.getUniqueId() == null) {
+                // Not a save or delete
+                w.run();
+                continue;
+            }
+            Bson filter = new Document(MONGO_ID, w.getUniqueId());
+            models.add(w.isDelete() ? new DeleteOneModel<>(filter)
+                    : new ReplaceOneModel<>(filter, (Document)w.getData(), new ReplaceOptions().upsert(true)));
+            writes.add(w);
+        }
+        if (models.isEmpty()) {
+            return;
+        }
+        try {
+            collection.bulkWrite(models, new BulkWriteOptions().ordered(false));
+            writes.forEach(w -> w.complete(true));
+        } catch (MongoBulkWriteException e) {
+            // Only the writes with errors failed
+            for (BulkWriteError error : e.getWriteErrors()) {
+                DatabaseWriteQueue.PendingWrite w = writes.get(error.getIndex());
+                plugin.logError("Could not save object " + dataObject.getName() + " " + w.getUniqueId() + " " + error.getMessage());
+                w.complete(false);
+            }
+            writes.forEach(w -> w.complete(true));
+        } catch (Exception e) {
+            plugin.logError("Could not save batch of " + dataObject.getName() + " " + e.getMessage());
+            writes.forEach(w -> w.complete(false));
         }
-        return completableFuture;
     }
 
     @Override
     public void deleteID(String uniqueId) {
+        queueDelete(uniqueId, () -> delete(uniqueId));
+    }
+
+    private boolean delete(String uniqueId) {
         try {
-            collection.findOneAndDelete(new Document(MONGO_ID, uniqueId));
+            collection.deleteOne(new Document(MONGO_ID, uniqueId));
+            return true;
         } catch (Exception e) {
             plugin.logError("Could not delete object " + getName(plugin, dataObject) + " " + uniqueId + " " + e.getMessage());
+            return false;
         }
     }
 
@@ -194,11 +322,14 @@ public class MongoDBDatabaseHandler<T> extends AbstractJSONDatabaseHandler<T> {
 
     @Override
     public boolean objectExists(String uniqueId) {
-        return collection.find(new Document(MONGO_ID, uniqueId)).first() != null;
+        // Only the index is needed to count
+        return collection.countDocuments(new Document(MONGO_ID, uniqueId), new CountOptions().limit(1)) > 0;
     }
 
     @Override
     public void close() {
+        // Write anything that is still queued before the connection goes
+        plugin.getDatabaseWriteQueue().drain();
         dbConnecter.closeConnection(dataObject);
     }
 }
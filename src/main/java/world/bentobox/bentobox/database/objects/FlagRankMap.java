@@ -0,0 +1,245 @@
+package world.bentobox.bentobox.database.objects;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import world.bentobox.bentobox.api.flags.Flag;
+
+/**
+ * Map of flags to ranks, stored in arrays indexed by {@link Flag#getOrdinal()}.
+ * Flags that are not registered, and so have no ordinal, are kept in a small map on the side.
+ * Null keys and values are ignored.
+ * <p>
+ * It is serialized like any other map of flags, so islands are stored the same way as before.
+ *
+ * @since 1.15.0
+ */
+class FlagRankMap extends AbstractMap<Flag, Integer> {
+
+    private static final Flag[] NO_FLAGS = new Flag[0];
+    private static final int[] NO_RANKS = new int[0];
+
+    private Flag[] keys = NO_FLAGS;
+    private int[] ranks = NO_RANKS;
+    private int size;
+    /**
+     * Flags without an ordinal
+     */
+    private Map<Flag, Integer> unregistered;
+    private Set<Entry<Flag, Integer>> entrySet;
+
+    FlagRankMap() {}
+
+    FlagRankMap(Map<Flag, Integer> map) {
+        putAll(map);
+    }
+
+    /**
+     * Get the rank of a flag, setting it if there is none
+     * @param flag - flag
+     * @param rank - rank to set if the flag has none
+     * @return the flag's rank
+     */
+    int getOrSet(Flag flag, int rank) {
+        int o = flag.getOrdinal();
+        if (has(o, flag)) {
+            return ranks[o];
+        }
+        Integer value = get(flag);
+        if (value != null) {
+            return value;
+        }
+        put(flag, rank);
+        return rank;
+    }
+
+    /**
+     * Checks if this flag is at this ordinal
+     */
+    private boolean has(int o, Flag flag) {
+        return o >= 0 && o < keys.length && keys[o] != null && (keys[o] == flag || keys[o].equals(flag));
+    }
+
+    @Override
+    public int size() {
+        return size + (unregistered == null ? 0 : unregistered.size());
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public Integer get(Object key) {
+        if (!(key instanceof Flag)) {
+            return null;
+        }
+        Flag flag = (Flag) key;
+        int o = flag.getOrdinal();
+        if (has(o, flag)) {
+            return ranks[o];
+        }
+        return unregistered == null ? null : unregistered.get(flag);
+    }
+
+    @Override
+    public Integer put(Flag flag, Integer rank) {
+        if (flag == null || rank == null) {
+            return null;
+        }
+        int o = flag.getOrdinal();
+        if (o < 0) {
+            if (unregistered == null) {
+                unregistered = new HashMap<>();
+            }
+            return unregistered.put(flag, rank);
+        }
+        // The flag may have been put in before it was registered
+        Integer old = unregistered == null ? null : unregistered.remove(flag);
+        if (o >= keys.length) {
+            keys = Arrays.copyOf(keys, o + 1);
+            ranks = Arrays.copyOf(ranks, o + 1);
+        }
+        if (keys[o] != null) {
+            old = ranks[o];
+        } else {
+            size++;
+        }
+        keys[o] = flag;
+        ranks[o] = rank;
+        return old;
+    }
+
+    @Override
+    public Integer remove(Object key) {
+        if (!(key instanceof Flag)) {
+            return null;
+        }
+        Flag flag = (Flag) key;
+        int o = flag.getOrdinal();
+        if (has(o, flag)) {
+            return removeAt(o);
+        }
+        return unregistered == null ? null : unregistered.remove(flag);
+    }
+
+    private Integer removeAt(int o) {
+        keys[o] = null;
+        size--;
+        return ranks[o];
+    }
+
+    @Override
+    public void clear() {
+        keys = NO_FLAGS;
+        ranks = NO_RANKS;
+        size = 0;
+        unregistered = null;
+    }
+
+    @Override
+    public Set<Entry<Flag, Integer>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<Flag, Integer>> {
+        @Override
+        public Iterator<Entry<Flag, Integer>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return FlagRankMap.this.size();
+        }
+
+        @Override
+        public void clear() {
+            FlagRankMap.this.clear();
+        }
+    }
+
+    /**
+     * Goes through the flags with ordinals, then the others
+     */
+    private final class EntryIterator implements Iterator<Entry<Flag, Integer>> {
+        private int next = advance(0);
+        private int last = -1;
+        private Iterator<Entry<Flag, Integer>> others;
+
+        private int advance(int from) {
+            int i = from;
+            while (i < keys.length && keys[i] == null) {
+                i++;
+            }
+            return i;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next < keys.length) {
+                return true;
+            }
+            if (others == null && unregistered != null) {
+                others = unregistered.entrySet().iterator();
+            }
+            return others != null && others.hasNext();
+        }
+
+        @Override
+        public Entry<Flag, Integer> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (next < keys.length) {
+                last = next;
+                next = advance(next + 1);
+                return new RankEntry(last);
+            }
+            last = -1;
+            return others.next();
+        }
+
+        @Override
+        public void remove() {
+            if (last >= 0) {
+                if (keys[last] == null) {
+                    throw new IllegalStateException();
+                }
+                removeAt(last);
+            } else if (others != null) {
+                others.remove();
+            } else {
+                throw new IllegalStateException();
+            }
+        }
+    }
+
+    private final class RankEntry extends SimpleEntry<Flag, Integer> {
+        private static final long serialVersionUID = 1L;
+        private final int ordinal;
+
+        private RankEntry(int ordinal) {
+            super(keys[ordinal], ranks[ordinal]);
+            this.ordinal = ordinal;
+        }
+
+        @Override
+        public Integer setValue(Integer value) {
+            if (value != null && has(ordinal, getKey())) {
+                ranks[ordinal] = value;
+            }
+            return super.setValue(value);
+        }
+    }
+}
@@ -10,6 +10,8 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import org.bukkit.Bukkit;
@@ -42,6 +44,7 @@ import world.bentobox.bentobox.database.objects.adapters.LogEntryListAdapter;
 import world.bentobox.bentobox.lists.Flags;
 import world.bentobox.bentobox.managers.IslandWorldManager;
 import world.bentobox.bentobox.managers.RanksManager;
+import world.bentobox.bentobox.managers.island.MemberIndex;
 import world.bentobox.bentobox.util.Pair;
 import world.bentobox.bentobox.util.Util;
 
@@ -132,7 +135,7 @@ public class Island implements DataObject {
     //// Protection flags ////
     @Adapter(FlagSerializer.class)
     @Expose
-    private Map<Flag, Integer> flags = new HashMap<>();
+    private FlagRankMap flags = new FlagRankMap();
 
     //// Island History ////
     @Adapter(LogEntryListAdapter.class)
@@ -171,6 +174,38 @@ public class Island implements DataObject {
     @Nullable
     private Boolean reserved = null;
 
+    /**
+     * Incremented every time the members or flags of this island change. Not stored.
+     * Atomic, as it is read by async threads and islands may be changed off the main thread.
+     * @since 1.15.0
+     */
+    private final transient AtomicInteger changeVersion = new AtomicInteger();
+
+    /**
+     * Index that is told about member changes while this island is in the island cache. Not stored.
+     * @since 1.15.0
+     */
+    @Nullable
+    private transient MemberIndex memberIndex;
+
+    /**
+     * Member sets by minimum rank, with the change version they were made from. Not stored.
+     * A set is made again if the version has changed since, so a set made while the members were being
+     * changed on another thread is never used.
+     * @since 1.15.0
+     */
+    private final transient Map<Integer, MemberSet> memberSets = new ConcurrentHashMap<>();
+
+    private static final class MemberSet {
+        private final int version;
+        private final ImmutableSet<UUID> set;
+
+        private MemberSet(int version, ImmutableSet<UUID> set) {
+            this.version = version;
+            this.set = set;
+        }
+    }
+
     /*
      * *************************** Constructors ******************************
      */
@@ -271,6 +306,8 @@ public class Island implements DataObject {
      */
     public boolean unban(@NonNull UUID issuer, @NonNull UUID target) {
         if (members.remove(target) != null) {
+            memberRemoved(target);
+            membersChanged();
             log(new LogEntry.Builder("UNBAN").data("player", target.toString()).data("issuer", issuer.toString()).build());
             return true;
         }
@@ -301,7 +338,7 @@ public class Island implements DataObject {
      * @return flag value
      */
     public int getFlag(@NonNull Flag flag) {
-        return flags.computeIfAbsent(flag, k -> flag.getDefaultRank());
+        return flags.getOrSet(flag, flag.getDefaultRank());
     }
 
     /**
@@ -324,6 +361,9 @@ public class Island implements DataObject {
      * {@link RanksManager#TRUSTED_RANK TRUSTED}, {@link RanksManager#MEMBER_RANK MEMBER}, {@link RanksManager#SUB_OWNER_RANK SUB_OWNER},
      * {@link RanksManager#OWNER_RANK OWNER}, etc.
      *
+     * Changes should be made with {@link #setRank(UUID, int)} and {@link #removeMember(UUID)}, so that member sets and
+     * the {@link MemberIndex} stay up to date.
+     *
      * @return the members - key is the UUID, value is the RanksManager enum, e.g. {@link RanksManager#MEMBER_RANK}.
      * @see #getMemberSet()
      */
@@ -350,9 +390,17 @@ public class Island implements DataObject {
      * @since 1.5.0
      */
     public @NonNull ImmutableSet<UUID> getMemberSet(int minimumRank) {
+        // Read the version before the members, so a change made while the set is made gives it an old version
+        int version = changeVersion.get();
+        MemberSet cached = memberSets.get(minimumRank);
+        if (cached != null && cached.version == version) {
+            return cached.set;
+        }
         Builder<UUID> result = new ImmutableSet.Builder<>();
         members.entrySet().stream().filter(e -> e.getValue() >= minimumRank).map(Map.Entry::getKey).forEach(result::add);
-        return result.build();
+        ImmutableSet<UUID> set = result.build();
+        memberSets.put(minimumRank, new MemberSet(version, set));
+        return set;
     }
 
     /**
@@ -722,7 +770,62 @@ public class Island implements DataObject {
      * @param playerUUID - uuid of player
      */
     public void removeMember(UUID playerUUID) {
-        members.remove(playerUUID);
+        if (members.remove(playerUUID) != null) {
+            memberRemoved(playerUUID);
+        }
+        membersChanged();
+    }
+
+    /**
+     * Removes every player from the member map, including banned, coop and trusted players.
+     * @since 1.15.0
+     */
+    public void clearMembers() {
+        if (memberIndex != null) {
+            memberIndex.removeAll(this);
+        }
+        members.clear();
+        membersChanged();
+    }
+
+    /**
+     * Sets the index that is told about member changes. Used by the island cache when this island is added
+     * to or removed from it.
+     * @param memberIndex the index, or null to stop telling it about changes
+     * @since 1.15.0
+     */
+    public void setMemberIndex(@Nullable MemberIndex memberIndex) {
+        if (this.memberIndex == memberIndex) {
+            return;
+        }
+        if (this.memberIndex != null) {
+            this.memberIndex.removeAll(this);
+        }
+        this.memberIndex = memberIndex;
+        if (memberIndex != null) {
+            memberIndex.addAll(this);
+        }
+    }
+
+    private void memberRemoved(UUID uuid) {
+        if (memberIndex != null) {
+            memberIndex.remove(this, uuid);
+        }
+    }
+
+    private void membersChanged() {
+        memberSets.clear();
+        changeVersion.incrementAndGet();
+    }
+
+    /**
+     * Returns a number that changes every time the members or flags of this island change.
+     * Used to know if something computed from them is still valid.
+     * @return the change version
+     * @since 1.15.0
+     */
+    public int getChangeVersion() {
+        return changeVersion.get();
     }
 
     /**
@@ -749,13 +852,15 @@ public class Island implements DataObject {
      */
     public void setFlag(Flag flag, int value){
         flags.put(flag, value);
+        changeVersion.incrementAndGet();
     }
 
     /**
      * @param flags the flags to set
      */
     public void setFlags(Map<Flag, Integer> flags) {
-        this.flags = flags;
+        this.flags = flags instanceof FlagRankMap ? (FlagRankMap) flags : new FlagRankMap(flags);
+        changeVersion.incrementAndGet();
     }
 
     /**
@@ -783,7 +888,14 @@ public class Island implements DataObject {
      * @param members the members to set
      */
     public void setMembers(Map<UUID, Integer> members) {
+        if (memberIndex != null) {
+            memberIndex.removeAll(this);
+        }
         this.members = members;
+        if (memberIndex != null) {
+            memberIndex.addAll(this);
+        }
+        membersChanged();
     }
 
     /**
@@ -806,6 +918,7 @@ public class Island implements DataObject {
         }
 
         this.owner = owner;
+        changeVersion.incrementAndGet();
         if (owner == null) {
             log(new LogEntry.Builder("UNOWNED").build());
             return;
@@ -872,13 +985,17 @@ public class Island implements DataObject {
             return; // Defensive code
         }
         members.put(uuid, rank);
+        if (memberIndex != null) {
+            memberIndex.set(this, uuid, rank);
+        }
+        membersChanged();
     }
 
     /**
      * @param ranks the ranks to set
      */
     public void setRanks(Map<UUID, Integer> ranks) {
-        members = ranks;
+        setMembers(ranks);
     }
 
     /**
@@ -896,7 +1013,7 @@ public class Island implements DataObject {
         spawn = isSpawn;
         if (isSpawn) {
             setOwner(null);
-            members.clear();
+            clearMembers();
             setFlagsDefaults();
             setFlag(Flags.LOCK, RanksManager.VISITOR_RANK);
         }
@@ -922,7 +1039,13 @@ public class Island implements DataObject {
 
     @Override
     public void setUniqueId(String uniqueId) {
+        if (memberIndex != null) {
+            memberIndex.removeAll(this);
+        }
         this.uniqueId = uniqueId;
+        if (memberIndex != null) {
+            memberIndex.addAll(this);
+        }
     }
 
     /**
@@ -1025,6 +1148,7 @@ public class Island implements DataObject {
     public void setSettingsFlag(Flag flag, boolean state) {
         if (flag.getType().equals(Flag.Type.SETTING) || flag.getType().equals(Flag.Type.WORLD_SETTING)) {
             flags.put(flag, state ? 1 : -1);
+            changeVersion.incrementAndGet();
         }
     }
 
@@ -1052,7 +1176,14 @@ public class Island implements DataObject {
      * @param rank rank value
      */
     public void removeRank(Integer rank) {
-        members.values().removeIf(rank::equals);
+        members.entrySet().removeIf(e -> {
+            if (rank.equals(e.getValue())) {
+                memberRemoved(e.getKey());
+                return true;
+            }
+            return false;
+        });
+        membersChanged();
     }
 
     /**
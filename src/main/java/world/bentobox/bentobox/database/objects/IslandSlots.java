@@ -0,0 +1,68 @@
+package world.bentobox.bentobox.database.objects;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bukkit.Location;
+
+import com.google.gson.annotations.Expose;
+
+/**
+ * Stores where new islands go in a world: the last grid location that was handed out,
+ * and the locations that have been freed since
+ * @since 1.15.0
+ */
+@Table(name = "IslandSlots")
+public class IslandSlots implements DataObject {
+
+    @Expose
+    private String uniqueId = ""; // world name
+    @Expose
+    private Location cursor;
+    @Expose
+    private List<Location> free = new ArrayList<>();
+
+    public IslandSlots() {}
+
+    public IslandSlots(String worldName) {
+        this.uniqueId = worldName;
+    }
+
+    @Override
+    public String getUniqueId() {
+        return uniqueId;
+    }
+
+    @Override
+    public void setUniqueId(String uniqueId) {
+        this.uniqueId = uniqueId;
+    }
+
+    /**
+     * @return the last grid location that was handed out, or null if none has been
+     */
+    public Location getCursor() {
+        return cursor;
+    }
+
+    /**
+     * @param cursor the cursor to set
+     */
+    public void setCursor(Location cursor) {
+        this.cursor = cursor;
+    }
+
+    /**
+     * @return island locations that can be used again
+     */
+    public List<Location> getFree() {
+        return free;
+    }
+
+    /**
+     * @param free the free to set
+     */
+    public void setFree(List<Location> free) {
+        this.free = free;
+    }
+}
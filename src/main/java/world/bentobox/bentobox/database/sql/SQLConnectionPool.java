@@ -0,0 +1,309 @@
+package world.bentobox.bentobox.database.sql;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.bukkit.Bukkit;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Small pool of connections to an SQL database.
+ * Connections are opened when they are first needed, up to the maximum size of the pool.
+ * Each connection keeps the statements that were prepared on it, so the statements
+ * generated by {@link SQLConfiguration} are only prepared once per connection.
+ * <p>
+ * Borrow a connection with try-with-resources so that it is given back:
+ * <pre>
+ * try (SQLConnectionPool.PooledConnection c = pool.borrow()) {
+ *     PreparedStatement ps = c.prepare(sql);
+ *     ...
+ * }
+ * </pre>
+ * Do not close the statements returned by {@link PooledConnection#prepare(String)}. Closing a borrowed
+ * connection more than once gives it back only once.
+ * <p>
+ * A pool made with {@link #SQLConnectionPool(Connection)} hands out one connection that belongs to
+ * someone else, and never closes it. {@link #SQLConnectionPool(Connection, ConnectionFactory, int)} does
+ * the same with its first connection, and counts it as one of the connections of the pool.
+ *
+ * @since 1.15.0
+ */
+public class SQLConnectionPool {
+
+    /**
+     * Opens a new connection to the database
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    /**
+     * How long to wait for a free connection before giving up
+     */
+    private static final long BORROW_TIMEOUT_SECONDS = 30;
+    /**
+     * Connections that have been idle longer than this are checked before they are used again
+     */
+    private static final long VALIDATE_AFTER_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    /**
+     * Opens new connections, or null if the pool cannot open any
+     */
+    @Nullable
+    private final ConnectionFactory factory;
+    private final int maxSize;
+    private final BlockingQueue<PooledConnection> idle = new LinkedBlockingQueue<>();
+    // Guarded by this
+    private int open;
+    private volatile boolean closed;
+
+    /**
+     * @param factory - opens new connections
+     * @param maxSize - maximum number of connections open at the same time
+     */
+    public SQLConnectionPool(@NonNull ConnectionFactory factory, int maxSize) {
+        this.factory = factory;
+        this.maxSize = Math.max(1, maxSize);
+    }
+
+    /**
+     * Makes a pool of one connection that is opened and closed by someone else.
+     * Statements prepared on it are closed by the pool, but the connection is not.
+     * @param connection - connection to share
+     */
+    public SQLConnectionPool(@NonNull Connection connection) {
+        this.factory = null;
+        this.maxSize = 1;
+        addShared(connection);
+    }
+
+    /**
+     * Makes a pool whose first connection is opened and closed by someone else, and counts as one of
+     * the connections of the pool. More are opened with the factory, up to the maximum size.
+     * @param connection - connection to share
+     * @param factory - opens new connections
+     * @param maxSize - maximum number of connections open at the same time, including the shared one
+     */
+    public SQLConnectionPool(@NonNull Connection connection, @NonNull ConnectionFactory factory, int maxSize) {
+        this.factory = factory;
+        this.maxSize = Math.max(1, maxSize);
+        addShared(connection);
+    }
+
+    private void addShared(Connection connection) {
+        open = 1;
+        PooledConnection c = new PooledConnection(connection, false);
+        c.returned.set(true);
+        idle.offer(c);
+    }
+
+    /**
+     * Borrows a connection. Waits if all the connections are in use.
+     * @return connection, which must be closed to give it back to the pool
+     * @throws SQLException if a connection cannot be opened, or none became free in time
+     */
+    @NonNull
+    public PooledConnection borrow() throws SQLException {
+        while (true) {
+            if (closed) {
+                throw new SQLException("Connection pool is closed");
+            }
+            PooledConnection c = idle.poll();
+            if (c == null) {
+                c = open();
+            }
+            if (c == null) {
+                try {
+                    c = idle.poll(BORROW_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrupted while waiting for a database connection");
+                }
+                if (c == null) {
+                    throw new SQLException("Timed out waiting for a database connection");
+                }
+            }
+            if (c.isUsable()) {
+                c.returned.set(false);
+                return c;
+            }
+            // Stale connection - throw it away and try again
+            discard(c);
+            if (factory == null) {
+                // A new one cannot be opened
+                throw new SQLException("Database connection is closed");
+            }
+        }
+    }
+
+    /**
+     * Opens a new connection if the pool is not full
+     * @return new connection or null if the pool is full
+     */
+    private PooledConnection open() throws SQLException {
+        if (factory == null) {
+            return null;
+        }
+        synchronized (this) {
+            if (open >= maxSize) {
+                return null;
+            }
+            open++;
+        }
+        try {
+            return new PooledConnection(factory.open(), true);
+        } catch (SQLException e) {
+            synchronized (this) {
+                open--;
+            }
+            throw e;
+        }
+    }
+
+    private void release(PooledConnection c) {
+        c.lastUsed = System.currentTimeMillis();
+        if (closed || c.broken) {
+            discard(c);
+        } else {
+            idle.offer(c);
+        }
+    }
+
+    private void discard(PooledConnection c) {
+        if (!c.discarded.compareAndSet(false, true)) {
+            return;
+        }
+        synchronized (this) {
+            open--;
+        }
+        c.closeQuietly();
+    }
+
+    /**
+     * Closes the pool and every idle connection. Connections in use are closed when they are given back.
+     */
+    public void close() {
+        closed = true;
+        PooledConnection c;
+        while ((c = idle.poll()) != null) {
+            discard(c);
+        }
+    }
+
+    /**
+     * @return number of connections that are open, including the shared one
+     */
+    public synchronized int getOpenCount() {
+        return open;
+    }
+
+    /**
+     * @return maximum number of connections open at the same time
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * A connection borrowed from the pool
+     */
+    public final class PooledConnection implements AutoCloseable {
+        private final Connection connection;
+        private final Map<String, PreparedStatement> statements = new HashMap<>();
+        /**
+         * True if the connection belongs to the pool and is closed by it
+         */
+        private final boolean owned;
+        /**
+         * True while the connection is not borrowed, so it is only given back once
+         */
+        private final AtomicBoolean returned = new AtomicBoolean();
+        private final AtomicBoolean discarded = new AtomicBoolean();
+        private long lastUsed = System.currentTimeMillis();
+        private boolean broken;
+
+        private PooledConnection(Connection connection, boolean owned) {
+            this.connection = connection;
+            this.owned = owned;
+        }
+
+        /**
+         * @return the JDBC connection
+         */
+        @NonNull
+        public Connection getConnection() {
+            return connection;
+        }
+
+        /**
+         * Get the prepared statement for this SQL, preparing it if this connection has not done so yet.
+         * The statement stays open and must not be closed by the caller.
+         * @param sql - SQL
+         * @return prepared statement
+         * @throws SQLException if the statement cannot be prepared
+         */
+        @NonNull
+        public PreparedStatement prepare(@NonNull String sql) throws SQLException {
+            PreparedStatement ps = statements.get(sql);
+            if (ps == null) {
+                ps = connection.prepareStatement(sql);
+                statements.put(sql, ps);
+            }
+            return ps;
+        }
+
+        /**
+         * Marks this connection as broken so that it is closed instead of being given back to the pool.
+         * Use this if the connection may be left in a bad state.
+         */
+        public void invalidate() {
+            broken = true;
+        }
+
+        private boolean isUsable() {
+            try {
+                if (connection.isClosed()) {
+                    return false;
+                }
+                return System.currentTimeMillis() - lastUsed < VALIDATE_AFTER_MILLIS
+                        || connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        private void closeQuietly() {
+            try {
+                for (PreparedStatement ps : statements.values()) {
+                    ps.close();
+                }
+                statements.clear();
+                if (owned) {
+                    connection.close();
+                }
+            } catch (SQLException e) {
+                Bukkit.getLogger().severe("Could not close database connection " + e.getMessage());
+            }
+        }
+
+        /**
+         * Gives this connection back to the pool. Does nothing if it has already been given back.
+         */
+        @Override
+        public void close() {
+            if (returned.compareAndSet(false, true)) {
+                release(this);
+            }
+        }
+    }
+}
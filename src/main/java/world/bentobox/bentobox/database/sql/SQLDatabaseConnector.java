@@ -8,6 +8,7 @@ import java.util.Set;
 
 import org.bukkit.Bukkit;
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
 
 import world.bentobox.bentobox.database.DatabaseConnectionSettingsImpl;
 import world.bentobox.bentobox.database.DatabaseConnector;
@@ -18,6 +19,11 @@ public abstract class SQLDatabaseConnector implements DatabaseConnector {
     private DatabaseConnectionSettingsImpl dbSettings;
     protected static Connection connection = null;
     protected static Set<Class<?>> types = new HashSet<>();
+    /**
+     * Connections used to load and save objects
+     * @since 1.15.0
+     */
+    protected static SQLConnectionPool pool = null;
 
     public SQLDatabaseConnector(DatabaseConnectionSettingsImpl dbSettings, String connectionUrl) {
         this.dbSettings = dbSettings;
@@ -45,6 +51,10 @@ public abstract class SQLDatabaseConnector implements DatabaseConnector {
     @Override
     public void closeConnection(Class<?> type) {
         types.remove(type);
+        if (types.isEmpty() && pool != null) {
+            pool.close();
+            pool = null;
+        }
         if (types.isEmpty() && connection != null) {
             try {
                 connection.close();
@@ -52,6 +62,7 @@ public abstract class SQLDatabaseConnector implements DatabaseConnector {
             } catch (SQLException e) {
                 Bukkit.getLogger().severe("Could not close database connection");
             }
+            connection = null;
         }
     }
 
@@ -66,7 +77,39 @@ public abstract class SQLDatabaseConnector implements DatabaseConnector {
                 Bukkit.getLogger().severe("Could not connect to the database! " + e.getMessage());
             }
         }
+        if (connection != null && pool == null) {
+            // The connection made above is one of the pool's connections, so no more than the maximum are open
+            pool = new SQLConnectionPool(connection, this::openConnection, getMaxConnections());
+        }
         return connection;
     }
 
+    /**
+     * Opens a new connection for the connection pool
+     * @return connection
+     * @throws SQLException if the connection cannot be made
+     * @since 1.15.0
+     */
+    protected Connection openConnection() throws SQLException {
+        return DriverManager.getConnection(connectionUrl, dbSettings.getUsername(), dbSettings.getPassword());
+    }
+
+    /**
+     * @return maximum number of connections in the connection pool
+     * @since 1.15.0
+     */
+    protected int getMaxConnections() {
+        return dbSettings == null ? 1 : dbSettings.getMaxConnections();
+    }
+
+    /**
+     * Get the pool of connections used to load and save objects
+     * @return connection pool, or null if there is no connection to the database
+     * @since 1.15.0
+     */
+    @Nullable
+    public SQLConnectionPool getPool() {
+        return pool;
+    }
+
 }
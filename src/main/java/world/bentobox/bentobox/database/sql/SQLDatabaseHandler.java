@@ -5,7 +5,6 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -19,6 +18,7 @@ import com.google.gson.JsonSyntaxException;
 
 import world.bentobox.bentobox.BentoBox;
 import world.bentobox.bentobox.database.DatabaseConnector;
+import world.bentobox.bentobox.database.DatabaseWriteQueue;
 import world.bentobox.bentobox.database.json.AbstractJSONDatabaseHandler;
 import world.bentobox.bentobox.database.objects.DataObject;
 
@@ -46,6 +46,11 @@ public class SQLDatabaseHandler<T> extends AbstractJSONDatabaseHandler<T> {
      */
     private SQLConfiguration sqlConfig;
 
+    /**
+     * Connections used to load and save objects
+     */
+    private SQLConnectionPool pool;
+
     /**
      * Handles the connection to the database and creation of the initial database schema (tables) for
      * the class that will be stored.
@@ -58,11 +63,24 @@ public class SQLDatabaseHandler<T> extends AbstractJSONDatabaseHandler<T> {
         super(plugin, type, dbConnecter);
         this.sqlConfig = sqlConfiguration;
         if (setConnection((Connection)databaseConnector.createConnection(type))) {
+            pool = databaseConnector instanceof SQLDatabaseConnector ? ((SQLDatabaseConnector)databaseConnector).getPool() : null;
+            if (pool == null) {
+                // Share the one connection, which is closed by the connector
+                pool = new SQLConnectionPool(connection);
+            }
             // Check if the table exists in the database and if not, create it
             createSchema();
         }
     }
 
+    /**
+     * @return the connections used to load and save objects
+     * @since 1.15.0
+     */
+    protected SQLConnectionPool getPool() {
+        return pool;
+    }
+
     /**
      * @return the sqlConfig
      */
@@ -78,20 +96,24 @@ public class SQLDatabaseHandler<T> extends AbstractJSONDatabaseHandler<T> {
     }
 
     /**
-     * Creates the table in the database if it doesn't exist already
+     * Creates the table in the database if it doesn't exist already.
+     * The connection is borrowed from the pool, as the pool may be using the schema connection.
      */
     protected void createSchema() {
-        if (sqlConfig.renameRequired()) {
-            // Transition from the old table name
-            try (PreparedStatement pstmt = connection.prepareStatement(sqlConfig.getRenameTableSQL())) {
+        try (SQLConnectionPool.PooledConnection c = pool.borrow()) {
+            Connection con = c.getConnection();
+            if (sqlConfig.renameRequired()) {
+                // Transition from the old table name
+                try (PreparedStatement pstmt = con.prepareStatement(sqlConfig.getRenameTableSQL())) {
+                    pstmt.execute();
+                } catch (SQLException e) {
+                    plugin.logError("Could not rename " + sqlConfig.getOldTableName() + " for data object " + dataObject.getCanonicalName() + " " + e.getMessage());
+                }
+            }
+            // Prepare and execute the database statements
+            try (PreparedStatement pstmt = con.prepareStatement(sqlConfig.getSchemaSQL())) {
                 pstmt.execute();
-            } catch (SQLException e) {
-                plugin.logError("Could not rename " + sqlConfig.getOldTableName() + " for data object " + dataObject.getCanonicalName() + " " + e.getMessage());
             }
-        }
-        // Prepare and execute the database statements
-        try (PreparedStatement pstmt = connection.prepareStatement(sqlConfig.getSchemaSQL())) {
-            pstmt.execute();
         } catch (SQLException e) {
             plugin.logError("Problem trying to create schema for data object " + dataObject.getCanonicalName() + " " + e.getMessage());
         }
@@ -99,17 +121,17 @@ public class SQLDatabaseHandler<T> extends AbstractJSONDatabaseHandler<T> {
 
     @Override
     public List<T> loadObjects() {
-        try (Statement preparedStatement = connection.createStatement()) {
-            return loadIt(preparedStatement);
+        try (SQLConnectionPool.PooledConnection c = pool.borrow()) {
+            return loadIt(c.prepare(sqlConfig.getLoadObjectsSQL()));
         } catch (SQLException e) {
             plugin.logError(COULD_NOT_LOAD_OBJECTS + e.getMessage());
         }
         return Collections.emptyList();
     }
 
-    private List<T> loadIt(Statement preparedStatement) {
+    private List<T> loadIt(PreparedStatement preparedStatement) {
         List<T> list = new ArrayList<>();
-        try (ResultSet resultSet = preparedStatement.executeQuery(sqlConfig.getLoadObjectsSQL())) {
+        try (ResultSet resultSet = preparedStatement.executeQuery()) {
             // Load all the results
             Gson gson = getGson();
             while (resultSet.next()) {
@@ -134,9 +156,10 @@ public class SQLDatabaseHandler<T> extends AbstractJSONDatabaseHandler<T> {
 
     @Override
     public T loadObject(@NonNull String uniqueId) {
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sqlConfig.getLoadObjectSQL())) {
+        try (SQLConnectionPool.PooledConnection c = pool.borrow()) {
+            PreparedStatement preparedStatement = c.prepare(sqlConfig.getLoadObjectSQL());
             // UniqueId needs to be placed in quotes?
-            preparedStatement.setString(1, this.sqlConfig.isUseQuotes() ? "\"" + uniqueId + "\"" : uniqueId);
+            preparedStatement.setString(1, quote(uniqueId));
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
                 if (resultSet.next()) {
                     // If there is a result, we only want/need the first one
@@ -168,21 +191,131 @@ public class SQLDatabaseHandler<T> extends AbstractJSONDatabaseHandler<T> {
         }
         // This has to be on the main thread to avoid concurrent modification errors
         String toStore = getGson().toJson(instance);
+        String uniqueId = ((DataObject)instance).getUniqueId();
         // Async
-        processQueue.add(() -> store(completableFuture, instance.getClass().getName(), toStore, sqlConfig.getSaveObjectSQL()));
-        return completableFuture;
+        return queueSave(uniqueId, toStore, () -> store(instance.getClass().getName(), uniqueId, toStore));
     }
 
-    private void store(CompletableFuture<Boolean> completableFuture, String name, String toStore, String sb) {
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sb)) {
-            preparedStatement.setString(1, toStore);
-            preparedStatement.setString(2, toStore);
+    /**
+     * Sets the parameters of the save object statement from {@link SQLConfiguration#getSaveObjectSQL()}.
+     * Databases whose save statement takes different parameters should override this.
+     * @param preparedStatement - save object statement
+     * @param uniqueId - unique id of the object
+     * @param toStore - object as JSON
+     * @throws SQLException if a parameter cannot be set
+     * @since 1.15.0
+     */
+    protected void setSaveParameters(PreparedStatement preparedStatement, String uniqueId, String toStore) throws SQLException {
+        preparedStatement.setString(1, toStore);
+        preparedStatement.setString(2, toStore);
+    }
+
+    private boolean store(String name, String uniqueId, String toStore) {
+        try (SQLConnectionPool.PooledConnection c = pool.borrow()) {
+            PreparedStatement preparedStatement = c.prepare(sqlConfig.getSaveObjectSQL());
+            setSaveParameters(preparedStatement, uniqueId, toStore);
             preparedStatement.execute();
-            completableFuture.complete(true);
+            return true;
         } catch (SQLException e) {
             plugin.logError("Could not save object " + name + " " + e.getMessage());
-            completableFuture.complete(false);
+            return false;
+        }
+    }
+
+    /**
+     * Writes all the saves and deletes in the batch in one transaction.
+     * If the transaction fails, each one is tried again on its own so that one bad object does not stop the others.
+     */
+    @Override
+    protected void write(@NonNull List<DatabaseWriteQueue.PendingWrite> batch) {
+        if (batch.size() == 1) {
+            batch.get(0).run();
+            return;
+        }
+        try (SQLConnectionPool.PooledConnection c = pool.borrow()) {
+            Connection con = c.getConnection();
+            boolean autoCommit = con.getAutoCommit();
+            con.setAutoCommit(false);
+            try {
+                writeBatch(c, batch);
+                con.commit();
+                batch.stream().filter(w -> w.getUniqueId() != null).forEach(w -> w.complete(true));
+            } catch (SQLException e) {
+                plugin.logError("Could not save batch of " + dataObject.getCanonicalName() + " " + e.getMessage() + " - saving one by one");
+                rollback(c);
+            } finally {
+                restoreAutoCommit(c, autoCommit);
+            }
+        } catch (SQLException e) {
+            plugin.logError("Could not save batch of " + dataObject.getCanonicalName() + " " + e.getMessage());
         }
+        // Anything not written yet is written on its own
+        batch.stream().filter(w -> !w.isDone()).forEach(DatabaseWriteQueue.PendingWrite::run);
+    }
+
+    private void writeBatch(SQLConnectionPool.PooledConnection c, List<DatabaseWriteQueue.PendingWrite> batch) throws SQLException {
+        PreparedStatement save = null;
+        PreparedStatement delete = null;
+        // A batch holds one write per object, so saves and deletes can be sent in any order
+        for (DatabaseWriteQueue.PendingWrite w : batch) {
+            if (w.getUniqueId() == null) {
+                // Not a save or delete - it is run on its own afterwards
+                continue;
+            }
+            if (w.isDelete()) {
+                if (delete == null) {
+                    delete = c.prepare(sqlConfig.getDeleteObjectSQL());
+                }
+                delete.setString(1, quote(w.getUniqueId()));
+                delete.addBatch();
+            } else {
+                if (save == null) {
+                    save = c.prepare(sqlConfig.getSaveObjectSQL());
+                }
+                setSaveParameters(save, w.getUniqueId(), (String)w.getData());
+                save.addBatch();
+            }
+        }
+        try {
+            if (save != null) {
+                save.executeBatch();
+            }
+            if (delete != null) {
+                delete.executeBatch();
+            }
+        } finally {
+            if (save != null) {
+                save.clearBatch();
+            }
+            if (delete != null) {
+                delete.clearBatch();
+            }
+        }
+    }
+
+    private void rollback(SQLConnectionPool.PooledConnection c) {
+        try {
+            c.getConnection().rollback();
+        } catch (SQLException e) {
+            c.invalidate();
+        }
+    }
+
+    private void restoreAutoCommit(SQLConnectionPool.PooledConnection c, boolean autoCommit) {
+        try {
+            c.getConnection().setAutoCommit(autoCommit);
+        } catch (SQLException e) {
+            c.invalidate();
+        }
+    }
+
+    /**
+     * Places the unique id in quotes if the database needs it
+     * @param uniqueId - unique id
+     * @return unique id to use in statements
+     */
+    private String quote(String uniqueId) {
+        return sqlConfig.isUseQuotes() ? "\"" + uniqueId + "\"" : uniqueId;
     }
 
     /* (non-Javadoc)
@@ -190,16 +323,19 @@ public class SQLDatabaseHandler<T> extends AbstractJSONDatabaseHandler<T> {
      */
     @Override
     public void deleteID(String uniqueId) {
-        processQueue.add(() -> delete(uniqueId));
+        queueDelete(uniqueId, () -> delete(uniqueId));
     }
 
-    private void delete(String uniqueId) {
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sqlConfig.getDeleteObjectSQL())) {
+    private boolean delete(String uniqueId) {
+        try (SQLConnectionPool.PooledConnection c = pool.borrow()) {
+            PreparedStatement preparedStatement = c.prepare(sqlConfig.getDeleteObjectSQL());
             // UniqueId needs to be placed in quotes?
-            preparedStatement.setString(1, this.sqlConfig.isUseQuotes() ? "\"" + uniqueId + "\"" : uniqueId);
+            preparedStatement.setString(1, quote(uniqueId));
             preparedStatement.execute();
+            return true;
         } catch (Exception e) {
             plugin.logError("Could not delete object " + plugin.getSettings().getDatabasePrefix() + dataObject.getCanonicalName() + " " + uniqueId + " " + e.getMessage());
+            return false;
         }
     }
 
@@ -225,9 +361,10 @@ public class SQLDatabaseHandler<T> extends AbstractJSONDatabaseHandler<T> {
     @Override
     public boolean objectExists(String uniqueId) {
         // Query to see if this key exists
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sqlConfig.getObjectExistsSQL())) {
+        try (SQLConnectionPool.PooledConnection c = pool.borrow()) {
+            PreparedStatement preparedStatement = c.prepare(sqlConfig.getObjectExistsSQL());
             // UniqueId needs to be placed in quotes?
-            preparedStatement.setString(1, this.sqlConfig.isUseQuotes() ? "\"" + uniqueId + "\"" : uniqueId);
+            preparedStatement.setString(1, quote(uniqueId));
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
                 if (resultSet.next()) {
                     return resultSet.getBoolean(1);
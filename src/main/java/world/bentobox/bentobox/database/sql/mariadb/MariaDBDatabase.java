@@ -25,7 +25,8 @@ public class MariaDBDatabase implements DatabaseSetup {
                     plugin.getSettings().getDatabaseName(),
                     plugin.getSettings().getDatabaseUsername(),
                     plugin.getSettings().getDatabasePassword(),
-                    plugin.getSettings().isUseSSL()
+                    plugin.getSettings().isUseSSL(),
+                    plugin.getSettings().getDatabaseMaxConnections()
                     ));
         }
         return new MariaDBDatabaseHandler<>(plugin, type, connector);
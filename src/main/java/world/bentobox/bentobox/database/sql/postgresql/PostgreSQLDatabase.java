@@ -23,7 +23,8 @@ public class PostgreSQLDatabase implements DatabaseSetup {
                     plugin.getSettings().getDatabaseName(),
                     plugin.getSettings().getDatabaseUsername(),
                     plugin.getSettings().getDatabasePassword(),
-                    plugin.getSettings().isUseSSL()
+                    plugin.getSettings().isUseSSL(),
+                    plugin.getSettings().getDatabaseMaxConnections()
                     ));
         }
         return new PostgreSQLDatabaseHandler<>(plugin, dataObjectClass, connector);
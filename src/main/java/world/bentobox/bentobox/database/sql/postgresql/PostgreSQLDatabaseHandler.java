@@ -2,13 +2,9 @@ package world.bentobox.bentobox.database.sql.postgresql;
 
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.util.concurrent.CompletableFuture;
-
-import com.google.gson.Gson;
 
 import world.bentobox.bentobox.BentoBox;
 import world.bentobox.bentobox.database.DatabaseConnector;
-import world.bentobox.bentobox.database.objects.DataObject;
 import world.bentobox.bentobox.database.sql.SQLConfiguration;
 import world.bentobox.bentobox.database.sql.SQLDatabaseHandler;
 
@@ -50,39 +46,10 @@ public class PostgreSQLDatabaseHandler<T> extends SQLDatabaseHandler<T> {
                 );
     }
 
-    /* (non-Javadoc)
-     * @see world.bentobox.bentobox.database.sql.SQLDatabaseHandler#saveObject(java.lang.Object)
-     */
     @Override
-    public CompletableFuture<Boolean> saveObject(T instance) {
-        CompletableFuture<Boolean> completableFuture = new CompletableFuture<>();
-        // Null check
-        if (instance == null) {
-            plugin.logError("PostgreSQL database request to store a null. ");
-            completableFuture.complete(false);
-            return completableFuture;
-        }
-        if (!(instance instanceof DataObject)) {
-            plugin.logError("This class is not a DataObject: " + instance.getClass().getName());
-            completableFuture.complete(false);
-            return completableFuture;
-        }
-        Gson gson = getGson();
-        String toStore = gson.toJson(instance);
-        String uniqueId = ((DataObject)instance).getUniqueId();
-        processQueue.add(() -> {
-            try (PreparedStatement preparedStatement = getConnection().prepareStatement(getSqlConfig().getSaveObjectSQL())) {
-                preparedStatement.setString(1, uniqueId); // INSERT
-                preparedStatement.setString(2, toStore); // INSERT
-                preparedStatement.setString(3, toStore); // ON CONFLICT
-                preparedStatement.execute();
-                completableFuture.complete(true);
-            } catch (SQLException e) {
-                plugin.logError("Could not save object " + instance.getClass().getName() + " " + e.getMessage());
-                completableFuture.complete(false);
-            }
-        });
-        return completableFuture;
+    protected void setSaveParameters(PreparedStatement preparedStatement, String uniqueId, String toStore) throws SQLException {
+        preparedStatement.setString(1, uniqueId); // INSERT
+        preparedStatement.setString(2, toStore); // INSERT
+        preparedStatement.setString(3, toStore); // ON CONFLICT
     }
-
 }
@@ -8,6 +8,7 @@ import org.bukkit.Bukkit;
 import org.eclipse.jdt.annotation.NonNull;
 
 import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.database.sql.SQLConnectionPool;
 import world.bentobox.bentobox.database.sql.SQLDatabaseConnector;
 
 /**
@@ -43,6 +44,10 @@ public class SQLiteDatabaseConnector extends SQLDatabaseConnector {
                 Bukkit.getLogger().severe("Could not connect to the database! " + e.getMessage());
             }
         }
+        if (connection != null && pool == null) {
+            // SQLite only allows one writer at a time, so everything uses this one connection
+            pool = new SQLConnectionPool(connection);
+        }
         return connection;
     }
 }
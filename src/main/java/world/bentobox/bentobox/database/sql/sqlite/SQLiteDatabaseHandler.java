@@ -1,16 +1,14 @@
 package world.bentobox.bentobox.database.sql.sqlite;
 
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.concurrent.CompletableFuture;
-
-import com.google.gson.Gson;
 
 import world.bentobox.bentobox.BentoBox;
 import world.bentobox.bentobox.database.DatabaseConnector;
-import world.bentobox.bentobox.database.objects.DataObject;
 import world.bentobox.bentobox.database.sql.SQLConfiguration;
+import world.bentobox.bentobox.database.sql.SQLConnectionPool;
 import world.bentobox.bentobox.database.sql.SQLDatabaseHandler;
 
 /**
@@ -39,32 +37,36 @@ public class SQLiteDatabaseHandler<T> extends SQLDatabaseHandler<T> {
 
 
     /**
-     * Creates the table in the database if it doesn't exist already
+     * Creates the table in the database if it doesn't exist already.
+     * The connection is borrowed from the pool, so that this is not done in the middle of a batch write.
      */
     @Override
     protected void createSchema() {
-        if (getSqlConfig().renameRequired()) {
-            // SQLite does not have a rename if exists command so we have to manually check if the old table exists
-            String sql = "SELECT EXISTS (SELECT 1 FROM sqlite_master WHERE type='table' AND name='" + getSqlConfig().getOldTableName() + "' COLLATE NOCASE)";
-            try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
-                rename(pstmt);
-            } catch (SQLException e) {
-                plugin.logError("Could not check if " + getSqlConfig().getOldTableName() + " exists for data object " + dataObject.getCanonicalName() + " " + e.getMessage());
+        try (SQLConnectionPool.PooledConnection c = getPool().borrow()) {
+            Connection connection = c.getConnection();
+            if (getSqlConfig().renameRequired()) {
+                // SQLite does not have a rename if exists command so we have to manually check if the old table exists
+                String sql = "SELECT EXISTS (SELECT 1 FROM sqlite_master WHERE type='table' AND name='" + getSqlConfig().getOldTableName() + "' COLLATE NOCASE)";
+                try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                    rename(connection, pstmt);
+                } catch (SQLException e) {
+                    plugin.logError("Could not check if " + getSqlConfig().getOldTableName() + " exists for data object " + dataObject.getCanonicalName() + " " + e.getMessage());
+                }
+            }
+            // Prepare and execute the database statements
+            try (PreparedStatement pstmt = connection.prepareStatement(getSqlConfig().getSchemaSQL())) {
+                pstmt.execute();
             }
-        }
-        // Prepare and execute the database statements
-        try (PreparedStatement pstmt = getConnection().prepareStatement(getSqlConfig().getSchemaSQL())) {
-            pstmt.execute();
         } catch (SQLException e) {
             plugin.logError("Problem trying to create schema for data object " + dataObject.getCanonicalName() + " " + e.getMessage());
         }
     }
 
-    private void rename(PreparedStatement pstmt) {
+    private void rename(Connection connection, PreparedStatement pstmt) {
         try (ResultSet resultSet = pstmt.executeQuery()) {
             if (resultSet.next() && resultSet.getBoolean(1)) {
                 // Transition from the old table name
-                try (PreparedStatement pstmt2 = getConnection().prepareStatement(getSqlConfig().getRenameTableSQL())) {
+                try (PreparedStatement pstmt2 = connection.prepareStatement(getSqlConfig().getRenameTableSQL())) {
                     pstmt2.execute();
                 } catch (SQLException e) {
                     plugin.logError("Could not rename " + getSqlConfig().getOldTableName() + " for data object " + dataObject.getCanonicalName() + " " + e.getMessage());
@@ -76,35 +78,9 @@ public class SQLiteDatabaseHandler<T> extends SQLDatabaseHandler<T> {
     }
 
     @Override
-    public CompletableFuture<Boolean> saveObject(T instance) {
-        CompletableFuture<Boolean> completableFuture = new CompletableFuture<>();
-        // Null check
-        if (instance == null) {
-            plugin.logError("SQLite database request to store a null. ");
-            completableFuture.complete(false);
-            return completableFuture;
-        }
-        if (!(instance instanceof DataObject)) {
-            plugin.logError("This class is not a DataObject: " + instance.getClass().getName());
-            completableFuture.complete(false);
-            return completableFuture;
-        }
-        Gson gson = getGson();
-        String toStore = gson.toJson(instance);
-        processQueue.add(() -> {
-            try (PreparedStatement preparedStatement = getConnection().prepareStatement(getSqlConfig().getSaveObjectSQL())) {
-                preparedStatement.setString(1, toStore);
-                preparedStatement.setString(2, ((DataObject)instance).getUniqueId());
-                preparedStatement.setString(3, toStore);
-                preparedStatement.execute();
-                completableFuture.complete(true);
-            } catch (SQLException e) {
-                plugin.logError("Could not save object " + instance.getClass().getName() + " " + e.getMessage());
-                completableFuture.complete(false);
-            }
-        });
-        return completableFuture;
+    protected void setSaveParameters(PreparedStatement preparedStatement, String uniqueId, String toStore) throws SQLException {
+        preparedStatement.setString(1, toStore);
+        preparedStatement.setString(2, uniqueId);
+        preparedStatement.setString(3, toStore);
     }
-
-
 }
@@ -9,6 +9,7 @@ import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.nio.file.Files;
@@ -153,8 +154,8 @@ public class YamlDatabaseHandler<T> extends AbstractDatabaseHandler<T> {
 
         // Run through all the fields in the object
         for (Field field : dataObject.getDeclaredFields()) {
-            // Ignore synthetic fields, such as those added by Jacoco or the compiler
-            if (field.isSynthetic()) {
+            // Ignore synthetic fields, such as those added by Jacoco or the compiler, and transient fields, which are not stored
+            if (field.isSynthetic() || Modifier.isTransient(field.getModifiers())) {
                 continue;
             }
             // Get the getter and setters for this field using the JavaBeans system
@@ -363,7 +364,7 @@ public class YamlDatabaseHandler<T> extends AbstractDatabaseHandler<T> {
 
         // Run through all the fields in the class that is being stored. EVERY field must have a get and set method
         for (Field field : dataObject.getDeclaredFields()) {
-            if (field.isSynthetic()) {
+            if (field.isSynthetic() || Modifier.isTransient(field.getModifiers())) {
                 continue;
             }
             // Get the property descriptor for this field
@@ -422,20 +423,13 @@ public class YamlDatabaseHandler<T> extends AbstractDatabaseHandler<T> {
         }
 
         // Save
-        save(completableFuture, filename, config.saveToString(), path, yamlComments);
-        return completableFuture;
+        return save(filename, config.saveToString(), path, yamlComments);
     }
 
-    private void save(CompletableFuture<Boolean> completableFuture, String name, String data, String path, Map<String, String> yamlComments) {
-        if (plugin.isEnabled()) {
-            // Async
-            processQueue.add(() -> completableFuture.complete(
-                    ((YamlDatabaseConnector)databaseConnector).saveYamlFile(data, path, name, yamlComments)));
-        } else {
-            // Sync for shutdown
-            completableFuture.complete(
-                    ((YamlDatabaseConnector)databaseConnector).saveYamlFile(data, path, name, yamlComments));
-        }
+    private CompletableFuture<Boolean> save(String name, String data, String path, Map<String, String> yamlComments) {
+        // Config files are kept apart from database objects with the same name
+        return queueSave(path + File.separator + name, data,
+                () -> ((YamlDatabaseConnector)databaseConnector).saveYamlFile(data, path, name, yamlComments));
     }
 
     private void serializeSet(Set<Object> value, YamlConfiguration config, String storageLocation) {
@@ -648,17 +642,15 @@ public class YamlDatabaseHandler<T> extends AbstractDatabaseHandler<T> {
 
     @Override
     public void deleteID(String uniqueId) {
-        if (plugin.isEnabled()) {
-            processQueue.add(() -> delete(uniqueId));
-        } else {
-            delete(uniqueId);
-        }
-    }
-
-    private void delete(String uniqueId) {
         if (uniqueId == null) {
             return;
         }
+        // Saves are queued by path and unique id without the .yml
+        String id = uniqueId.endsWith(YML) ? uniqueId.substring(0, uniqueId.length() - YML.length()) : uniqueId;
+        queueDelete(DATABASE_FOLDER_NAME + File.separator + dataObject.getSimpleName() + File.separator + id, () -> delete(uniqueId));
+    }
+
+    private boolean delete(String uniqueId) {
         // The filename of the YAML file is the value of uniqueId field plus .yml. Sometimes the .yml is already appended.
         if (!uniqueId.endsWith(YML)) {
             uniqueId = uniqueId + YML;
@@ -673,8 +665,10 @@ public class YamlDatabaseHandler<T> extends AbstractDatabaseHandler<T> {
                 Files.deleteIfExists(file.toPath());
             } catch (IOException e) {
                 plugin.logError("Could not delete yml database object! " + file.getName() + " - " + e.getMessage());
+                return false;
             }
         }
+        return true;
     }
 
     /* (non-Javadoc)
@@ -11,6 +11,7 @@ import org.bukkit.World;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerChangedWorldEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
@@ -42,6 +43,22 @@ public class JoinLeaveListener implements Listener {
         players = plugin.getPlayers();
     }
 
+    /**
+     * Loads the player's data before they join, so that joining does not wait for the database
+     * @param event - AsyncPlayerPreLoginEvent
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerPreLogin(final AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            players.discardPreload(event.getUniqueId());
+            return;
+        }
+        long timeout = plugin.getSettings().getDatabasePreloadTimeout();
+        if (timeout > 0) {
+            players.preload(event.getUniqueId(), event.getName(), timeout);
+        }
+    }
+
     @EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
     public void onPlayerJoin(final PlayerJoinEvent event) {
         // Remove them from the cache, just in case they were not removed for some reason
@@ -1,8 +1,9 @@
 package world.bentobox.bentobox.lists;
 
-import java.text.DateFormat;
 import java.time.Instant;
-import java.util.Date;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -43,7 +44,7 @@ public enum GameModePlaceholder {
      */
     ISLAND_PROTECTION_RANGE_DIAMETER("island_protection_range_diameter", (addon, user, island) -> island == null ? "" : String.valueOf(2 * island.getProtectionRange())),
     ISLAND_OWNER("island_owner", (addon, user, island) -> island == null ? "" : addon.getPlayers().getName(island.getOwner())),
-    ISLAND_CREATION_DATE("island_creation_date", (addon, user, island) -> island == null ? "" : DateFormat.getInstance().format(Date.from(Instant.ofEpochMilli(island.getCreatedDate())))),
+    ISLAND_CREATION_DATE("island_creation_date", (addon, user, island) -> island == null ? "" : formatDate(island.getCreatedDate())),
     ISLAND_NAME("island_name", (addon, user, island) -> {
         if (island == null || user == null) {
             return "";
@@ -153,7 +154,7 @@ public enum GameModePlaceholder {
             return "";
         }
         Optional<Island> visitedIsland = addon.getIslands().getIslandAt(user.getLocation());
-        return visitedIsland.map(value -> DateFormat.getInstance().format(Date.from(Instant.ofEpochMilli(value.getCreatedDate())))).orElse("");
+        return visitedIsland.map(value -> formatDate(value.getCreatedDate())).orElse("");
     }),
     /**
      * Returns the name of the island the player is standing on.
@@ -334,6 +335,11 @@ public enum GameModePlaceholder {
      */
     OWNS_ISLAND("owns_island", (addon, user, island) -> String.valueOf(island != null && user.getUniqueId().equals(island.getOwner())));
 
+    /**
+     * Formats island creation dates. Thread safe, unlike {@link java.text.DateFormat}.
+     */
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofLocalizedDateTime(FormatStyle.SHORT).withZone(ZoneId.systemDefault());
+
     private String placeholder;
     /**
      * @since 1.5.0
@@ -355,4 +361,14 @@ public enum GameModePlaceholder {
     public GameModePlaceholderReplacer getReplacer() {
         return replacer;
     }
+
+    /**
+     * Formats a date like {@link java.text.DateFormat#getInstance()}
+     * @param millis - epoch milliseconds
+     * @return formatted date
+     * @since 1.15.0
+     */
+    private static String formatDate(long millis) {
+        return DATE_FORMAT.format(Instant.ofEpochMilli(millis));
+    }
 }
@@ -1,18 +1,13 @@
 package world.bentobox.bentobox.managers;
 
-import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
-import java.util.zip.ZipOutputStream;
+import java.nio.file.StandardCopyOption;
 
 import org.bukkit.Material;
 import org.bukkit.util.Vector;
@@ -24,6 +19,7 @@ import world.bentobox.bentobox.BentoBox;
 import world.bentobox.bentobox.api.user.User;
 import world.bentobox.bentobox.blueprints.Blueprint;
 import world.bentobox.bentobox.blueprints.BlueprintClipboard;
+import world.bentobox.bentobox.blueprints.BlueprintFormat;
 import world.bentobox.bentobox.blueprints.dataobjects.BlueprintBlock;
 import world.bentobox.bentobox.database.json.BentoboxTypeAdapterFactory;
 
@@ -34,6 +30,10 @@ import world.bentobox.bentobox.database.json.BentoboxTypeAdapterFactory;
 public class BlueprintClipboardManager {
 
     private static final String LOAD_ERROR = "Could not load blueprint file - does not exist : ";
+    /**
+     * Folder where blueprint files are kept when they are converted to a newer format
+     */
+    private static final String OLD_FORMAT_FOLDER = "old-format";
 
     private File blueprintFolder;
 
@@ -41,6 +41,8 @@ public class BlueprintClipboardManager {
 
     private Gson gson;
 
+    private BlueprintFormat format;
+
     private BentoBox plugin;
 
     public BlueprintClipboardManager(BentoBox plugin, File blueprintFolder) {
@@ -72,6 +74,7 @@ public class BlueprintClipboardManager {
         // Register adapter factory
         builder.registerTypeAdapterFactory(new BentoboxTypeAdapterFactory(plugin));
         gson = builder.create();
+        format = new BlueprintFormat(builder);
     }
 
     /**
@@ -96,20 +99,17 @@ public class BlueprintClipboardManager {
             plugin.logError(LOAD_ERROR + zipFile.getName());
             throw new IOException(LOAD_ERROR + zipFile.getName());
         }
-        unzip(zipFile.getAbsolutePath());
-        File file = new File(blueprintFolder, BlueprintsManager.sanitizeFileName(fileName));
-        if (!file.exists()) {
-            plugin.logError(LOAD_ERROR + file.getName());
-            throw new IOException(LOAD_ERROR + file.getName() + " temp file");
-        }
         Blueprint bp;
-        try (FileReader fr = new FileReader(file)) {
-            bp = gson.fromJson(fr, Blueprint.class);
+        // Read straight from the zip
+        try (InputStream in = new FileInputStream(zipFile)) {
+            bp = format.read(in);
         } catch (Exception e) {
             plugin.logError("Blueprint has JSON error: " + zipFile.getName());
             throw new IOException("Blueprint has JSON error: " + zipFile.getName());
         }
-        Files.delete(file.toPath());
+        if (BlueprintFormat.getVersion(zipFile) < BlueprintFormat.VERSION) {
+            convert(zipFile, bp);
+        }
         // Bedrock check and set
         if (bp.getBedrock() == null) {
             bp.setBedrock(new Vector(bp.getxSize() / 2, bp.getySize() / 2, bp.getzSize() / 2));
@@ -119,6 +119,24 @@ public class BlueprintClipboardManager {
         return bp;
     }
 
+    /**
+     * Rewrites an old blueprint file in the current format. The old file is kept in the {@value #OLD_FORMAT_FOLDER} folder.
+     * @param zipFile - blueprint file
+     * @param bp - blueprint read from it
+     */
+    private void convert(File zipFile, Blueprint bp) {
+        try {
+            File backup = new File(new File(blueprintFolder, OLD_FORMAT_FOLDER), zipFile.getName());
+            Files.createDirectories(backup.getParentFile().toPath());
+            Files.copy(zipFile.toPath(), backup.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            writeFile(bp, zipFile);
+            plugin.log("Converted blueprint " + zipFile.getName() + " to format version " + BlueprintFormat.VERSION);
+        } catch (IOException e) {
+            // The old file still works
+            plugin.logError("Could not convert blueprint " + zipFile.getName() + " " + e.getMessage());
+        }
+    }
+
     /**
      * Load a blueprint to the clipboard for a user
      * @param user - user trying to load
@@ -163,70 +181,30 @@ public class BlueprintClipboardManager {
             plugin.logError("Blueprint name was empty - could not save it");
             return false;
         }
-        File file = new File(blueprintFolder, BlueprintsManager.sanitizeFileName(blueprint.getName()));
-        String toStore = gson.toJson(blueprint, Blueprint.class);
-        try (FileWriter fileWriter = new FileWriter(file)) {
-            fileWriter.write(toStore);
-        } catch (IOException e) {
-            plugin.logError("Could not save temporary blueprint file: " + file.getName());
-            return false;
-        }
+        File file = new File(blueprintFolder, BlueprintsManager.sanitizeFileName(blueprint.getName()) + BlueprintsManager.BLUEPRINT_SUFFIX);
         try {
-            zip(file);
+            writeFile(blueprint, file);
         } catch (IOException e) {
-            plugin.logError("Could not zip temporary blueprint file: " + file.getName());
+            plugin.logError("Could not save blueprint file: " + file.getName());
             return false;
         }
         return true;
     }
 
-    private void unzip(final String zipFilePath) throws IOException {
-        Path path = Paths.get(zipFilePath);
-        if (!(path.toFile().exists())) {
-            throw new IOException("No file exists!");
-        }
-        try (ZipInputStream zipInputStream = new ZipInputStream(new FileInputStream(zipFilePath))) {
-            ZipEntry entry = zipInputStream.getNextEntry();
-            while (entry != null) {
-                Path filePath = Paths.get(path.getParent().toString(), entry.getName());
-                if (!entry.isDirectory()) {
-                    unzipFiles(zipInputStream, filePath);
-                } else {
-                    Files.createDirectories(filePath);
-                }
-
-                zipInputStream.closeEntry();
-                entry = zipInputStream.getNextEntry();
-            }
-        }
-    }
-
-    private void unzipFiles(final ZipInputStream zipInputStream, final Path unzipFilePath) throws IOException {
-        try (BufferedOutputStream bos = new BufferedOutputStream(new FileOutputStream(unzipFilePath.toAbsolutePath().toString()))) {
-            byte[] bytesIn = new byte[1024];
-            int read;
-            while ((read = zipInputStream.read(bytesIn)) != -1) {
-                bos.write(bytesIn, 0, read);
-            }
-        }
-    }
-
-    private void zip(File targetFile) throws IOException {
-        try (ZipOutputStream zipOutputStream = new ZipOutputStream(new FileOutputStream(targetFile.getAbsolutePath() + BlueprintsManager.BLUEPRINT_SUFFIX))) {
-            zipOutputStream.putNextEntry(new ZipEntry(targetFile.getName()));
-            try (FileInputStream inputStream = new FileInputStream(targetFile)) {
-                final byte[] buffer = new byte[1024];
-                int length;
-                while((length = inputStream.read(buffer)) >= 0) {
-                    zipOutputStream.write(buffer, 0, length);
-                }
-            }
-            try {
-                Files.delete(targetFile.toPath());
-            } catch (Exception e) {
-                plugin.logError(e.getMessage());
-            }
+    /**
+     * Writes a blueprint to a temporary file and then moves it over the file, so a failed save leaves the old file alone
+     * @param blueprint - blueprint
+     * @param file - blueprint file
+     * @throws IOException if the file cannot be written
+     */
+    private void writeFile(Blueprint blueprint, File file) throws IOException {
+        File tmpFile = new File(file.getParentFile(), file.getName() + ".tmp");
+        try (OutputStream out = new FileOutputStream(tmpFile)) {
+            format.write(blueprint, out);
+        } catch (IOException e) {
+            Files.deleteIfExists(tmpFile.toPath());
+            throw e;
         }
+        Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
     }
-
 }
@@ -1,6 +1,7 @@
 package world.bentobox.bentobox.managers;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -15,6 +16,8 @@ import org.eclipse.jdt.annotation.Nullable;
 import world.bentobox.bentobox.BentoBox;
 import world.bentobox.bentobox.api.addons.Addon;
 import world.bentobox.bentobox.api.flags.Flag;
+import world.bentobox.bentobox.api.flags.FlagDecisionCache;
+import world.bentobox.bentobox.api.flags.WorldFlagTable;
 import world.bentobox.bentobox.lists.Flags;
 
 /**
@@ -25,6 +28,19 @@ public class FlagsManager {
 
     private @NonNull BentoBox plugin;
     private Map<@NonNull Flag, @Nullable Addon> flags = new HashMap<>();
+    /**
+     * Registered flags by ID
+     */
+    private final Map<@NonNull String, @NonNull Flag> flagsById = new HashMap<>();
+    /**
+     * Ordinal of every flag ID that has been registered. Kept when flags are unregistered, so they get the same one back.
+     */
+    private final Map<@NonNull String, @NonNull Integer> ordinals = new HashMap<>();
+    /**
+     * Unmodifiable list of the registered flags, or null if it needs to be made again
+     */
+    @Nullable
+    private List<Flag> flagList;
 
     /**
      * Stores the flag listeners that have already been registered into Bukkit's API to avoid duplicates.
@@ -34,11 +50,24 @@ public class FlagsManager {
      */
     private Map<@NonNull Listener, @NonNull Boolean> registeredListeners = new HashMap<>();
 
+    /**
+     * Cached outcomes of protection checks
+     */
+    private final FlagDecisionCache decisionCache = new FlagDecisionCache();
+
+    /**
+     * Compiled world settings of flags
+     */
+    private final WorldFlagTable worldFlagTable = new WorldFlagTable();
+
     public FlagsManager(@NonNull BentoBox plugin) {
         this.plugin = plugin;
 
         // Register default flags
         Flags.values().forEach(f -> registerFlag(null, f));
+        // Keep the protection check cache up to date
+        registerListener(decisionCache);
+        registerListener(worldFlagTable);
     }
 
     /**
@@ -60,13 +89,16 @@ public class FlagsManager {
      * @since 1.5.0
      */
     public boolean registerFlag(@Nullable Addon addon, @NonNull Flag flag) {
-        // Check in case the flag id or icon already exists
-        for (Flag fl : flags.keySet()) {
-            if (fl.getID().equals(flag.getID())) {
-                return false;
-            }
+        // Check in case the flag id already exists
+        if (flagsById.containsKey(flag.getID())) {
+            return false;
         }
+        flag.setOrdinal(ordinals.computeIfAbsent(flag.getID(), k -> ordinals.size()));
         flags.put(flag, addon);
+        flagsById.put(flag.getID(), flag);
+        flagList = null;
+        // Compile the new flag into the worlds with the rest
+        worldFlagTable.clear();
         // If there is a listener which is not already registered, register it into Bukkit if the plugin is fully loaded
         flag.getListener().ifPresent(this::registerListener);
         return true;
@@ -92,11 +124,16 @@ public class FlagsManager {
     }
 
     /**
-     * @return list of all flags
+     * @return unmodifiable list of all flags
      */
     @NonNull
     public List<Flag> getFlags() {
-        return new ArrayList<>(flags.keySet());
+        List<Flag> list = flagList;
+        if (list == null) {
+            list = Collections.unmodifiableList(new ArrayList<>(flags.keySet()));
+            flagList = list;
+        }
+        return list;
     }
 
     /**
@@ -107,7 +144,7 @@ public class FlagsManager {
      */
     @NonNull
     public Optional<Flag> getFlag(@NonNull String id) {
-        return flags.keySet().stream().filter(flag -> flag.getID().equals(id)).findFirst();
+        return Optional.ofNullable(flagsById.get(id));
     }
 
     /**
@@ -120,7 +157,14 @@ public class FlagsManager {
         flags.entrySet().stream().filter(e -> addon.equals(e.getValue())).map(Map.Entry::getKey)
         .forEach(f -> f.getListener().ifPresent(HandlerList::unregisterAll));
         // Remove flags
-        flags.values().removeIf(addon::equals);
+        flags.entrySet().removeIf(e -> {
+            if (addon.equals(e.getValue())) {
+                flagsById.remove(e.getKey().getID(), e.getKey());
+                return true;
+            }
+            return false;
+        });
+        flagList = null;
     }
 
     /**
@@ -133,5 +177,27 @@ public class FlagsManager {
         flag.getListener().ifPresent(HandlerList::unregisterAll);
         // Remove flag
         flags.remove(flag);
+        flagsById.remove(flag.getID(), flag);
+        flagList = null;
+    }
+
+    /**
+     * Get the cache of protection check outcomes
+     * @return the decision cache
+     * @since 1.15.0
+     */
+    @NonNull
+    public FlagDecisionCache getDecisionCache() {
+        return decisionCache;
+    }
+
+    /**
+     * Get the compiled world settings of flags
+     * @return the world flag table
+     * @since 1.15.0
+     */
+    @NonNull
+    public WorldFlagTable getWorldFlagTable() {
+        return worldFlagTable;
     }
 }
@@ -55,8 +55,31 @@ class DefaultPlaceholder implements PlaceholderReplacer {
         if (user == null) {
             return "";
         }
-        Island island = addon.getIslands().getIsland(addon.getOverWorld(), user);
+        return addon.getPlugin().getPlaceholdersManager().getPlaceholderCache().get(this, user);
+    }
+
+    /**
+     * @since 1.15.0
+     */
+    GameModePlaceholder getType() {
+        return type;
+    }
+
+    /**
+     * Gets the user's island in this game mode
+     * @since 1.15.0
+     */
+    @Nullable
+    Island getIsland(@NonNull User user) {
+        return addon.getIslands().getIsland(addon.getOverWorld(), user);
+    }
 
+    /**
+     * Works out the value of this placeholder
+     * @since 1.15.0
+     */
+    @NonNull
+    String replace(@NonNull User user, @Nullable Island island) {
         return type.getReplacer().onReplace(addon, user, island);
     }
 }
@@ -6,9 +6,12 @@ import java.util.List;
 import java.util.Set;
 
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
 
 import world.bentobox.bentobox.BentoBox;
 import world.bentobox.bentobox.api.events.BentoBoxReadyEvent;
@@ -16,6 +19,7 @@ import world.bentobox.bentobox.api.events.island.IslandEvent.IslandDeleteChunksE
 import world.bentobox.bentobox.api.events.island.IslandEvent.IslandDeletedEvent;
 import world.bentobox.bentobox.database.Database;
 import world.bentobox.bentobox.database.objects.IslandDeletion;
+import world.bentobox.bentobox.database.objects.PurgeProgress;
 import world.bentobox.bentobox.util.DeleteIslandChunks;
 import world.bentobox.bentobox.util.Util;
 
@@ -32,10 +36,15 @@ public class IslandDeletionManager implements Listener {
      */
     private Database<IslandDeletion> handler;
     private Set<Location> inDeletion;
+    /**
+     * Purges in progress, by world
+     */
+    private Database<PurgeProgress> purgeHandler;
 
     public IslandDeletionManager(BentoBox plugin) {
         this.plugin = plugin;
         handler = new Database<>(plugin, IslandDeletion.class);
+        purgeHandler = new Database<>(plugin, PurgeProgress.class);
         inDeletion = new HashSet<>();
     }
 
@@ -87,4 +96,33 @@ public class IslandDeletionManager implements Listener {
     public boolean inDeletion(Location location) {
         return inDeletion.contains(location);
     }
+
+    /**
+     * Get the progress of the purge that was running in this world
+     * @param world - world
+     * @return purge progress, or null if no purge was running
+     * @since 1.15.0
+     */
+    @Nullable
+    public PurgeProgress getPurgeProgress(@NonNull World world) {
+        return purgeHandler.objectExists(world.getName()) ? purgeHandler.loadObject(world.getName()) : null;
+    }
+
+    /**
+     * Saves the progress of a purge, so that it carries on after a restart
+     * @param progress - purge progress
+     * @since 1.15.0
+     */
+    public void savePurgeProgress(@NonNull PurgeProgress progress) {
+        purgeHandler.saveObjectAsync(progress);
+    }
+
+    /**
+     * Forgets the purge in this world, once it is done or stopped
+     * @param world - world
+     * @since 1.15.0
+     */
+    public void removePurgeProgress(@NonNull World world) {
+        purgeHandler.deleteID(world.getName());
+    }
 }
@@ -26,6 +26,7 @@ import world.bentobox.bentobox.api.configuration.WorldSettings;
 import world.bentobox.bentobox.api.flags.Flag;
 import world.bentobox.bentobox.hooks.MultiverseCoreHook;
 import world.bentobox.bentobox.lists.Flags;
+import world.bentobox.bentobox.util.WorldRegistry;
 
 /**
  * Handles registration and management of worlds
@@ -39,6 +40,10 @@ public class IslandWorldManager {
      * Map associating Worlds (Overworld, Nether and End) with the GameModeAddon that creates them.
      */
     private Map<@NonNull World, @NonNull GameModeAddon> gameModes;
+    /**
+     * Overworld and environment of every known world
+     */
+    private final WorldRegistry worldRegistry = new WorldRegistry();
 
     /**
      * Manages worlds registered with BentoBox
@@ -168,7 +173,11 @@ public class IslandWorldManager {
                 registerToMultiverse(gameMode.getEndWorld(), true);
             }
         }
+        worldRegistry.register(world, settings.isNetherGenerate() ? gameMode.getNetherWorld() : null,
+                settings.isEndGenerate() ? gameMode.getEndWorld() : null);
 
+        // Settings of this game mode's worlds are compiled again when they are next used
+        plugin.getFlagsManager().getWorldFlagTable().clear();
         // Set default island settings
         plugin.getFlagsManager().getFlags().stream().filter(f -> f.getType().equals(Flag.Type.PROTECTION))
         .forEach(f -> settings.getDefaultIslandFlags().putIfAbsent(f, f.getDefaultRank()));
@@ -195,6 +204,16 @@ public class IslandWorldManager {
 
     }
 
+    /**
+     * Get the registry that maps worlds to their overworld and environment
+     * @return the world registry
+     * @since 1.15.0
+     */
+    @NonNull
+    public WorldRegistry getWorldRegistry() {
+        return worldRegistry;
+    }
+
     /**
      * Get the settings for this world or sub-worlds (nether, end)
      *
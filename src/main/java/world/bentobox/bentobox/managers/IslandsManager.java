@@ -52,6 +52,7 @@ import world.bentobox.bentobox.database.objects.Island;
 import world.bentobox.bentobox.database.objects.IslandDeletion;
 import world.bentobox.bentobox.lists.Flags;
 import world.bentobox.bentobox.managers.island.IslandCache;
+import world.bentobox.bentobox.managers.island.IslandSlotAllocator;
 import world.bentobox.bentobox.util.DeleteIslandChunks;
 import world.bentobox.bentobox.util.Util;
 import world.bentobox.bentobox.util.teleport.SafeSpotTeleport;
@@ -90,6 +91,12 @@ public class IslandsManager {
      */
     private Map<World, Location> last;
 
+    /**
+     * Locations for new islands, kept in the database
+     */
+    @NonNull
+    private IslandSlotAllocator slotAllocator;
+
     // Island Cache
     @NonNull
     private IslandCache islandCache;
@@ -116,6 +123,7 @@ public class IslandsManager {
         quarantineCache = new HashMap<>();
         spawn = new HashMap<>();
         last = new HashMap<>();
+        slotAllocator = new IslandSlotAllocator(plugin);
         // This list should always be empty unless database deletion failed
         // In that case a purge utility may be required in the future
         deletedIslands = new ArrayList<>();
@@ -1159,7 +1167,7 @@ public class IslandsManager {
             return false;
         }
         // Get the player's island
-        return getIslandAt(loc).filter(i -> i.onIsland(loc)).map(i -> i.getMemberSet().contains(player.getUniqueId())).orElse(false);
+        return getIslandAt(loc).filter(i -> i.onIsland(loc)).map(i -> i.getRank(player.getUniqueId()) >= RanksManager.MEMBER_RANK).orElse(false);
     }
 
     /**
@@ -1177,8 +1185,7 @@ public class IslandsManager {
         }
         return (user.getLocation().getWorld() == world)
                 && getProtectedIslandAt(user.getLocation())
-                .map(i -> i.getMembers().entrySet().stream()
-                        .anyMatch(en -> en.getKey().equals(user.getUniqueId()) && en.getValue() > RanksManager.VISITOR_RANK))
+                .map(i -> i.getRank(user.getUniqueId()) > RanksManager.VISITOR_RANK)
                 .orElse(false);
     }
 
@@ -1274,6 +1281,15 @@ public class IslandsManager {
         this.last.put(last.getWorld(), last);
     }
 
+    /**
+     * @return the allocator of locations for new islands
+     * @since 1.15.0
+     */
+    @NonNull
+    public IslandSlotAllocator getSlotAllocator() {
+        return slotAllocator;
+    }
+
     /**
      * Called when a player leaves a team
      * @param world - world
@@ -1286,7 +1302,7 @@ public class IslandsManager {
 
     public void shutdown(){
         // Remove all coop associations
-        islandCache.getIslands().forEach(i -> i.getMembers().values().removeIf(p -> p == RanksManager.COOP_RANK));
+        islandCache.getIslands().forEach(i -> i.removeRank(RanksManager.COOP_RANK));
         saveAll();
         islandCache.clear();
         handler.close();
@@ -1385,7 +1401,9 @@ public class IslandsManager {
      * @param uniqueId - UUID of player
      */
     public void clearRank(int rank, UUID uniqueId) {
-        islandCache.getIslands().forEach(i -> i.getMembers().entrySet().removeIf(e -> e.getKey().equals(uniqueId) && e.getValue() == rank));
+        islandCache.getMemberIndex().getRanks(uniqueId).entrySet().stream()
+        .filter(e -> e.getValue() == rank).map(e -> islandCache.getIslandById(e.getKey()))
+        .filter(Objects::nonNull).collect(Collectors.toList()).forEach(i -> i.removeMember(uniqueId));
     }
 
     /**
@@ -6,6 +6,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -14,6 +15,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.jar.JarFile;
 
 import org.bukkit.Bukkit;
@@ -26,6 +28,7 @@ import org.eclipse.jdt.annotation.Nullable;
 import world.bentobox.bentobox.BentoBox;
 import world.bentobox.bentobox.api.addons.Addon;
 import world.bentobox.bentobox.api.localization.BentoBoxLocale;
+import world.bentobox.bentobox.api.localization.MessageTemplate;
 import world.bentobox.bentobox.api.user.User;
 import world.bentobox.bentobox.util.FileLister;
 import world.bentobox.bentobox.util.Util;
@@ -36,11 +39,51 @@ import world.bentobox.bentobox.util.Util;
 public class LocalesManager {
 
     private BentoBox plugin;
-    private Map<Locale, BentoBoxLocale> languages = new HashMap<>();
+    private volatile Map<Locale, BentoBoxLocale> languages = new HashMap<>();
     private static final String LOCALE_FOLDER = "locales";
     private static final String BENTOBOX = "BentoBox";
     private static final String SPACER = "*************************************************";
     private static final String EN_US_TAG = "en-US";
+    private static final String PREFIXES = "prefixes.";
+    /**
+     * Marks references that have no translation
+     */
+    private static final MessageTemplate MISSING = MessageTemplate.compile("", Collections.emptyMap());
+    /**
+     * Compiled translations by locale
+     */
+    private final Map<Locale, Map<String, MessageTemplate>> templates = new ConcurrentHashMap<>();
+    /**
+     * Locales to look in for each user locale. Replaced as a whole when locales change.
+     */
+    private volatile Chains chains = new Chains();
+    /**
+     * Parsed language tags
+     */
+    private final Map<String, Locale> tags = new ConcurrentHashMap<>();
+
+    /**
+     * The locales to look in for a user locale and the prefixes they have
+     */
+    private static final class Chain {
+        private final BentoBoxLocale[] locales;
+        private final Set<String> prefixes;
+
+        private Chain(List<BentoBoxLocale> locales) {
+            this.locales = locales.toArray(new BentoBoxLocale[0]);
+            Set<String> set = new HashSet<>();
+            locales.forEach(l -> set.addAll(l.getPrefixes()));
+            this.prefixes = Collections.unmodifiableSet(set);
+        }
+    }
+
+    /**
+     * Chains built from one set of loaded locales
+     */
+    private static final class Chains {
+        private final Map<Locale, Chain> byLocale = new ConcurrentHashMap<>();
+        private volatile Chain noUser;
+    }
 
     public LocalesManager(BentoBox plugin) {
         this.plugin = plugin;
@@ -57,14 +100,7 @@ public class LocalesManager {
     @Nullable
     public String get(User user, String reference) {
         // Make sure the user is not null
-        if (user != null) {
-            BentoBoxLocale locale = languages.get(user.getLocale());
-            if (locale != null && locale.contains(reference)) {
-                return locale.get(reference);
-            }
-        }
-        // No translation could be gotten from the player's locale, trying more generic solutions
-        return get(reference);
+        return get(user != null ? getChain(user.getLocale()) : getDefaultChain(), reference);
     }
 
     /**
@@ -75,15 +111,8 @@ public class LocalesManager {
      * @return the translated String from the User's locale or from the server's locale or from the en-US locale, or null.
      */
     public String getOrDefault(User user, String reference, String defaultText) {
-        // Make sure the user is not null
-        if (user != null) {
-            BentoBoxLocale locale = languages.get(user.getLocale());
-            if (locale != null && locale.contains(reference)) {
-                return locale.get(reference);
-            }
-        }
-        // No translation could be gotten from the player's locale, trying more generic solutions
-        return getOrDefault(reference, defaultText);
+        String result = get(user, reference);
+        return result == null ? defaultText : result;
     }
 
     /**
@@ -93,16 +122,7 @@ public class LocalesManager {
      */
     @Nullable
     public String get(String reference) {
-        // Get the translation from the server's locale
-        if (languages.containsKey(Locale.forLanguageTag(plugin.getSettings().getDefaultLanguage()))
-                && languages.get(Locale.forLanguageTag(plugin.getSettings().getDefaultLanguage())).contains(reference)) {
-            return languages.get(Locale.forLanguageTag(plugin.getSettings().getDefaultLanguage())).get(reference);
-        }
-        // Get the translation from the en-US locale
-        if (languages.get(Locale.forLanguageTag(EN_US_TAG)).contains(reference)) {
-            return languages.get(Locale.forLanguageTag(EN_US_TAG)).get(reference);
-        }
-        return null;
+        return get(getDefaultChain(), reference);
     }
 
     /**
@@ -117,28 +137,139 @@ public class LocalesManager {
         return result == null ? defaultText : result;
     }
 
+    @Nullable
+    private String get(Chain chain, String reference) {
+        for (BentoBoxLocale locale : chain.locales) {
+            String result = locale.getOrNull(reference);
+            if (result != null || locale.contains(reference)) {
+                // A reference in this locale is never looked up in the next one, even if it is a section
+                return result;
+            }
+        }
+        return null;
+    }
+
     /**
-     * Gets the list of prefixes from the user's locale, the server's locale and the en-US locale file.
-     * @param user the user to get the locale, not null.
-     * @return the list of prefixes from the user's locale, the server's locale and the en-US locale file.
-     * @since 1.13.0
+     * Gets the locales to look in for this user locale: the user's, the server's and en-US
      */
-    public Set<String> getAvailablePrefixes(@NonNull User user) {
-        Set<String> prefixes = new HashSet<>();
+    private Chain getChain(@NonNull Locale locale) {
+        // Read the chains before the locales, so a chain is never built from older locales than its cache
+        Chains current = chains;
+        Chain chain = current.byLocale.get(locale);
+        if (chain == null) {
+            List<BentoBoxLocale> list = new ArrayList<>(3);
+            BentoBoxLocale userLocale = languages.get(locale);
+            if (userLocale != null) {
+                list.add(userLocale);
+            }
+            for (BentoBoxLocale l : getDefaultChain(current).locales) {
+                if (!list.contains(l)) {
+                    list.add(l);
+                }
+            }
+            chain = new Chain(list);
+            current.byLocale.put(locale, chain);
+        }
+        return chain;
+    }
+
+    private Chain getDefaultChain() {
+        return getDefaultChain(chains);
+    }
 
-        // Get the player locale
-        BentoBoxLocale locale = languages.get(user.getLocale());
-        if (locale != null) {
-            prefixes.addAll(locale.getPrefixes());
+    /**
+     * Gets the locales to look in when there is no user: the server's and en-US
+     */
+    private Chain getDefaultChain(Chains current) {
+        Chain chain = current.noUser;
+        if (chain == null) {
+            Map<Locale, BentoBoxLocale> loaded = languages;
+            List<BentoBoxLocale> list = new ArrayList<>(2);
+            BentoBoxLocale serverLocale = loaded.get(getLocale(plugin.getSettings().getDefaultLanguage()));
+            if (serverLocale != null) {
+                list.add(serverLocale);
+            }
+            BentoBoxLocale enUS = loaded.get(getLocale(EN_US_TAG));
+            if (enUS != null && !list.contains(enUS)) {
+                list.add(enUS);
+            }
+            chain = new Chain(list);
+            current.noUser = chain;
         }
+        return chain;
+    }
 
-        // Get the prefixes from the server's locale
-        prefixes.addAll(languages.get(Locale.forLanguageTag(plugin.getSettings().getDefaultLanguage())).getPrefixes());
+    /**
+     * Gets the locale for a language tag. Tags are parsed once.
+     * @param languageTag language tag, e.g. en-US
+     * @return locale
+     * @see Locale#forLanguageTag(String)
+     * @since 1.15.0
+     */
+    @NonNull
+    public Locale getLocale(@NonNull String languageTag) {
+        return tags.computeIfAbsent(languageTag, Locale::forLanguageTag);
+    }
 
-        // Get the prefixes from the en-US locale
-        prefixes.addAll(languages.get(Locale.forLanguageTag(EN_US_TAG)).getPrefixes());
+    /**
+     * Gets the compiled translation of a reference for this user. Templates are compiled once per locale and
+     * thrown away when locales are loaded or reloaded.
+     * @param user the user, not null
+     * @param addonPrefix addon name and dot to look for first, or an empty string
+     * @param prefixAddonPrefix addon name and dot to look for prefixes with first, or an empty string
+     * @param reference a reference that can be found in a locale file
+     * @return the template, or null if there is no translation
+     * @since 1.15.0
+     */
+    @Nullable
+    public MessageTemplate getTemplate(@NonNull User user, @NonNull String addonPrefix, @NonNull String prefixAddonPrefix, @NonNull String reference) {
+        String key = addonPrefix.equals(prefixAddonPrefix) ? addonPrefix + reference : addonPrefix + reference + '\0' + prefixAddonPrefix;
+        Map<String, MessageTemplate> locale = templates.computeIfAbsent(user.getLocale(), k -> new ConcurrentHashMap<>());
+        MessageTemplate template = locale.get(key);
+        if (template == null) {
+            template = compile(user, addonPrefix, prefixAddonPrefix, reference);
+            locale.put(key, template);
+        }
+        return template == MISSING ? null : template;
+    }
 
-        return prefixes;
+    private MessageTemplate compile(User user, String addonPrefix, String prefixAddonPrefix, String reference) {
+        String translation = get(user, addonPrefix + reference);
+        if (translation == null) {
+            translation = get(user, reference);
+            if (translation == null) {
+                return MISSING;
+            }
+        }
+        Map<String, String> prefixes = new HashMap<>();
+        for (String prefix : getAvailablePrefixes(user)) {
+            String prefixTranslation = get(user, prefixAddonPrefix + PREFIXES + prefix);
+            if (prefixTranslation == null) {
+                prefixTranslation = getOrDefault(user, PREFIXES + prefix, PREFIXES + prefix);
+            }
+            prefixes.put("[prefix_" + prefix + "]", prefixTranslation);
+        }
+        return MessageTemplate.compile(translation, prefixes);
+    }
+
+    /**
+     * Throws away compiled translations and the locales to look in for each user locale.
+     * Call this if locales are changed.
+     * @since 1.15.0
+     */
+    public void clearTemplates() {
+        chains = new Chains();
+        templates.clear();
+    }
+
+    /**
+     * Gets the list of prefixes from the user's locale, the server's locale and the en-US locale file.
+     * @param user the user to get the locale, not null.
+     * @return unmodifiable set of prefixes from the user's locale, the server's locale and the en-US locale file.
+     * @since 1.13.0
+     */
+    public Set<String> getAvailablePrefixes(@NonNull User user) {
+        return getChain(user.getLocale()).prefixes;
     }
 
     /**
@@ -234,6 +365,14 @@ public class LocalesManager {
      * @param localeFolder - locale folder location relative to the plugin's data folder
      */
     public void loadLocalesFromFile(String localeFolder) {
+        loadLocalesFromFile(localeFolder, languages);
+        clearTemplates();
+    }
+
+    /**
+     * Loads all the locales in the locale folder into these languages
+     */
+    private void loadLocalesFromFile(String localeFolder, Map<Locale, BentoBoxLocale> languages) {
         // Filter for files ending with .yml with a name whose length is >= 6 (xx.yml)
         FilenameFilter ymlFilter = (dir, name) -> name.toLowerCase(java.util.Locale.ENGLISH).endsWith(".yml") && name.length() >= 6;
 
@@ -245,7 +384,7 @@ public class LocalesManager {
         }
         // Run through the files and store the locales
         for (File language : Objects.requireNonNull(localeDir.listFiles(ymlFilter))) {
-            Locale localeObject = Locale.forLanguageTag(language.getName().substring(0, language.getName().length() - 4));
+            Locale localeObject = getLocale(language.getName().substring(0, language.getName().length() - 4));
 
             try {
                 YamlConfiguration languageYaml = YamlConfiguration.loadConfiguration(language);
@@ -308,6 +447,7 @@ public class LocalesManager {
     }
 
     /**
+     * Call {@link #clearTemplates()} after changing the locales in this map.
      * @return raw map of system locales to BentoBox locales
      */
     public Map<Locale, BentoBoxLocale> getLanguages() {
@@ -318,13 +458,16 @@ public class LocalesManager {
      * Reloads all the language files from the filesystem
      */
     public void reloadLanguages() {
-        languages.clear();
+        // Lookups carry on with the old locales until the new ones are all loaded
+        Map<Locale, BentoBoxLocale> loaded = new HashMap<>();
         copyLocalesFromPluginJar();
-        loadLocalesFromFile(BENTOBOX);
+        loadLocalesFromFile(BENTOBOX, loaded);
         plugin.getAddonsManager().getAddons().forEach(addon -> {
             copyLocalesFromAddonJar(addon);
-            loadLocalesFromFile(addon.getDescription().getName());
+            loadLocalesFromFile(addon.getDescription().getName(), loaded);
         });
+        languages = loaded;
+        clearTemplates();
     }
 
     /**
@@ -336,7 +479,8 @@ public class LocalesManager {
      * @since 1.5.0
      */
     public void analyzeLocales(boolean fix) {
-        languages.clear();
+        languages = new HashMap<>();
+        clearTemplates();
 
         User user = User.getInstance(Bukkit.getConsoleSender());
 
@@ -354,7 +498,7 @@ public class LocalesManager {
             user.sendRawMessage(ChatColor.AQUA + SPACER);
             user.sendRawMessage(ChatColor.AQUA + "Analyzing addon " + addon.getDescription().getName());
             user.sendRawMessage(ChatColor.AQUA + SPACER);
-            languages.clear();
+            languages = new HashMap<>();
             loadLocalesFromFile(addon.getDescription().getName());
             if (languages.containsKey(Locale.US)) {
                 analyze(user);
@@ -0,0 +1,187 @@
+package world.bentobox.bentobox.managers;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.eclipse.jdt.annotation.NonNull;
+
+import world.bentobox.bentobox.api.events.IslandBaseEvent;
+import world.bentobox.bentobox.api.user.User;
+import world.bentobox.bentobox.database.objects.Island;
+import world.bentobox.bentobox.lists.GameModePlaceholder;
+
+/**
+ * Cache of the values of the default game mode placeholders.
+ * <p>
+ * Scoreboard and tab list plugins ask for the same placeholders many times a second. Values are kept for a short
+ * time that depends on the placeholder, see {@link #getCacheTime(GameModePlaceholder)}. Values of island placeholders
+ * are also thrown away when the island's members or flags change, or when an island or team event is fired.
+ * Values of world placeholders are shared by all players.
+ * <p>
+ * Placeholders may be asked for from any thread.
+ *
+ * @since 1.15.0
+ */
+public class PlaceholderCache implements Listener {
+
+    /**
+     * Milliseconds to keep placeholders that change when the player moves
+     */
+    private static final long MOVING = 1000L;
+    /**
+     * Milliseconds to keep the other placeholders
+     */
+    private static final long DEFAULT = 5000L;
+
+    /**
+     * Player -> placeholder -> value
+     */
+    private final Map<UUID, Map<DefaultPlaceholder, Value>> players = new ConcurrentHashMap<>();
+    /**
+     * Values of world placeholders
+     */
+    private final Map<DefaultPlaceholder, Value> worlds = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private static final class Value {
+        private final String text;
+        private final long expires;
+        private final Island island;
+        private final int version;
+
+        private Value(String text, long expires, Island island) {
+            this.text = text;
+            this.expires = expires;
+            this.island = island;
+            this.version = island == null ? 0 : island.getChangeVersion();
+        }
+
+        private boolean isValid(long now) {
+            return now < expires && (island == null || island.getChangeVersion() == version);
+        }
+    }
+
+    /**
+     * Gets the value of a placeholder for a user, from the cache if it is still valid
+     * @param placeholder - placeholder
+     * @param user - user
+     * @return value
+     */
+    @NonNull
+    String get(@NonNull DefaultPlaceholder placeholder, @NonNull User user) {
+        GameModePlaceholder type = placeholder.getType();
+        long time = getCacheTime(type);
+        if (time <= 0 || user.getUniqueId() == null) {
+            misses.increment();
+            return placeholder.replace(user, placeholder.getIsland(user));
+        }
+        boolean world = isWorldPlaceholder(type);
+        Map<DefaultPlaceholder, Value> values = world ? worlds : players.computeIfAbsent(user.getUniqueId(), k -> new ConcurrentHashMap<>());
+        long now = System.currentTimeMillis();
+        Value value = values.get(placeholder);
+        if (value != null && value.isValid(now)) {
+            hits.increment();
+            return value.text;
+        }
+        misses.increment();
+        Island island = world ? null : placeholder.getIsland(user);
+        String text = placeholder.replace(user, island);
+        values.put(placeholder, new Value(text, now + time, island));
+        return text;
+    }
+
+    /**
+     * Gets how long the value of a placeholder is kept
+     * @param type - placeholder
+     * @return milliseconds, 0 if it is not kept
+     */
+    public static long getCacheTime(@NonNull GameModePlaceholder type) {
+        switch (type) {
+        case ON_ISLAND:
+        case ISLAND_VISITORS_COUNT:
+            return MOVING;
+        default:
+            return type.getPlaceholder().startsWith("visited_") ? MOVING : DEFAULT;
+        }
+    }
+
+    /**
+     * World placeholders have the same value for every player
+     */
+    private static boolean isWorldPlaceholder(GameModePlaceholder type) {
+        switch (type) {
+        case WORLD_FRIENDLY_NAME:
+        case WORLD_ISLANDS:
+        case ISLAND_DISTANCE:
+        case ISLAND_DISTANCE_DIAMETER:
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    /**
+     * Throws away the values of a player
+     * @param uuid - player's UUID
+     */
+    public void invalidate(@NonNull UUID uuid) {
+        players.remove(uuid);
+    }
+
+    /**
+     * Throws away the values of every player on an island
+     * @param island - island
+     */
+    public void invalidate(@NonNull Island island) {
+        island.getMembers().keySet().forEach(players::remove);
+    }
+
+    /**
+     * Throws away every value
+     */
+    public void clear() {
+        players.clear();
+        worlds.clear();
+    }
+
+    /**
+     * @return number of times a placeholder was found in the cache
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return number of times a placeholder had to be worked out
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Island, team and rank change events
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onIslandEvent(IslandBaseEvent e) {
+        if (e.getIsland() != null) {
+            invalidate(e.getIsland());
+        }
+        if (e.getPlayerUUID() != null) {
+            invalidate(e.getPlayerUUID());
+        }
+        // Island counts may have changed
+        worlds.clear();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent e) {
+        invalidate(e.getPlayer().getUniqueId());
+    }
+}
@@ -22,11 +22,25 @@ import world.bentobox.bentobox.lists.GameModePlaceholder;
 public class PlaceholdersManager {
 
     private BentoBox plugin;
+    /**
+     * @since 1.15.0
+     */
+    private final PlaceholderCache placeholderCache = new PlaceholderCache();
 
     public PlaceholdersManager(BentoBox plugin) {
         this.plugin = plugin;
     }
 
+    /**
+     * Returns the cache of default game mode placeholder values
+     * @return the placeholder cache
+     * @since 1.15.0
+     */
+    @NonNull
+    public PlaceholderCache getPlaceholderCache() {
+        return placeholderCache;
+    }
+
     /**
      * Registers this placeholder on the behalf of BentoBox.
      * @param placeholder the placeholder to register, not null.
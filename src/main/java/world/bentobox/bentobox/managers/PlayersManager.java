@@ -8,6 +8,11 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
@@ -34,6 +39,45 @@ public class PlayersManager {
     private Set<UUID> inTeleport;
     private Set<UUID> toSave = new HashSet<>();
     private BukkitTask task;
+    /**
+     * Player data loaded from the database before the player joined
+     */
+    private final Map<UUID, Preload> preloaded = new ConcurrentHashMap<>();
+
+    /**
+     * How long preloaded data is kept if the player does not join
+     */
+    private static final long PRELOAD_EXPIRY = TimeUnit.MINUTES.toMillis(1);
+
+    /**
+     * Player data loaded before the player joined
+     */
+    private static final class Preload {
+        /**
+         * True if the player is in the database
+         */
+        private final boolean exists;
+        private final Players player;
+        /**
+         * Names record for the name the player is joining with, or null if there is none
+         */
+        private final Names names;
+        private final long time = System.currentTimeMillis();
+        /**
+         * True once the player has been put in the cache - only used on the main thread
+         */
+        private boolean used;
+
+        private Preload(boolean exists, Players player, Names names) {
+            this.exists = exists;
+            this.player = player;
+            this.names = names;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() - time > PRELOAD_EXPIRY;
+        }
+    }
 
     /**
      * Provides a memory cache of online player information
@@ -138,8 +182,18 @@ public class PlayersManager {
         }
         if (!playerCache.containsKey(playerUUID)) {
             Players player;
-            // If the player is in the database, load it, otherwise create a new player
-            if (handler.objectExists(playerUUID.toString())) {
+            Preload preload = getPreload(playerUUID);
+            if (preload != null) {
+                // Loaded before the player joined
+                preload.used = true;
+                player = preload.player != null ? preload.player : new Players(plugin, playerUUID);
+                if (preload.exists && preload.player == null) {
+                    // Corrupted database entry
+                    plugin.logError("Corrupted player database entry for " + playerUUID + " - unrecoverable. Recreated.");
+                    player.setUniqueId(playerUUID.toString());
+                }
+            } else if (handler.objectExists(playerUUID.toString())) {
+                // If the player is in the database, load it, otherwise create a new player
                 player = handler.loadObject(playerUUID.toString());
                 if (player == null) {
                     player = new Players(plugin, playerUUID);
@@ -162,7 +216,71 @@ public class PlayersManager {
      * @return true if player is known, otherwise false
      */
     public boolean isKnown(UUID uniqueID) {
-        return uniqueID != null && (playerCache.containsKey(uniqueID) || handler.objectExists(uniqueID.toString()));
+        if (uniqueID == null) {
+            return false;
+        }
+        if (playerCache.containsKey(uniqueID)) {
+            return true;
+        }
+        Preload preload = getPreload(uniqueID);
+        return preload != null ? preload.exists : handler.objectExists(uniqueID.toString());
+    }
+
+    /**
+     * Loads a player's data from the database, so that it does not have to be loaded on the main thread when they join.
+     * Call this from an async thread before the player joins, for example during {@link org.bukkit.event.player.AsyncPlayerPreLoginEvent}.
+     * If loading takes longer than the timeout, nothing is kept and the data is loaded when the player joins.
+     * @param uuid - player's UUID
+     * @param name - name the player is joining with
+     * @param timeout - maximum time to wait for the database in milliseconds
+     * @return true if the data was loaded in time
+     * @since 1.15.0
+     */
+    public boolean preload(@NonNull UUID uuid, @NonNull String name, long timeout) {
+        CompletableFuture<Preload> future = new CompletableFuture<>();
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                boolean exists = handler.objectExists(uuid.toString());
+                Players player = exists ? handler.loadObject(uuid.toString()) : null;
+                Names n = names.objectExists(name) ? names.loadObject(name) : null;
+                future.complete(new Preload(exists, player, n));
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        });
+        try {
+            Preload preload = future.get(timeout, TimeUnit.MILLISECONDS);
+            preloaded.values().removeIf(Preload::isExpired);
+            preloaded.put(uuid, preload);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            plugin.logWarning("Could not preload player data for " + name + " - it will be loaded when they join: " + e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Forgets data preloaded for a player, for example because they were not allowed to join
+     * @param uuid - player's UUID
+     * @since 1.15.0
+     */
+    public void discardPreload(@NonNull UUID uuid) {
+        preloaded.remove(uuid);
+    }
+
+    @Nullable
+    private Preload getPreload(UUID uuid) {
+        Preload preload = preloaded.get(uuid);
+        if (preload == null || preload.used) {
+            return null;
+        }
+        if (preload.isExpired()) {
+            preloaded.remove(uuid);
+            return null;
+        }
+        return preload;
     }
 
     /**
@@ -281,6 +399,11 @@ public class PlayersManager {
     public void setPlayerName(@NonNull User user) {
         addPlayer(user.getUniqueId());
         playerCache.get(user.getUniqueId()).setPlayerName(user.getName());
+        Preload preload = preloaded.remove(user.getUniqueId());
+        if (preload != null && preload.names != null && user.getUniqueId().equals(preload.names.getUuid())) {
+            // Names database is already up to date
+            return;
+        }
         Names newName = new Names(user.getName(), user.getUniqueId());
         // Add to names database
         names.saveObjectAsync(newName);
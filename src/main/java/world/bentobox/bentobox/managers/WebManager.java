@@ -163,6 +163,7 @@ public class WebManager {
                 }
             }
         }
+        plugin.getLocalesManager().clearTemplates();
 
         // Register the catalog data
         if (!catalogContent.isEmpty()) {
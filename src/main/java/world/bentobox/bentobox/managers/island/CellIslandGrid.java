@@ -0,0 +1,221 @@
+package world.bentobox.bentobox.managers.island;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import world.bentobox.bentobox.database.objects.Island;
+
+/**
+ * Island grid for regular layouts, where every island has the same range and sits on the same grid.
+ * Each cell is one island space wide and is stored in an open-addressing hash table keyed by the
+ * packed cell coordinates, so {@link #getIslandAt(int, int)} is O(1) and does not allocate.
+ * <p>
+ * Writers work on a master table under a lock. Readers use an immutable snapshot of it that is
+ * copied at most once after a batch of writes, so async threads can read the grid without locking.
+ * @since 1.15.0
+ */
+class CellIslandGrid extends IslandGrid {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Object lock = new Object();
+    // Master table - guarded by lock
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private Island[] values = new Island[INITIAL_CAPACITY];
+    private int size;
+    // Layout of the grid - set by the first island
+    private int cellSize;
+    private int originX;
+    private int originZ;
+    /**
+     * Read-only copy of the master table. Null when the master table has changed since the last copy.
+     */
+    private volatile Table snapshot;
+
+    @Override
+    public boolean fits(Island island) {
+        synchronized (lock) {
+            return cellSize == 0 ? island.getRange() > 0
+                    : island.getRange() * 2 == cellSize
+                    && Math.floorMod(island.getMinX(), cellSize) == originX
+                    && Math.floorMod(island.getMinZ(), cellSize) == originZ;
+        }
+    }
+
+    @Override
+    public boolean addToGrid(Island island) {
+        synchronized (lock) {
+            if (cellSize == 0) {
+                cellSize = island.getRange() * 2;
+                originX = Math.floorMod(island.getMinX(), cellSize);
+                originZ = Math.floorMod(island.getMinZ(), cellSize);
+            }
+            long key = key(island.getMinX(), island.getMinZ());
+            int slot = find(keys, values, key);
+            if (values[slot] != null) {
+                Island keep = resolveOverlap(values[slot], island);
+                if (keep != values[slot]) {
+                    values[slot] = keep;
+                    snapshot = null;
+                }
+                return false;
+            }
+            keys[slot] = key;
+            values[slot] = island;
+            snapshot = null;
+            if (++size * 2 > keys.length) {
+                resize();
+            }
+            return true;
+        }
+    }
+
+    @Override
+    public boolean removeFromGrid(Island island) {
+        if (island == null) {
+            return false;
+        }
+        synchronized (lock) {
+            if (size == 0) {
+                return false;
+            }
+            int slot = find(keys, values, key(island.getMinX(), island.getMinZ()));
+            if (values[slot] == null) {
+                return false;
+            }
+            delete(slot);
+            size--;
+            snapshot = null;
+            return true;
+        }
+    }
+
+    @Override
+    public Island getIslandAt(int x, int z) {
+        Table t = snapshot;
+        if (t == null) {
+            t = publish();
+        }
+        return t.get(x, z);
+    }
+
+    @Override
+    public Collection<Island> getIslands() {
+        synchronized (lock) {
+            List<Island> islands = new ArrayList<>(size);
+            for (Island island : values) {
+                if (island != null) {
+                    islands.add(island);
+                }
+            }
+            return islands;
+        }
+    }
+
+    private Table publish() {
+        synchronized (lock) {
+            if (snapshot == null) {
+                snapshot = new Table(keys.clone(), values.clone(), size, cellSize, originX, originZ);
+            }
+            return snapshot;
+        }
+    }
+
+    private long key(int x, int z) {
+        return pack(Math.floorDiv((long)x - originX, (long)cellSize), Math.floorDiv((long)z - originZ, (long)cellSize));
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        Island[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new Island[oldValues.length * 2];
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = find(keys, values, oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Removes the entry in this slot, shifting back the entries that follow it in the probe sequence
+     * so that no tombstones are needed
+     * @param slot - slot to empty
+     */
+    private void delete(int slot) {
+        int mask = keys.length - 1;
+        int gap = slot;
+        int i = slot;
+        while (true) {
+            i = (i + 1) & mask;
+            if (values[i] == null) {
+                break;
+            }
+            int home = mix(keys[i]) & mask;
+            // Leave the entry if its home slot lies cyclically in (gap, i]
+            boolean stays = gap <= i ? gap < home && home <= i : gap < home || home <= i;
+            if (!stays) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+        keys[gap] = 0L;
+        values[gap] = null;
+    }
+
+    /**
+     * Finds the slot holding this key, or the empty slot where it would be inserted
+     */
+    private static int find(long[] keys, Island[] values, long key) {
+        int mask = keys.length - 1;
+        int i = mix(key) & mask;
+        while (values[i] != null && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    private static long pack(long cellX, long cellZ) {
+        return (cellX << 32) | (cellZ & 0xFFFFFFFFL);
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int)(h ^ (h >>> 32));
+    }
+
+    /**
+     * Immutable copy of the table used by readers
+     */
+    private static final class Table {
+        private final long[] keys;
+        private final Island[] values;
+        private final int size;
+        private final int cellSize;
+        private final int originX;
+        private final int originZ;
+
+        private Table(long[] keys, Island[] values, int size, int cellSize, int originX, int originZ) {
+            this.keys = keys;
+            this.values = values;
+            this.size = size;
+            this.cellSize = cellSize;
+            this.originX = originX;
+            this.originZ = originZ;
+        }
+
+        private Island get(int x, int z) {
+            if (size == 0) {
+                return null;
+            }
+            long key = pack(Math.floorDiv((long)x - originX, (long)cellSize), Math.floorDiv((long)z - originZ, (long)cellSize));
+            Island island = values[find(keys, values, key)];
+            // Check if in the island range
+            return island != null && island.inIslandSpace(x, z) ? island : null;
+        }
+    }
+}
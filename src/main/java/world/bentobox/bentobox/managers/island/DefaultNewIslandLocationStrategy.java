@@ -5,6 +5,7 @@ import java.util.EnumMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import org.bukkit.Location;
 import org.bukkit.Material;
@@ -34,14 +35,21 @@ public class DefaultNewIslandLocationStrategy implements NewIslandLocationStrate
 
     protected BentoBox plugin = BentoBox.getInstance();
 
+    /**
+     * Get the next location, searching on the calling thread if none is ready.
+     * {@link #getNextLocationAsync(World)} does not block the server while it searches.
+     */
     @Override
     public Location getNextLocation(World world) {
+        // Use a location that has already been checked, if there is one
+        IslandSlotAllocator slots = plugin.getIslands().getSlotAllocator();
+        Location ready = slots.next(world);
+        if (ready != null) {
+            return ready;
+        }
         Location last = plugin.getIslands().getLast(world);
         if (last == null) {
-            last = new Location(world,
-                    (double) plugin.getIWM().getIslandXOffset(world) + plugin.getIWM().getIslandStartX(world),
-                    plugin.getIWM().getIslandHeight(world),
-                    (double) plugin.getIWM().getIslandZOffset(world) + plugin.getIWM().getIslandStartZ(world));
+            last = getStartLocation(world);
         }
         // Find a free spot
         Map<Result, Integer> result = new EnumMap<>(Result.class);
@@ -63,9 +71,28 @@ public class DefaultNewIslandLocationStrategy implements NewIslandLocationStrate
             return null;
         }
         plugin.getIslands().setLast(last);
+        slots.setCursor(last);
         return last;
     }
 
+    @Override
+    public CompletableFuture<Location> getNextLocationAsync(World world) {
+        return plugin.getIslands().getSlotAllocator().nextAsync(world);
+    }
+
+    /**
+     * Get the location of the first island in this world
+     * @param world - world
+     * @return location of the first island
+     * @since 1.15.0
+     */
+    protected Location getStartLocation(World world) {
+        return new Location(world,
+                (double) plugin.getIWM().getIslandXOffset(world) + plugin.getIWM().getIslandStartX(world),
+                plugin.getIWM().getIslandHeight(world),
+                (double) plugin.getIWM().getIslandZOffset(world) + plugin.getIWM().getIslandStartZ(world));
+    }
+
     /**
      * Checks if there is an island or blocks at this location
      *
@@ -116,7 +143,7 @@ public class DefaultNewIslandLocationStrategy implements NewIslandLocationStrate
      * @param lastIsland - last island location
      * @return Location of next free island
      */
-    private Location nextGridLocation(final Location lastIsland) {
+    protected Location nextGridLocation(final Location lastIsland) {
         int x = lastIsland.getBlockX();
         int z = lastIsland.getBlockZ();
         int d = plugin.getIWM().getIslandDistance(lastIsland.getWorld()) * 2;
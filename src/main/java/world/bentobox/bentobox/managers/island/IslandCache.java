@@ -3,13 +3,11 @@ package world.bentobox.bentobox.managers.island;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.bukkit.Location;
 import org.bukkit.World;
@@ -22,6 +20,13 @@ import world.bentobox.bentobox.database.objects.Island;
 import world.bentobox.bentobox.util.Util;
 
 /**
+ * Cache of all the islands.
+ * <p>
+ * Islands are kept in one shard per world, with the players, grid and number of islands of that world.
+ * Each island also has an entry with the keys it is stored under, so it can be removed without searching.
+ * Reads can be done from any thread. Changes are made one at a time.
+ * Collections of islands that are returned are snapshots that do not change.
+ *
  * @author tastybento
  */
 public class IslandCache {
@@ -33,18 +38,58 @@ public class IslandCache {
     @NonNull
     private final Map<@NonNull String, @NonNull Island> islandsById;
     /**
-     * Every player who is associated with an island is in this map.
+     * Shard of each world
      */
     @NonNull
-    private final Map<@NonNull World, @NonNull Map<@NonNull UUID, @NonNull Island>> islandsByUUID;
+    private final Map<@NonNull World, @NonNull Shard> shards;
+    /**
+     * Keys of each island in the other maps
+     */
+    @NonNull
+    private final Map<@NonNull Island, @NonNull Entry> entries;
+    /**
+     * Snapshot of all the islands, or null if it needs to be made again
+     */
+    @Nullable
+    private volatile Collection<Island> snapshot;
+    /**
+     * Islands and ranks of each player, in all worlds
+     */
     @NonNull
-    private final Map<@NonNull World, @NonNull IslandGrid> grids;
+    private final MemberIndex memberIndex = new MemberIndex();
+
+    /**
+     * Islands of one world
+     */
+    private static final class Shard {
+        /**
+         * Every player who is associated with an island is in this map.
+         */
+        private final Map<@NonNull UUID, @NonNull Island> islandsByUUID = new ConcurrentHashMap<>();
+        private final Set<@NonNull Island> islands = ConcurrentHashMap.newKeySet();
+        private volatile IslandGrid grid;
+        private volatile Collection<Island> snapshot;
+    }
+
+    /**
+     * Where an island is stored
+     */
+    private static final class Entry {
+        private final World world;
+        private Location center;
+        private String uniqueId;
+        private final Set<UUID> players = new HashSet<>();
+
+        private Entry(World world) {
+            this.world = world;
+        }
+    }
 
     public IslandCache() {
-        islandsByLocation = new HashMap<>();
-        islandsById = new HashMap<>();
-        islandsByUUID = new HashMap<>();
-        grids = new HashMap<>();
+        islandsByLocation = new ConcurrentHashMap<>();
+        islandsById = new ConcurrentHashMap<>();
+        shards = new ConcurrentHashMap<>();
+        entries = new ConcurrentHashMap<>();
     }
 
     /**
@@ -52,7 +97,7 @@ public class IslandCache {
      * @param island island to add, not null
      * @return true if successfully added, false if not
      */
-    public boolean addIsland(@NonNull Island island) {
+    public synchronized boolean addIsland(@NonNull Island island) {
         if (island.getCenter() == null || island.getWorld() == null) {
             /* Special handling - return true.
                The island will not be quarantined, but just not loaded
@@ -62,14 +107,11 @@ public class IslandCache {
             return true;
         }
         if (addToGrid(island)) {
-            islandsByLocation.put(island.getCenter(), island);
-            islandsById.put(island.getUniqueId(), island);
-            // Make world
-            islandsByUUID.putIfAbsent(island.getWorld(), new HashMap<>());
+            index(island);
             // Only add islands to this map if they are owned
             if (island.isOwned()) {
-                islandsByUUID.get(island.getWorld()).put(island.getOwner(), island);
-                island.getMemberSet().forEach(member -> islandsByUUID.get(island.getWorld()).put(member, island));
+                addPlayer(island.getOwner(), island);
+                island.getMemberSet().forEach(member -> addPlayer(member, island));
             }
             return true;
         }
@@ -81,8 +123,76 @@ public class IslandCache {
      * @param uuid player's uuid
      * @param island island to associate with this uuid. Only one island can be associated per world.
      */
-    public void addPlayer(@NonNull UUID uuid, @NonNull Island island) {
-        islandsByUUID.computeIfAbsent(island.getWorld(), k -> new HashMap<>()).put(uuid, island);
+    public synchronized void addPlayer(@NonNull UUID uuid, @NonNull Island island) {
+        Shard shard = getShard(island.getWorld());
+        Island old = shard.islandsByUUID.put(uuid, island);
+        if (old != null && old != island) {
+            Entry oldEntry = entries.get(old);
+            if (oldEntry != null) {
+                oldEntry.players.remove(uuid);
+            }
+        }
+        Entry entry = entries.get(island);
+        if (entry != null) {
+            entry.players.add(uuid);
+        }
+    }
+
+    /**
+     * Adds an island to the location, id and world indices
+     * @param island island
+     */
+    private void index(@NonNull Island island) {
+        World world = Util.getWorld(island.getWorld());
+        Entry entry = entries.computeIfAbsent(island, k -> new Entry(world));
+        island.setMemberIndex(memberIndex);
+        if (entry.center != null && !entry.center.equals(island.getCenter())) {
+            islandsByLocation.remove(entry.center, island);
+        }
+        if (entry.uniqueId != null && !entry.uniqueId.equals(island.getUniqueId())) {
+            islandsById.remove(entry.uniqueId, island);
+        }
+        entry.center = island.getCenter();
+        entry.uniqueId = island.getUniqueId();
+        islandsByLocation.put(entry.center, island);
+        islandsById.put(entry.uniqueId, island);
+        Shard shard = getShard(world);
+        if (shard.islands.add(island)) {
+            changed(shard);
+        }
+    }
+
+    /**
+     * Removes an island from every index
+     * @param island island
+     */
+    private void unindex(@NonNull Island island) {
+        Entry entry = entries.remove(island);
+        if (entry == null) {
+            return;
+        }
+        island.setMemberIndex(null);
+        islandsByLocation.remove(entry.center, island);
+        islandsById.remove(entry.uniqueId, island);
+        Shard shard = shards.get(entry.world);
+        if (shard != null) {
+            entry.players.forEach(uuid -> shard.islandsByUUID.remove(uuid, island));
+            shard.islands.remove(island);
+            changed(shard);
+        }
+    }
+
+    /**
+     * Throws away the snapshots that include this shard
+     */
+    private void changed(Shard shard) {
+        shard.snapshot = null;
+        snapshot = null;
+    }
+
+    @NonNull
+    private Shard getShard(World world) {
+        return shards.computeIfAbsent(Util.getWorld(world), k -> new Shard());
     }
 
     /**
@@ -91,13 +201,27 @@ public class IslandCache {
      * @return true if successfully added, false if not
      */
     private boolean addToGrid(@NonNull Island newIsland) {
-        return grids.computeIfAbsent(newIsland.getWorld(), k -> new IslandGrid()).addToGrid(newIsland);
+        Shard shard = getShard(newIsland.getWorld());
+        if (shard.grid == null) {
+            shard.grid = IslandGrid.create();
+        }
+        if (!shard.grid.fits(newIsland)) {
+            // Irregular layout - fall back to the tree grid for this world
+            BentoBox.getInstance().logWarning("Island " + newIsland.getUniqueId() + " is not on the island grid of "
+                    + newIsland.getWorld().getName() + ". Using the slower tree grid for this world.");
+            shard.grid = new TreeIslandGrid(shard.grid);
+        }
+        return shard.grid.addToGrid(newIsland);
     }
 
-    public void clear() {
+    public synchronized void clear() {
+        entries.keySet().forEach(i -> i.setMemberIndex(null));
+        memberIndex.clear();
         islandsByLocation.clear();
         islandsById.clear();
-        islandsByUUID.clear();
+        entries.clear();
+        shards.clear();
+        snapshot = null;
     }
 
     /**
@@ -105,15 +229,15 @@ public class IslandCache {
      * @param island island to delete
      * @return true if successful, false if not
      */
-    public boolean deleteIslandFromCache(@NonNull Island island) {
-        if (!islandsByLocation.remove(island.getCenter(), island) || !islandsByUUID.containsKey(island.getWorld())) {
+    public synchronized boolean deleteIslandFromCache(@NonNull Island island) {
+        Entry entry = entries.get(island);
+        if (entry == null || !islandsByLocation.containsKey(entry.center) || !shards.containsKey(entry.world)) {
             return false;
         }
-        islandsById.remove(island.getUniqueId());
-        islandsByUUID.get(island.getWorld()).entrySet().removeIf(en -> en.getValue().equals(island));
+        unindex(island);
         // Remove from grid
-        grids.putIfAbsent(island.getWorld(), new IslandGrid());
-        return grids.get(island.getWorld()).removeFromGrid(island);
+        Shard shard = getShard(entry.world);
+        return shard.grid != null && shard.grid.removeFromGrid(island);
     }
 
     /**
@@ -134,7 +258,8 @@ public class IslandCache {
      */
     @Nullable
     public Island get(@NonNull World world, @NonNull UUID uuid) {
-        return islandsByUUID.containsKey(Util.getWorld(world)) ? islandsByUUID.get(Util.getWorld(world)).get(uuid) : null;
+        Shard shard = shards.get(Util.getWorld(world));
+        return shard == null ? null : shard.islandsByUUID.get(uuid);
     }
 
     /**
@@ -146,36 +271,53 @@ public class IslandCache {
      */
     @Nullable
     public Island getIslandAt(@NonNull Location location) {
-        if (!grids.containsKey(Util.getWorld(location.getWorld()))) {
-            return null;
-        }
-        return grids.get(Util.getWorld(location.getWorld())).getIslandAt(location.getBlockX(), location.getBlockZ());
+        Shard shard = shards.get(Util.getWorld(location.getWorld()));
+        IslandGrid grid = shard == null ? null : shard.grid;
+        return grid == null ? null : grid.getIslandAt(location.getBlockX(), location.getBlockZ());
     }
 
     /**
      * Returns an <strong>unmodifiable collection</strong> of all the islands (even those who may be unowned).
+     * The collection is a snapshot and does not change when islands are added or removed.
      * @return unmodifiable collection containing every island.
      */
     @NonNull
     public Collection<Island> getIslands() {
-        return Collections.unmodifiableCollection(islandsByLocation.values());
+        Collection<Island> islands = snapshot;
+        if (islands == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    snapshot = Collections.unmodifiableList(new ArrayList<>(entries.keySet()));
+                }
+                islands = snapshot;
+            }
+        }
+        return islands;
     }
 
     /**
      * Returns an <strong>unmodifiable collection</strong> of all the islands (even those who may be unowned) in the specified world.
+     * The collection is a snapshot and does not change when islands are added or removed.
      * @param world World of the gamemode.
      * @return unmodifiable collection containing all the islands in the specified world.
      * @since 1.7.0
      */
     @NonNull
     public Collection<Island> getIslands(@NonNull World world) {
-        World overworld = Util.getWorld(world);
-        List<Island> islandsInWorld = islandsByLocation.entrySet().stream()
-                .filter(entry -> overworld.equals(Util.getWorld(entry.getKey().getWorld()))) // shouldn't make NPEs
-                .map(Map.Entry::getValue)
-                .collect(Collectors.toCollection(ArrayList::new));
-
-        return Collections.unmodifiableCollection(islandsInWorld);
+        Shard shard = shards.get(Util.getWorld(world));
+        if (shard == null) {
+            return Collections.emptyList();
+        }
+        Collection<Island> islands = shard.snapshot;
+        if (islands == null) {
+            synchronized (this) {
+                if (shard.snapshot == null) {
+                    shard.snapshot = Collections.unmodifiableList(new ArrayList<>(shard.islands));
+                }
+                islands = shard.snapshot;
+            }
+        }
+        return islands;
     }
 
     /**
@@ -186,7 +328,7 @@ public class IslandCache {
      */
     @NonNull
     public Set<UUID> getMembers(@NonNull World world, @NonNull UUID uuid, int minimumRank) {
-        Island island = islandsByUUID.computeIfAbsent(Util.getWorld(world), k -> new HashMap<>()).get(uuid);
+        Island island = get(world, uuid);
         return island != null ? island.getMemberSet(minimumRank) : new HashSet<>();
     }
 
@@ -197,7 +339,7 @@ public class IslandCache {
      */
     @Nullable
     public UUID getOwner(@NonNull World world, @NonNull UUID uuid) {
-        Island island = islandsByUUID.computeIfAbsent(Util.getWorld(world), k -> new HashMap<>()).get(uuid);
+        Island island = get(world, uuid);
         return island != null ? island.getOwner() : null;
 
     }
@@ -208,7 +350,7 @@ public class IslandCache {
      * @return true if player has island and owns it
      */
     public boolean hasIsland(@NonNull World world, @NonNull UUID uuid) {
-        Island island = islandsByUUID.computeIfAbsent(Util.getWorld(world), k -> new HashMap<>()).get(uuid);
+        Island island = get(world, uuid);
         return island != null && uuid.equals(island.getOwner());
     }
 
@@ -220,19 +362,23 @@ public class IslandCache {
      * @return island player had or null if none
      */
     @Nullable
-    public Island removePlayer(@NonNull World world, @NonNull UUID uuid) {
-        Island island = islandsByUUID.computeIfAbsent(Util.getWorld(world), k -> new HashMap<>()).get(uuid);
+    public synchronized Island removePlayer(@NonNull World world, @NonNull UUID uuid) {
+        Shard shard = shards.get(Util.getWorld(world));
+        Island island = shard == null ? null : shard.islandsByUUID.remove(uuid);
         if (island != null) {
             if (uuid.equals(island.getOwner())) {
                 // Clear ownership and members
-                island.getMembers().clear();
+                island.clearMembers();
                 island.setOwner(null);
             } else {
                 // Remove player from the island membership
                 island.removeMember(uuid);
             }
+            Entry entry = entries.get(island);
+            if (entry != null) {
+                entry.players.remove(uuid);
+            }
         }
-        islandsByUUID.get(world).remove(uuid);
         return island;
     }
 
@@ -241,7 +387,7 @@ public class IslandCache {
      * @return the number of islands
      */
     public int size() {
-        return islandsByLocation.size();
+        return entries.size();
     }
 
     /**
@@ -250,7 +396,8 @@ public class IslandCache {
      * @return the number of islands
      */
     public int size(World world) {
-        return islandsByUUID.getOrDefault(world, new HashMap<>(0)).size();
+        Shard shard = shards.get(Util.getWorld(world));
+        return shard == null ? 0 : shard.islands.size();
     }
 
     /**
@@ -259,13 +406,12 @@ public class IslandCache {
      * @param island island
      * @param newOwnerUUID new owner
      */
-    public void setOwner(@NonNull Island island, @Nullable UUID newOwnerUUID) {
+    public synchronized void setOwner(@NonNull Island island, @Nullable UUID newOwnerUUID) {
         island.setOwner(newOwnerUUID);
+        index(island);
         if (newOwnerUUID != null) {
-            islandsByUUID.computeIfAbsent(Util.getWorld(island.getWorld()), k -> new HashMap<>()).put(newOwnerUUID, island);
+            addPlayer(newOwnerUUID, island);
         }
-        islandsByLocation.put(island.getCenter(), island);
-        islandsById.put(island.getUniqueId(), island);
     }
 
     /**
@@ -284,14 +430,12 @@ public class IslandCache {
      * @param island - island to remove
      * @since 1.3.0
      */
-    public void removeIsland(@NonNull Island island) {
-        islandsByLocation.values().removeIf(island::equals);
-        islandsById.values().removeIf(island::equals);
-        if (islandsByUUID.containsKey(Util.getWorld(island.getWorld()))) {
-            islandsByUUID.get(Util.getWorld(island.getWorld())).values().removeIf(island::equals);
-        }
-        if (grids.containsKey(Util.getWorld(island.getWorld()))) {
-            grids.get(Util.getWorld(island.getWorld())).removeFromGrid(island);
+    public synchronized void removeIsland(@NonNull Island island) {
+        Entry entry = entries.get(island);
+        unindex(island);
+        Shard shard = shards.get(entry != null ? entry.world : Util.getWorld(island.getWorld()));
+        if (shard != null && shard.grid != null) {
+            shard.grid.removeFromGrid(island);
         }
     }
 
@@ -301,8 +445,7 @@ public class IslandCache {
      * @since 1.3.0
      */
     public void resetAllFlags(World world) {
-        World w = Util.getWorld(world);
-        islandsById.values().stream().filter(i -> i.getWorld().equals(w)).forEach(Island::setFlagsDefaults);
+        getIslands(world).forEach(Island::setFlagsDefaults);
     }
 
     /**
@@ -314,15 +457,25 @@ public class IslandCache {
     public void resetFlag(World world, Flag flag) {
         World w = Util.getWorld(world);
         int setting = BentoBox.getInstance().getIWM().getDefaultIslandFlags(w).getOrDefault(flag, flag.getDefaultRank());
-        islandsById.values().stream().filter(i -> i.getWorld().equals(w)).forEach(i -> i.setFlag(flag, setting));
+        getIslands(w).forEach(i -> i.setFlag(flag, setting));
+    }
+
+    /**
+     * Get the index of the islands and ranks of each player. It covers all the islands in the cache, in every world.
+     * @return member index
+     * @since 1.15.0
+     */
+    @NonNull
+    public MemberIndex getMemberIndex() {
+        return memberIndex;
     }
 
     /**
      * Get all the island ids
-     * @return set of ids
+     * @return unmodifiable set of ids
      * @since 1.8.0
      */
     public Set<String> getAllIslandIds() {
-        return islandsById.keySet();
+        return Collections.unmodifiableSet(islandsById.keySet());
     }
 }
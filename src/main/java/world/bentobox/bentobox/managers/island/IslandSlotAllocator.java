@@ -0,0 +1,319 @@
+package world.bentobox.bentobox.managers.island;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.BlockFace;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.scheduler.BukkitTask;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.api.events.BentoBoxReadyEvent;
+import world.bentobox.bentobox.api.events.island.IslandEvent.IslandDeletedEvent;
+import world.bentobox.bentobox.database.Database;
+import world.bentobox.bentobox.database.objects.IslandSlots;
+import world.bentobox.bentobox.util.Util;
+
+/**
+ * Hands out locations for new islands made by the {@link DefaultNewIslandLocationStrategy}.
+ * <p>
+ * For each world it keeps the last grid location that was handed out, and the locations of islands that
+ * have been deleted since, in the database. A background task checks the next few locations ahead of time,
+ * loading chunks asynchronously, and keeps up to {@link world.bentobox.bentobox.Settings#getNewLocationQueueSize()}
+ * empty locations ready, so creating an island does not have to search for a spot.
+ * <p>
+ * Every game mode overworld is looked after from the time BentoBox is ready. If no location is ready when an
+ * island is made, {@link #nextAsync(World)} checks the next ones in the same way, without blocking the server.
+ *
+ * @since 1.15.0
+ */
+public class IslandSlotAllocator implements Listener {
+
+    private static final long REFILL_PERIOD = 10L;
+
+    private final BentoBox plugin;
+    private final Database<IslandSlots> handler;
+    private final DefaultNewIslandLocationStrategy grid = new DefaultNewIslandLocationStrategy();
+    private final Map<World, Slots> worlds = new HashMap<>();
+    private BukkitTask task;
+
+    /**
+     * Slots of one world
+     */
+    private static final class Slots {
+        private final IslandSlots data;
+        /**
+         * Locations that have been checked and are empty
+         */
+        private final Deque<Location> ready = new ArrayDeque<>();
+        private boolean checking;
+
+        private Slots(IslandSlots data) {
+            this.data = data;
+        }
+    }
+
+    public IslandSlotAllocator(@NonNull BentoBox plugin) {
+        this.plugin = plugin;
+        handler = new Database<>(plugin, IslandSlots.class);
+    }
+
+    /**
+     * Get the next location that is ready for an island
+     * @param world - world
+     * @return location, or null if none is ready
+     */
+    @Nullable
+    public Location next(@NonNull World world) {
+        Slots slots = get(world);
+        while (!slots.ready.isEmpty()) {
+            Location location = slots.ready.poll();
+            // Things may have changed since it was checked
+            if (!isTaken(location)) {
+                save(slots);
+                return location;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the next location that is ready for an island, or check the next locations until an empty one is found.
+     * Chunks are loaded asynchronously, so the server is not blocked while the locations are checked.
+     * @param world - world
+     * @return future that completes with the location, or null if no free spot was found
+     */
+    @NonNull
+    public CompletableFuture<Location> nextAsync(@NonNull World world) {
+        Location ready = next(world);
+        if (ready != null) {
+            return CompletableFuture.completedFuture(ready);
+        }
+        CompletableFuture<Location> result = new CompletableFuture<>();
+        search(world, get(world), 0, new ArrayList<>(), result);
+        return result;
+    }
+
+    /**
+     * Checks locations one at a time until an empty one is found, or too many have blocks in them
+     * @param checked - number of locations checked so far that were not empty or could not be checked
+     * @param failed - locations that could not be checked, to try again later
+     */
+    private void search(World world, Slots slots, int checked, List<Location> failed, CompletableFuture<Location> result) {
+        Location candidate = take(world, slots);
+        while (isTaken(candidate)) {
+            candidate = take(world, slots);
+        }
+        Location location = candidate;
+        check(location).whenComplete((empty, ex) -> {
+            if (ex != null) {
+                plugin.logError("Could not check island location " + Util.xyz(location.toVector()) + " " + ex.getMessage());
+                failed.add(location);
+            } else if (Boolean.TRUE.equals(empty)) {
+                slots.data.getFree().addAll(failed);
+                save(slots);
+                result.complete(location);
+                return;
+            }
+            if (checked + 1 < DefaultNewIslandLocationStrategy.MAX_UNOWNED_ISLANDS) {
+                search(world, slots, checked + 1, failed, result);
+                return;
+            }
+            // We could not find a free spot within the limit required. It's likely this world is not empty
+            plugin.logError("Could not find a free spot for islands! Is this world empty?");
+            plugin.logError("Locations checked: " + (checked + 1) + " max " + DefaultNewIslandLocationStrategy.MAX_UNOWNED_ISLANDS
+                    + ", could not be checked: " + failed.size());
+            slots.data.getFree().addAll(failed);
+            save(slots);
+            result.complete(null);
+        });
+    }
+
+    /**
+     * Sets the last grid location that was handed out in this world, if it was found some other way
+     * @param location - location
+     */
+    public void setCursor(@NonNull Location location) {
+        Slots slots = get(location.getWorld());
+        slots.data.setCursor(location.clone());
+        save(slots);
+    }
+
+    private Slots get(World world) {
+        return worlds.computeIfAbsent(world, w -> {
+            IslandSlots data = handler.objectExists(w.getName()) ? handler.loadObject(w.getName()) : null;
+            if (data == null) {
+                data = new IslandSlots(w.getName());
+            }
+            if (data.getCursor() != null && plugin.getIslands().getLast(w) == null) {
+                // Carry on where it was before the restart
+                plugin.getIslands().setLast(data.getCursor().clone());
+            }
+            return new Slots(data);
+        });
+    }
+
+    private void save(Slots slots) {
+        // Locations that are ready are kept as free, so they are not lost on a restart
+        IslandSlots copy = new IslandSlots(slots.data.getUniqueId());
+        copy.setCursor(slots.data.getCursor());
+        List<Location> free = new ArrayList<>(slots.ready);
+        free.addAll(slots.data.getFree());
+        copy.setFree(free);
+        handler.saveObjectAsync(copy);
+    }
+
+    /**
+     * Checks the next location of each world, if more are needed
+     */
+    private void refill() {
+        int size = plugin.getSettings().getNewLocationQueueSize();
+        if (size <= 0) {
+            return;
+        }
+        worlds.forEach((world, slots) -> {
+            if (!slots.checking && slots.ready.size() < size && plugin.getIWM().inWorld(world)) {
+                Location candidate = take(world, slots);
+                slots.checking = true;
+                check(candidate).whenComplete((empty, ex) -> {
+                    slots.checking = false;
+                    if (ex != null) {
+                        // Try this location again later
+                        plugin.logError("Could not check island location " + Util.xyz(candidate.toVector()) + " " + ex.getMessage());
+                        slots.data.getFree().add(candidate);
+                    } else if (Boolean.TRUE.equals(empty)) {
+                        slots.ready.add(candidate);
+                    }
+                    save(slots);
+                });
+            }
+        });
+    }
+
+    /**
+     * Takes the next location to check, from the free ones first
+     */
+    private Location take(World world, Slots slots) {
+        if (!slots.data.getFree().isEmpty()) {
+            return slots.data.getFree().remove(0);
+        }
+        Location cursor = slots.data.getCursor();
+        Location next = cursor == null ? grid.getStartLocation(world) : grid.nextGridLocation(cursor.clone());
+        slots.data.setCursor(next.clone());
+        plugin.getIslands().setLast(next.clone());
+        return next;
+    }
+
+    /**
+     * Checks if there is nothing at this location. Chunks are loaded asynchronously and never generated.
+     * @param location - island location
+     * @return future that completes with true if the location is empty
+     */
+    private CompletableFuture<Boolean> check(Location location) {
+        if (isTaken(location)) {
+            return CompletableFuture.completedFuture(false);
+        }
+        World world = location.getWorld();
+        if (plugin.getIWM().isUseOwnGenerator(world)) {
+            return CompletableFuture.completedFuture(true);
+        }
+        // Blocks around the center, by chunk
+        Map<Long, List<int[]>> byChunk = new LinkedHashMap<>();
+        for (BlockFace bf : BlockFace.values()) {
+            int x = location.getBlockX() + bf.getModX();
+            int y = location.getBlockY() + bf.getModY();
+            int z = location.getBlockZ() + bf.getModZ();
+            if (y >= 0 && y < world.getMaxHeight()) {
+                byChunk.computeIfAbsent(((long)(x >> 4) << 32) | ((z >> 4) & 0xFFFFFFFFL), k -> new ArrayList<>()).add(new int[] {x, y, z});
+            }
+        }
+        List<CompletableFuture<Boolean>> checks = new ArrayList<>();
+        byChunk.values().forEach(blocks -> {
+            int[] first = blocks.get(0);
+            checks.add(Util.getChunkAtAsync(world, first[0] >> 4, first[2] >> 4, false)
+                    .thenApply(chunk -> chunk == null || isEmpty(chunk, blocks)));
+        });
+        return CompletableFuture.allOf(checks.toArray(new CompletableFuture[0])).thenApply(v -> {
+            if (checks.stream().allMatch(CompletableFuture::join)) {
+                return true;
+            }
+            // Blocks found - remember the spot as an unowned island
+            plugin.getIslands().createIsland(location);
+            return false;
+        });
+    }
+
+    private boolean isEmpty(Chunk chunk, List<int[]> blocks) {
+        return blocks.stream().map(b -> chunk.getBlock(b[0] & 0xF, b[1], b[2] & 0xF))
+                .allMatch(b -> b.isEmpty() || b.getType().equals(Material.WATER));
+    }
+
+    /**
+     * Checks the center and corners of the island space at this location for islands
+     * @param location - island location
+     * @return true if there is an island, or one being deleted
+     */
+    private boolean isTaken(Location location) {
+        World world = location.getWorld();
+        int dist = plugin.getIWM().getIslandDistance(world);
+        Location[] locs = {
+                location,
+                new Location(world, location.getX() - dist, 0, location.getZ() - dist),
+                new Location(world, location.getX() - dist, 0, location.getZ() + dist - 1),
+                new Location(world, location.getX() + dist - 1, 0, location.getZ() - dist),
+                new Location(world, location.getX() + dist - 1, 0, location.getZ() + dist - 1)
+        };
+        for (Location l : locs) {
+            if (plugin.getIslands().getIslandAt(l).isPresent() || plugin.getIslandDeletionManager().inDeletion(l)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Starts checking locations ahead of time in every game mode overworld
+     * @param e BentoBox Ready event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onBentoBoxReady(BentoBoxReadyEvent e) {
+        plugin.getIWM().getOverWorlds().forEach(this::get);
+        if (task == null) {
+            task = Bukkit.getScheduler().runTaskTimer(plugin, this::refill, REFILL_PERIOD, REFILL_PERIOD);
+        }
+    }
+
+    /**
+     * Makes the location of a deleted island free for a new island
+     * @param e island deleted event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onIslandDeleted(IslandDeletedEvent e) {
+        Location location = e.getDeletedIslandInfo().getLocation();
+        if (location == null || location.getWorld() == null || !worlds.containsKey(location.getWorld())) {
+            return;
+        }
+        World world = location.getWorld();
+        Location slot = new Location(world, location.getBlockX(), plugin.getIWM().getIslandHeight(world), location.getBlockZ());
+        Slots slots = worlds.get(world);
+        if (!slots.data.getFree().contains(slot) && !slots.ready.contains(slot)) {
+            slots.data.getFree().add(slot);
+            save(slots);
+        }
+    }
+}
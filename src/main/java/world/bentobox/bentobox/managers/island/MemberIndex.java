@@ -0,0 +1,94 @@
+package world.bentobox.bentobox.managers.island;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jdt.annotation.NonNull;
+
+import world.bentobox.bentobox.database.objects.Island;
+import world.bentobox.bentobox.managers.RanksManager;
+
+/**
+ * Index of the islands each player has a rank on, in every world.
+ * <p>
+ * Islands in the {@link IslandCache} keep this index up to date themselves when their members change,
+ * so it can be read at any time without going through all the islands.
+ *
+ * @since 1.15.0
+ */
+public class MemberIndex {
+
+    /**
+     * Player -> island unique id -> rank
+     */
+    private final Map<UUID, Map<String, Integer>> ranks = new ConcurrentHashMap<>();
+
+    /**
+     * Adds all the players of an island
+     * @param island - island
+     */
+    public void addAll(@NonNull Island island) {
+        island.getMembers().forEach((uuid, rank) -> set(island, uuid, rank));
+    }
+
+    /**
+     * Removes all the players of an island
+     * @param island - island
+     */
+    public void removeAll(@NonNull Island island) {
+        island.getMembers().keySet().forEach(uuid -> remove(island, uuid));
+    }
+
+    /**
+     * Sets the rank of a player on an island
+     * @param island - island
+     * @param uuid - player's UUID
+     * @param rank - rank
+     */
+    public void set(@NonNull Island island, @NonNull UUID uuid, int rank) {
+        ranks.computeIfAbsent(uuid, k -> new ConcurrentHashMap<>()).put(island.getUniqueId(), rank);
+    }
+
+    /**
+     * Removes a player from an island
+     * @param island - island
+     * @param uuid - player's UUID
+     */
+    public void remove(@NonNull Island island, @NonNull UUID uuid) {
+        ranks.computeIfPresent(uuid, (k, islands) -> {
+            islands.remove(island.getUniqueId());
+            return islands.isEmpty() ? null : islands;
+        });
+    }
+
+    /**
+     * Get the islands a player has a rank on
+     * @param uuid - player's UUID
+     * @return unmodifiable map of island unique ids and ranks, empty if there are none
+     */
+    @NonNull
+    public Map<String, Integer> getRanks(@NonNull UUID uuid) {
+        Map<String, Integer> islands = ranks.get(uuid);
+        return islands == null ? Collections.emptyMap() : Collections.unmodifiableMap(islands);
+    }
+
+    /**
+     * Get the rank of a player on an island
+     * @param uuid - player's UUID
+     * @param islandId - island unique id
+     * @return rank, or {@link RanksManager#VISITOR_RANK} if the player has none
+     */
+    public int getRank(@NonNull UUID uuid, @NonNull String islandId) {
+        Map<String, Integer> islands = ranks.get(uuid);
+        return islands == null ? RanksManager.VISITOR_RANK : islands.getOrDefault(islandId, RanksManager.VISITOR_RANK);
+    }
+
+    /**
+     * Removes everything from the index
+     */
+    void clear() {
+        ranks.clear();
+    }
+}
@@ -1,6 +1,10 @@
 package world.bentobox.bentobox.managers.island;
 
 import java.io.IOException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
@@ -24,6 +28,11 @@ import world.bentobox.bentobox.managers.BlueprintsManager;
  *
  */
 public class NewIsland {
+    /**
+     * Players whose new island is waiting for a location
+     */
+    private static final Set<UUID> WAITING = ConcurrentHashMap.newKeySet();
+
     private BentoBox plugin;
     private Island island;
     private final User user;
@@ -53,7 +62,7 @@ public class NewIsland {
     }
 
     /**
-     * @return the island that was created
+     * @return the island that was created, or null if a location for it is still being looked for
      */
     public Island getIsland() {
         return island;
@@ -154,7 +163,7 @@ public class NewIsland {
     }
 
     /**
-     * Makes an island.
+     * Makes an island. If no location is ready, the island is made once the location strategy has found one.
      * @param oldIsland old island that is being replaced, if any
      * @throws IOException - if an island cannot be made. Message is the tag to show the user.
      */
@@ -172,9 +181,58 @@ public class NewIsland {
                 plugin.logError("New island for user " + user.getName() + " was not reserved!");
             }
         }
+        if (next != null) {
+            makeIsland(next, oldIsland, false);
+            return;
+        }
         // If the reservation fails, then we need to make a new island anyway
-        if (next == null) {
-            next = this.locationStrategy.getNextLocation(world);
+        if (!WAITING.add(user.getUniqueId())) {
+            throw new IOException("commands.island.create.creating-island");
+        }
+        CompletableFuture<Location> location = this.locationStrategy.getNextLocationAsync(world);
+        if (location.isDone()) {
+            WAITING.remove(user.getUniqueId());
+            makeIsland(getLocation(location), oldIsland, true);
+            return;
+        }
+        // Wait without blocking the server
+        location.whenComplete((l, e) -> {
+            if (Bukkit.isPrimaryThread()) {
+                makeIsland(location, oldIsland);
+            } else {
+                Bukkit.getScheduler().runTask(plugin, () -> makeIsland(location, oldIsland));
+            }
+        });
+    }
+
+    private void makeIsland(CompletableFuture<Location> location, Island oldIsland) {
+        WAITING.remove(user.getUniqueId());
+        try {
+            makeIsland(getLocation(location), oldIsland, true);
+        } catch (IOException e) {
+            plugin.logError("Could not create island for player. " + e.getMessage());
+            user.sendMessage(e.getMessage());
+        }
+    }
+
+    private Location getLocation(CompletableFuture<Location> location) {
+        try {
+            return location.join();
+        } catch (Exception e) {
+            plugin.logError("Could not find a location for a new island " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Makes the island at this location
+     * @param next - location of the island
+     * @param oldIsland old island that is being replaced, if any
+     * @param addToGrid - true if the island has to be added to the grid
+     * @throws IOException - if an island cannot be made. Message is the tag to show the user.
+     */
+    private void makeIsland(Location next, Island oldIsland, boolean addToGrid) throws IOException {
+        if (addToGrid) {
             if (next == null) {
                 plugin.logError("Failed to make island - no unoccupied spot found.");
                 plugin.logError("If the world was imported, try multiple times until all unowned islands are known.");
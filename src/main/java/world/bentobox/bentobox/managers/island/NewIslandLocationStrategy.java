@@ -1,5 +1,7 @@
 package world.bentobox.bentobox.managers.island;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.bukkit.Location;
 import org.bukkit.World;
 
@@ -11,4 +13,15 @@ import org.bukkit.World;
  */
 public interface NewIslandLocationStrategy {
     Location getNextLocation(World world);
+
+    /**
+     * Get the location of the next island without blocking the server while it is looked for.
+     * By default this is {@link #getNextLocation(World)}, run on the calling thread.
+     * @param world - world
+     * @return future that completes with the location, or null if none was found
+     * @since 1.15.0
+     */
+    default CompletableFuture<Location> getNextLocationAsync(World world) {
+        return CompletableFuture.completedFuture(getNextLocation(world));
+    }
 }
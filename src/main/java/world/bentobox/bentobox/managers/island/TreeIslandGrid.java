@@ -0,0 +1,79 @@
+package world.bentobox.bentobox.managers.island;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import world.bentobox.bentobox.database.objects.Island;
+
+/**
+ * Handles the island location grid for each world using sorted maps.
+ * Slower than {@link CellIslandGrid}, but accepts any island layout.
+ */
+class TreeIslandGrid extends IslandGrid {
+    private final ConcurrentNavigableMap<Integer, ConcurrentNavigableMap<Integer, Island>> grid = new ConcurrentSkipListMap<>();
+
+    TreeIslandGrid() {}
+
+    /**
+     * Creates a grid holding all the islands of another grid
+     * @param other - grid to copy
+     * @since 1.15.0
+     */
+    TreeIslandGrid(IslandGrid other) {
+        other.getIslands().forEach(this::addToGrid);
+    }
+
+    @Override
+    public boolean addToGrid(Island island) {
+        ConcurrentNavigableMap<Integer, Island> zEntry = grid.computeIfAbsent(island.getMinX(), k -> new ConcurrentSkipListMap<>());
+        Island firstLoaded = zEntry.get(island.getMinZ());
+        if (firstLoaded != null) {
+            Island keep = resolveOverlap(firstLoaded, island);
+            if (keep != firstLoaded) {
+                zEntry.put(island.getMinZ(), keep);
+            }
+            return false;
+        }
+        // Add island
+        zEntry.put(island.getMinZ(), island);
+        return true;
+    }
+
+    @Override
+    public boolean removeFromGrid(Island island) {
+        // Remove from grid
+        if (island != null) {
+            ConcurrentNavigableMap<Integer, Island> zEntry = grid.get(island.getMinX());
+            // Island exists - delete it
+            return zEntry != null && zEntry.remove(island.getMinZ()) != null;
+        }
+        return false;
+    }
+
+    @Override
+    public Island getIslandAt(int x, int z) {
+        Entry<Integer, ConcurrentNavigableMap<Integer, Island>> en = grid.floorEntry(x);
+        if (en != null) {
+            Entry<Integer, Island> ent = en.getValue().floorEntry(z);
+            if (ent != null) {
+                // Check if in the island range
+                Island island = ent.getValue();
+                if (island.inIslandSpace(x, z)) {
+                    return island;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Collection<Island> getIslands() {
+        List<Island> islands = new ArrayList<>();
+        grid.values().forEach(zEntry -> islands.addAll(zEntry.values()));
+        return islands;
+    }
+}
@@ -1,12 +1,21 @@
 package world.bentobox.bentobox.util;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
 import org.bukkit.Material;
 import org.bukkit.World;
+import org.bukkit.block.Biome;
+import org.bukkit.block.Block;
+import org.bukkit.block.data.BlockData;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 import org.bukkit.generator.ChunkGenerator;
@@ -22,66 +31,116 @@ import world.bentobox.bentobox.api.events.island.IslandEvent.Reason;
 import world.bentobox.bentobox.database.objects.IslandDeletion;
 
 /**
- * Deletes islands chunk by chunk
+ * Deletes islands chunk by chunk.
+ * <p>
+ * Each chunk is regenerated by comparing what the game mode's generator makes with what is in the chunk,
+ * so only blocks that are different are set. Sections that are all air in the chunk are skipped, because nothing
+ * was built in them, and only their biomes are reset.
+ * Chunks of the overworld, nether and end are done in turn, and as many chunks as fit in
+ * {@link world.bentobox.bentobox.Settings#getDeleteTimeBudget()} are regenerated each tick.
  *
  * @author tastybento
  */
 public class DeleteIslandChunks {
 
-    private int chunkX;
-    private int chunkZ;
+    private static final int SECTION_HEIGHT = 16;
+
+    private final BentoBox plugin;
+    private final IslandDeletion di;
+    private final GameModeAddon gm;
+    private final Random random = new Random();
+    /**
+     * Chunks still to be loaded, with the worlds interleaved
+     */
+    private final Deque<ChunkPos> toLoad = new ArrayDeque<>();
+    /**
+     * Loaded chunks waiting to be regenerated
+     */
+    private final Deque<Chunk> toRegenerate = new ArrayDeque<>();
+    private int loading;
+    private int maxLoading;
     private BukkitTask task;
-    private IslandDeletion di;
-    private boolean inDelete;
+    /**
+     * Number of blocks set so far
+     */
+    private long blockWrites;
 
     public DeleteIslandChunks(BentoBox plugin, IslandDeletion di) {
         // Fire event
         IslandEvent.builder().deletedIslandInfo(di).reason(Reason.DELETE_CHUNKS).build();
-
-        this.chunkX = di.getMinXChunk();
-        this.chunkZ = di.getMinZChunk();
+        this.plugin = plugin;
         this.di = di;
-        // Run through all chunks of the islands and regenerate them.
-        task = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
-            if (inDelete) return;
-            inDelete = true;
-            for (int i = 0; i < plugin.getSettings().getDeleteSpeed(); i++) {
-                plugin.getIWM().getAddon(di.getWorld()).ifPresent(gm -> {
-                    // Overworld
-                    processChunk(gm, di.getWorld(), chunkX, chunkZ);
-                    // Nether
-                    if (plugin.getIWM().isNetherGenerate(di.getWorld()) && plugin.getIWM().isNetherIslands(di.getWorld())) {
-                        processChunk(gm, plugin.getIWM().getNetherWorld(di.getWorld()), chunkX, chunkZ);
-                    }
-                    // End
-                    if (plugin.getIWM().isEndGenerate(di.getWorld()) && plugin.getIWM().isEndIslands(di.getWorld())) {
-                        processChunk(gm, plugin.getIWM().getEndWorld(di.getWorld()), chunkX, chunkZ);
-                    }
-                    chunkZ++;
-                    if (chunkZ > di.getMaxZChunk()) {
-                        chunkZ = di.getMinZChunk();
-                        chunkX++;
-                        if (chunkX > di.getMaxXChunk()) {
-                            // We're done
-                            task.cancel();
-                            // Fire event
-                            IslandEvent.builder().deletedIslandInfo(di).reason(Reason.DELETED).build();
-                        }
-                    }
-                });
+        this.gm = plugin.getIWM().getAddon(di.getWorld()).orElse(null);
+        int deleteSpeed = plugin.getSettings().getDeleteSpeed();
+        if (gm == null || deleteSpeed <= 0) {
+            // Nothing to regenerate with, or island blocks are kept
+            IslandEvent.builder().deletedIslandInfo(di).reason(Reason.DELETED).build();
+            return;
+        }
+        List<World> worlds = getWorlds();
+        for (int x = di.getMinXChunk(); x <= di.getMaxXChunk(); x++) {
+            for (int z = di.getMinZChunk(); z <= di.getMaxZChunk(); z++) {
+                for (World world : worlds) {
+                    toLoad.add(new ChunkPos(world, x, z));
+                }
             }
-            inDelete = false;
-        }, 0L, 20L);
+        }
+        maxLoading = deleteSpeed * worlds.size();
+        long budget = TimeUnit.MILLISECONDS.toNanos(plugin.getSettings().getDeleteTimeBudget());
+        // Without a time budget, regenerate delete-speed chunks per world every second, as before
+        task = Bukkit.getScheduler().runTaskTimer(plugin, () -> tick(budget), 0L, budget > 0 ? 1L : 20L);
     }
 
-    private void processChunk(GameModeAddon gm, World world, int x, int z) {
-        if (PaperLib.isChunkGenerated(world, x, z)) {
-            PaperLib.getChunkAtAsync(world, x, z).thenAccept(chunk -> regenerateChunk(gm, chunk));
+    private List<World> getWorlds() {
+        List<World> worlds = new ArrayList<>(3);
+        // Overworld
+        worlds.add(di.getWorld());
+        // Nether
+        if (plugin.getIWM().isNetherGenerate(di.getWorld()) && plugin.getIWM().isNetherIslands(di.getWorld())) {
+            worlds.add(plugin.getIWM().getNetherWorld(di.getWorld()));
         }
+        // End
+        if (plugin.getIWM().isEndGenerate(di.getWorld()) && plugin.getIWM().isEndIslands(di.getWorld())) {
+            worlds.add(plugin.getIWM().getEndWorld(di.getWorld()));
+        }
+        return worlds;
     }
 
-    private void regenerateChunk(GameModeAddon gm, Chunk chunk) {
-        boolean isLoaded = chunk.isLoaded();
+    private void tick(long budget) {
+        long deadline = budget > 0 ? System.nanoTime() + budget : Long.MAX_VALUE;
+        int limit = budget > 0 ? Integer.MAX_VALUE : maxLoading;
+        // Regenerate the chunks that have loaded
+        int count = 0;
+        while (!toRegenerate.isEmpty() && count < limit && System.nanoTime() < deadline) {
+            regenerateChunk(toRegenerate.poll());
+            count++;
+        }
+        // Load more chunks, a few at a time, so that chunks are not loaded faster than they are regenerated
+        while (!toLoad.isEmpty() && loading + toRegenerate.size() < maxLoading) {
+            ChunkPos pos = toLoad.poll();
+            if (PaperLib.isChunkGenerated(pos.world, pos.x, pos.z)) {
+                loading++;
+                PaperLib.getChunkAtAsync(pos.world, pos.x, pos.z).whenComplete((chunk, e) -> {
+                    loading--;
+                    if (e != null) {
+                        plugin.logError("Could not load chunk " + pos.x + "," + pos.z + " in " + pos.world.getName()
+                        + " to delete island " + di.getUniqueId() + " " + e.getMessage());
+                    } else if (chunk != null) {
+                        toRegenerate.add(chunk);
+                    }
+                });
+            }
+        }
+        if (toLoad.isEmpty() && toRegenerate.isEmpty() && loading == 0) {
+            // We're done
+            task.cancel();
+            plugin.logDebug("Deleted island " + di.getUniqueId() + " with " + blockWrites + " block writes");
+            // Fire event
+            IslandEvent.builder().deletedIslandInfo(di).reason(Reason.DELETED).build();
+        }
+    }
+
+    private void regenerateChunk(Chunk chunk) {
         // Clear all inventories
         Arrays.stream(chunk.getTileEntities()).filter(te -> (te instanceof InventoryHolder))
         .filter(te -> di.inBounds(te.getLocation().getBlockX(), te.getLocation().getBlockZ()))
@@ -91,30 +150,84 @@ public class DeleteIslandChunks {
         ChunkGenerator cg = gm.getDefaultWorldGenerator(chunk.getWorld().getName(), "");
         // Will be null if use-own-generator is set to true
         if (cg != null) {
-            ChunkData cd = cg.generateChunkData(chunk.getWorld(), new Random(), chunk.getX(), chunk.getZ(), grid);
+            ChunkData cd = cg.generateChunkData(chunk.getWorld(), random, chunk.getX(), chunk.getZ(), grid);
+            ChunkSnapshot snapshot = chunk.getChunkSnapshot(false, true, false);
             int baseX = chunk.getX() << 4;
             int baseZ = chunk.getZ() << 4;
-            for (int x = 0; x < 16; x++) {
-                for (int z = 0; z < 16; z++) {
-                    if (di.inBounds(baseX + x, baseZ + z)) {                        
-                        for (int y = 0; y < chunk.getWorld().getMaxHeight(); y++) {
-                            // Note: setting block to air before setting it to something else stops a bug in the server
-                            // where it reports a "
-                            chunk.getBlock(x, y, z).setType(Material.AIR, false);
-                            chunk.getBlock(x, y, z).setBlockData(cd.getBlockData(x, y, z), false);
-                            // 3D biomes, 4 blocks separated
-                            if (x%4 == 0 && y%4 == 0 && z%4 == 0) {
-                                chunk.getBlock(x, y, z).setBiome(grid.getBiome(x, y, z));
-                            }
-                        }
-                    }
-                }
+            int maxHeight = chunk.getWorld().getMaxHeight();
+            for (int sy = 0; sy * SECTION_HEIGHT < maxHeight; sy++) {
+                regenerateSection(chunk, snapshot, cd, grid, baseX, baseZ, sy, Math.min(maxHeight, (sy + 1) * SECTION_HEIGHT));
             }
         }
         // Remove all entities in chunk, including any dropped items as a result of clearing the blocks above
         Arrays.stream(chunk.getEntities()).filter(e -> !(e instanceof Player) && di.inBounds(e.getLocation().getBlockX(), e.getLocation().getBlockZ())).forEach(Entity::remove);
-        if (!isLoaded) {
-            chunk.unload(true);
+    }
+
+    private void regenerateSection(Chunk chunk, ChunkSnapshot snapshot, ChunkData cd, MyBiomeGrid grid, int baseX, int baseZ, int sy, int maxY) {
+        int minY = sy * SECTION_HEIGHT;
+        // 3D biomes, 4 blocks separated
+        for (int x = 0; x < 16; x += 4) {
+            for (int z = 0; z < 16; z += 4) {
+                if (!di.inBounds(baseX + x, baseZ + z)) {
+                    continue;
+                }
+                for (int y = minY; y < maxY; y += 4) {
+                    Biome biome = grid.getBiome(x, y, z);
+                    if (snapshot.getBiome(x, y, z) != biome) {
+                        chunk.getBlock(x, y, z).setBiome(biome);
+                    }
+                }
+            }
+        }
+        if (snapshot.isSectionEmpty(sy)) {
+            // All air - nothing to remove
+            return;
+        }
+        for (int x = 0; x < 16; x++) {
+            for (int z = 0; z < 16; z++) {
+                if (!di.inBounds(baseX + x, baseZ + z)) {
+                    continue;
+                }
+                for (int y = minY; y < maxY; y++) {
+                    BlockData bd = cd.getBlockData(x, y, z);
+                    if (!bd.equals(snapshot.getBlockData(x, y, z))) {
+                        setBlock(chunk.getBlock(x, y, z), bd);
+                    }
+                }
+            }
+        }
+    }
+
+    private void setBlock(Block block, BlockData bd) {
+        // Note: setting block to air before setting it to something else stops a bug in the server
+        // where it reports a "
+        block.setType(Material.AIR, false);
+        if (!bd.getMaterial().isAir()) {
+            block.setBlockData(bd, false);
+        }
+        blockWrites++;
+    }
+
+    /**
+     * @return number of blocks set so far by this deletion
+     * @since 1.15.0
+     */
+    public long getBlockWrites() {
+        return blockWrites;
+    }
+
+    /**
+     * A chunk of one of the island's worlds
+     */
+    private static final class ChunkPos {
+        private final World world;
+        private final int x;
+        private final int z;
+
+        private ChunkPos(World world, int x, int z) {
+            this.world = world;
+            this.x = x;
+            this.z = z;
         }
     }
 }
@@ -236,7 +236,19 @@ public class Util {
         if (world == null) {
             return null;
         }
-        return world.getEnvironment().equals(Environment.NORMAL) ? world : Bukkit.getWorld(world.getName().replace(NETHER, "").replace(THE_END, ""));
+        WorldRegistry registry = plugin != null && plugin.getIWM() != null ? plugin.getIWM().getWorldRegistry() : null;
+        if (registry != null) {
+            World overWorld = registry.getOverWorld(world);
+            if (overWorld != null) {
+                return overWorld;
+            }
+        }
+        World overWorld = world.getEnvironment().equals(Environment.NORMAL) ? world : Bukkit.getWorld(world.getName().replace(NETHER, "").replace(THE_END, ""));
+        if (registry != null && overWorld != null) {
+            // Remember it so that the next lookup is fast
+            registry.add(world, overWorld);
+        }
+        return overWorld;
     }
 
     /**
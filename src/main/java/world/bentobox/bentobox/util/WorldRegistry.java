@@ -0,0 +1,147 @@
+package world.bentobox.bentobox.util;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.bukkit.World;
+import org.bukkit.World.Environment;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Maps worlds and world UIDs to their overworld and environment.
+ * Filled by the {@link world.bentobox.bentobox.managers.IslandWorldManager} when game modes register their worlds,
+ * and lazily by {@link Util#getWorld(World)} for any other world.
+ * Lookups are a single identity hash lookup and are safe from async threads.
+ * Worlds are forgotten when they unload.
+ *
+ * @since 1.15.0
+ */
+public class WorldRegistry implements Listener {
+
+    /**
+     * Overworld and environment of a world
+     */
+    private static final class Entry {
+        private final World overWorld;
+        private final Environment environment;
+
+        private Entry(World overWorld, Environment environment) {
+            this.overWorld = overWorld;
+            this.environment = environment;
+        }
+    }
+
+    // These maps are never changed once published. Writers replace them.
+    private volatile Map<World, Entry> byWorld = new IdentityHashMap<>();
+    private volatile Map<UUID, Entry> byUID = new HashMap<>();
+
+    /**
+     * Registers an overworld and its nether and end
+     * @param overWorld - overworld
+     * @param nether - nether world, or null if there is none
+     * @param end - end world, or null if there is none
+     */
+    public synchronized void register(@NonNull World overWorld, @Nullable World nether, @Nullable World end) {
+        Map<World, Entry> worlds = new IdentityHashMap<>(byWorld);
+        Map<UUID, Entry> uids = new HashMap<>(byUID);
+        put(worlds, uids, overWorld, overWorld, Environment.NORMAL);
+        if (nether != null) {
+            put(worlds, uids, nether, overWorld, Environment.NETHER);
+        }
+        if (end != null) {
+            put(worlds, uids, end, overWorld, Environment.THE_END);
+        }
+        byWorld = worlds;
+        byUID = uids;
+    }
+
+    private void put(Map<World, Entry> worlds, Map<UUID, Entry> uids, World world, World overWorld, Environment environment) {
+        Entry entry = new Entry(overWorld, environment);
+        worlds.put(world, entry);
+        uids.put(world.getUID(), entry);
+    }
+
+    /**
+     * Removes a world, and every world that has it as an overworld
+     * @param world - world
+     */
+    public synchronized void unregister(@NonNull World world) {
+        Map<World, Entry> worlds = new IdentityHashMap<>(byWorld);
+        Map<UUID, Entry> uids = new HashMap<>(byUID);
+        worlds.remove(world);
+        uids.remove(world.getUID());
+        worlds.values().removeIf(e -> e.overWorld == world);
+        uids.values().removeIf(e -> e.overWorld == world);
+        byWorld = worlds;
+        byUID = uids;
+    }
+
+    /**
+     * Get the overworld of this world
+     * @param world - world
+     * @return overworld, or null if this world is not known
+     */
+    @Nullable
+    public World getOverWorld(@NonNull World world) {
+        Entry entry = byWorld.get(world);
+        return entry == null ? null : entry.overWorld;
+    }
+
+    /**
+     * Get the overworld of the world with this UID
+     * @param uid - world UID
+     * @return overworld, or null if this world is not known
+     */
+    @Nullable
+    public World getOverWorld(@NonNull UUID uid) {
+        Entry entry = byUID.get(uid);
+        return entry == null ? null : entry.overWorld;
+    }
+
+    /**
+     * Get the environment of this world
+     * @param world - world
+     * @return environment, or null if this world is not known
+     */
+    @Nullable
+    public Environment getEnvironment(@NonNull World world) {
+        Entry entry = byWorld.get(world);
+        return entry == null ? null : entry.environment;
+    }
+
+    /**
+     * Get the environment of the world with this UID
+     * @param uid - world UID
+     * @return environment, or null if this world is not known
+     */
+    @Nullable
+    public Environment getEnvironment(@NonNull UUID uid) {
+        Entry entry = byUID.get(uid);
+        return entry == null ? null : entry.environment;
+    }
+
+    /**
+     * Adds a single world that is not registered by a game mode
+     * @param world - world
+     * @param overWorld - its overworld
+     */
+    synchronized void add(@NonNull World world, @NonNull World overWorld) {
+        Map<World, Entry> worlds = new IdentityHashMap<>(byWorld);
+        Map<UUID, Entry> uids = new HashMap<>(byUID);
+        put(worlds, uids, world, overWorld, world.getEnvironment());
+        byWorld = worlds;
+        byUID = uids;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent e) {
+        unregister(e.getWorld());
+    }
+}
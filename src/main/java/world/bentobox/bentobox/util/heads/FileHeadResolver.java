@@ -0,0 +1,74 @@
+package world.bentobox.bentobox.util.heads;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.google.gson.Gson;
+
+
+/**
+ * Gets player UUIDs and skin textures from a file instead of the web.
+ * For servers without internet access, and for tests.
+ * <p>
+ * The file has the same format as the head cache that {@link HeadGetter} saves:
+ * a JSON array of objects with {@code userName}, {@code userId} and {@code encodedTextureLink}.
+ * @since 1.15.0
+ */
+public class FileHeadResolver implements HeadResolver {
+
+    private final Map<String, HeadCache> byName = new HashMap<>();
+    private final Map<UUID, HeadCache> byId = new HashMap<>();
+
+    /**
+     * @param file - file to read the heads from
+     * @throws IOException if the file cannot be read
+     */
+    public FileHeadResolver(@NonNull File file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            HeadCache[] heads = new Gson().fromJson(reader, HeadCache[].class);
+            if (heads != null) {
+                for (HeadCache head : heads) {
+                    if (head.getUserName() != null && head.getUserId() != null) {
+                        byName.put(head.getUserName().toLowerCase(), head);
+                        byId.put(head.getUserId(), head);
+                    }
+                }
+            }
+        }
+    }
+
+    @NonNull
+    @Override
+    public Map<String, UUID> getUserIds(@NonNull Collection<String> names) {
+        Map<String, UUID> userIds = new HashMap<>();
+        for (String name : names) {
+            HeadCache head = byName.get(name.toLowerCase());
+            if (head != null) {
+                userIds.put(name, head.getUserId());
+            }
+        }
+        return userIds;
+    }
+
+    @Nullable
+    @Override
+    public String getTexture(@NonNull UUID userId) {
+        HeadCache head = byId.get(userId);
+        return head == null ? null : head.encodedTextureLink;
+    }
+
+    @Override
+    public int getBatchSize() {
+        return Integer.MAX_VALUE;
+    }
+}
@@ -1,59 +1,102 @@
 package world.bentobox.bentobox.util.heads;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.URL;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 import org.bukkit.Bukkit;
+import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
 
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
 import world.bentobox.bentobox.BentoBox;
 import world.bentobox.bentobox.api.panels.PanelItem;
 
 
 /**
  * This class manages getting player heads for requester.
+ * <p>
+ * Heads are kept in a cache that is saved to disk, so they survive a restart.
+ * Heads that are not in the cache are fetched in the background by a {@link HeadResolver},
+ * no faster than {@link world.bentobox.bentobox.Settings#getHeadRequestsPerSecond()} requests a second.
+ * A head that many panels ask for at once is only fetched once.
  * @author tastybento, BONNe1704
  */
 public class HeadGetter {
+    /**
+     * File in the plugin's folder that the cache is saved to.
+     */
+    private static final String CACHE_FILE = "heads.json";
+
+    /**
+     * Milliseconds between saves of the cache while new heads are coming in.
+     */
+    private static final long SAVE_INTERVAL = 5 * 60 * 1000L;
+
     /**
      * Local cache for storing player heads.
      */
-    private static final Map<String, HeadCache> cachedHeads = new HashMap<>();
+    private static final Map<String, HeadCache> cachedHeads = new ConcurrentHashMap<>();
 
     /**
-     * Local cache for storing requested names and items which must be updated.
+     * Names of heads that must be fetched, in the order they were asked for.
      */
-    private static final Map<String, PanelItem> names = new HashMap<>();
+    private static final Deque<String> names = new ConcurrentLinkedDeque<>();
 
     /**
-     * Requesters of player heads.
+     * Requesters of player heads and the items they want updated.
+     * A name is here from when it is first asked for until its head comes in, so it is only fetched once.
      */
-    private static final Map<String, Set<HeadRequester>> headRequesters = new HashMap<>();
+    private static final Map<String, Map<HeadRequester, PanelItem>> headRequesters = new ConcurrentHashMap<>();
 
     /**
      * Instance of plugin.
      */
     private final BentoBox plugin;
 
+    /**
+     * Threads that fetch heads.
+     */
+    private final ExecutorService executor;
+
+    private volatile HeadResolver resolver = new MojangHeadResolver();
+
+    /**
+     * True if heads came in since the cache was last saved.
+     */
+    private volatile boolean dirty;
+
+    private long lastSave = System.currentTimeMillis();
+
 
     /**
      * @param plugin - plugin
      */
     public HeadGetter(BentoBox plugin) {
         this.plugin = plugin;
+        this.executor = Executors.newFixedThreadPool(Math.max(1, plugin.getSettings().getHeadRequestThreads()), r -> {
+            Thread thread = new Thread(r, "BentoBox Head Getter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.loadCache();
         this.runPlayerHeadGetter();
     }
 
@@ -63,34 +106,32 @@ public class HeadGetter {
      * @since 1.14.1
      */
     public static void getHead(PanelItem panelItem, HeadRequester requester) {
-        // Freshen cache
-        // If memory is an issue we sacrifice performance?
-        // cachedHeads.values().removeIf(cache -> System.currentTimeMillis() - cache.getTimestamp() > TOO_LONG);
-
-        HeadCache cache = cachedHeads.get(panelItem.getPlayerHeadName());
-
-        // Get value from config. Multiply value to 60 000 as internally it uses miliseconds.
-        // Config value stores minutes.
-        long cacheTimeout = BentoBox.getInstance().getSettings().getPlayerHeadCacheTime() * 60 * 1000;
+        String name = panelItem.getPlayerHeadName();
+        HeadCache cache = cachedHeads.get(name);
 
-        // to avoid every time clearing stored heads (as they may become very large)
-        // just check if requested cache exists and compare it with value from plugin settings.
-        // If timestamp is set to 0, then it must be kept forever.
-        // If settings time is set to 0, then always use cache.
-        if (cache != null &&
-            cache.getTimestamp() != 0 &&
-            cacheTimeout > 0 &&
-            System.currentTimeMillis() - cache.getTimestamp() <= cacheTimeout)
+        if (cache != null && isValid(cache))
         {
-            panelItem.setHead(cachedHeads.get(panelItem.getPlayerHeadName()).getPlayerHead());
+            panelItem.setHead(cache.getPlayerHead());
             requester.setHead(panelItem);
         }
         else
         {
-            // Get the name
-            headRequesters.computeIfAbsent(panelItem.getPlayerHeadName(), k -> new HashSet<>()).
-                add(requester);
-            names.put(panelItem.getPlayerHeadName(), panelItem);
+            // Wait for the head. Only the first request for a name fetches it.
+            boolean[] first = new boolean[1];
+            headRequesters.compute(name, (k, requesters) -> {
+                if (requesters == null)
+                {
+                    requesters = new ConcurrentHashMap<>();
+                    first[0] = true;
+                }
+                requesters.put(requester, panelItem);
+                return requesters;
+            });
+
+            if (first[0])
+            {
+                names.add(name);
+            }
         }
     }
 
@@ -107,182 +148,250 @@ public class HeadGetter {
     }
 
 
-// ---------------------------------------------------------------------
-// Section: Private methods
-// ---------------------------------------------------------------------
+    /**
+     * Returns the resolver used to fetch heads.
+     * @return the head resolver
+     * @since 1.15.0
+     */
+    @NonNull
+    public HeadResolver getResolver() {
+        return resolver;
+    }
 
 
     /**
-     * This is main task that runs once every 20 ticks and tries to get a player head.
-     * @since 1.14.1
+     * Sets the resolver used to fetch heads, for example a {@link FileHeadResolver} on servers without internet access.
+     * @param resolver the head resolver
+     * @since 1.15.0
      */
-    private void runPlayerHeadGetter() {
-        Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, () -> {
-            synchronized (names)
-            {
-                Iterator<Entry<String, PanelItem>> it = names.entrySet().iterator();
+    public void setResolver(@NonNull HeadResolver resolver) {
+        this.resolver = resolver;
+    }
 
-                if (it.hasNext())
-                {
-                    Entry<String, PanelItem> elementEntry = it.next();
 
-                    // TODO: In theory BentoBox could use User instance to find existing user UUID's.
-                    // It would avoid one API call.
-                    final String userName = elementEntry.getKey();
+    /**
+     * Saves the cache to disk.
+     * @since 1.15.0
+     */
+    public synchronized void saveCache() {
+        dirty = false;
+        lastSave = System.currentTimeMillis();
+        // Failed lookups are not kept, so they are tried again after a restart
+        List<HeadCache> heads = cachedHeads.values().stream()
+            .filter(head -> head.getUserName() != null && head.encodedTextureLink != null && isValid(head))
+            .collect(Collectors.toList());
+        File file = new File(plugin.getDataFolder(), CACHE_FILE);
+        File tmp = new File(plugin.getDataFolder(), CACHE_FILE + ".tmp");
+        try
+        {
+            try (Writer writer = Files.newBufferedWriter(tmp.toPath(), StandardCharsets.UTF_8))
+            {
+                new Gson().toJson(heads, writer);
+            }
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (IOException e)
+        {
+            plugin.logError("Could not save player head cache: " + e.getMessage());
+        }
+    }
 
-                    // Use cached userId as userId will not change :)
-                    UUID userId = cachedHeads.containsKey(userName) ?
-                        cachedHeads.get(userName).getUserId() :
-                        HeadGetter.getUserIdFromName(userName);
 
-                    // Create new cache object.
-                    HeadCache cache = new HeadCache(userName,
-                        userId,
-                        HeadGetter.getTextureFromUUID(userId));
+    /**
+     * Stops fetching heads and saves the cache.
+     * @since 1.15.0
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+        saveCache();
+    }
 
-                    // Save in cache
-                    cachedHeads.put(userName, cache);
 
-                    // Tell requesters the head came in
-                    if (headRequesters.containsKey(userName))
-                    {
-                        for (HeadRequester req : headRequesters.get(userName))
-                        {
-                            elementEntry.getValue().setHead(cache.getPlayerHead());
+// ---------------------------------------------------------------------
+// Section: Private methods
+// ---------------------------------------------------------------------
 
-                            Bukkit.getServer().getScheduler().runTaskAsynchronously(plugin,
-                                () -> req.setHead(elementEntry.getValue()));
-                        }
-                    }
 
-                    it.remove();
-                }
-            }
-        }, 0L, 20L);
+    /**
+     * Checks if a cached head can still be used.
+     * If timestamp is set to 0, then it must be kept forever.
+     * If settings time is set to 0, then always use cache.
+     */
+    private static boolean isValid(HeadCache cache) {
+        // Get value from config. Multiply value to 60 000 as internally it uses miliseconds.
+        // Config value stores minutes.
+        long cacheTimeout = BentoBox.getInstance().getSettings().getPlayerHeadCacheTime() * 60 * 1000;
+
+        return cache.getTimestamp() == 0 ||
+            cacheTimeout <= 0 ||
+            System.currentTimeMillis() - cache.getTimestamp() <= cacheTimeout;
     }
 
 
     /**
-     * This method gets and returns userId from mojang web API based on user name.
-     * @param name user which Id must be returned.
-     * @return String value for user Id.
-     * @since 1.14.1
+     * Loads the cache saved by {@link #saveCache()}.
+     * Nothing is loaded if the cache time is 0, as then the cache is only cleared when the server restarts.
      */
-    private static UUID getUserIdFromName(String name) {
-        UUID userId;
+    private void loadCache() {
+        File file = new File(plugin.getDataFolder(), CACHE_FILE);
+        if (!file.exists() || plugin.getSettings().getPlayerHeadCacheTime() <= 0)
+        {
+            return;
+        }
 
-        try
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8))
         {
-            Gson gsonReader = new Gson();
-
-            // Get mojang user-id from given nickname
-            JsonObject jsonObject = gsonReader.fromJson(
-                HeadGetter.getURLContent("https://api.mojang.com/users/profiles/minecraft/" + name),
-                JsonObject.class);
-            /*
-             * Returned Json Object:
-              {
-                  name: USER_NAME,
-                  id: USER_ID
-              }
-              */
-
-            // Mojang returns ID without `-`. So it is necessary to insert them back.
-            // Well technically it is not necessary and can use just a string instead of UUID.
-            // UUID just looks more fancy :)
-            String userIdString = jsonObject.get("id").toString().
-                replace("\"", "").
-                replaceFirst("([0-9a-fA-F]{8})([0-9a-fA-F]{4})([0-9a-fA-F]{4})([0-9a-fA-F]{4})([0-9a-fA-F]+)",
-                    "$1-$2-$3-$4-$5");
-
-            userId = UUID.fromString(userIdString);
+            HeadCache[] heads = new Gson().fromJson(reader, HeadCache[].class);
+            if (heads != null)
+            {
+                for (HeadCache head : heads)
+                {
+                    if (head.getUserName() != null && head.encodedTextureLink != null && isValid(head))
+                    {
+                        cachedHeads.putIfAbsent(head.getUserName(), head);
+                    }
+                }
+            }
         }
-        catch (Exception ignored)
+        catch (IOException | JsonParseException e)
         {
-            // Return random if failed?
-            userId = UUID.randomUUID();
+            plugin.logError("Could not load player head cache: " + e.getMessage());
         }
-
-        return userId;
     }
 
 
     /**
-     * This method gets and returns base64 encoded link to player skin texture, based on
-     * given player UUID.
-     *
-     * @param userId UUID value for the user.
-     * @return Encoded player skin texture or null.
+     * This is main task that runs once every 20 ticks and starts fetching as many heads as the rate limit allows.
      * @since 1.14.1
      */
-    private static @Nullable String getTextureFromUUID(UUID userId) {
-        try
+    private void runPlayerHeadGetter() {
+        Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, () -> {
+            this.fetchHeads();
+
+            if (dirty && System.currentTimeMillis() - lastSave > SAVE_INTERVAL)
+            {
+                this.saveCache();
+            }
+        }, 0L, 20L);
+    }
+
+
+    /**
+     * Takes names from the queue until this second's requests are used up, and fetches their heads.
+     * A name lookup request covers a batch of names. Each texture is one request.
+     */
+    private void fetchHeads() {
+        HeadResolver headResolver = this.resolver;
+        int batchSize = Math.max(1, headResolver.getBatchSize());
+        int requests = Math.max(1, plugin.getSettings().getHeadRequestsPerSecond());
+
+        // Use cached userId as userId will not change :)
+        List<String> known = new ArrayList<>();
+        List<String> unknown = new ArrayList<>();
+        String name;
+
+        while (requests > 0 && (name = names.poll()) != null)
         {
-            Gson gsonReader = new Gson();
-
-            // Get user encoded texture value.
-            JsonObject jsonObject = gsonReader.fromJson(
-                HeadGetter.getURLContent("https://sessionserver.mojang.com/session/minecraft/profile/" + userId.toString()),
-                JsonObject.class);
-
-            /*
-             * Returned Json Object:
-              {
-                id: USER_ID,
-                name: USER_NAME,
-                properties: [
-                    {
-                        name: "textures",
-                        value: ENCODED_BASE64_TEXTURE
-                    }
-                 ]
-               }
-              */
+            HeadCache cache = cachedHeads.get(name);
 
-            String decodedTexture = "";
+            if (cache != null && isValid(cache))
+            {
+                // It came in while waiting
+                this.deliver(name, cache);
+            }
+            else if (cache != null && cache.getUserId() != null)
+            {
+                known.add(name);
+                requests--;
+            }
+            else if (unknown.size() % batchSize != 0)
+            {
+                // Fits in the current name lookup
+                unknown.add(name);
+                requests--;
+            }
+            else if (requests >= 2)
+            {
+                // Starts a new name lookup
+                unknown.add(name);
+                requests -= 2;
+            }
+            else
+            {
+                names.addFirst(name);
+                break;
+            }
+        }
 
-            for (JsonElement element : jsonObject.getAsJsonArray("properties"))
+        try
+        {
+            for (String userName : known)
             {
-                JsonObject object = element.getAsJsonObject();
+                UUID userId = cachedHeads.get(userName).getUserId();
+                executor.execute(() -> this.fetch(headResolver, userName, userId));
+            }
 
-                if (object.has("name") &&
-                    object.get("name").getAsString().equals("textures"))
-                {
-                    decodedTexture = object.get("value").getAsString();
-                    break;
-                }
+            for (int i = 0; i < unknown.size(); i += batchSize)
+            {
+                List<String> batch = new ArrayList<>(unknown.subList(i, Math.min(i + batchSize, unknown.size())));
+                executor.execute(() -> {
+                    Map<String, UUID> userIds = headResolver.getUserIds(batch);
+                    batch.forEach(userName -> this.execute(() -> this.fetch(headResolver, userName, userIds.get(userName))));
+                });
             }
+        }
+        catch (RejectedExecutionException ignored)
+        {
+            // Shutting down
+        }
+    }
 
-            return decodedTexture;
+
+    private void execute(Runnable task) {
+        try
+        {
+            executor.execute(task);
         }
-        catch (Exception ignored)
+        catch (RejectedExecutionException ignored)
         {
+            // Shutting down
         }
+    }
+
+
+    /**
+     * Fetches the texture of a head, caches it and tells the requesters.
+     * @param userId player's UUID, or null if the name could not be found
+     */
+    private void fetch(HeadResolver headResolver, String userName, @Nullable UUID userId) {
+        // Create new cache object.
+        HeadCache cache = new HeadCache(userName,
+            userId,
+            userId == null ? null : headResolver.getTexture(userId));
 
-        return null;
+        // Save in cache
+        cachedHeads.put(userName, cache);
+        dirty = true;
+
+        this.deliver(userName, cache);
     }
 
 
     /**
-     * This method gets page content of requested url
-     *
-     * @param requestedUrl Url which content must be returned.
-     * @return Content of a page or empty string.
-     * @since 1.14.1
+     * Tell requesters the head came in
      */
-    private static String getURLContent(String requestedUrl) {
-        String returnValue;
+    private void deliver(String userName, HeadCache cache) {
+        Map<HeadRequester, PanelItem> requesters = headRequesters.remove(userName);
 
-        try (BufferedReader reader = new BufferedReader(
-            new InputStreamReader(new URL(requestedUrl).openStream(), StandardCharsets.UTF_8)))
+        if (requesters != null)
         {
-            returnValue = reader.lines().collect(Collectors.joining());
-        }
-        catch (Exception ignored)
-        {
-            returnValue = "";
-        }
+            requesters.forEach((req, item) -> {
+                item.setHead(cache.getPlayerHead());
 
-        return returnValue;
+                // Inventories can only be changed on the main thread
+                Bukkit.getServer().getScheduler().runTask(plugin,
+                    () -> req.setHead(item));
+            });
+        }
     }
-}
\ No newline at end of file
+}
@@ -5,7 +5,8 @@ import world.bentobox.bentobox.api.panels.PanelItem;
 public interface HeadRequester {
 
     /**
-     * Replaces the head in an open inventory panel with the supplied panel item
+     * Replaces the head in an open inventory panel with the supplied panel item.
+     * Called on the main thread.
      * @param item - panel item, must be a player head
      */
     void setHead(PanelItem item);
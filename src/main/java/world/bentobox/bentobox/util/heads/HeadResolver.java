@@ -0,0 +1,41 @@
+package world.bentobox.bentobox.util.heads;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Finds the UUIDs and skin textures of players for {@link HeadGetter}.
+ * Methods are called from background threads and may block.
+ * @see MojangHeadResolver
+ * @see FileHeadResolver
+ * @since 1.15.0
+ */
+public interface HeadResolver {
+
+    /**
+     * Gets the UUIDs of a batch of players
+     * @param names - player names, no more than {@link #getBatchSize()}
+     * @return map of the names that were found, as given, to UUIDs
+     */
+    @NonNull
+    Map<String, UUID> getUserIds(@NonNull Collection<String> names);
+
+    /**
+     * Gets the skin texture of a player
+     * @param userId - player's UUID
+     * @return base64 encoded texture, or null if it could not be found
+     */
+    @Nullable
+    String getTexture(@NonNull UUID userId);
+
+    /**
+     * @return the most names that can be looked up in one call to {@link #getUserIds(Collection)}
+     */
+    default int getBatchSize() {
+        return 1;
+    }
+}
@@ -0,0 +1,190 @@
+package world.bentobox.bentobox.util.heads;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+
+/**
+ * Gets player UUIDs and skin textures from the Mojang web API.
+ * Names are looked up in batches of {@value #BATCH_SIZE}.
+ * @author BONNe1704
+ * @since 1.15.0
+ */
+public class MojangHeadResolver implements HeadResolver {
+
+    /**
+     * Most names Mojang accepts in one bulk request
+     */
+    private static final int BATCH_SIZE = 10;
+
+    private static final String PROFILES_URL = "https://api.mojang.com/profiles/minecraft";
+    private static final String SESSION_URL = "https://sessionserver.mojang.com/session/minecraft/profile/";
+
+    private final Gson gson = new Gson();
+
+    @NonNull
+    @Override
+    public Map<String, UUID> getUserIds(@NonNull Collection<String> names) {
+        Map<String, UUID> userIds = new HashMap<>();
+        try
+        {
+            // Post the names as a JSON array
+            JsonArray request = new JsonArray();
+            names.forEach(request::add);
+            JsonArray response = gson.fromJson(this.post(PROFILES_URL, request.toString()), JsonArray.class);
+            /*
+             * Returned Json Array:
+              [
+                  {
+                      name: USER_NAME,
+                      id: USER_ID
+                  }
+              ]
+              */
+            if (response == null)
+            {
+                return userIds;
+            }
+
+            // Mojang may change the case of the names
+            Map<String, String> requested = names.stream().collect(Collectors.toMap(String::toLowerCase, n -> n, (a, b) -> a));
+            for (JsonElement element : response)
+            {
+                JsonObject object = element.getAsJsonObject();
+                String name = requested.get(object.get("name").getAsString().toLowerCase());
+                if (name != null)
+                {
+                    userIds.put(name, toUUID(object.get("id").getAsString()));
+                }
+            }
+        }
+        catch (Exception ignored)
+        {
+            // Names that could not be looked up are left out
+        }
+
+        return userIds;
+    }
+
+
+    @Nullable
+    @Override
+    public String getTexture(@NonNull UUID userId) {
+        try
+        {
+            // Get user encoded texture value.
+            JsonObject jsonObject = gson.fromJson(this.get(SESSION_URL + userId.toString()),
+                JsonObject.class);
+
+            /*
+             * Returned Json Object:
+              {
+                id: USER_ID,
+                name: USER_NAME,
+                properties: [
+                    {
+                        name: "textures",
+                        value: ENCODED_BASE64_TEXTURE
+                    }
+                 ]
+               }
+              */
+            for (JsonElement element : jsonObject.getAsJsonArray("properties"))
+            {
+                JsonObject object = element.getAsJsonObject();
+
+                if (object.has("name") &&
+                    object.get("name").getAsString().equals("textures"))
+                {
+                    return object.get("value").getAsString();
+                }
+            }
+
+            return "";
+        }
+        catch (Exception ignored)
+        {
+            return null;
+        }
+    }
+
+
+    @Override
+    public int getBatchSize() {
+        return BATCH_SIZE;
+    }
+
+
+    /**
+     * Mojang returns ID without `-`. So it is necessary to insert them back.
+     */
+    private static UUID toUUID(String id) {
+        return UUID.fromString(id.replaceFirst("([0-9a-fA-F]{8})([0-9a-fA-F]{4})([0-9a-fA-F]{4})([0-9a-fA-F]{4})([0-9a-fA-F]+)",
+            "$1-$2-$3-$4-$5"));
+    }
+
+
+    /**
+     * This method gets page content of requested url
+     *
+     * @param requestedUrl Url which content must be returned.
+     * @return Content of a page.
+     * @throws Exception if the page cannot be read
+     */
+    private String get(String requestedUrl) throws Exception {
+        try (BufferedReader reader = new BufferedReader(
+            new InputStreamReader(new URL(requestedUrl).openStream(), StandardCharsets.UTF_8)))
+        {
+            return reader.lines().collect(Collectors.joining());
+        }
+    }
+
+
+    /**
+     * Posts JSON to an url and returns the response
+     *
+     * @param requestedUrl Url to post to.
+     * @param body JSON to post.
+     * @return Content of the response.
+     * @throws Exception if the request fails
+     */
+    private String post(String requestedUrl, String body) throws Exception {
+        HttpURLConnection connection = (HttpURLConnection) new URL(requestedUrl).openConnection();
+        try
+        {
+            connection.setRequestMethod("POST");
+            connection.setRequestProperty("Content-Type", "application/json");
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream())
+            {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+            try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8)))
+            {
+                return reader.lines().collect(Collectors.joining());
+            }
+        }
+        finally
+        {
+            connection.disconnect();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package world.bentobox.bentobox.util.teleport;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.BiPredicate;
+
+import world.bentobox.bentobox.util.Pair;
+
+/**
+ * Iterates over chunk coordinates in square rings around a center chunk, nearest ring first.
+ * Each chunk is visited exactly once, so no list of already visited chunks is needed.
+ *
+ * @since 1.15.0
+ */
+class ChunkRingIterator implements Iterator<Pair<Integer, Integer>> {
+
+    private final int centerX;
+    private final int centerZ;
+    private final int maxRing;
+    private final BiPredicate<Integer, Integer> filter;
+    // Position in the current ring
+    private int ring;
+    private int side;
+    private int step;
+    private Pair<Integer, Integer> next;
+
+    /**
+     * @param centerX - center chunk x
+     * @param centerZ - center chunk z
+     * @param maxRing - last ring, in chunks from the center
+     * @param filter - chunks that are skipped when this returns false
+     */
+    ChunkRingIterator(int centerX, int centerZ, int maxRing, BiPredicate<Integer, Integer> filter) {
+        this.centerX = centerX;
+        this.centerZ = centerZ;
+        this.maxRing = maxRing;
+        this.filter = filter;
+        next = advance();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    @Override
+    public Pair<Integer, Integer> next() {
+        if (next == null) {
+            throw new NoSuchElementException();
+        }
+        Pair<Integer, Integer> current = next;
+        next = advance();
+        return current;
+    }
+
+    /**
+     * Moves to the next chunk that passes the filter
+     * @return chunk coordinates, or null if there are no more
+     */
+    private Pair<Integer, Integer> advance() {
+        while (ring <= maxRing) {
+            if (ring == 0) {
+                ring++;
+                if (filter.test(centerX, centerZ)) {
+                    return new Pair<>(centerX, centerZ);
+                }
+                continue;
+            }
+            // Each ring has four sides of 2 * ring chunks, walked clockwise from the top left corner
+            int length = ring * 2;
+            int x;
+            int z;
+            switch (side) {
+            case 0:
+                x = centerX - ring + step;
+                z = centerZ - ring;
+                break;
+            case 1:
+                x = centerX + ring;
+                z = centerZ - ring + step;
+                break;
+            case 2:
+                x = centerX + ring - step;
+                z = centerZ + ring;
+                break;
+            default:
+                x = centerX - ring;
+                z = centerZ + ring - step;
+                break;
+            }
+            if (++step == length) {
+                step = 0;
+                if (++side == 4) {
+                    side = 0;
+                    ring++;
+                }
+            }
+            if (filter.test(x, z)) {
+                return new Pair<>(x, z);
+            }
+        }
+        return null;
+    }
+}
@@ -3,7 +3,10 @@ package world.bentobox.bentobox.util.teleport;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.bukkit.Bukkit;
 import org.bukkit.ChunkSnapshot;
@@ -19,6 +22,7 @@ import org.bukkit.util.Vector;
 import org.eclipse.jdt.annotation.Nullable;
 
 import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.api.configuration.WorldSettings;
 import world.bentobox.bentobox.api.user.User;
 import world.bentobox.bentobox.database.objects.Island;
 import world.bentobox.bentobox.util.Pair;
@@ -35,6 +39,12 @@ public class SafeSpotTeleport {
     private static final long SPEED = 1;
     private static final int MAX_RADIUS = 50;
     private static final int MAX_HEIGHT = 235;
+
+    // Metrics of all the searches
+    private static final AtomicLong searches = new AtomicLong();
+    private static final AtomicLong totalSearchNanos = new AtomicLong();
+    private static final AtomicLong totalChunks = new AtomicLong();
+
     private boolean notChecking;
     private BukkitTask task;
 
@@ -48,10 +58,20 @@ public class SafeSpotTeleport {
     private Location bestSpot;
 
     private final BentoBox plugin;
-    private List<Pair<Integer, Integer>> chunksToScan;
+    private Iterator<Pair<Integer, Integer>> chunksToScan;
     private final Runnable runnable;
     private final CompletableFuture<Boolean> result;
 
+    // Limits
+    private final int maxChunks;
+    private final int maxRadius;
+    private final int maxHeight;
+
+    // Metrics of this search
+    private final long startTime = System.nanoTime();
+    private volatile long searchNanos;
+    private volatile int chunksScanned;
+
     /**
      * Teleports and entity to a safe spot on island
      * @param builder - safe spot teleport builder
@@ -64,6 +84,12 @@ public class SafeSpotTeleport {
         this.homeNumber = builder.getHomeNumber();
         this.runnable = builder.getRunnable();
         this.result = builder.getResult();
+        WorldSettings ws = location.getWorld() == null ? null : plugin.getIWM().getWorldSettings(location.getWorld());
+        this.maxChunks = ws == null ? MAX_CHUNKS : Math.max(1, ws.getSafeSpotMaxChunks());
+        this.maxRadius = ws == null ? MAX_RADIUS : ws.getSafeSpotMaxRadius();
+        this.maxHeight = ws == null ? MAX_HEIGHT : ws.getSafeSpotMaxHeight();
+        // Record the search when it is over
+        result.whenComplete((r, e) -> recordMetrics());
 
         // If there is no portal scan required, try the desired location immediately
         if (plugin.getIslands().isSafeLocation(location)) {
@@ -94,27 +120,50 @@ public class SafeSpotTeleport {
             return;
         }
         notChecking = false;
-        List<ChunkSnapshot> chunkSnapshot = new ArrayList<>();
-        Iterator<Pair<Integer, Integer>> it = chunksToScan.iterator();
-        if (!it.hasNext()) {
+        if (!chunksToScan.hasNext() || location.getWorld() == null) {
             // Nothing left
             tidyUp(entity, failureMessage);
             return;
         }
-        // Add chunk snapshots to the list
-        while (it.hasNext() && chunkSnapshot.size() < MAX_CHUNKS) {
-            Pair<Integer, Integer> pair = it.next();
-            if (location.getWorld() != null) {
-                boolean isLoaded = location.getWorld().getChunkAt(pair.x, pair.z).isLoaded();
-                chunkSnapshot.add(location.getWorld().getChunkAt(pair.x, pair.z).getChunkSnapshot());
-                if (!isLoaded) {
-                    location.getWorld().getChunkAt(pair.x, pair.z).unload();
-                }
-            }
-            it.remove();
+        // Get chunk snapshots without loading chunks on the main thread
+        List<CompletableFuture<ChunkSnapshot>> futures = new ArrayList<>();
+        while (chunksToScan.hasNext() && futures.size() < maxChunks) {
+            Pair<Integer, Integer> pair = chunksToScan.next();
+            futures.add(getChunkSnapshot(location.getWorld(), pair.x, pair.z));
         }
-        // Move to next step
-        checkChunks(chunkSnapshot);
+        chunksScanned += futures.size();
+        // Move to next step once they are all in
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).whenComplete((v, e) -> {
+            if (e != null) {
+                // A chunk could not be loaded, so the search cannot go on
+                plugin.logError("Could not load chunks for a safe spot search: " + e.getMessage());
+                tidyUp(entity, failureMessage);
+                result.complete(false);
+                return;
+            }
+            List<ChunkSnapshot> chunkSnapshot = new ArrayList<>(futures.size());
+            futures.forEach(f -> chunkSnapshot.add(f.join()));
+            checkChunks(chunkSnapshot);
+        });
+    }
+
+    /**
+     * Gets a snapshot of a chunk, loading it asynchronously on Paper and synchronously elsewhere.
+     * Chunks that were not loaded are unloaded again once the snapshot has been taken.
+     * @param world - world
+     * @param x - chunk x
+     * @param z - chunk z
+     * @return future snapshot of the chunk
+     */
+    private CompletableFuture<ChunkSnapshot> getChunkSnapshot(World world, int x, int z) {
+        boolean isLoaded = world.isChunkLoaded(x, z);
+        return Util.getChunkAtAsync(world, x, z).thenApply(chunk -> {
+            ChunkSnapshot snapshot = chunk.getChunkSnapshot();
+            if (!isLoaded) {
+                chunk.unload();
+            }
+            return snapshot;
+        });
     }
 
     private void tidyUp(Entity entity, String failureMessage) {
@@ -164,32 +213,38 @@ public class SafeSpotTeleport {
     }
 
     /**
-     * Gets a set of chunk coords that will be scanned.
-     * @return - list of chunk coords to be scanned
+     * Gets the chunk coords that will be scanned, in ever increasing squares around the target location.
+     * @return - chunk coords to be scanned
      */
-    private List<Pair<Integer, Integer>> getChunksToScan() {
-        List<Pair<Integer, Integer>> chunksToScan = new ArrayList<>();
-        int maxRadius = plugin.getIslands().getIslandAt(location).map(Island::getProtectionRange).orElse(plugin.getIWM().getIslandProtectionRange(location.getWorld()));
-        maxRadius = Math.min(MAX_RADIUS, maxRadius);
+    private Iterator<Pair<Integer, Integer>> getChunksToScan() {
+        Optional<Island> island = plugin.getIslands().getIslandAt(location);
+        int radius = island.map(Island::getProtectionRange).orElse(plugin.getIWM().getIslandProtectionRange(location.getWorld()));
+        radius = Math.max(0, Math.min(maxRadius, radius) - 1);
         int x = location.getBlockX();
         int z = location.getBlockZ();
-        // Create ever increasing squares around the target location
-        int radius = 0;
-        do {
-            for (int i = x - radius; i <= x + radius; i+=16) {
-                for (int j = z - radius; j <= z + radius; j+=16) {
-                    addChunk(chunksToScan, new Pair<>(i,j), new Pair<>(i >> 4, j >> 4));
-                }
+        int minX = x - radius;
+        int maxX = x + radius;
+        int minZ = z - radius;
+        int maxZ = z + radius;
+        int cx = x >> 4;
+        int cz = z >> 4;
+        int rings = Math.max(Math.max(cx - (minX >> 4), (maxX >> 4) - cx), Math.max(cz - (minZ >> 4), (maxZ >> 4) - cz));
+        return new ChunkRingIterator(cx, cz, rings, (chunkX, chunkZ) -> {
+            // Part of the chunk that is in the search area
+            int x1 = Math.max(chunkX << 4, minX);
+            int x2 = Math.min((chunkX << 4) + 15, maxX);
+            int z1 = Math.max(chunkZ << 4, minZ);
+            int z2 = Math.min((chunkZ << 4) + 15, maxZ);
+            if (x1 > x2 || z1 > z2) {
+                return false;
             }
-            radius++;
-        } while (radius < maxRadius);
-        return chunksToScan;
-    }
-
-    private void addChunk(List<Pair<Integer, Integer>> chunksToScan, Pair<Integer, Integer> blockCoord, Pair<Integer, Integer> chunkCoord) {
-        if (!chunksToScan.contains(chunkCoord) && plugin.getIslands().getIslandAt(location).map(is -> is.inIslandSpace(blockCoord)).orElse(true)) {
-            chunksToScan.add(chunkCoord);
-        }
+            if (!island.isPresent()) {
+                return true;
+            }
+            // The closest point of it to the island center is in the island space if any point is
+            Location center = island.get().getCenter();
+            return island.get().inIslandSpace(Math.max(x1, Math.min(x2, center.getBlockX())), Math.max(z1, Math.min(z2, center.getBlockZ())));
+        });
     }
 
     /**
@@ -220,7 +275,7 @@ public class SafeSpotTeleport {
         for (int x = 0; x< 16; x++) {
             for (int z = 0; z < 16; z++) {
                 // Work down from the entry point up
-                for (int y = Math.min(chunk.getHighestBlockYAt(x, z), MAX_HEIGHT); y >= 0; y--) {
+                for (int y = Math.min(chunk.getHighestBlockYAt(x, z), maxHeight); y >= 0; y--) {
                     if (checkBlock(chunk, x,y,z)) {
                         return true;
                     }
@@ -259,8 +314,8 @@ public class SafeSpotTeleport {
     boolean checkBlock(ChunkSnapshot chunk, int x, int y, int z) {
         World world = location.getWorld();
         Material type = chunk.getBlockType(x, y, z);
-        Material space1 = chunk.getBlockType(x, Math.min(y + 1, SafeSpotTeleport.MAX_HEIGHT), z);
-        Material space2 = chunk.getBlockType(x, Math.min(y + 2, SafeSpotTeleport.MAX_HEIGHT), z);
+        Material space1 = chunk.getBlockType(x, Math.min(y + 1, maxHeight), z);
+        Material space2 = chunk.getBlockType(x, Math.min(y + 2, maxHeight), z);
         if (space1.equals(Material.NETHER_PORTAL) || space2.equals(Material.NETHER_PORTAL)) {
             // A portal has been found, switch to non-portal mode now
             portal = false;
@@ -285,6 +340,55 @@ public class SafeSpotTeleport {
         }
     }
 
+    private void recordMetrics() {
+        searchNanos = System.nanoTime() - startTime;
+        searches.incrementAndGet();
+        totalSearchNanos.addAndGet(searchNanos);
+        totalChunks.addAndGet(chunksScanned);
+    }
+
+    /**
+     * @return time this search took, in milliseconds, or 0 if it is still going
+     * @since 1.15.0
+     */
+    public double getSearchMillis() {
+        return searchNanos / (double)TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * @return number of chunks scanned by this search so far
+     * @since 1.15.0
+     */
+    public int getChunksScanned() {
+        return chunksScanned;
+    }
+
+    /**
+     * @return number of searches done since the server started
+     * @since 1.15.0
+     */
+    public static long getSearchCount() {
+        return searches.get();
+    }
+
+    /**
+     * @return average time taken by a search, in milliseconds
+     * @since 1.15.0
+     */
+    public static double getAverageSearchMillis() {
+        long n = searches.get();
+        return n == 0 ? 0D : totalSearchNanos.get() / (double)n / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * @return average number of chunks scanned by a search
+     * @since 1.15.0
+     */
+    public static double getAverageChunksScanned() {
+        long n = searches.get();
+        return n == 0 ? 0D : totalChunks.get() / (double)n;
+    }
+
     public static class Builder {
         private final BentoBox plugin;
         private Entity entity;
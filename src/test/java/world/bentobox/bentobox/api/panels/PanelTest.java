@@ -0,0 +1,155 @@
+package world.bentobox.bentobox.api.panels;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bukkit.Bukkit;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import world.bentobox.bentobox.util.heads.HeadGetter;
+import world.bentobox.bentobox.util.heads.HeadRequester;
+
+/**
+ * Slot writes when the heads of a 54 slot team panel arrive
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({Bukkit.class, HeadGetter.class})
+public class PanelTest {
+
+    private static final int SIZE = 54;
+    /**
+     * Team members. The owner is shown twice.
+     */
+    private static final String[] MEMBERS = {"tastybento", "Poslovitch", "BONNe", "Fredthedoggy", "Florian", "wellnesscookie", "gitlocalize", "Jeansou"};
+    private static final int OWNER_SLOT = 4;
+
+    @Mock
+    private Inventory inventory;
+
+    private final List<PanelItem> requested = new ArrayList<>();
+    private Map<Integer, PanelItem> items;
+    /**
+     * Slots of each member's head
+     */
+    private Map<String, List<Integer>> headSlots;
+
+    @Before
+    public void setUp() {
+        PowerMockito.mockStatic(Bukkit.class);
+        when(Bukkit.createInventory(any(), anyInt(), anyString())).thenReturn(inventory);
+        PowerMockito.mockStatic(HeadGetter.class);
+        PowerMockito.doAnswer(a -> requested.add(a.getArgument(0))).when(HeadGetter.class);
+        HeadGetter.getHead(any(PanelItem.class), any(HeadRequester.class));
+
+        // Border of panes, a head for each member, the owner's head again at the top
+        items = new LinkedHashMap<>();
+        headSlots = new HashMap<>();
+        for (int slot = 0; slot < SIZE; slot++) {
+            if (slot < 9 || slot >= 45 || slot % 9 == 0 || slot % 9 == 8) {
+                items.put(slot, item(null));
+            }
+        }
+        for (int i = 0; i < MEMBERS.length; i++) {
+            head(19 + i + (i >= 7 ? 2 : 0), MEMBERS[i]);
+        }
+        head(OWNER_SLOT, MEMBERS[0]);
+    }
+
+    private PanelItem item(String headName) {
+        PanelItem item = mock(PanelItem.class);
+        when(item.isPlayerHead()).thenReturn(headName != null);
+        when(item.getPlayerHeadName()).thenReturn(headName == null ? "" : headName);
+        when(item.getItem()).thenReturn(mock(ItemStack.class));
+        return item;
+    }
+
+    private void head(int slot, String name) {
+        items.put(slot, item(name));
+        headSlots.computeIfAbsent(name, k -> new ArrayList<>()).add(slot);
+    }
+
+    @Test
+    public void testOneRequestPerHead() {
+        new Panel("Team", items, SIZE, null, null);
+        // Every item is written once when the panel is made
+        verify(inventory, times(items.size())).setItem(anyInt(), any());
+        assertEquals(MEMBERS.length, requested.size());
+    }
+
+    @Test
+    public void testOnlyWaitingSlotsWritten() {
+        Panel panel = new Panel("Team", items, SIZE, null, null);
+        clearInvocations(inventory);
+        int writes = 0;
+        for (String member : MEMBERS) {
+            panel.setHead(item(member));
+            // Exactly the slots with this member's head
+            for (int slot : headSlots.get(member)) {
+                verify(inventory).setItem(eq(slot), any());
+                writes++;
+            }
+            verifyNoMoreInteractions(inventory);
+            clearInvocations(inventory);
+        }
+        // One write per head slot, not one per slot of the panel
+        assertEquals(MEMBERS.length + 1, writes);
+        assertEquals(2, headSlots.get(MEMBERS[0]).size());
+    }
+
+    @Test
+    public void testRequestedItemWrittenAsIs() {
+        Panel panel = new Panel("Team", items, SIZE, null, null);
+        clearInvocations(inventory);
+        PanelItem request = requested.get(1);
+        panel.setHead(request);
+        verify(request, never()).setHead(any());
+        verify(inventory).setItem(headSlots.get(MEMBERS[1]).get(0), request.getItem());
+        verifyNoMoreInteractions(inventory);
+    }
+
+    @Test
+    public void testSecondResolutionWritesNothing() {
+        Panel panel = new Panel("Team", items, SIZE, null, null);
+        panel.setHead(item(MEMBERS[2]));
+        clearInvocations(inventory);
+        panel.setHead(item(MEMBERS[2]));
+        panel.setHead(item("notOnThisPanel"));
+        verifyNoMoreInteractions(inventory);
+    }
+
+    @Test
+    public void testChangedSlotSkipped() {
+        Panel panel = new Panel("Team", items, SIZE, null, null);
+        clearInvocations(inventory);
+        // The owner's head at the top was replaced, for example by a tab switch
+        items.put(OWNER_SLOT, item(null));
+        panel.setHead(item(MEMBERS[0]));
+        verify(inventory).setItem(eq(headSlots.get(MEMBERS[0]).get(0)), any());
+        verify(inventory, never()).setItem(eq(OWNER_SLOT), any());
+        verifyNoMoreInteractions(inventory);
+    }
+}
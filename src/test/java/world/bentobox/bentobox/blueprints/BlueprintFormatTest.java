@@ -0,0 +1,242 @@
+package world.bentobox.bentobox.blueprints;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.bukkit.Material;
+import org.bukkit.entity.EntityType;
+import org.bukkit.util.Vector;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.blueprints.dataobjects.BlueprintBlock;
+import world.bentobox.bentobox.blueprints.dataobjects.BlueprintCreatureSpawner;
+import world.bentobox.bentobox.database.json.BentoboxTypeAdapterFactory;
+
+/**
+ * Reads version 1 blueprints, writes them as version 2 and reads them back.
+ */
+@RunWith(PowerMockRunner.class)
+public class BlueprintFormatTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Mock
+    private BentoBox plugin;
+
+    /**
+     * Gson for version 1 files and for comparing blocks
+     */
+    private Gson gson;
+    private BlueprintFormat format;
+
+    @Before
+    public void setUp() {
+        Whitebox.setInternalState(BentoBox.class, "instance", plugin);
+        // Same set up as BlueprintClipboardManager
+        GsonBuilder builder = new GsonBuilder().excludeFieldsWithoutExposeAnnotation().enableComplexMapKeySerialization();
+        builder.disableHtmlEscaping();
+        builder.registerTypeAdapterFactory(new BentoboxTypeAdapterFactory(plugin));
+        gson = builder.create();
+        format = new BlueprintFormat(builder);
+    }
+
+    @After
+    public void tearDown() {
+        Whitebox.setInternalState(BentoBox.class, "instance", (BentoBox)null);
+    }
+
+    /**
+     * A blueprint spread over negative and positive sections, with attached blocks and blocks with tile data
+     */
+    private Blueprint blueprint() {
+        Blueprint bp = new Blueprint().setName("island").setDisplayName("Island").setIcon(Material.GRASS_BLOCK)
+                .setDescription(Arrays.asList("line 1", "line 2"));
+        bp.setxSize(40);
+        bp.setySize(20);
+        bp.setzSize(40);
+        bp.setBedrock(new Vector(0, -1, 0));
+        Map<Vector, BlueprintBlock> blocks = new HashMap<>();
+        for (int x = -20; x < 20; x += 3) {
+            for (int y = -18; y < 2; y += 2) {
+                for (int z = -20; z < 20; z += 5) {
+                    blocks.put(new Vector(x, y, z), new BlueprintBlock(y < -10 ? "minecraft:stone" : "minecraft:dirt"));
+                }
+            }
+        }
+        // Section edges
+        blocks.put(new Vector(-1, -1, -1), new BlueprintBlock("minecraft:bedrock"));
+        blocks.put(new Vector(-16, -16, -16), new BlueprintBlock("minecraft:grass_block[snowy=false]"));
+        blocks.put(new Vector(-17, 15, 16), new BlueprintBlock("minecraft:sand"));
+        blocks.put(new Vector(15, 0, -17), new BlueprintBlock("minecraft:sand"));
+        // Tile data
+        BlueprintBlock sign = new BlueprintBlock("minecraft:oak_sign[rotation=0,waterlogged=false]");
+        sign.setSignLines(Arrays.asList("Welcome", "to", "your", "island"));
+        blocks.put(new Vector(-2, 0, -3), sign);
+        BlueprintBlock spawner = new BlueprintBlock("minecraft:spawner");
+        BlueprintCreatureSpawner cs = new BlueprintCreatureSpawner();
+        cs.setSpawnedType(EntityType.PIG);
+        cs.setDelay(20);
+        cs.setMaxNearbyEntities(6);
+        spawner.setCreatureSpawner(cs);
+        blocks.put(new Vector(3, -5, -18), spawner);
+        bp.setBlocks(blocks);
+
+        Map<Vector, BlueprintBlock> attached = new HashMap<>();
+        attached.put(new Vector(-1, 0, -1), new BlueprintBlock("minecraft:wall_torch[facing=north]"));
+        attached.put(new Vector(-33, 4, 17), new BlueprintBlock("minecraft:wall_torch[facing=east]"));
+        BlueprintBlock wallSign = new BlueprintBlock("minecraft:oak_wall_sign[facing=south,waterlogged=false]");
+        wallSign.setSignLines(Arrays.asList("", "Spawn", "", ""));
+        attached.put(new Vector(-2, 1, -4), wallSign);
+        bp.setAttached(attached);
+        return bp;
+    }
+
+    /**
+     * Writes a blueprint the way version 1 files were written
+     */
+    private byte[] writeV1(Blueprint bp) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            zip.putNextEntry(new ZipEntry(bp.getName()));
+            Writer writer = new OutputStreamWriter(zip, Charset.defaultCharset());
+            writer.write(gson.toJson(bp, Blueprint.class));
+            writer.flush();
+            zip.closeEntry();
+        }
+        return out.toByteArray();
+    }
+
+    private byte[] writeV2(Blueprint bp) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        format.write(bp, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Blocks as JSON, by position, so that maps can be compared whatever their type and order
+     */
+    private Map<String, String> toComparable(Map<Vector, BlueprintBlock> blocks) {
+        Map<String, String> map = new TreeMap<>();
+        blocks.forEach((v, b) -> map.put(v.getBlockX() + "," + v.getBlockY() + "," + v.getBlockZ(), gson.toJson(b)));
+        return map;
+    }
+
+    private void assertSameBlueprint(Blueprint expected, Blueprint actual) {
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getDisplayName(), actual.getDisplayName());
+        assertEquals(expected.getIcon(), actual.getIcon());
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.getxSize(), actual.getxSize());
+        assertEquals(expected.getySize(), actual.getySize());
+        assertEquals(expected.getzSize(), actual.getzSize());
+        assertEquals(expected.getBedrock(), actual.getBedrock());
+        assertEquals(toComparable(expected.getBlocks()), toComparable(actual.getBlocks()));
+        assertEquals(toComparable(expected.getAttached()), toComparable(actual.getAttached()));
+    }
+
+    @Test
+    public void testV1ToV2RoundTrip() throws IOException {
+        Blueprint original = blueprint();
+        Blueprint v1 = format.read(new ByteArrayInputStream(writeV1(original)));
+        assertSameBlueprint(original, v1);
+
+        Blueprint v2 = format.read(new ByteArrayInputStream(writeV2(v1)));
+        assertSameBlueprint(v1, v2);
+        // Writing it again gives the same blueprint
+        assertSameBlueprint(v2, format.read(new ByteArrayInputStream(writeV2(v2))));
+    }
+
+    @Test
+    public void testWriteDoesNotChangeBlueprint() throws IOException {
+        Blueprint bp = blueprint();
+        Map<Vector, BlueprintBlock> blocks = bp.getBlocks();
+        Map<Vector, BlueprintBlock> attached = bp.getAttached();
+        Map<String, String> before = toComparable(blocks);
+        writeV2(bp);
+        assertSame(blocks, bp.getBlocks());
+        assertSame(attached, bp.getAttached());
+        assertEquals(before, toComparable(bp.getBlocks()));
+    }
+
+    @Test
+    public void testMetaHasNoBlocks() throws IOException {
+        // The blocks are only in blocks.bin and tiles.json
+        Blueprint bp = blueprint();
+        File file = folder.newFile("island.blu");
+        try (OutputStream out = new FileOutputStream(file)) {
+            format.write(bp, out);
+        }
+        assertEquals(BlueprintFormat.VERSION, BlueprintFormat.getVersion(file));
+        try (ZipFile zip = new ZipFile(file)) {
+            ZipEntry meta = zip.getEntry(BlueprintFormat.META);
+            assertNotNull(meta);
+            String json = new String(readAll(zip.getInputStream(meta)), StandardCharsets.UTF_8);
+            assertFalse(json.contains("\"blocks\""));
+            assertFalse(json.contains("\"attached\""));
+            assertTrue(json.contains("\"name\":\"island\""));
+        }
+    }
+
+    @Test
+    public void testSharedBlocksWithoutTileData() throws IOException {
+        Blueprint bp = format.read(new ByteArrayInputStream(writeV2(blueprint())));
+        // Blocks with the same block data and no tile data are one object
+        assertSame(bp.getBlocks().get(new Vector(-17, 15, 16)), bp.getBlocks().get(new Vector(15, 0, -17)));
+    }
+
+    @Test
+    public void testEmptyBlueprint() throws IOException {
+        Blueprint bp = new Blueprint().setName("empty");
+        Blueprint read = format.read(new ByteArrayInputStream(writeV2(bp)));
+        assertEquals("empty", read.getName());
+        assertTrue(read.getBlocks().isEmpty());
+        assertTrue(read.getAttached().isEmpty());
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        try (InputStream is = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int n;
+            while ((n = is.read(buffer)) != -1) {
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        }
+    }
+}
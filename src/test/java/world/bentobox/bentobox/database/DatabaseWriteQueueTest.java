@@ -0,0 +1,175 @@
+package world.bentobox.bentobox.database;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.Settings;
+import world.bentobox.bentobox.database.objects.Island;
+
+/**
+ * Saves and deletes of the same object in the write queue
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(BentoBox.class)
+public class DatabaseWriteQueueTest {
+
+    private static final String ID = "BSkyBlock1234";
+
+    @Mock
+    private BentoBox plugin;
+    @Mock
+    private Settings settings;
+
+    private DatabaseWriteQueue queue;
+    private AbstractDatabaseHandler<Island> handler;
+    /**
+     * Writes in the order they were done
+     */
+    private final List<String> written = Collections.synchronizedList(new ArrayList<>());
+    /**
+     * Unique ids of each batch given to the handler
+     */
+    private final List<List<String>> batches = Collections.synchronizedList(new ArrayList<>());
+    private CountDownLatch release;
+
+    @SuppressWarnings("unchecked")
+    @Before
+    public void setUp() throws Exception {
+        when(plugin.isEnabled()).thenReturn(true);
+        when(plugin.getSettings()).thenReturn(settings);
+        when(settings.getDatabaseWriteBatchSize()).thenReturn(100);
+        queue = new DatabaseWriteQueue(plugin);
+        handler = mock(AbstractDatabaseHandler.class, withSettings().defaultAnswer(Answers.CALLS_REAL_METHODS));
+        handler.dataObject = Island.class;
+        doAnswer(a -> {
+            List<DatabaseWriteQueue.PendingWrite> batch = a.getArgument(0);
+            batches.add(batch.stream().map(DatabaseWriteQueue.PendingWrite::getUniqueId).collect(Collectors.toList()));
+            return a.callRealMethod();
+        }).when(handler).write(anyList());
+
+        // Hold the writer so that the writes below are queued together
+        CountDownLatch running = new CountDownLatch(1);
+        release = new CountDownLatch(1);
+        queue.submit(handler, null, null, () -> {
+            running.countDown();
+            try {
+                return release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        });
+        assertTrue(running.await(10, TimeUnit.SECONDS));
+        batches.clear();
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        queue.shutdown();
+    }
+
+    private CompletableFuture<Boolean> save(String name) {
+        return queue.submit(handler, ID, name, () -> written.add(name));
+    }
+
+    private CompletableFuture<Boolean> delete(String name, boolean success) {
+        return queue.submit(handler, ID, null, () -> {
+            written.add(name);
+            return success;
+        });
+    }
+
+    private static boolean get(CompletableFuture<Boolean> future) throws Exception {
+        return future.get(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * A failed delete leaves the deleted flag that was saved before it
+     */
+    @Test
+    public void testDeleteDoesNotReplaceSave() throws Exception {
+        CompletableFuture<Boolean> save = save("deleted flag");
+        CompletableFuture<Boolean> delete = delete("delete", false);
+        assertEquals(2, queue.getQueueDepth());
+        release.countDown();
+        assertTrue(get(save));
+        assertFalse(get(delete));
+        assertEquals(Arrays.asList("deleted flag", "delete"), written);
+        assertEquals(0, queue.getCoalescedCount());
+        // Never in the same batch
+        assertEquals(Arrays.asList(Collections.singletonList(ID), Collections.singletonList(ID)), batches);
+    }
+
+    @Test
+    public void testDeletesAfterSaveMerged() throws Exception {
+        CompletableFuture<Boolean> save = save("save");
+        CompletableFuture<Boolean> first = delete("first delete", true);
+        CompletableFuture<Boolean> second = delete("second delete", true);
+        assertEquals(2, queue.getQueueDepth());
+        release.countDown();
+        assertTrue(get(save));
+        assertTrue(get(first));
+        assertTrue(get(second));
+        assertEquals(Arrays.asList("save", "second delete"), written);
+        assertEquals(1, queue.getCoalescedCount());
+    }
+
+    @Test
+    public void testSaveAfterDeleteReplacesBoth() throws Exception {
+        CompletableFuture<Boolean> first = save("first save");
+        CompletableFuture<Boolean> delete = delete("delete", true);
+        CompletableFuture<Boolean> second = save("second save");
+        assertEquals(1, queue.getQueueDepth());
+        release.countDown();
+        assertTrue(get(first));
+        assertTrue(get(delete));
+        assertTrue(get(second));
+        assertEquals(Collections.singletonList("second save"), written);
+    }
+
+    @Test
+    public void testSavesMerged() throws Exception {
+        save("first save");
+        CompletableFuture<Boolean> second = save("second save");
+        assertEquals(1, queue.getQueueDepth());
+        release.countDown();
+        assertTrue(get(second));
+        assertEquals(Collections.singletonList("second save"), written);
+        assertEquals(1, queue.getCoalescedCount());
+    }
+
+    @Test
+    public void testSaveReplacesDelete() throws Exception {
+        delete("delete", true);
+        CompletableFuture<Boolean> save = save("save");
+        release.countDown();
+        assertTrue(get(save));
+        assertEquals(Collections.singletonList("save"), written);
+    }
+}
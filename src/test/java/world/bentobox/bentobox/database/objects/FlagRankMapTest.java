@@ -0,0 +1,291 @@
+package world.bentobox.bentobox.database.objects;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+
+import org.bukkit.Material;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.annotations.Expose;
+
+import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.api.flags.Flag;
+import world.bentobox.bentobox.database.json.BentoboxTypeAdapterFactory;
+import world.bentobox.bentobox.database.objects.adapters.FlagSerializer;
+import world.bentobox.bentobox.managers.FlagsManager;
+import world.bentobox.bentobox.managers.RanksManager;
+
+/**
+ * Flag ranks kept in {@link FlagRankMap}, and islands stored with them
+ */
+@RunWith(PowerMockRunner.class)
+public class FlagRankMapTest {
+
+    private static final int FLAGS = 20;
+
+    @Mock
+    private BentoBox plugin;
+    @Mock
+    private FlagsManager flagsManager;
+
+    /**
+     * Registered flags, by ordinal
+     */
+    private final List<Flag> flags = new ArrayList<>();
+    private final Map<String, Flag> flagsById = new HashMap<>();
+    private Gson gson;
+
+    /**
+     * How islands were stored before {@link FlagRankMap}
+     */
+    private static class OldIsland {
+        @Expose
+        private Map<Flag, Integer> flags = new HashMap<>();
+    }
+
+    @Before
+    public void setUp() {
+        Whitebox.setInternalState(BentoBox.class, "instance", plugin);
+        when(plugin.getFlagsManager()).thenReturn(flagsManager);
+        when(flagsManager.getFlag(anyString())).thenAnswer(a -> Optional.ofNullable(flagsById.get(a.<String>getArgument(0))));
+        for (int i = 0; i < FLAGS; i++) {
+            Flag flag = flag("FLAG_" + i);
+            flag.setOrdinal(i);
+            flags.add(flag);
+            flagsById.put(flag.getID(), flag);
+        }
+        // Same set up as AbstractJSONDatabaseHandler
+        GsonBuilder builder = new GsonBuilder().excludeFieldsWithoutExposeAnnotation().enableComplexMapKeySerialization();
+        builder.registerTypeAdapterFactory(new BentoboxTypeAdapterFactory(plugin));
+        builder.disableHtmlEscaping();
+        gson = builder.create();
+    }
+
+    @After
+    public void tearDown() {
+        Whitebox.setInternalState(BentoBox.class, "instance", (BentoBox)null);
+    }
+
+    private static Flag flag(String id) {
+        return new Flag.Builder(id, Material.STONE).build();
+    }
+
+    private static int rank(int i) {
+        return i % 3 == 0 ? RanksManager.OWNER_RANK : (i % 3 == 1 ? RanksManager.MEMBER_RANK : RanksManager.VISITOR_RANK);
+    }
+
+    /**
+     * The flags with their ranks, in a plain map
+     */
+    private Map<Flag, Integer> expected() {
+        Map<Flag, Integer> map = new HashMap<>();
+        for (int i = 0; i < FLAGS; i++) {
+            map.put(flags.get(i), rank(i));
+        }
+        return map;
+    }
+
+    @Test
+    public void testPutGetRemove() {
+        FlagRankMap map = new FlagRankMap(expected());
+        assertEquals(FLAGS, map.size());
+        assertEquals(expected(), map);
+        assertEquals(expected().hashCode(), map.hashCode());
+        assertEquals(Integer.valueOf(rank(3)), map.put(flags.get(3), RanksManager.TRUSTED_RANK));
+        assertEquals(Integer.valueOf(RanksManager.TRUSTED_RANK), map.get(flags.get(3)));
+        assertEquals(Integer.valueOf(RanksManager.TRUSTED_RANK), map.remove(flags.get(3)));
+        assertNull(map.get(flags.get(3)));
+        assertFalse(map.containsKey(flags.get(3)));
+        assertEquals(FLAGS - 1, map.size());
+        // Nulls are ignored
+        assertNull(map.put(null, 1));
+        assertNull(map.put(flags.get(3), null));
+        assertNull(map.get("FLAG_3"));
+        assertEquals(FLAGS - 1, map.size());
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.entrySet().iterator().hasNext());
+    }
+
+    @Test
+    public void testGetOrSet() {
+        FlagRankMap map = new FlagRankMap();
+        assertEquals(RanksManager.MEMBER_RANK, map.getOrSet(flags.get(5), RanksManager.MEMBER_RANK));
+        assertEquals(RanksManager.MEMBER_RANK, map.getOrSet(flags.get(5), RanksManager.OWNER_RANK));
+        Flag unregistered = flag("UNREGISTERED");
+        assertEquals(RanksManager.VISITOR_RANK, map.getOrSet(unregistered, RanksManager.VISITOR_RANK));
+        assertEquals(RanksManager.VISITOR_RANK, map.getOrSet(unregistered, RanksManager.OWNER_RANK));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        FlagRankMap map = new FlagRankMap(expected());
+        Flag unregistered = flag("UNREGISTERED");
+        map.put(unregistered, RanksManager.MEMBER_RANK);
+        Iterator<Entry<Flag, Integer>> it = map.entrySet().iterator();
+        try {
+            it.remove();
+            fail("Removed before next()");
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+        int seen = 0;
+        while (it.hasNext()) {
+            Entry<Flag, Integer> entry = it.next();
+            seen++;
+            // Remove every other registered flag, and the unregistered one
+            if (entry.getKey().getOrdinal() < 0 || entry.getKey().getOrdinal() % 2 == 0) {
+                it.remove();
+                try {
+                    it.remove();
+                    fail("Removed twice");
+                } catch (IllegalStateException e) {
+                    // Expected
+                }
+            }
+        }
+        assertEquals(FLAGS + 1, seen);
+        assertEquals(FLAGS / 2, map.size());
+        assertFalse(map.containsKey(unregistered));
+        for (int i = 0; i < FLAGS; i++) {
+            assertEquals(i % 2 != 0, map.containsKey(flags.get(i)));
+        }
+    }
+
+    @Test
+    public void testEntrySetValue() {
+        FlagRankMap map = new FlagRankMap(expected());
+        map.entrySet().forEach(e -> e.setValue(RanksManager.BANNED_RANK));
+        flags.forEach(f -> assertEquals(Integer.valueOf(RanksManager.BANNED_RANK), map.get(f)));
+    }
+
+    @Test
+    public void testUnregisteredSideMap() {
+        FlagRankMap map = new FlagRankMap();
+        Flag later = flag("LATER");
+        map.put(later, RanksManager.MEMBER_RANK);
+        assertEquals(Integer.valueOf(RanksManager.MEMBER_RANK), map.get(later));
+        assertEquals(1, map.size());
+        // Registered after it was put in - it moves out of the side map
+        later.setOrdinal(FLAGS);
+        assertEquals(Integer.valueOf(RanksManager.MEMBER_RANK), map.put(later, RanksManager.OWNER_RANK));
+        assertEquals(Integer.valueOf(RanksManager.OWNER_RANK), map.get(later));
+        assertEquals(1, map.size());
+        assertEquals(Integer.valueOf(RanksManager.OWNER_RANK), map.remove(later));
+        assertTrue(map.isEmpty());
+    }
+
+    /**
+     * Flags of removed addons are loaded as NULL_FLAG_ flags and then removed, as IslandsManager does
+     */
+    @Test
+    public void testNullFlagsRemoved() {
+        FlagRankMap map = new FlagRankMap(expected());
+        for (int i = 0; i < 3; i++) {
+            map.put(flag("NULL_FLAG_" + i), RanksManager.MEMBER_RANK);
+        }
+        assertEquals(FLAGS + 3, map.size());
+        assertTrue(map.keySet().removeIf(f -> f.getID().startsWith("NULL_FLAG")));
+        assertEquals(expected(), map);
+    }
+
+    @Test
+    public void testGsonSameAsOldShape() {
+        Island island = new Island();
+        OldIsland old = new OldIsland();
+        for (int i = 0; i < FLAGS; i++) {
+            island.setFlag(flags.get(i), rank(i));
+            old.flags.put(flags.get(i), rank(i));
+        }
+        JsonElement json = gson.toJsonTree(island).getAsJsonObject().get("flags");
+        assertEquals(gson.toJsonTree(old).getAsJsonObject().get("flags"), json);
+        assertTrue(json.isJsonObject());
+
+        // Islands stored before can be read
+        Island read = gson.fromJson(gson.toJson(old), Island.class);
+        assertTrue(read.getFlags() instanceof FlagRankMap);
+        assertEquals(expected(), read.getFlags());
+        // And read again
+        assertEquals(expected(), gson.fromJson(gson.toJson(read), Island.class).getFlags());
+        assertEquals(expected(), gson.fromJson(gson.toJson(read), OldIsland.class).flags);
+    }
+
+    @Test
+    public void testGsonUnknownFlag() {
+        OldIsland old = new OldIsland();
+        old.flags.putAll(expected());
+        old.flags.put(flag("REMOVED_ADDON_FLAG"), RanksManager.MEMBER_RANK);
+        Island read = gson.fromJson(gson.toJson(old), Island.class);
+        assertEquals(FLAGS + 1, read.getFlags().size());
+        read.getFlags().keySet().removeIf(f -> f.getID().startsWith("NULL_FLAG"));
+        assertEquals(expected(), read.getFlags());
+    }
+
+    @Test
+    public void testYamlSameAsOldShape() throws InvalidConfigurationException {
+        FlagSerializer serializer = new FlagSerializer();
+        YamlConfiguration config = new YamlConfiguration();
+        config.set("flags", serializer.serialize(new FlagRankMap(expected())));
+        YamlConfiguration oldConfig = new YamlConfiguration();
+        oldConfig.set("flags", serializer.serialize(expected()));
+        String yaml = config.saveToString();
+        assertEquals(oldConfig.saveToString(), yaml);
+
+        YamlConfiguration loaded = new YamlConfiguration();
+        loaded.loadFromString(yaml);
+        Island island = new Island();
+        island.setFlags(serializer.deserialize(loaded.get("flags")));
+        assertTrue(island.getFlags() instanceof FlagRankMap);
+        assertEquals(expected(), island.getFlags());
+    }
+
+    /**
+     * The flags of an island are kept in two arrays with one slot per registered flag, and no object per flag
+     */
+    @Test
+    public void testMemoryFootprint() {
+        Island island = new Island();
+        for (int f = 0; f < FLAGS; f++) {
+            island.setFlag(flags.get(f), rank(f));
+        }
+        FlagRankMap map = (FlagRankMap) island.getFlags();
+        assertEquals(FLAGS, map.size());
+        Flag[] keys = Whitebox.getInternalState(map, "keys");
+        int[] ranks = Whitebox.getInternalState(map, "ranks");
+        assertEquals(FLAGS, keys.length);
+        assertEquals(FLAGS, ranks.length);
+        // Nothing on the side
+        assertNull(Whitebox.getInternalState(map, "unregistered"));
+        // Setting the flags again does not grow the arrays
+        for (int f = 0; f < FLAGS; f++) {
+            island.setFlag(flags.get(f), RanksManager.VISITOR_RANK);
+        }
+        assertEquals(FLAGS, Whitebox.<Flag[]>getInternalState(map, "keys").length);
+        assertEquals(FLAGS, Whitebox.<int[]>getInternalState(map, "ranks").length);
+    }
+}
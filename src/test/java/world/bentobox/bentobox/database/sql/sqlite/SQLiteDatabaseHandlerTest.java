@@ -0,0 +1,284 @@
+package world.bentobox.bentobox.database.sql.sqlite;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+import org.bukkit.Bukkit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
+
+import com.google.gson.annotations.Expose;
+
+import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.Settings;
+import world.bentobox.bentobox.database.DatabaseWriteQueue;
+import world.bentobox.bentobox.database.objects.DataObject;
+import world.bentobox.bentobox.database.sql.SQLConnectionPool;
+
+/**
+ * Pooled and batched writes to a real SQLite database
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({Bukkit.class, BentoBox.class})
+@PowerMockIgnore({"org.sqlite.*", "javax.management.*"})
+public class SQLiteDatabaseHandlerTest {
+
+    private static final int OBJECTS = 250;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Mock
+    private BentoBox plugin;
+    @Mock
+    private Settings settings;
+
+    private DatabaseWriteQueue queue;
+    private SQLiteDatabaseConnector connector;
+    private SQLiteDatabaseHandler<TestObject> handler;
+    /**
+     * The writer thread waits for this before taking its first batch, so that the batch is full
+     */
+    private CountDownLatch hold;
+
+    /**
+     * Data object stored in the test
+     */
+    public static class TestObject implements DataObject {
+        @Expose
+        private String uniqueId;
+        @Expose
+        private int value;
+
+        public TestObject() {}
+
+        TestObject(String uniqueId, int value) {
+            this.uniqueId = uniqueId;
+            this.value = value;
+        }
+
+        @Override
+        public String getUniqueId() {
+            return uniqueId;
+        }
+
+        @Override
+        public void setUniqueId(String uniqueId) {
+            this.uniqueId = uniqueId;
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        Whitebox.setInternalState(BentoBox.class, "instance", plugin);
+        PowerMockito.mockStatic(Bukkit.class);
+        when(Bukkit.getLogger()).thenReturn(Logger.getAnonymousLogger());
+
+        when(plugin.getDataFolder()).thenReturn(folder.getRoot());
+        when(plugin.getSettings()).thenReturn(settings);
+        when(plugin.isEnabled()).thenReturn(true);
+        when(settings.getDatabasePrefix()).thenReturn("");
+        when(settings.isDatabaseCompactJson()).thenReturn(true);
+        hold = new CountDownLatch(1);
+        when(settings.getDatabaseWriteBatchSize()).thenAnswer(a -> {
+            hold.await(10, TimeUnit.SECONDS);
+            return 100;
+        });
+        queue = new DatabaseWriteQueue(plugin);
+        when(plugin.getDatabaseWriteQueue()).thenReturn(queue);
+
+        connector = new SQLiteDatabaseConnector(plugin);
+        handler = new SQLiteDatabaseHandler<>(plugin, TestObject.class, connector);
+    }
+
+    @After
+    public void tearDown() {
+        hold.countDown();
+        // Closes the connection and the pool
+        queue.shutdown();
+        Whitebox.setInternalState(BentoBox.class, "instance", (BentoBox)null);
+    }
+
+    private void waitFor(List<CompletableFuture<Boolean>> futures) throws Exception {
+        hold.countDown();
+        for (CompletableFuture<Boolean> f : futures) {
+            assertTrue(f.get(10, TimeUnit.SECONDS));
+        }
+        // Waits for the writer to finish its batch
+        queue.drain();
+    }
+
+    @Test
+    public void testPoolSharesSchemaConnection() throws SQLException {
+        SQLConnectionPool pool = connector.getPool();
+        assertNotNull(pool);
+        assertEquals(1, pool.getMaxSize());
+        try (SQLConnectionPool.PooledConnection c = pool.borrow()) {
+            // SQLite only gets one connection, so there is never a second writer
+            assertSame(handler.getConnection(), c.getConnection());
+        }
+    }
+
+    @Test
+    public void testSharedPoolDoesNotCloseConnection() throws SQLException {
+        Connection connection = handler.getConnection();
+        SQLConnectionPool pool = new SQLConnectionPool(connection);
+        PreparedStatement ps;
+        try (SQLConnectionPool.PooledConnection c = pool.borrow()) {
+            ps = c.prepare("SELECT 1");
+            // Statements are kept
+            assertSame(ps, c.prepare("SELECT 1"));
+        }
+        pool.close();
+        assertTrue(ps.isClosed());
+        assertFalse(connection.isClosed());
+    }
+
+    @Test
+    public void testSharedPoolClosedConnection() throws SQLException {
+        Connection connection = handler.getConnection();
+        SQLConnectionPool pool = new SQLConnectionPool(connection);
+        connection.close();
+        try {
+            pool.borrow();
+            fail("Borrowed a closed connection");
+        } catch (SQLException e) {
+            // A shared connection cannot be opened again
+        }
+    }
+
+    @Test
+    public void testCloseTwiceGivesBackOnce() throws SQLException {
+        SQLConnectionPool pool = new SQLConnectionPool(() -> DriverManager.getConnection("jdbc:sqlite::memory:"), 2);
+        SQLConnectionPool.PooledConnection c = pool.borrow();
+        c.close();
+        c.close();
+        // If it was given back twice, both of these would be the same connection
+        try (SQLConnectionPool.PooledConnection first = pool.borrow();
+                SQLConnectionPool.PooledConnection second = pool.borrow()) {
+            assertNotSame(first, second);
+            assertEquals(2, pool.getOpenCount());
+        }
+        pool.close();
+        assertEquals(0, pool.getOpenCount());
+    }
+
+    @Test
+    public void testSharedConnectionCountedInPool() throws SQLException {
+        Connection connection = handler.getConnection();
+        AtomicInteger opened = new AtomicInteger();
+        SQLConnectionPool pool = new SQLConnectionPool(connection, () -> {
+            opened.incrementAndGet();
+            return DriverManager.getConnection("jdbc:sqlite::memory:");
+        }, 2);
+        try (SQLConnectionPool.PooledConnection first = pool.borrow();
+                SQLConnectionPool.PooledConnection second = pool.borrow()) {
+            assertSame(connection, first.getConnection());
+            // The shared connection is one of the two
+            assertEquals(1, opened.get());
+            assertEquals(2, pool.getOpenCount());
+        }
+        pool.close();
+        assertFalse(connection.isClosed());
+    }
+
+    @Test
+    public void testBatchedSaves() throws Exception {
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < OBJECTS; i++) {
+            futures.add(handler.saveObject(new TestObject("id" + i, i)));
+        }
+        waitFor(futures);
+        assertEquals(OBJECTS, queue.getWrittenCount());
+
+        Map<String, Integer> loaded = handler.loadObjects().stream().collect(Collectors.toMap(TestObject::getUniqueId, o -> o.value));
+        assertEquals(OBJECTS, loaded.size());
+        for (int i = 0; i < OBJECTS; i++) {
+            assertEquals(Integer.valueOf(i), loaded.get("id" + i));
+        }
+        assertEquals(7, handler.loadObject("id7").value);
+    }
+
+    @Test
+    public void testBatchedUpdatesAndDeletes() throws Exception {
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < OBJECTS; i++) {
+            futures.add(handler.saveObject(new TestObject("id" + i, i)));
+        }
+        waitFor(futures);
+
+        // Second round, held again so that updates and deletes go in the same batches
+        hold = new CountDownLatch(1);
+        futures.clear();
+        for (int i = 0; i < OBJECTS; i++) {
+            if (i % 2 == 0) {
+                handler.deleteID("id" + i);
+            } else {
+                futures.add(handler.saveObject(new TestObject("id" + i, -i)));
+            }
+        }
+        // Deletes have no future, but are written before waitFor returns
+        waitFor(futures);
+
+        Map<String, Integer> loaded = handler.loadObjects().stream().collect(Collectors.toMap(TestObject::getUniqueId, o -> o.value));
+        assertEquals(OBJECTS / 2, loaded.size());
+        for (int i = 0; i < OBJECTS; i++) {
+            if (i % 2 == 0) {
+                assertFalse(handler.objectExists("id" + i));
+            } else {
+                assertEquals(Integer.valueOf(-i), loaded.get("id" + i));
+            }
+        }
+    }
+
+    @Test
+    public void testCoalescedSaves() throws Exception {
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(handler.saveObject(new TestObject("same", i)));
+        }
+        waitFor(futures);
+        // Only the last state is written
+        assertEquals(1, queue.getWrittenCount());
+        assertEquals(9, handler.loadObject("same").value);
+    }
+
+    @Test
+    public void testWriteAfterDisable() {
+        when(plugin.isEnabled()).thenReturn(false);
+        hold.countDown();
+        // Written straight away on this thread
+        assertTrue(handler.saveObject(new TestObject("now", 1)).isDone());
+        assertTrue(handler.objectExists("now"));
+    }
+}
@@ -0,0 +1,192 @@
+package world.bentobox.bentobox.managers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.bukkit.Bukkit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
+
+import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.Settings;
+import world.bentobox.bentobox.api.user.User;
+
+/**
+ * Fallback from the user's locale to the server's and en-US, and reloads
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({Bukkit.class, BentoBox.class})
+public class LocalesManagerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Mock
+    private BentoBox plugin;
+    @Mock
+    private Settings settings;
+    @Mock
+    private AddonsManager addonsManager;
+
+    private File localeDir;
+    private LocalesManager lm;
+
+    @Before
+    public void setUp() throws IOException {
+        Whitebox.setInternalState(BentoBox.class, "instance", plugin);
+        when(plugin.getDataFolder()).thenReturn(folder.getRoot());
+        when(plugin.getSettings()).thenReturn(settings);
+        // The server's locale
+        when(settings.getDefaultLanguage()).thenReturn("zh-CN");
+        when(plugin.getAddonsManager()).thenReturn(addonsManager);
+        when(addonsManager.getAddons()).thenReturn(Collections.emptyList());
+
+        localeDir = new File(folder.getRoot(), "locales" + File.separator + "BentoBox");
+        localeDir.mkdirs();
+        write("en-US", "greeting: Hello\n"
+                + "only-en: English only\n"
+                + "section: plain text in en-US\n"
+                + "prefixes:\n"
+                + "  bentobox: BentoBox\n");
+        write("zh-CN", "greeting: 你好\n"
+                + "only-zh: 只有中文\n");
+        write("fr", "greeting: Bonjour\n"
+                + "section:\n"
+                + "  child: enfant\n");
+        lm = new LocalesManager(plugin);
+    }
+
+    @After
+    public void tearDown() {
+        Whitebox.setInternalState(BentoBox.class, "instance", (BentoBox)null);
+    }
+
+    private void write(String tag, String yaml) throws IOException {
+        Files.write(new File(localeDir, tag + ".yml").toPath(), yaml.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private User user(String tag) {
+        User user = mock(User.class);
+        when(user.getLocale()).thenReturn(Locale.forLanguageTag(tag));
+        return user;
+    }
+
+    @Test
+    public void testFallbackChain() {
+        User fr = user("fr");
+        // User's locale first
+        assertEquals("Bonjour", lm.get(fr, "greeting"));
+        // Then the server's
+        assertEquals("只有中文", lm.get(fr, "only-zh"));
+        // Then en-US
+        assertEquals("English only", lm.get(fr, "only-en"));
+        assertNull(lm.get(fr, "missing"));
+        assertEquals("default", lm.getOrDefault(fr, "missing", "default"));
+    }
+
+    @Test
+    public void testFallbackChainNoUserOrUnknownLocale() {
+        assertEquals("你好", lm.get("greeting"));
+        assertEquals("English only", lm.get("only-en"));
+        assertNull(lm.get("missing"));
+        assertEquals("你好", lm.get(null, "greeting"));
+        // A locale that is not loaded uses the server's and en-US
+        User de = user("de");
+        assertEquals("你好", lm.get(de, "greeting"));
+        assertEquals("English only", lm.get(de, "only-en"));
+        assertEquals(Collections.singleton("bentobox"), lm.getAvailablePrefixes(de));
+    }
+
+    /**
+     * A section in the user's locale is found there, and is not looked up in the next locale
+     */
+    @Test
+    public void testSectionDoesNotFallThrough() {
+        User fr = user("fr");
+        String section = lm.get(fr, "section");
+        assertNotEquals("plain text in en-US", section);
+        assertEquals(lm.getLanguages().get(Locale.forLanguageTag("fr")).getConfig().getString("section"), section);
+        assertEquals("enfant", lm.get(fr, "section.child"));
+        // Other locales do not have the section, so they go on to en-US
+        assertEquals("plain text in en-US", lm.get(user("zh-CN"), "section"));
+    }
+
+    @Test
+    public void testSetClearsChains() {
+        User fr = user("fr");
+        assertEquals("English only", lm.get(fr, "only-en"));
+        lm.getLanguages().get(Locale.forLanguageTag("fr")).set("only-en", "Anglais seulement");
+        lm.clearTemplates();
+        assertEquals("Anglais seulement", lm.get(fr, "only-en"));
+    }
+
+    @Test
+    public void testReloadLanguages() throws IOException {
+        User fr = user("fr");
+        write("fr", "greeting: Salut\n");
+        // Not loaded yet
+        assertEquals("Bonjour", lm.get(fr, "greeting"));
+        lm.reloadLanguages();
+        assertEquals("Salut", lm.get(fr, "greeting"));
+        // The section is gone from fr
+        assertEquals("plain text in en-US", lm.get(fr, "section"));
+    }
+
+    /**
+     * Lookups made while locales are reloaded see either the old or the new locales, never none
+     */
+    @Test
+    public void testReloadIsAtomic() throws Exception {
+        User fr = user("fr");
+        User de = user("de");
+        AtomicBoolean reloading = new AtomicBoolean(true);
+        Collection<String> errors = new ConcurrentLinkedQueue<>();
+        Thread reader = new Thread(() -> {
+            while (reloading.get()) {
+                String greeting = lm.get(fr, "greeting");
+                if (!"Bonjour".equals(greeting) && !"Salut".equals(greeting)) {
+                    errors.add("fr greeting was " + greeting);
+                }
+                if (lm.get(de, "only-en") == null) {
+                    errors.add("en-US was missing");
+                }
+                if (lm.get("only-zh") == null) {
+                    errors.add("zh-CN was missing");
+                }
+            }
+        });
+        reader.start();
+        for (int i = 0; i < 50; i++) {
+            write("fr", "greeting: " + (i % 2 == 0 ? "Salut" : "Bonjour") + "\n");
+            lm.reloadLanguages();
+        }
+        reloading.set(false);
+        reader.join(10_000L);
+        assertTrue(errors.isEmpty() ? "" : errors.iterator().next(), errors.isEmpty());
+        assertEquals("Bonjour", lm.get(fr, "greeting"));
+        assertNotNull(lm.getLanguages().get(Locale.forLanguageTag("zh-CN")));
+    }
+}
@@ -0,0 +1,267 @@
+package world.bentobox.bentobox.managers.island;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.World.Environment;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
+
+import com.google.common.collect.ImmutableSet;
+
+import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.Settings;
+import world.bentobox.bentobox.database.objects.Island;
+import world.bentobox.bentobox.util.Util;
+
+/**
+ * Reads {@link IslandCache} from several threads while others add and remove islands.
+ * Readers must never see an island in the wrong place, and the cache must be consistent at the end.
+ */
+@RunWith(PowerMockRunner.class)
+public class IslandCacheConcurrencyTest {
+
+    private static final int RANGE = 50;
+    private static final int SIZE = RANGE * 2;
+    /**
+     * Islands that stay in the cache the whole time, per world
+     */
+    private static final int STABLE = 400;
+    /**
+     * Islands that writers remove and add again, per world
+     */
+    private static final int CHURN = 100;
+    private static final int READERS = 4;
+    private static final int ROUNDS = 200;
+
+    @Mock
+    private BentoBox plugin;
+    @Mock
+    private Settings settings;
+
+    private IslandCache cache;
+    private final List<World> worlds = new ArrayList<>();
+    /**
+     * Islands by world, stable ones first
+     */
+    private final List<List<Island>> islands = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        Whitebox.setInternalState(BentoBox.class, "instance", plugin);
+        Util.setPlugin(plugin);
+        when(plugin.getSettings()).thenReturn(settings);
+        for (int w = 0; w < 2; w++) {
+            World world = mock(World.class, withSettings().stubOnly());
+            when(world.getEnvironment()).thenReturn(Environment.NORMAL);
+            when(world.getName()).thenReturn("world" + w);
+            worlds.add(world);
+            List<Island> list = new ArrayList<>();
+            for (int i = 0; i < STABLE + CHURN; i++) {
+                list.add(island(world, i % 50 - 25, i / 50 - 5));
+            }
+            islands.add(list);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        Whitebox.setInternalState(BentoBox.class, "instance", (BentoBox)null);
+        Util.setPlugin(null);
+    }
+
+    /**
+     * Makes an owned island in this cell of the grid
+     */
+    private Island island(World world, int cellX, int cellZ) {
+        Island island = mock(Island.class, withSettings().stubOnly());
+        int minX = cellX * SIZE;
+        int minZ = cellZ * SIZE;
+        UUID owner = UUID.randomUUID();
+        when(island.getMinX()).thenReturn(minX);
+        when(island.getMinZ()).thenReturn(minZ);
+        when(island.getRange()).thenReturn(RANGE);
+        when(island.getWorld()).thenReturn(world);
+        when(island.getCenter()).thenReturn(new Location(world, minX + RANGE, 120, minZ + RANGE));
+        when(island.getUniqueId()).thenReturn(UUID.randomUUID().toString());
+        when(island.isOwned()).thenReturn(true);
+        when(island.getOwner()).thenReturn(owner);
+        when(island.getMemberSet()).thenReturn(ImmutableSet.of(owner));
+        when(island.inIslandSpace(anyInt(), anyInt())).thenAnswer(a -> {
+            int x = a.getArgument(0);
+            int z = a.getArgument(1);
+            return x >= minX && x < minX + SIZE && z >= minZ && z < minZ + SIZE;
+        });
+        return island;
+    }
+
+    @Test
+    public void testCellGrid() throws InterruptedException {
+        when(settings.isIslandGridCellIndex()).thenReturn(true);
+        stress();
+    }
+
+    @Test
+    public void testTreeGrid() throws InterruptedException {
+        when(settings.isIslandGridCellIndex()).thenReturn(false);
+        stress();
+    }
+
+    private void stress() throws InterruptedException {
+        cache = new IslandCache();
+        islands.forEach(list -> list.forEach(i -> assertTrue(cache.addIsland(i))));
+
+        ExecutorService executor = Executors.newFixedThreadPool(READERS + worlds.size());
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        CountDownLatch writers = new CountDownLatch(worlds.size());
+        Collection<Throwable> errors = new ConcurrentLinkedQueue<>();
+
+        // One writer per world, removing and adding the churn islands in a random order
+        for (int w = 0; w < worlds.size(); w++) {
+            List<Island> churn = islands.get(w).subList(STABLE, STABLE + CHURN);
+            long seed = w;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    Random random = new Random(seed);
+                    for (int round = 0; round < ROUNDS; round++) {
+                        Island island = churn.get(random.nextInt(CHURN));
+                        if (round % 3 == 0) {
+                            cache.deleteIslandFromCache(island);
+                        } else {
+                            cache.removeIsland(island);
+                        }
+                        cache.addIsland(island);
+                        if (round % 5 == 0) {
+                            // Move the owner around in the player index
+                            cache.addPlayer(island.getOwner(), island);
+                        }
+                    }
+                } catch (Throwable e) {
+                    errors.add(e);
+                } finally {
+                    writers.countDown();
+                }
+            });
+        }
+        // Readers check every island until the writers are done
+        for (int r = 0; r < READERS; r++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    do {
+                        for (int w = 0; w < worlds.size(); w++) {
+                            check(worlds.get(w), islands.get(w));
+                        }
+                    } while (writing.get() && errors.isEmpty());
+                } catch (Throwable e) {
+                    errors.add(e);
+                }
+            });
+        }
+        start.countDown();
+        assertTrue("Writers did not finish", writers.await(60, TimeUnit.SECONDS));
+        writing.set(false);
+        executor.shutdown();
+        assertTrue("Readers did not finish", executor.awaitTermination(60, TimeUnit.SECONDS));
+        if (!errors.isEmpty()) {
+            AssertionError error = new AssertionError(errors.size() + " errors, first is " + errors.iterator().next());
+            error.initCause(errors.iterator().next());
+            throw error;
+        }
+
+        // Every island is back in
+        assertEquals((STABLE + CHURN) * worlds.size(), cache.size());
+        assertEquals((STABLE + CHURN) * worlds.size(), cache.getIslands().size());
+        assertEquals((STABLE + CHURN) * worlds.size(), cache.getAllIslandIds().size());
+        for (int w = 0; w < worlds.size(); w++) {
+            World world = worlds.get(w);
+            assertEquals(STABLE + CHURN, cache.size(world));
+            assertEquals(new HashSet<>(islands.get(w)), new HashSet<>(cache.getIslands(world)));
+            for (Island island : islands.get(w)) {
+                assertSame(island, cache.getIslandAt(island.getCenter()));
+                assertSame(island, cache.get(island.getCenter()));
+                assertSame(island, cache.getIslandById(island.getUniqueId()));
+                assertSame(island, cache.get(world, island.getOwner()));
+            }
+        }
+    }
+
+    /**
+     * Checks what a reader sees. Stable islands must always be found. Churn islands may be missing, but
+     * no other island may be found in their place.
+     */
+    private void check(World world, List<Island> list) {
+        for (int i = 0; i < list.size(); i++) {
+            Island island = list.get(i);
+            Location center = island.getCenter();
+            if (i < STABLE) {
+                assertSame(island, cache.getIslandAt(center));
+                assertSame(island, cache.get(center));
+                assertSame(island, cache.getIslandById(island.getUniqueId()));
+                assertSame(island, cache.get(world, island.getOwner()));
+                assertTrue(cache.hasIsland(world, island.getOwner()));
+            } else {
+                assertNullOrSame(island, cache.getIslandAt(center));
+                assertNullOrSame(island, cache.get(center));
+                assertNullOrSame(island, cache.getIslandById(island.getUniqueId()));
+                assertNullOrSame(island, cache.get(world, island.getOwner()));
+            }
+        }
+        // Snapshots hold each island once and at least the stable ones
+        Collection<Island> snapshot = cache.getIslands(world);
+        assertEquals(snapshot.size(), new HashSet<>(snapshot).size());
+        assertTrue(snapshot.size() >= STABLE && snapshot.size() <= STABLE + CHURN);
+        assertTrue(snapshot.containsAll(list.subList(0, STABLE)));
+        // Nothing between the islands
+        if (cache.getIslandAt(new Location(world, -10_000, 120, -10_000)) != null) {
+            fail("Found an island where there is none");
+        }
+    }
+
+    private static void assertNullOrSame(Island expected, Island actual) {
+        if (actual != null) {
+            assertSame(expected, actual);
+        }
+    }
+
+    @Test
+    public void testRemovedIslandIsGone() {
+        when(settings.isIslandGridCellIndex()).thenReturn(true);
+        cache = new IslandCache();
+        Island island = islands.get(0).get(0);
+        assertTrue(cache.addIsland(island));
+        cache.removeIsland(island);
+        assertNull(cache.getIslandAt(island.getCenter()));
+        assertNull(cache.get(worlds.get(0), island.getOwner()));
+        assertTrue(cache.getIslands(worlds.get(0)).isEmpty());
+    }
+}
@@ -0,0 +1,197 @@
+package world.bentobox.bentobox.managers.island;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
+
+import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.database.objects.Island;
+
+/**
+ * Compares {@link CellIslandGrid} with {@link TreeIslandGrid} on random layouts.
+ */
+@RunWith(PowerMockRunner.class)
+public class IslandGridTest {
+
+    private static final int RANGE = 50;
+    private static final int SIZE = RANGE * 2;
+
+    @Mock
+    private BentoBox plugin;
+
+    private Random random;
+    private CellIslandGrid cell;
+    private TreeIslandGrid tree;
+
+    @Before
+    public void setUp() {
+        Whitebox.setInternalState(BentoBox.class, "instance", plugin);
+        // Fixed seed, so failures can be repeated
+        random = new Random(1234L);
+        cell = new CellIslandGrid();
+        tree = new TreeIslandGrid();
+    }
+
+    @After
+    public void tearDown() {
+        Whitebox.setInternalState(BentoBox.class, "instance", (BentoBox)null);
+    }
+
+    /**
+     * Makes an island whose island space starts at minX, minZ
+     */
+    private Island island(int minX, int minZ, int range) {
+        Island island = mock(Island.class);
+        when(island.getMinX()).thenReturn(minX);
+        when(island.getMinZ()).thenReturn(minZ);
+        when(island.getRange()).thenReturn(range);
+        when(island.inIslandSpace(anyInt(), anyInt())).thenAnswer(a -> {
+            int x = a.getArgument(0);
+            int z = a.getArgument(1);
+            return x >= minX && x < minX + range * 2 && z >= minZ && z < minZ + range * 2;
+        });
+        return island;
+    }
+
+    /**
+     * Makes an island in this cell of a grid with the given offset
+     */
+    private Island islandInCell(int cellX, int cellZ, int offsetX, int offsetZ) {
+        return island(cellX * SIZE + offsetX, cellZ * SIZE + offsetZ, RANGE);
+    }
+
+    private void assertSameAnswers(List<Island> islands, int queries, int spread) {
+        for (int i = 0; i < queries; i++) {
+            int x = random.nextInt(spread * 2) - spread;
+            int z = random.nextInt(spread * 2) - spread;
+            Island expected = null;
+            for (Island island : islands) {
+                if (island.inIslandSpace(x, z)) {
+                    expected = island;
+                    break;
+                }
+            }
+            assertSame("tree grid at " + x + "," + z, expected, tree.getIslandAt(x, z));
+            assertSame("cell grid at " + x + "," + z, expected, cell.getIslandAt(x, z));
+        }
+    }
+
+    /**
+     * Adds islands to both grids in random free cells, including negative ones
+     */
+    private List<Island> fill(List<Island> islands, int count, int cells, int offsetX, int offsetZ) {
+        Set<Long> used = new HashSet<>();
+        islands.forEach(i -> used.add(((long)i.getMinX() << 32) | (i.getMinZ() & 0xFFFFFFFFL)));
+        int target = islands.size() + count;
+        while (islands.size() < target) {
+            Island island = islandInCell(random.nextInt(cells * 2) - cells, random.nextInt(cells * 2) - cells, offsetX, offsetZ);
+            if (used.add(((long)island.getMinX() << 32) | (island.getMinZ() & 0xFFFFFFFFL))) {
+                assertTrue(cell.fits(island));
+                assertTrue(cell.addToGrid(island));
+                assertTrue(tree.addToGrid(island));
+                islands.add(island);
+            }
+        }
+        return islands;
+    }
+
+    private List<Island> fill(int count, int cells, int offsetX, int offsetZ) {
+        return fill(new ArrayList<>(), count, cells, offsetX, offsetZ);
+    }
+
+    @Test
+    public void testRandomLayout() {
+        List<Island> islands = fill(1000, 40, 0, 0);
+        assertEquals(islands.size(), cell.getIslands().size());
+        assertEquals(islands.size(), tree.getIslands().size());
+        assertSameAnswers(islands, 20000, 40 * SIZE + SIZE);
+    }
+
+    @Test
+    public void testRandomLayoutWithOffset() {
+        // Islands that do not start on a multiple of their size, as when the world has an offset
+        List<Island> islands = fill(500, 20, 37, -13);
+        assertSameAnswers(islands, 20000, 20 * SIZE + SIZE);
+    }
+
+    @Test
+    public void testRandomAddAndRemove() {
+        List<Island> islands = fill(1000, 30, 0, 0);
+        for (int round = 0; round < 10; round++) {
+            // Remove some islands
+            for (int i = 0; i < 50 && !islands.isEmpty(); i++) {
+                Island island = islands.remove(random.nextInt(islands.size()));
+                assertTrue(cell.removeFromGrid(island));
+                assertTrue(tree.removeFromGrid(island));
+                assertFalse(cell.removeFromGrid(island));
+                assertFalse(tree.removeFromGrid(island));
+            }
+            // Queries between the writes
+            assertSameAnswers(islands, 2000, 30 * SIZE + SIZE);
+            // Add some back in free cells
+            fill(islands, 25, 30, 0, 0);
+        }
+        assertSameAnswers(islands, 20000, 30 * SIZE + SIZE);
+        assertEquals(islands.size(), cell.getIslands().size());
+        assertEquals(islands.size(), tree.getIslands().size());
+    }
+
+    @Test
+    public void testDuplicate() {
+        Island island = islandInCell(3, -4, 0, 0);
+        Island duplicate = islandInCell(3, -4, 0, 0);
+        assertTrue(cell.addToGrid(island));
+        assertTrue(tree.addToGrid(island));
+        assertFalse(cell.addToGrid(duplicate));
+        assertFalse(tree.addToGrid(duplicate));
+        // Neither has an owner, so the first loaded stays
+        assertSame(island, cell.getIslandAt(3 * SIZE, -4 * SIZE));
+        assertSame(island, tree.getIslandAt(3 * SIZE, -4 * SIZE));
+    }
+
+    @Test
+    public void testEmpty() {
+        assertNull(cell.getIslandAt(0, 0));
+        assertNull(tree.getIslandAt(0, 0));
+        assertFalse(cell.removeFromGrid(islandInCell(0, 0, 0, 0)));
+        assertFalse(tree.removeFromGrid(islandInCell(0, 0, 0, 0)));
+    }
+
+    @Test
+    public void testFits() {
+        assertTrue(cell.addToGrid(islandInCell(0, 0, 0, 0)));
+        assertTrue(cell.fits(islandInCell(5, -5, 0, 0)));
+        // Different range
+        assertFalse(cell.fits(island(SIZE * 5, 0, RANGE + 1)));
+        // Off the grid
+        assertFalse(cell.fits(islandInCell(5, 5, 1, 0)));
+        assertFalse(cell.fits(islandInCell(5, 5, 0, 1)));
+    }
+
+    @Test
+    public void testTreeCopy() {
+        List<Island> islands = fill(200, 10, 0, 0);
+        tree = new TreeIslandGrid(cell);
+        assertEquals(islands.size(), tree.getIslands().size());
+        assertSameAnswers(islands, 5000, 10 * SIZE + SIZE);
+    }
+}
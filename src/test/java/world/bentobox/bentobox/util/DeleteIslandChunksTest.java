@@ -0,0 +1,284 @@
+package world.bentobox.bentobox.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.World.Environment;
+import org.bukkit.block.Biome;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.entity.Entity;
+import org.bukkit.generator.ChunkGenerator;
+import org.bukkit.generator.ChunkGenerator.BiomeGrid;
+import org.bukkit.generator.ChunkGenerator.ChunkData;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
+
+import io.papermc.lib.PaperLib;
+import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.Settings;
+import world.bentobox.bentobox.api.addons.GameModeAddon;
+import world.bentobox.bentobox.api.events.island.IslandDeletedEvent;
+import world.bentobox.bentobox.database.objects.Island;
+import world.bentobox.bentobox.database.objects.IslandDeletion;
+import world.bentobox.bentobox.managers.IslandWorldManager;
+
+/**
+ * Block writes needed to delete an island
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({Bukkit.class, BentoBox.class, PaperLib.class})
+public class DeleteIslandChunksTest {
+
+    private static final int MAX_HEIGHT = 256;
+    /**
+     * The island is built in the section from y = 64 to 79. Everything below and above is air.
+     */
+    private static final int ISLAND_SECTION = 4;
+    /**
+     * Island blocks in each column of the section
+     */
+    private static final int ISLAND_HEIGHT = 6;
+    /**
+     * Protection range, so the island covers 4 x 4 chunks
+     */
+    private static final int RANGE = 32;
+
+    @Mock
+    private BentoBox plugin;
+    @Mock
+    private Settings settings;
+    @Mock
+    private IslandWorldManager iwm;
+    @Mock
+    private GameModeAddon gm;
+    @Mock
+    private World world;
+    @Mock
+    private BukkitScheduler scheduler;
+    @Mock
+    private BukkitTask task;
+    @Mock
+    private PluginManager pim;
+    @Mock
+    private Block block;
+    @Mock
+    private BlockData air;
+    @Mock
+    private BlockData stone;
+
+    private IslandDeletion di;
+    /**
+     * Chunks that fail to load
+     */
+    private final List<String> failing = new ArrayList<>();
+    /**
+     * Snapshots of the loaded chunks
+     */
+    private final List<ChunkSnapshot> snapshots = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        Whitebox.setInternalState(BentoBox.class, "instance", plugin);
+        when(plugin.getSettings()).thenReturn(settings);
+        when(settings.getDeleteSpeed()).thenReturn(1);
+        when(settings.getDeleteTimeBudget()).thenReturn(5);
+        when(plugin.getIWM()).thenReturn(iwm);
+        when(iwm.getAddon(world)).thenReturn(Optional.of(gm));
+        when(iwm.getIslandDistance(world)).thenReturn(RANGE * 2);
+
+        PowerMockito.mockStatic(Bukkit.class);
+        when(Bukkit.getScheduler()).thenReturn(scheduler);
+        when(Bukkit.getPluginManager()).thenReturn(pim);
+        when(scheduler.runTaskTimer(eq(plugin), any(Runnable.class), anyLong(), anyLong())).thenReturn(task);
+
+        when(world.getName()).thenReturn("bskyblock_world");
+        when(world.getEnvironment()).thenReturn(Environment.NORMAL);
+        when(world.getMaxHeight()).thenReturn(MAX_HEIGHT);
+
+        // A void generator
+        when(air.getMaterial()).thenReturn(Material.AIR);
+        when(stone.getMaterial()).thenReturn(Material.STONE);
+        ChunkData cd = mock(ChunkData.class);
+        when(cd.getBlockData(anyInt(), anyInt(), anyInt())).thenReturn(air);
+        when(cd.getType(anyInt(), anyInt(), anyInt())).thenReturn(Material.AIR);
+        ChunkGenerator cg = mock(ChunkGenerator.class);
+        when(cg.generateChunkData(eq(world), any(Random.class), anyInt(), anyInt(), any(BiomeGrid.class))).thenReturn(cd);
+        when(gm.getDefaultWorldGenerator(anyString(), anyString())).thenReturn(cg);
+
+        PowerMockito.mockStatic(PaperLib.class);
+        when(PaperLib.isChunkGenerated(eq(world), anyInt(), anyInt())).thenReturn(true);
+        when(PaperLib.getChunkAtAsync(eq(world), anyInt(), anyInt())).thenAnswer(a -> {
+            int x = a.getArgument(1);
+            int z = a.getArgument(2);
+            CompletableFuture<Chunk> future = new CompletableFuture<>();
+            if (failing.contains(x + "," + z)) {
+                future.completeExceptionally(new IllegalStateException("Chunk is corrupt"));
+            } else {
+                future.complete(chunk(x, z));
+            }
+            return future;
+        });
+
+        Island island = mock(Island.class);
+        when(island.getWorld()).thenReturn(world);
+        when(island.getMaxEverProtectionRange()).thenReturn(RANGE);
+        when(island.getCenter()).thenReturn(new Location(world, 0, 64, 0));
+        di = new IslandDeletion(island);
+    }
+
+    @After
+    public void tearDown() {
+        Whitebox.setInternalState(BentoBox.class, "instance", (BentoBox)null);
+    }
+
+    /**
+     * A chunk with an island section of stone and air everywhere else
+     */
+    private Chunk chunk(int x, int z) {
+        Chunk chunk = mock(Chunk.class);
+        when(chunk.getX()).thenReturn(x);
+        when(chunk.getZ()).thenReturn(z);
+        when(chunk.getWorld()).thenReturn(world);
+        when(chunk.getTileEntities()).thenReturn(new BlockState[0]);
+        when(chunk.getEntities()).thenReturn(new Entity[0]);
+        when(chunk.getBlock(anyInt(), anyInt(), anyInt())).thenReturn(block);
+        ChunkSnapshot snapshot = mock(ChunkSnapshot.class);
+        when(snapshot.isSectionEmpty(anyInt())).thenAnswer(a -> a.<Integer>getArgument(0) != ISLAND_SECTION);
+        when(snapshot.getBlockData(anyInt(), anyInt(), anyInt())).thenAnswer(a -> {
+            int y = a.getArgument(1);
+            int islandY = ISLAND_SECTION * 16;
+            return y >= islandY && y < islandY + ISLAND_HEIGHT ? stone : air;
+        });
+        when(snapshot.getBiome(anyInt(), anyInt(), anyInt())).thenReturn(Biome.PLAINS);
+        when(chunk.getChunkSnapshot(false, true, false)).thenReturn(snapshot);
+        snapshots.add(snapshot);
+        return chunk;
+    }
+
+    /**
+     * Runs the deletion task until it cancels itself
+     */
+    private DeleteIslandChunks delete() {
+        DeleteIslandChunks dic = new DeleteIslandChunks(plugin, di);
+        ArgumentCaptor<Runnable> tick = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).runTaskTimer(eq(plugin), tick.capture(), anyLong(), anyLong());
+        AtomicBoolean cancelled = new AtomicBoolean();
+        doAnswer(a -> {
+            cancelled.set(true);
+            return null;
+        }).when(task).cancel();
+        for (int i = 0; i < 1000 && !cancelled.get(); i++) {
+            tick.getValue().run();
+        }
+        assertTrue("Deletion did not finish", cancelled.get());
+        return dic;
+    }
+
+    /**
+     * Number of columns of the island in one chunk
+     */
+    private int columns(int chunkX, int chunkZ) {
+        int n = 0;
+        for (int x = 0; x < 16; x++) {
+            for (int z = 0; z < 16; z++) {
+                if (di.inBounds((chunkX << 4) + x, (chunkZ << 4) + z)) {
+                    n++;
+                }
+            }
+        }
+        return n;
+    }
+
+    @Test
+    public void testBlockWritesPerIsland() {
+        DeleteIslandChunks dic = delete();
+        int chunks = 0;
+        int columns = 0;
+        for (int x = di.getMinXChunk(); x <= di.getMaxXChunk(); x++) {
+            for (int z = di.getMinZChunk(); z <= di.getMaxZChunk(); z++) {
+                chunks++;
+                columns += columns(x, z);
+            }
+        }
+        assertEquals(chunks, snapshots.size());
+        // Only the island's blocks are set
+        long expected = (long)columns * ISLAND_HEIGHT;
+        assertEquals(expected, dic.getBlockWrites());
+        // Writing every block from 0 to the max height, as deletion used to, is far more
+        assertTrue((long)columns * MAX_HEIGHT > expected * 40);
+        verify(pim).callEvent(any(IslandDeletedEvent.class));
+    }
+
+    /**
+     * Blocks in all-air sections are never looked at
+     */
+    @Test
+    public void testAirSectionsSkipped() {
+        delete();
+        for (ChunkSnapshot snapshot : snapshots) {
+            for (int y = 0; y < MAX_HEIGHT; y++) {
+                if (y >> 4 != ISLAND_SECTION) {
+                    verify(snapshot, never()).getBlockData(anyInt(), eq(y), anyInt());
+                }
+            }
+        }
+    }
+
+    /**
+     * A chunk that fails to load does not stop the deletion from finishing
+     */
+    @Test
+    public void testChunkLoadFailure() {
+        failing.add(di.getMinXChunk() + "," + di.getMinZChunk());
+        DeleteIslandChunks dic = delete();
+        verify(plugin).logError(any());
+        verify(pim, times(1)).callEvent(any(IslandDeletedEvent.class));
+        assertTrue(dic.getBlockWrites() > 0);
+    }
+
+    @Test
+    public void testKeepBlocks() {
+        when(settings.getDeleteSpeed()).thenReturn(0);
+        new DeleteIslandChunks(plugin, di);
+        verify(scheduler, never()).runTaskTimer(eq(plugin), any(Runnable.class), anyLong(), anyLong());
+        verify(pim).callEvent(any(IslandDeletedEvent.class));
+        verify(block, never()).setType(any(), eq(false));
+    }
+}